@@ -0,0 +1,22 @@
+package io.github.deynne.dbf;
+
+import java.io.IOException;
+
+import io.github.deynne.dbf.model.Linha;
+
+/**
+ * Recebe as linhas lidas junto com o nmero do registro de onde vieram.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ConsumidorDeLinha {
+
+	/**
+	 * Processa uma linha.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @param linha A {@link Linha} lida.
+	 * @throws IOException Se ocorrer problemas no processamento da linha.
+	 */
+	void consumir(long numeroDoRegistro, Linha linha) throws IOException;
+}
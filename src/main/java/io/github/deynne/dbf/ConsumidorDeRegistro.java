@@ -0,0 +1,21 @@
+package io.github.deynne.dbf;
+
+import java.io.IOException;
+
+/**
+ * Recebe registros no formato bruto, comeando pela flag de deleo, como os lidos por {@link LeitorDbf#lerRegistros(byte[], int, int)}.
+ * O array pode ser reaproveitado aps o retorno de {@link #consumir(byte[], int)}, ento os dados que precisarem ser mantidos devem ser copiados.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ConsumidorDeRegistro {
+
+	/**
+	 * Processa um registro.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio da flag de deleo do registro no array.
+	 * @throws IOException Se ocorrer problemas no processamento do registro.
+	 */
+	void consumir(byte[] registro, int offset) throws IOException;
+}
@@ -0,0 +1,332 @@
+package io.github.deynne.dbf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Calendar;
+
+import io.github.deynne.dbf.estatistica.EstatisticasDbf;
+import io.github.deynne.dbf.estatistica.FiltroDeBloomDbf;
+import io.github.deynne.dbf.estatistica.MapaDeZonas;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.ArquivoAuxiliar;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Um editor de arquivos dbf que altera os registros no prprio arquivo. Como os registros tm tamanho fixo, a posio de cada campo  calculada a partir do
+ * 	cabealho e apenas os bytes alterados so escritos, com escritas posicionais, sem a reescrita do arquivo.
+ * </p>
+ * <p>
+ * 	 possvel marcar registros como deletados, recuper-los e sobrescrever o valor de um campo. Os registros deletados continuam no arquivo at a
+ * 	compactao com {@link #compactar(File, File)}, que copia apenas os registros presentes para um novo arquivo.
+ * </p>
+ * <p>
+ * 	Ao fechar o editor, caso algum registro tenha sido alterado, a data da ltima atualizao do cabealho  definida como a data atual. Leitores abertos
+ * 	sobre o mesmo arquivo podem no ver as alteraes que j estiverem em seus buffers ou em seu {@link io.github.deynne.dbf.util.CacheDePaginas}.
+ * </p>
+ * <p>
+ * 	Como o cabealho no muda em edies feitas no mesmo dia, os arquivos auxiliares do dbf ({@link EstatisticasDbf}, {@link MapaDeZonas} e
+ * 	{@link FiltroDeBloomDbf}) continuariam sendo considerados atualizados. Eles so excludos antes da primeira alterao e novamente ao fechar o editor.
+ * </p>
+ * <pre>
+ * try(EditorDbf editor = new EditorDbf(arquivo, StandardCharsets.ISO_8859_1)) {
+ * 	editor.escreverCampo(42, "SITUACAO", "B");
+ * 	editor.deletar(43);
+ * }
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class EditorDbf implements Closeable {
+
+	/**
+	 * Tamanho padro dos blocos lidos por {@link #deletar(FiltroDeRegistro)} e {@link #compactar(File, File)} (1 MB).
+	 */
+	public static final int TAMANHO_PADRAO_DO_BLOCO = 1024 * 1024;
+
+	private File arquivo;
+	private FileChannel canal;
+	private CabecalhoDbf cabecalho;
+	private Charset charset;
+	private int tamanhoDoRegistro;
+	private long numeroDeRegistros;
+	private long registrosAlterados;
+	private boolean auxiliaresExcluidos;
+
+	/**
+	 * Construtor com o charset padro {@link StandardCharsets#UTF_8}, utilizado por {@link #escreverCampo(long, String, String)}.
+	 * @param arquivo O arquivo dbf a ser editado.
+	 * @throws IOException Se o arquivo no existir ou ocorrer problemas na leitura do cabealho.
+	 * @see #EditorDbf(File, Charset)
+	 */
+	public EditorDbf(File arquivo) throws IOException {
+		this(arquivo, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Construtor com a definio do {@link Charset}.
+	 * @param arquivo O arquivo dbf a ser editado.
+	 * @param charset O {@link Charset} utilizado na converso dos textos escritos com {@link #escreverCampo(long, String, String)}.
+	 * @throws IOException Se o arquivo no existir ou ocorrer problemas na leitura do cabealho.
+	 */
+	public EditorDbf(File arquivo, Charset charset) throws IOException {
+		try(LeitorDbf leitor = new LeitorDbf(arquivo, charset)) {
+			this.cabecalho = leitor.getCabecalho();
+		}
+		this.arquivo = arquivo;
+		this.charset = charset;
+		this.tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		this.numeroDeRegistros = cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL;
+		this.canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Indica se um registro est marcado como deletado.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @return <b>true</b> caso o registro esteja deletado.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 */
+	public boolean isDeletado(long numeroDoRegistro) throws IOException {
+		byte[] flag = new byte[1];
+		ler(getPosicaoDoRegistro(numeroDoRegistro), flag);
+		return LeitorDbf.isDeletado(flag, 0);
+	}
+
+	/**
+	 * Marca um registro como deletado.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 */
+	public void deletar(long numeroDoRegistro) throws IOException {
+		escreverFlag(numeroDoRegistro, LeitorDbf.CaracterInicial.DADO_DELETADO.getValue());
+	}
+
+	/**
+	 * Remove a marca de deleo de um registro.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 */
+	public void recuperar(long numeroDoRegistro) throws IOException {
+		escreverFlag(numeroDoRegistro, LeitorDbf.CaracterInicial.DADO_PRESENTE.getValue());
+	}
+
+	/**
+	 * <p>
+	 * 	Marca como deletados os registros presentes aceitos pelo filtro. O arquivo  lido em blocos e apenas a flag de deleo dos registros aceitos 
+	 * 	escrita.
+	 * </p>
+	 * @param filtro O {@link FiltroDeRegistro} que indica os registros a serem deletados.
+	 * @return A quantidade de registros deletados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita do arquivo.
+	 */
+	public long deletar(FiltroDeRegistro filtro) throws IOException {
+		int porBloco = Math.max(1, TAMANHO_PADRAO_DO_BLOCO / tamanhoDoRegistro);
+		byte[] bloco = new byte[porBloco * tamanhoDoRegistro];
+		byte[] deletado = { LeitorDbf.CaracterInicial.DADO_DELETADO.getValue() };
+		long deletados = 0;
+		for(long primeiro = 0; primeiro < numeroDeRegistros; primeiro += porBloco) {
+			int quantidade = (int) Math.min(porBloco, numeroDeRegistros - primeiro);
+			int lidos = ler(getPosicaoDoRegistro(primeiro), bloco, quantidade * tamanhoDoRegistro) / tamanhoDoRegistro;
+			for(int r = 0, offset = 0; r < lidos; r++, offset += tamanhoDoRegistro) {
+				if(LeitorDbf.isDeletado(bloco, offset) || !filtro.aceitar(bloco, offset)) continue;
+				escrever(getPosicaoDoRegistro(primeiro + r), deletado);
+				deletados++;
+			}
+			if(lidos < quantidade) break;
+		}
+		registrosAlterados += deletados;
+		return deletados;
+	}
+
+	/**
+	 * L o valor de um campo no formato bruto.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @param campo O nome do campo.
+	 * @return Um <b>byte</b>[ ] com os bytes do campo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws CampoDbfIlegalException Caso o campo no exista no arquivo.
+	 */
+	public byte[] lerCampo(long numeroDoRegistro, String campo) throws IOException, CampoDbfIlegalException {
+		CampoDbf campoDbf = getCampo(campo);
+		byte[] valor = new byte[campoDbf.getTamanhoDoCampo() & 0xFF];
+		ler(getPosicaoDoRegistro(numeroDoRegistro) + campoDbf.getDeslocamento(), valor);
+		return valor;
+	}
+
+	/**
+	 * Sobrescreve o valor de um campo com bytes no formato do arquivo.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @param campo O nome do campo.
+	 * @param valor Um <b>byte</b>[ ] com exatamente o tamanho do campo.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 * @throws CampoDbfIlegalException Caso o campo no exista no arquivo.
+	 */
+	public void escreverCampo(long numeroDoRegistro, String campo, byte[] valor) throws IOException, CampoDbfIlegalException {
+		CampoDbf campoDbf = getCampo(campo);
+		int tamanho = campoDbf.getTamanhoDoCampo() & 0xFF;
+		if(valor.length != tamanho) throw new IllegalArgumentException("O campo " + campo + " tem " + tamanho + " bytes, mas foram informados " + valor.length + ".");
+		escrever(getPosicaoDoRegistro(numeroDoRegistro) + campoDbf.getDeslocamento(), valor);
+		registrosAlterados++;
+	}
+
+	/**
+	 * <p>
+	 * 	Sobrescreve o valor de um campo com um texto, convertido com o charset do editor e completado com espaos at o tamanho do campo. Nos campos
+	 * 	numricos o texto  alinhado  direita e nos demais  esquerda, como nos arquivos gerados pelo dBase.
+	 * </p>
+	 * <p>
+	 * 	O texto no  validado de acordo com o tipo do campo. Os campos binrios, como {@link TiposDbf#INTEIRO}, devem ser escritos com
+	 * 	{@link #escreverCampo(long, String, byte[])}.
+	 * </p>
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @param campo O nome do campo.
+	 * @param valor O texto do campo. <b>null</b> deixa o campo vazio.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 * @throws CampoDbfIlegalException Caso o campo no exista no arquivo.
+	 */
+	public void escreverCampo(long numeroDoRegistro, String campo, String valor) throws IOException, CampoDbfIlegalException {
+		CampoDbf campoDbf = getCampo(campo);
+		if(campoDbf.getTipo() != null && campoDbf.getTipo().isBinario()) throw new IllegalArgumentException("O campo " + campo + "  binrio e no pode ser escrito como texto.");
+		byte[] texto = valor == null ? new byte[0] : valor.getBytes(charset);
+		int tamanho = campoDbf.getTamanhoDoCampo() & 0xFF;
+		if(texto.length > tamanho) throw new IllegalArgumentException("O valor '" + valor + "' excede o tamanho de " + tamanho + " bytes do campo " + campo + ".");
+
+		byte[] bytes = new byte[tamanho];
+		Arrays.fill(bytes, (byte) ' ');
+		boolean numerico = campoDbf.getTipo() == TiposDbf.NUMERICO || campoDbf.getTipo() == TiposDbf.FLUTUANTE;
+		System.arraycopy(texto, 0, bytes, numerico ? tamanho - texto.length : 0, texto.length);
+		escrever(getPosicaoDoRegistro(numeroDoRegistro) + campoDbf.getDeslocamento(), bytes);
+		registrosAlterados++;
+	}
+
+	/**
+	 * O cabealho do arquivo, lido na criao do editor.
+	 * @return O {@link CabecalhoDbf} do arquivo.
+	 */
+	public CabecalhoDbf getCabecalho() {
+		return cabecalho;
+	}
+
+	/**
+	 * A quantidade de alteraes feitas pelo editor: flags de deleo e campos escritos.
+	 * @return Um <b>long</b> com a quantidade de alteraes.
+	 */
+	public long getRegistrosAlterados() {
+		return registrosAlterados;
+	}
+
+	/**
+	 * Grava a data da ltima atualizao no cabealho, caso algum registro tenha sido alterado, e fecha o arquivo. Os arquivos auxiliares criados
+	 * enquanto o editor estava aberto tambm so excludos.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 */
+	public void close() throws IOException {
+		if(canal == null) return;
+		try {
+			if(registrosAlterados > 0) {
+				// Bytes 1-3 so a data da ltima atualizao
+				Calendar hoje = Calendar.getInstance();
+				escrever(1, new byte[] { (byte) (hoje.get(Calendar.YEAR) - 1900), (byte) (hoje.get(Calendar.MONTH) + 1), (byte) hoje.get(Calendar.DAY_OF_MONTH) });
+				excluirAuxiliares();
+			}
+		} finally {
+			canal.close();
+			canal = null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * 	Copia os registros presentes de um arquivo para um novo arquivo, descartando os deletados. Os registros so lidos em blocos e cada sequncia de
+	 * 	registros presentes  copiada de uma s vez para o {@link EscritorDbf}, que atualiza a quantidade de registros do cabealho.
+	 * </p>
+	 * <p>
+	 * 	A origem no  alterada. Para compactar um arquivo, o destino pode ser um arquivo temporrio que depois substitui a origem. Arquivos de memo
+	 * 	no so copiados.
+	 * </p>
+	 * @param origem O arquivo dbf a ser compactado.
+	 * @param destino O arquivo a ser criado. Caso exista, ser sobrescrito.
+	 * @return A quantidade de registros copiados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita dos arquivos.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro da origem esteja incompleto.
+	 */
+	public static long compactar(File origem, File destino) throws IOException, LeituraIncorretaDeCampoException {
+		if(origem.getCanonicalFile().equals(destino.getCanonicalFile())) throw new IllegalArgumentException("O destino da compactao deve ser diferente da origem.");
+		try(LeitorDbf leitor = new LeitorDbf(origem)) {
+			int tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+			int porBloco = Math.max(1, TAMANHO_PADRAO_DO_BLOCO / tamanhoDoRegistro);
+			byte[] bloco = new byte[porBloco * tamanhoDoRegistro];
+			try(EscritorDbf escritor = new EscritorDbf(destino, leitor.getCabecalho())) {
+				int quantidade;
+				while((quantidade = leitor.lerRegistros(bloco, 0, porBloco)) > 0) {
+					int inicio = 0;
+					for(int r = 0; r <= quantidade; r++) {
+						if(r < quantidade && !LeitorDbf.isDeletado(bloco, r * tamanhoDoRegistro)) continue;
+						// r encerra uma sequncia de registros presentes que comeou em inicio
+						if(r > inicio) escritor.escreverRegistros(bloco, inicio * tamanhoDoRegistro, r - inicio);
+						inicio = r + 1;
+					}
+				}
+				return escritor.getRegistrosEscritos();
+			}
+		}
+	}
+
+	private CampoDbf getCampo(String campo) throws CampoDbfIlegalException {
+		int indice = cabecalho.getIdByNome(campo);
+		if(indice < 0) throw new CampoDbfIlegalException("O campo " + campo + " no existe no arquivo.");
+		return cabecalho.getCampos()[indice];
+	}
+
+	private long getPosicaoDoRegistro(long numeroDoRegistro) {
+		if(numeroDoRegistro < 0 || numeroDoRegistro >= numeroDeRegistros) throw new IllegalArgumentException("O registro " + numeroDoRegistro + " no existe no arquivo.");
+		return (cabecalho.getTamanhoHeader() & 0xFFFF) + numeroDoRegistro * tamanhoDoRegistro;
+	}
+
+	private void escreverFlag(long numeroDoRegistro, byte flag) throws IOException {
+		escrever(getPosicaoDoRegistro(numeroDoRegistro), new byte[] { flag });
+		registrosAlterados++;
+	}
+
+	private void escrever(long posicao, byte[] dados) throws IOException {
+		if(canal == null) throw new IOException("O editor est fechado.");
+		if(!auxiliaresExcluidos) {
+			excluirAuxiliares();
+			auxiliaresExcluidos = true;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(dados);
+		while(buffer.hasRemaining()) {
+			canal.write(buffer, posicao + buffer.position());
+		}
+	}
+
+	/**
+	 * Exclui os arquivos auxiliares gravados com o cabealho lido na criao do editor, que deixam de corresponder aos registros.
+	 */
+	private void excluirAuxiliares() throws IOException {
+		ArquivoAuxiliar.excluir(arquivo, cabecalho.getImpressaoDigital(), EstatisticasDbf.EXTENSAO, MapaDeZonas.EXTENSAO, FiltroDeBloomDbf.EXTENSAO);
+	}
+
+	private void ler(long posicao, byte[] destino) throws IOException {
+		if(ler(posicao, destino, destino.length) < destino.length) throw new IOException("O arquivo terminou antes da posio " + (posicao + destino.length) + ".");
+	}
+
+	private int ler(long posicao, byte[] destino, int tamanho) throws IOException {
+		if(canal == null) throw new IOException("O editor est fechado.");
+		ByteBuffer buffer = ByteBuffer.wrap(destino, 0, tamanho);
+		while(buffer.hasRemaining()) {
+			if(canal.read(buffer, posicao + buffer.position()) < 0) break;
+		}
+		return buffer.position();
+	}
+}
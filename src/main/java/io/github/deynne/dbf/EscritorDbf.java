@@ -0,0 +1,150 @@
+package io.github.deynne.dbf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Calendar;
+
+import io.github.deynne.dbf.model.CabecalhoDbf;
+
+/**
+ * <p>
+ * 	Um escritor de arquivos dbf a partir de registros no formato bruto, como os retornados por {@link LeitorDbf#lerRegistros(byte[], int, int)}.
+ * </p>
+ * <p>
+ * 	O cabealho  copiado de um {@link CabecalhoDbf} existente. Os registros so acumulados em um buffer e gravados em blocos grandes. Ao fechar o escritor,
+ * 	o caracter de fim de arquivo  gravado e o cabealho  atualizado com a quantidade de registros escritos e a data atual.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class EscritorDbf implements Closeable {
+
+	/**
+	 * Tamanho padro do buffer de escrita (1 MB).
+	 */
+	public static final int TAMANHO_PADRAO_DO_BUFFER = 1024 * 1024;
+
+	private FileChannel canal;
+	private ByteBuffer buffer;
+	private CabecalhoDbf cabecalho;
+	private int tamanhoDoRegistro;
+	private long registrosEscritos;
+
+	/**
+	 * Construtor com o tamanho de buffer padro.
+	 * @param destino O arquivo a ser criado. Caso exista, ser sobrescrito.
+	 * @param cabecalho O {@link CabecalhoDbf} com a estrutura dos registros que sero escritos.
+	 * @throws IOException Se ocorrer problemas na criao do arquivo.
+	 * @see #EscritorDbf(File, CabecalhoDbf, int)
+	 */
+	public EscritorDbf(File destino, CabecalhoDbf cabecalho) throws IOException {
+		this(destino, cabecalho, TAMANHO_PADRAO_DO_BUFFER);
+	}
+
+	/**
+	 * Construtor com a definio do tamanho do buffer de escrita.
+	 * @param destino O arquivo a ser criado. Caso exista, ser sobrescrito.
+	 * @param cabecalho O {@link CabecalhoDbf} com a estrutura dos registros que sero escritos.
+	 * @param tamanhoDoBuffer A quantidade de bytes acumulada antes de cada escrita no arquivo.
+	 * @throws IOException Se ocorrer problemas na criao do arquivo.
+	 */
+	public EscritorDbf(File destino, CabecalhoDbf cabecalho, int tamanhoDoBuffer) throws IOException {
+		this.cabecalho = cabecalho;
+		this.tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		this.buffer = ByteBuffer.allocateDirect(Math.max(tamanhoDoBuffer, tamanhoDoRegistro));
+		this.canal = FileChannel.open(destino.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+		ByteBuffer bytesDoCabecalho = ByteBuffer.wrap(cabecalho.getBytes());
+		while(bytesDoCabecalho.hasRemaining()) {
+			canal.write(bytesDoCabecalho);
+		}
+	}
+
+	/**
+	 * Escreve um registro no formato bruto.
+	 * @param registro O array contendo o registro, comeando pela flag de deleo.
+	 * @param offset A posio do registro no array.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 */
+	public void escreverRegistro(byte[] registro, int offset) throws IOException {
+		escreverRegistros(registro, offset, 1);
+	}
+
+	/**
+	 * Escreve uma sequncia de registros contguos no formato bruto.
+	 * @param registros O array contendo os registros.
+	 * @param offset A posio do primeiro registro no array.
+	 * @param quantidade A quantidade de registros a ser escrita.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 */
+	public void escreverRegistros(byte[] registros, int offset, int quantidade) throws IOException {
+		int restante = quantidade * tamanhoDoRegistro;
+		while(restante > 0) {
+			if(!buffer.hasRemaining()) descarregar();
+			int copiar = Math.min(restante, buffer.remaining());
+			buffer.put(registros, offset, copiar);
+			offset += copiar;
+			restante -= copiar;
+		}
+		registrosEscritos += quantidade;
+	}
+
+	/**
+	 * A quantidade de registros escritos at o momento.
+	 * @return Um <b>long</b> com a quantidade de registros escritos.
+	 */
+	public long getRegistrosEscritos() {
+		return registrosEscritos;
+	}
+
+	/**
+	 * O cabealho utilizado como base para o arquivo.
+	 * @return O {@link CabecalhoDbf} informado na criao do escritor.
+	 */
+	public CabecalhoDbf getCabecalho() {
+		return cabecalho;
+	}
+
+	/**
+	 * Grava os registros pendentes e o caracter de fim de arquivo, atualiza o cabealho e fecha o arquivo.
+	 * @throws IOException Se ocorrer problemas na escrita do arquivo.
+	 */
+	public void close() throws IOException {
+		if(canal == null) return;
+		try {
+			if(!buffer.hasRemaining()) descarregar();
+			buffer.put(CabecalhoDbf.caracterDeFimDeArquivo);
+			descarregar();
+
+			if(registrosEscritos > 0xFFFFFFFFL) throw new IOException("Foram escritos " + registrosEscritos + " registros, mas o dbf suporta no mximo " + 0xFFFFFFFFL + ".");
+
+			// Bytes 1-3 so a data da ltima atualizao e 4-7 a quantidade de registros
+			Calendar hoje = Calendar.getInstance();
+			ByteBuffer atualizacao = ByteBuffer.allocate(7).order(ByteOrder.LITTLE_ENDIAN);
+			atualizacao.put((byte) (hoje.get(Calendar.YEAR) - 1900));
+			atualizacao.put((byte) (hoje.get(Calendar.MONTH) + 1));
+			atualizacao.put((byte) hoje.get(Calendar.DAY_OF_MONTH));
+			atualizacao.putInt((int) registrosEscritos);
+			atualizacao.flip();
+			while(atualizacao.hasRemaining()) {
+				canal.write(atualizacao, 1 + atualizacao.position());
+			}
+		} finally {
+			canal.close();
+			canal = null;
+		}
+	}
+
+	private void descarregar() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			canal.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,19 @@
+package io.github.deynne.dbf;
+
+/**
+ * Um filtro aplicado aos registros no formato bruto, antes de qualquer converso dos campos.
+ * Os campos podem ser localizados no registro com {@link io.github.deynne.dbf.model.CampoDbf#getDeslocamento()}.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface FiltroDeRegistro {
+
+	/**
+	 * Indica se o registro deve ser processado.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio da flag de deleo do registro no array.
+	 * @return <b>true</b> caso o registro deva ser processado.
+	 */
+	boolean aceitar(byte[] registro, int offset);
+}
@@ -8,14 +8,25 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+import io.github.deynne.dbf.exceptions.ErroDeLeitura;
 import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.exceptions.TratadorDeErros;
 import io.github.deynne.dbf.model.CabecalhoDbf;
 import io.github.deynne.dbf.model.Campo;
 import io.github.deynne.dbf.model.CampoDbf;
 import io.github.deynne.dbf.model.Linha;
+import io.github.deynne.dbf.reativo.Publicador;
+import io.github.deynne.dbf.reativo.PublicadorDbf;
+import io.github.deynne.dbf.util.CacheDePaginas;
+import io.github.deynne.dbf.util.PoolDeBuffers;
 
 /**
  * Um leitor simplificado para arquivos dbf. A partir dele  possvel ler o arquivo e todas as linhas contidas nele como um {@link Campo}, assim como obter os dados
@@ -27,14 +38,39 @@ public class LeitorDbf implements Closeable{
 
 	private InputStream inputStream;
 	private DataInputStream dbfStream;
+	/**
+	 * Canal sobre o mesmo stream, utilizado para ler cada registro inteiro de uma vez.
+	 */
+	private ReadableByteChannel canal;
+	private PoolDeBuffers pool;
+	/**
+	 * Buffer que recebe o registro sendo lido. Obtido do pool na primeira leitura e devolvido no {@link #close()}. Fica fora da heap, exceto quando o
+	 * pool entrega um buffer na heap porque o tempo mximo de espera se esgotou.
+	 */
+	private ByteBuffer bufferDoRegistro;
+	/**
+	 * Canal do arquivo quando o leitor  criado a partir de um {@link File} ou {@link FileInputStream}. Permite o acesso aleatrio aos registros.
+	 */
+	private FileChannel canalDoArquivo;
+	private CacheDePaginas cacheDePaginas;
 	/**
 	 * O charset a ser utilizado na converso dos dados para string.
 	 */
 	private Charset charset;
 	private CabecalhoDbf cabecalho;
 	private int recordsLidos;
+	/**
+	 * Indica que o caracter de fim de arquivo foi encontrado durante a leitura em blocos.
+	 */
+	private boolean fimDosRegistros;
+	/**
+	 * Tratador dos erros do modo tolerante. <b>null</b> indica o modo estrito, em que os erros so lanados como excees.
+	 */
+	private TratadorDeErros tratadorDeErros;
+	private byte[] bufferDeDescarte;
+	private final long[] erros = new long[ErroDeLeitura.values().length];
 	
-	private enum CaracterInicial {
+	enum CaracterInicial {
 		DADO_DELETADO((byte)0x2A), // equivale ao caracter '*'
 		DADO_PRESENTE((byte)0x20); // equivale ao caracter ' '
 		
@@ -110,24 +146,88 @@ public class LeitorDbf implements Closeable{
 	 * @see #LeitorDbf(File, Charset)
 	 * @see #LeitorDbf(InputStream)
 	 * @see #LeitorDbf(File)
+	 * @see #LeitorDbf(InputStream, Charset, PoolDeBuffers)
 	 */
 	public LeitorDbf(InputStream stream, Charset charset) {
+		this(stream,charset,PoolDeBuffers.getPadrao());
+	}
+	
+	/**
+	 * <p>
+	 * 	Construtor baseado em stream de dados com a definio do pool de buffers utilizado na leitura dos registros.
+	 * </p>
+	 * <p>
+	 * 	Os demais construtores utilizam o {@link PoolDeBuffers#getPadrao() pool padro}, compartilhado entre todos os leitores.
+	 * </p>
+	 * @param stream A stream do arquivo dbf que ser lido.
+	 * @param charset O charset a ser utilizado na converso dos dados para string.
+	 * @param pool O {@link PoolDeBuffers} do qual ser obtido o buffer de leitura dos registros.
+	 * 
+	 * @see #LeitorDbf(InputStream, Charset)
+	 */
+	public LeitorDbf(InputStream stream, Charset charset, PoolDeBuffers pool) {
+		this(stream, charset, pool, null);
+	}
+	
+	/**
+	 * <p>
+	 * 	Construtor baseado em objetos do tipo {@link File} no modo tolerante, em que os erros de leitura, inclusive os do cabealho, so informados ao
+	 * 	tratador em vez de lanados.
+	 * </p>
+	 * @param file Um file indicando o arquivo dbf a ser lido
+	 * @param charset O charset a ser utilizado na converso dos dados para string.
+	 * @param tratadorDeErros O {@link TratadorDeErros} que receber os erros.
+	 * @throws FileNotFoundException Caso o arquivo no exista.
+	 * @see #setTratadorDeErros(TratadorDeErros)
+	 */
+	public LeitorDbf(File file, Charset charset, TratadorDeErros tratadorDeErros) throws FileNotFoundException {
+		this(new FileInputStream(file), charset, PoolDeBuffers.getPadrao(), tratadorDeErros);
+	}
+	
+	/**
+	 * <p>
+	 * 	Construtor baseado em stream de dados com a definio do pool de buffers e do tratador de erros.
+	 * </p>
+	 * @param stream A stream do arquivo dbf que ser lido.
+	 * @param charset O charset a ser utilizado na converso dos dados para string.
+	 * @param pool O {@link PoolDeBuffers} do qual ser obtido o buffer de leitura dos registros.
+	 * @param tratadorDeErros O {@link TratadorDeErros} do modo tolerante ou <b>null</b> para o modo estrito.
+	 * @see #setTratadorDeErros(TratadorDeErros)
+	 */
+	public LeitorDbf(InputStream stream, Charset charset, PoolDeBuffers pool, TratadorDeErros tratadorDeErros) {
 		inputStream = stream;
 		dbfStream = new DataInputStream(stream);
 		this.charset = charset;
+		this.pool = pool;
+		this.tratadorDeErros = tratadorDeErros;
 		
 		cabecalho = new CabecalhoDbf();
-		cabecalho.buildCabecalho(dbfStream,charset);
+		cabecalho.buildCabecalho(dbfStream, charset, (erro, numeroDoRegistro, posicao, campo, causa) -> registrarErro(erro, -1, campo, causa));
+		
+		// O DataInputStream no possui buffer prprio, ento o canal e o stream compartilham a mesma posio de leitura.
+		// Para arquivos o canal do prprio FileInputStream permite a leitura direta para o buffer fora da heap.
+		if(stream instanceof FileInputStream) {
+			canalDoArquivo = ((FileInputStream) stream).getChannel();
+			canal = canalDoArquivo;
+		}
+		else {
+			canal = Channels.newChannel(stream);
+		}
 	}
 	
 	
 	/**
-	 * Fecha a os streams de dados
+	 * Fecha a os streams de dados e devolve o buffer de leitura ao pool.
 	 * @throws IOException Se ocorrer problemas ao fechar o stream de dados
 	 */
 	public void close() throws IOException {
-		dbfStream.close();
-		inputStream.close();
+		try {
+			dbfStream.close();
+			inputStream.close();
+		} finally {
+			pool.devolver(bufferDoRegistro);
+			bufferDoRegistro = null;
+		}
 	}
 
 	/**
@@ -162,6 +262,197 @@ public class LeitorDbf implements Closeable{
 	 * @throws LeituraIncorretaDeCampoException Caso a leitura de um campo seja feita de forma incorreta
 	 */
 	public Linha proximosRegistros() throws LeituraIncorretaDeCampoException {
+		int flag;
+		try {
+			flag = lerFlagDoRegistro();
+		} catch (IOException e) {
+			return falhaDeLeitura(recordsLidos, e);
+		}
+		if(flag < 0) return null;
+		// A partir daqui  segudo dizer que h uma linha para ser lida. Ento incrementa o contador de registros lidos
+		long numeroDoRegistro = recordsLidos++;
+		int bytesLidos;
+		try {
+			// L o restante do registro de uma s vez para o buffer e realiza a leitura de cada coluna
+			bytesLidos = lerRegistro((byte) flag);
+		} catch (IOException e) {
+			return falhaDeLeitura(numeroDoRegistro, e);
+		}
+		if(tratadorDeErros != null && bytesLidos < (cabecalho.getTamanhoDoRegistro() & 0xFFFF)) {
+			registrarErro(ErroDeLeitura.REGISTRO_INCOMPLETO, numeroDoRegistro, getCampoIncompleto(cabecalho, bytesLidos), null);
+			return null;
+		}
+		try {
+			return montarLinha(cabecalho, charset, copiarRegistro(bytesLidos), bytesLidos);
+		} catch (LeituraIncorretaDeCampoException e) {
+			throw new LeituraIncorretaDeCampoException("Erro de leitura de campo na linha " + recordsLidos + ".", e);
+		}
+	}
+	
+	/**
+	 * Trata uma falha de entrada e sada durante a leitura sequencial: no modo tolerante informa o tratador e encerra a leitura, no modo estrito lana a exceo.
+	 */
+	private Linha falhaDeLeitura(long numeroDoRegistro, IOException e) throws LeituraIncorretaDeCampoException {
+		if(tratadorDeErros == null) throw new LeituraIncorretaDeCampoException("Falha na leitura do registro " + (numeroDoRegistro + 1) + ".", e);
+		registrarErro(ErroDeLeitura.FALHA_DE_LEITURA, numeroDoRegistro, null, e);
+		fimDosRegistros = true;
+		return null;
+	}
+	
+	/**
+	 * <p>
+	 * 	L um bloco de registros no formato bruto, sem a criao de {@link Linha} ou {@link Campo}. Cada registro ocupa {@link CabecalhoDbf#getTamanhoDoRegistro()}
+	 * 	bytes em <b>destino</b>, comeando pela flag de deleo, e os campos podem ser localizados com {@link CampoDbf#getDeslocamento()}.
+	 * </p>
+	 * <p>
+	 * 	Os registros deletados tambm so retornados e podem ser identificados com {@link #isDeletado(byte[], int)}. A leitura continua do ponto onde a
+	 * 	leitura anterior parou e pode ser intercalada com {@link #proximosRegistros()}.
+	 * </p>
+	 * @param destino O array que receber os registros.
+	 * @param offset A posio em <b>destino</b> onde o primeiro registro ser escrito.
+	 * @param quantidade A quantidade mxima de registros a ser lida.
+	 * @return A quantidade de registros lidos. 0 indica que no h mais registros no arquivo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso um registro esteja incompleto ou no comece com uma flag de deleo vlida. No modo tolerante esses
+	 * registros so informados ao {@link TratadorDeErros} e permanecem no bloco marcados como deletados, de forma que a posio de cada registro no bloco
+	 * continua correspondendo ao seu nmero no arquivo.
+	 */
+	public int lerRegistros(byte[] destino, int offset, int quantidade) throws IOException, LeituraIncorretaDeCampoException {
+		if(quantidade <= 0 || fimDosRegistros) return 0;
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		// No modo tolerante a flag do primeiro registro tambm  verificada por marcarInvalidos, sem que o registro seja pulado
+		int flag = tratadorDeErros != null ? dbfStream.read() : lerFlagDoRegistro();
+		if(flag < 0) {
+			fimDosRegistros = true;
+			return 0;
+		}
+		destino[offset] = (byte) flag;
+		
+		// Aps o primeiro registro os demais so contguos, ento o restante do bloco  lido de uma s vez
+		ByteBuffer buffer = ByteBuffer.wrap(destino, offset + 1, quantidade * tamanhoDoRegistro - 1);
+		while(buffer.hasRemaining()) {
+			if(canal.read(buffer) < 0) break;
+		}
+		int bytesLidos = buffer.position() - offset;
+		if(tratadorDeErros != null) return marcarInvalidos(destino, offset, bytesLidos, tamanhoDoRegistro);
+		
+		int registros = 0;
+		for(int completos = bytesLidos / tamanhoDoRegistro; registros < completos; registros++) {
+			if(!isFlagValida(destino[offset + registros * tamanhoDoRegistro])) break;
+		}
+		recordsLidos += registros;
+		
+		if(registros * tamanhoDoRegistro < bytesLidos) {
+			byte b = destino[offset + registros * tamanhoDoRegistro];
+			if(b != CabecalhoDbf.caracterDeFimDeArquivo && b != CabecalhoDbf.caracterDeTermino) 
+				throw new LeituraIncorretaDeCampoException("O registro " + (recordsLidos + 1) + " est incompleto ou no comea com uma flag de deleo vlida.");
+			fimDosRegistros = true;
+		}
+		return registros;
+	}
+	
+	/**
+	 * <p>
+	 * 	L um bloco de registros no formato bruto a partir de um nmero de registro, sem alterar a posio da leitura sequencial e sem passar pelo cache
+	 * 	de pginas.  indicado para a leitura de trechos grandes e distantes do arquivo, como os blocos selecionados por um mapa de zonas.
+	 * </p>
+	 * <p>
+	 * 	Os registros deletados tambm so retornados. Disponvel apenas para leitores criados a partir de um {@link File} ou {@link FileInputStream}.
+	 * </p>
+	 * @param primeiro O nmero do primeiro registro, comeando em 0.
+	 * @param destino O array que receber os registros.
+	 * @param offset A posio em <b>destino</b> onde o primeiro registro ser escrito.
+	 * @param quantidade A quantidade mxima de registros a ser lida.
+	 * @return A quantidade de registros completos lidos, limitada  quantidade de registros informada no cabealho.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws UnsupportedOperationException Caso o leitor no tenha sido criado a partir de um arquivo.
+	 */
+	public int lerRegistros(long primeiro, byte[] destino, int offset, int quantidade) throws IOException {
+		if(canalDoArquivo == null) throw new UnsupportedOperationException("O acesso aleatrio aos registros s  possvel para leitores criados a partir de arquivos.");
+		long restantes = (cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL) - primeiro;
+		if(primeiro < 0 || restantes <= 0 || quantidade <= 0) return 0;
+		quantidade = (int) Math.min(quantidade, restantes);
+		
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		long posicao = getPosicaoDoRegistro(primeiro);
+		ByteBuffer buffer = ByteBuffer.wrap(destino, offset, quantidade * tamanhoDoRegistro);
+		while(buffer.hasRemaining()) {
+			int lidos = canalDoArquivo.read(buffer, posicao);
+			if(lidos < 0) break;
+			posicao += lidos;
+		}
+		return (buffer.position() - offset) / tamanhoDoRegistro;
+	}
+	
+	/**
+	 * Marca como deletados os registros do bloco lido que no comeam com uma flag de deleo vlida, informando-os ao tratador de erros, e identifica o
+	 * fim dos registros. Os registros no so movidos, para que a posio no bloco continue indicando o nmero do registro.
+	 * @return A quantidade de registros do bloco, incluindo os marcados.
+	 */
+	private int marcarInvalidos(byte[] destino, int offset, int bytesLidos, int tamanhoDoRegistro) {
+		int completos = bytesLidos / tamanhoDoRegistro;
+		int r = 0;
+		for(; r < completos; r++) {
+			int posicao = offset + r * tamanhoDoRegistro;
+			byte flag = destino[posicao];
+			if(isFlagValida(flag)) continue;
+			if(flag == CabecalhoDbf.caracterDeFimDeArquivo || flag == CabecalhoDbf.caracterDeTermino) {
+				fimDosRegistros = true;
+				break;
+			}
+			registrarErro(ErroDeLeitura.FLAG_INVALIDA, recordsLidos + r, null, null);
+			destino[posicao] = CaracterInicial.DADO_DELETADO.getValue();
+		}
+		recordsLidos += r;
+		
+		if(!fimDosRegistros && completos * tamanhoDoRegistro < bytesLidos) {
+			byte flag = destino[offset + completos * tamanhoDoRegistro];
+			if(flag != CabecalhoDbf.caracterDeFimDeArquivo && flag != CabecalhoDbf.caracterDeTermino) 
+				registrarErro(ErroDeLeitura.REGISTRO_INCOMPLETO, recordsLidos++, getCampoIncompleto(cabecalho, bytesLidos - completos * tamanhoDoRegistro), null);
+			fimDosRegistros = true;
+		}
+		return r;
+	}
+	
+	/**
+	 * O primeiro campo que no est completo em um registro lido parcialmente.
+	 * @param bytesLidos A quantidade de bytes do registro lidos, incluindo a flag de deleo.
+	 * @return O {@link CampoDbf} ou <b>null</b> caso apenas a flag de deleo esteja incompleta.
+	 */
+	static CampoDbf getCampoIncompleto(CabecalhoDbf cabecalho, int bytesLidos) {
+		for(CampoDbf campo : cabecalho.getCampos()) {
+			if(campo.getDeslocamento() + (campo.getTamanhoDoCampo() & 0xFF) > bytesLidos) return campo;
+		}
+		return null;
+	}
+	
+	private void registrarErro(ErroDeLeitura erro, long numeroDoRegistro, CampoDbf campo, IOException causa) {
+		erros[erro.ordinal()]++;
+		long posicao = numeroDoRegistro < 0 ? -1 : getPosicaoDoRegistro(numeroDoRegistro);
+		(tratadorDeErros == null ? TratadorDeErros.IMPRIMIR : tratadorDeErros).tratar(erro, numeroDoRegistro, posicao, campo, causa);
+	}
+	
+	/**
+	 * Indica se o registro em formato bruto est marcado como deletado.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio da flag de deleo do registro no array.
+	 * @return <b>true</b> caso o registro esteja marcado como deletado.
+	 * @see #lerRegistros(byte[], int, int)
+	 */
+	public static boolean isDeletado(byte[] registro, int offset) {
+		return registro[offset] == CaracterInicial.DADO_DELETADO.getValue();
+	}
+	
+	private static boolean isFlagValida(byte flag) {
+		return flag == CaracterInicial.DADO_PRESENTE.getValue() || flag == CaracterInicial.DADO_DELETADO.getValue();
+	}
+	
+	/**
+	 * Avana at a flag de deleo do prximo registro.
+	 * @return A flag do registro ou -1 caso no exista mais registro para ser lido.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 */
+	private int lerFlagDoRegistro() throws IOException {
 		// Se Por algum motivo houveram caracteres sobrando aps o cabealho, pula eles. Em geral vai pular apenas o caracter de "presente ou deletado"
 		try {
 			byte temp_b;
@@ -169,56 +460,234 @@ public class LeitorDbf implements Closeable{
 				temp_b = dbfStream.readByte();
 				// Pode ser que ja tenha terminado o arquivo, nesse caso retorna para indicar que no h mais nada para ler
 				if(temp_b == CabecalhoDbf.caracterDeTermino) 
-					return null;
+					return -1;
+				// No modo tolerante o registro invlido  descartado inteiro, mantendo o alinhamento com os registros seguintes
+				if(tratadorDeErros != null && !isFlagValida(temp_b)) {
+					if(temp_b == CabecalhoDbf.caracterDeFimDeArquivo) return -1;
+					registrarErro(ErroDeLeitura.FLAG_INVALIDA, recordsLidos++, null, null);
+					dbfStream.readFully(getBufferDeDescarte(), 0, (cabecalho.getTamanhoDoRegistro() & 0xFFFF) - 1);
+				}
 //				else if(temp_b == CaracterInicial.DADO_DELETADO.getValue()) dbfStream.skip(cabecalho.getTamanhoDoRegistro()-1);
 				
-			}while(temp_b != CaracterInicial.DADO_PRESENTE.getValue() && temp_b != CaracterInicial.DADO_DELETADO.getValue());
+			}while(!isFlagValida(temp_b));
+			return temp_b;
 		} catch(EOFException e) {
-			return null; // Em caso de leitura posterior ao caracter de termino, retornar null para indicar fim do arquivo
-		}
-		catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			return -1; // Em caso de leitura posterior ao caracter de termino, retornar -1 para indicar fim do arquivo
 		}
-		// A partir daqui  segudo dizer que h uma linha para ser lida e no haver problema na leitura. Ento incrementa o contador de registros lidos
-		Linha listaDeRegistros = new Linha(charset);
-		recordsLidos++;
+	}
+	
+	/**
+	 * <p>
+	 * 	Recupera um registro a partir do seu nmero, sem alterar a posio da leitura sequencial feita por {@link #proximosRegistros()}.
+	 * </p>
+	 * <p>
+	 * 	A posio do registro  calculada como {@link CabecalhoDbf#getTamanhoHeader()} + nmero * {@link CabecalhoDbf#getTamanhoDoRegistro()} e a leitura
+	 * 	passa por um cache LRU de pginas do arquivo, de forma que consultas repetidas aos mesmos registros no acessam o disco.
+	 * 	O cache pode ser configurado com {@link #configurarCache(int, int)}.
+	 * </p>
+	 * <p>
+	 * 	Disponvel apenas para leitores criados a partir de um {@link File} ou {@link FileInputStream}.
+	 * </p>
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @return Uma {@link Linha} com os dados do registro, inclusive se ele estiver marcado como deletado, ou <b>null</b> caso o nmero esteja fora do intervalo
+	 * de registros do arquivo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso o registro esteja incompleto no arquivo.
+	 * @throws UnsupportedOperationException Caso o leitor no tenha sido criado a partir de um arquivo.
+	 */
+	public Linha getRegistro(long numeroDoRegistro) throws IOException, LeituraIncorretaDeCampoException {
+		if(canalDoArquivo == null) throw new UnsupportedOperationException("O acesso aleatrio aos registros s  possvel para leitores criados a partir de arquivos.");
+		if(numeroDoRegistro < 0 || numeroDoRegistro >= (cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL)) return null;
+		
+		if(cacheDePaginas == null) cacheDePaginas = new CacheDePaginas(canalDoArquivo);
+		
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		byte[] registro = new byte[tamanhoDoRegistro];
+		int bytesLidos = cacheDePaginas.ler(getPosicaoDoRegistro(numeroDoRegistro), registro, 0, tamanhoDoRegistro);
+		
 		try {
-			
-			// Realiza a leitura de cada coluna e adiciona a lista de registros
-			for(int i = 0; i < cabecalho.getNumCampos();i++) {
-				listaDeRegistros.getColunas().add(new Campo(cabecalho.getCampos()[i].getNome(),getValorCampo(cabecalho.getCampos()[i]),cabecalho.getCampos()[i].getTipo(),charset));
-			}
+			return montarLinha(cabecalho, charset, registro, bytesLidos);
 		} catch (LeituraIncorretaDeCampoException e) {
-			throw new LeituraIncorretaDeCampoException("Erro de leitura de campo na linha " + recordsLidos + ".", e);
+			throw new LeituraIncorretaDeCampoException("Erro de leitura de campo no registro " + numeroDoRegistro + ".", e);
 		}
-		
-		return listaDeRegistros;
 	}
 	
 	/**
-	 * L o campo definido no parmetro para a linha atualmente sendo lida no arquivo dbf.
-	 * @param campoDbf O campo do qual se espera obter o valor
-	 * @return Um array de <b>bytes</b> contendo os dados do campo.
-	 * @throws LeituraIncorretaDeCampoException caso o numero de bytes lidos para o campo seja diferente do nmero de bytes presentes no campo.
+	 * <p>
+	 * 	Define o cache de pginas utilizado por {@link #getRegistro(long)}. As pginas j em cache so descartadas.
+	 * </p>
+	 * <p>
+	 * 	Por padro so mantidas {@value CacheDePaginas#MAXIMO_PADRAO_DE_PAGINAS} pginas de {@value CacheDePaginas#TAMANHO_PADRAO_DA_PAGINA} bytes.
+	 * </p>
+	 * @param tamanhoDaPagina A quantidade de bytes de cada pgina.
+	 * @param maximoDePaginas A quantidade mxima de pginas mantidas em memria.
+	 * @throws UnsupportedOperationException Caso o leitor no tenha sido criado a partir de um arquivo.
 	 */
-	private byte[] getValorCampo(CampoDbf campoDbf) throws LeituraIncorretaDeCampoException {
-		try {
-		int bytesLidos = 0;
-		byte byteArray[] = new byte[campoDbf.getTamanhoDoCampo()];
-		
-			bytesLidos += dbfStream.read(byteArray);
-			
-			if(bytesLidos < campoDbf.getTamanhoDoCampo()) throw new LeituraIncorretaDeCampoException("Foram lidos " + bytesLidos + " bytes do campo " + campoDbf.getNome() + ", mas era esperada a leitura de " + campoDbf.getTamanhoDoCampo() + " bytes.");
-			return byteArray;
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+	public void configurarCache(int tamanhoDaPagina, int maximoDePaginas) {
+		if(canalDoArquivo == null) throw new UnsupportedOperationException("O acesso aleatrio aos registros s  possvel para leitores criados a partir de arquivos.");
+		cacheDePaginas = new CacheDePaginas(canalDoArquivo, tamanhoDaPagina, maximoDePaginas);
+	}
+	
+	/**
+	 * O cache de pginas utilizado por {@link #getRegistro(long)}.
+	 * @return O {@link CacheDePaginas} do leitor ou <b>null</b> caso nenhum registro tenha sido acessado ou o cache no tenha sido configurado.
+	 */
+	public CacheDePaginas getCacheDePaginas() {
+		return cacheDePaginas;
+	}
+	
+	/**
+	 * A posio no arquivo do primeiro byte de um registro.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @return Um <b>long</b> com a posio da flag de deleo do registro.
+	 */
+	public long getPosicaoDoRegistro(long numeroDoRegistro) {
+		return (cabecalho.getTamanhoHeader() & 0xFFFF) + numeroDoRegistro * (cabecalho.getTamanhoDoRegistro() & 0xFFFF);
+	}
+	
+	/**
+	 * Monta uma {@link Linha} a partir de um registro completo, com a flag de deleo na posio 0. Os campos so decodificados pela linha apenas quando
+	 * acessados.
+	 * @param cabecalho O cabealho do arquivo do registro.
+	 * @param charset O charset utilizado na converso dos campos para string.
+	 * @param registro O registro, que passa a pertencer  linha.
+	 * @param bytesLidos A quantidade de bytes do registro lidos do arquivo.
+	 * @return A {@link Linha} com os campos do registro.
+	 * @throws LeituraIncorretaDeCampoException Caso o registro termine antes de algum campo.
+	 */
+	static Linha montarLinha(CabecalhoDbf cabecalho, Charset charset, byte[] registro, int bytesLidos) throws LeituraIncorretaDeCampoException {
+		CampoDbf incompleto = getCampoIncompleto(cabecalho, bytesLidos);
+		if(incompleto != null) {
+			int tamanho = incompleto.getTamanhoDoCampo() & 0xFF;
+			int disponivel = Math.max(0, Math.min(tamanho, bytesLidos - incompleto.getDeslocamento()));
+			throw new LeituraIncorretaDeCampoException("Foram lidos " + disponivel + " bytes do campo " + incompleto.getNome() + ", mas era esperada a leitura de " + tamanho + " bytes.");
 		}
-		
-		return null;
+		return new Linha(registro, cabecalho, charset);
 	}
-
+	
+	/**
+	 * Copia o registro atual do buffer do registro, que  reaproveitado nas leituras seguintes. Como a {@link Linha} continua vlida aps a prxima
+	 * leitura, cada registro lido por {@link #proximosRegistros()}  copiado uma vez para a heap. A leitura sem cpias por registro  a de
+	 * {@link #lerRegistros(byte[], int, int)}, que entrega vrios registros de uma vez no array informado.
+	 * @param bytesLidos A quantidade de bytes do registro presentes no buffer.
+	 * @return Um <b>byte</b>[ ] do tamanho do registro.
+	 */
+	private byte[] copiarRegistro(int bytesLidos) {
+		byte[] registro = new byte[cabecalho.getTamanhoDoRegistro() & 0xFFFF];
+		ByteBuffer buffer = getBufferDoRegistro();
+		buffer.flip();
+		buffer.get(registro, 0, bytesLidos);
+		return registro;
+	}
+	
+	/**
+	 * L os bytes do registro atual que seguem a flag de deleo para o buffer do registro.
+	 * @param flag A flag de deleo do registro, que j foi consumida do stream.
+	 * @return A quantidade de bytes do registro disponveis no buffer, incluindo a flag de deleo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 */
+	private int lerRegistro(byte flag) throws IOException {
+		ByteBuffer buffer = getBufferDoRegistro();
+		buffer.clear();
+		buffer.limit(cabecalho.getTamanhoDoRegistro() & 0xFFFF);
+		buffer.put(flag);
+		while(buffer.hasRemaining()) {
+			if(canal.read(buffer) < 0) break;
+		}
+		return buffer.position();
+	}
+	
+	/**
+	 * Um array do tamanho do registro para descartar os registros invlidos no modo tolerante.
+	 */
+	private byte[] getBufferDeDescarte() {
+		if(bufferDeDescarte == null) bufferDeDescarte = new byte[cabecalho.getTamanhoDoRegistro() & 0xFFFF];
+		return bufferDeDescarte;
+	}
+	
+	/**
+	 * Obtm o buffer do registro, solicitando-o ao pool na primeira leitura. O pool no bloqueia a leitura indefinidamente: esgotado o seu tempo mximo
+	 * de espera, entrega um buffer na heap.
+	 * @return O {@link ByteBuffer} utilizado para a leitura dos registros.
+	 */
+	private ByteBuffer getBufferDoRegistro() {
+		if(bufferDoRegistro == null) {
+			try {
+				bufferDoRegistro = pool.obter(cabecalho.getTamanhoDoRegistro() & 0xFFFF);
+			} catch (InterruptedException e) {
+				// Sem o pool a leitura continua com um buffer na heap, que no ser devolvido
+				Thread.currentThread().interrupt();
+				bufferDoRegistro = ByteBuffer.allocate(cabecalho.getTamanhoDoRegistro() & 0xFFFF);
+			}
+		}
+		return bufferDoRegistro;
+	}
+	
+	/**
+	 * <p>
+	 * 	Publica as linhas restantes do arquivo para um assinante, lendo apenas conforme a demanda. A leitura  feita em uma thread prpria e o leitor 
+	 * 	fechado quando a publicao termina ou  cancelada.
+	 * </p>
+	 * @return Um {@link Publicador} de {@link Linha}.
+	 * @see PublicadorDbf#deLinhas(LeitorDbf, java.util.concurrent.Executor)
+	 */
+	public Publicador<Linha> publicar() {
+		return PublicadorDbf.deLinhas(this, null);
+	}
+	
+	/**
+	 * <p>
+	 * 	Publica as linhas restantes do arquivo em lotes, lendo apenas conforme a demanda. Cada item solicitado corresponde a um lote.
+	 * </p>
+	 * @param tamanhoDoLote A quantidade de linhas por lote.
+	 * @return Um {@link Publicador} de listas de {@link Linha}.
+	 * @see PublicadorDbf#deLotes(LeitorDbf, int, java.util.concurrent.Executor)
+	 */
+	public Publicador<List<Linha>> publicar(int tamanhoDoLote) {
+		return PublicadorDbf.deLotes(this, tamanhoDoLote, null);
+	}
+	
+	/**
+	 * <p>
+	 * 	Define o modo de tratamento dos erros de leitura dos registros.
+	 * </p>
+	 * <p>
+	 * 	No modo estrito (tratador <b>null</b>, o padro), um registro incompleto ou sem uma flag de deleo vlida lana
+	 * 	{@link LeituraIncorretaDeCampoException}. No modo tolerante, o erro  informado ao tratador com o nmero e a posio do registro, o registro 
+	 * 	descartado e a leitura continua no registro seguinte, localizado pelo tamanho fixo do registro. Os registros descartados so contados em
+	 * 	{@link #getRecordsLidos()}, de forma que a numerao dos registros seguintes  mantida. Na leitura em blocos de
+	 * 	{@link #lerRegistros(byte[], int, int)} eles permanecem no bloco marcados como deletados.
+	 * </p>
+	 * @param tratadorDeErros O {@link TratadorDeErros} ou <b>null</b> para o modo estrito.
+	 * @see TratadorDeErros#IGNORAR
+	 */
+	public void setTratadorDeErros(TratadorDeErros tratadorDeErros) {
+		this.tratadorDeErros = tratadorDeErros;
+	}
+	
+	public TratadorDeErros getTratadorDeErros() {
+		return tratadorDeErros;
+	}
+	
+	/**
+	 * A quantidade de erros de um tipo encontrados at o momento, inclusive os do cabealho.
+	 * @param erro O tipo do {@link ErroDeLeitura}.
+	 * @return Um <b>long</b> com a quantidade de erros.
+	 */
+	public long getQuantidadeDeErros(ErroDeLeitura erro) {
+		return erros[erro.ordinal()];
+	}
+	
+	/**
+	 * A quantidade total de erros encontrados at o momento.
+	 * @return Um <b>long</b> com a soma dos erros de todos os tipos.
+	 */
+	public long getQuantidadeDeErros() {
+		long total = 0;
+		for(long quantidade : erros) total += quantidade;
+		return total;
+	}
+	
 	/**
 	 * 
 	 * @return Um <b>int</b> representando o nmero de linhas lidas no arquivo.
@@ -0,0 +1,278 @@
+package io.github.deynne.dbf;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.Linha;
+
+/**
+ * <p>
+ * 	Um leitor de acesso aleatrio que pode ser utilizado por vrias threads ao mesmo tempo. O cabealho  lido uma nica vez na abertura e cada leitura 
+ * 	uma leitura posicional no {@link FileChannel}, sem posio de leitura compartilhada e sem bloqueios, de forma que um nico arquivo aberto atende a
+ * 	todas as threads.
+ * </p>
+ * <p>
+ * 	Ao contrrio do {@link LeitorDbf}, no h leitura sequencial nem contagem de registros lidos. A quantidade de registros  a do cabealho no momento da
+ * 	abertura, e registros adicionados depois por outro programa no so vistos.
+ * </p>
+ * <p>
+ * 	Quando uma thread  interrompida durante uma leitura, o {@link FileChannel}  fechado pela JVM para todas as threads. Nesse caso o arquivo 
+ * 	reaberto: a thread interrompida recebe a {@link ClosedByInterruptException} e as demais repetem a leitura no novo canal.
+ * </p>
+ * <pre>
+ * static final LeitorDbfCompartilhado MUNICIPIOS = new LeitorDbfCompartilhado(arquivo, StandardCharsets.ISO_8859_1);
+ * ...
+ * Linha linha = MUNICIPIOS.getRegistro(numero);
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class LeitorDbfCompartilhado implements Closeable {
+
+	/**
+	 * Tamanho dos blocos lidos por {@link #lerRegistros(long, long, ConsumidorDeRegistro)} (64 KB). Cada chamada utiliza o seu prprio bloco.
+	 */
+	public static final int TAMANHO_DO_BLOCO = 64 * 1024;
+
+	private final Path caminho;
+	private final Charset charset;
+	private final CabecalhoDbf cabecalho;
+	private final int tamanhoDoRegistro;
+	private final long tamanhoDoCabecalho;
+	private final long numeroDeRegistros;
+	private volatile FileChannel canal;
+	private volatile boolean fechado;
+	private volatile long reaberturas;
+
+	/**
+	 * Construtor com o charset padro {@link StandardCharsets#UTF_8}.
+	 * @param arquivo O arquivo dbf a ser lido.
+	 * @throws IOException Se o arquivo no existir ou ocorrer problemas na leitura do cabealho.
+	 * @see #LeitorDbfCompartilhado(File, Charset)
+	 */
+	public LeitorDbfCompartilhado(File arquivo) throws IOException {
+		this(arquivo, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Construtor com a definio do {@link Charset}.
+	 * @param arquivo O arquivo dbf a ser lido.
+	 * @param charset O charset a ser utilizado na converso dos dados para string.
+	 * @throws IOException Se o arquivo no existir ou ocorrer problemas na leitura do cabealho.
+	 */
+	public LeitorDbfCompartilhado(File arquivo, Charset charset) throws IOException {
+		this.caminho = arquivo.toPath();
+		this.charset = charset;
+		this.canal = FileChannel.open(caminho, StandardOpenOption.READ);
+		try {
+			this.cabecalho = lerCabecalho();
+		} catch (IOException | RuntimeException e) {
+			canal.close();
+			throw e;
+		}
+		this.tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		this.tamanhoDoCabecalho = cabecalho.getTamanhoHeader() & 0xFFFF;
+		this.numeroDeRegistros = cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL;
+	}
+
+	private CabecalhoDbf lerCabecalho() throws IOException {
+		ByteBuffer inicio = ByteBuffer.allocate(32);
+		if(ler(inicio, 0) < 32) throw new EOFException("O arquivo " + caminho + "  menor que os 32 bytes do cabealho.");
+		ByteBuffer bytes = ByteBuffer.allocate(Math.max(inicio.duplicate().order(ByteOrder.LITTLE_ENDIAN).getShort(8) & 0xFFFF, 32));
+		inicio.flip();
+		bytes.put(inicio);
+		ler(bytes, 32);
+		bytes.flip();
+
+		IOException[] falha = new IOException[1];
+		CabecalhoDbf lido = new CabecalhoDbf();
+		lido.buildCabecalho(bytes, charset, (erro, numeroDoRegistro, posicao, campo, causa) -> {
+			if(falha[0] == null) falha[0] = causa != null ? causa : new IOException(erro.toString());
+		});
+		if(falha[0] != null) throw new IOException("Erro na leitura do cabealho do arquivo " + caminho + ".", falha[0]);
+		return lido;
+	}
+
+	/**
+	 * Recupera um registro a partir do seu nmero. Pode ser chamado por vrias threads ao mesmo tempo.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @return Uma {@link Linha} com os dados do registro, inclusive se ele estiver marcado como deletado, ou <b>null</b> caso o nmero esteja fora do intervalo
+	 * de registros do arquivo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso o registro esteja incompleto no arquivo.
+	 */
+	public Linha getRegistro(long numeroDoRegistro) throws IOException, LeituraIncorretaDeCampoException {
+		if(numeroDoRegistro < 0 || numeroDoRegistro >= numeroDeRegistros) return null;
+		byte[] registro = new byte[tamanhoDoRegistro];
+		int bytesLidos = ler(ByteBuffer.wrap(registro), getPosicaoDoRegistro(numeroDoRegistro));
+		try {
+			return LeitorDbf.montarLinha(cabecalho, charset, registro, bytesLidos);
+		} catch (LeituraIncorretaDeCampoException e) {
+			throw new LeituraIncorretaDeCampoException("Erro de leitura de campo no registro " + numeroDoRegistro + ".", e);
+		}
+	}
+
+	/**
+	 * Recupera um intervalo de registros com uma nica leitura. Pode ser chamado por vrias threads ao mesmo tempo.
+	 * @param primeiro O nmero do primeiro registro, comeando em 0.
+	 * @param quantidade A quantidade mxima de registros.
+	 * @return Uma {@link List} com as linhas dos registros completos do intervalo, inclusive os marcados como deletados. Vazia caso o intervalo esteja
+	 * fora dos registros do arquivo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 */
+	public List<Linha> getRegistros(long primeiro, int quantidade) throws IOException {
+		long restantes = numeroDeRegistros - primeiro;
+		if(primeiro < 0 || restantes <= 0 || quantidade <= 0) return new ArrayList<>();
+		quantidade = (int) Math.min(quantidade, restantes);
+
+		byte[] bloco = new byte[quantidade * tamanhoDoRegistro];
+		int lidos = lerRegistros(primeiro, bloco, 0, quantidade);
+		List<Linha> linhas = new ArrayList<>(lidos);
+		for(int r = 0; r < lidos; r++) {
+			byte[] registro = new byte[tamanhoDoRegistro];
+			System.arraycopy(bloco, r * tamanhoDoRegistro, registro, 0, tamanhoDoRegistro);
+			linhas.add(new Linha(registro, cabecalho, charset));
+		}
+		return linhas;
+	}
+
+	/**
+	 * <p>
+	 * 	L um bloco de registros no formato bruto a partir de um nmero de registro. Pode ser chamado por vrias threads ao mesmo tempo, desde que cada
+	 * 	uma utilize o seu prprio array de destino.
+	 * </p>
+	 * @param primeiro O nmero do primeiro registro, comeando em 0.
+	 * @param destino O array que receber os registros.
+	 * @param offset A posio em <b>destino</b> onde o primeiro registro ser escrito.
+	 * @param quantidade A quantidade mxima de registros a ser lida.
+	 * @return A quantidade de registros completos lidos, inclusive os deletados, limitada  quantidade de registros informada no cabealho.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @see LeitorDbf#lerRegistros(long, byte[], int, int)
+	 */
+	public int lerRegistros(long primeiro, byte[] destino, int offset, int quantidade) throws IOException {
+		long restantes = numeroDeRegistros - primeiro;
+		if(primeiro < 0 || restantes <= 0 || quantidade <= 0) return 0;
+		quantidade = (int) Math.min(quantidade, restantes);
+		return ler(ByteBuffer.wrap(destino, offset, quantidade * tamanhoDoRegistro), getPosicaoDoRegistro(primeiro)) / tamanhoDoRegistro;
+	}
+
+	/**
+	 * Percorre um intervalo de registros em blocos de {@link #TAMANHO_DO_BLOCO} bytes, entregando ao consumidor apenas os registros no deletados. Pode ser
+	 * chamado por vrias threads ao mesmo tempo, como na leitura de partes diferentes do arquivo em paralelo.
+	 * @param primeiro O nmero do primeiro registro, comeando em 0.
+	 * @param quantidade A quantidade de registros do intervalo.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros.
+	 * @return A quantidade de registros entregues ao consumidor.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo ou no consumidor.
+	 */
+	public long lerRegistros(long primeiro, long quantidade, ConsumidorDeRegistro consumidor) throws IOException {
+		if(primeiro < 0 || quantidade <= 0) return 0;
+		long fim = Math.min(numeroDeRegistros, primeiro + quantidade);
+		byte[] bloco = new byte[Math.max(1, TAMANHO_DO_BLOCO / tamanhoDoRegistro) * tamanhoDoRegistro];
+		int registrosPorBloco = bloco.length / tamanhoDoRegistro;
+		long entregues = 0;
+		for(long atual = primeiro; atual < fim; ) {
+			int lidos = lerRegistros(atual, bloco, 0, (int) Math.min(registrosPorBloco, fim - atual));
+			for(int r = 0; r < lidos; r++) {
+				int offset = r * tamanhoDoRegistro;
+				if(LeitorDbf.isDeletado(bloco, offset)) continue;
+				consumidor.consumir(bloco, offset);
+				entregues++;
+			}
+			// Arquivo menor do que o informado no cabealho
+			if(lidos < Math.min(registrosPorBloco, fim - atual)) break;
+			atual += lidos;
+		}
+		return entregues;
+	}
+
+	/**
+	 * L do canal at completar o buffer ou chegar ao fim do arquivo, reabrindo o arquivo caso o canal tenha sido fechado pela interrupo de outra thread.
+	 * @return A quantidade de bytes lidos.
+	 */
+	private int ler(ByteBuffer buffer, long posicao) throws IOException {
+		int inicio = buffer.position();
+		while(buffer.hasRemaining()) {
+			FileChannel atual = canal;
+			int lidos;
+			try {
+				lidos = atual.read(buffer, posicao + buffer.position() - inicio);
+			} catch (ClosedByInterruptException e) {
+				// Esta thread foi interrompida: o canal  reaberto para as demais e a interrupo  repassada
+				reabrir(atual);
+				throw e;
+			} catch (ClosedChannelException e) {
+				if(fechado) throw e;
+				reabrir(atual);
+				continue;
+			}
+			if(lidos < 0) break;
+		}
+		return buffer.position() - inicio;
+	}
+
+	private synchronized void reabrir(FileChannel anterior) throws IOException {
+		if(fechado) throw new ClosedChannelException();
+		// Outra thread pode j ter reaberto o arquivo
+		if(canal != anterior) return;
+		canal = FileChannel.open(caminho, StandardOpenOption.READ);
+		reaberturas++;
+	}
+
+	/**
+	 * A posio no arquivo do primeiro byte de um registro.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0.
+	 * @return Um <b>long</b> com a posio da flag de deleo do registro.
+	 */
+	public long getPosicaoDoRegistro(long numeroDoRegistro) {
+		return tamanhoDoCabecalho + numeroDoRegistro * tamanhoDoRegistro;
+	}
+
+	/**
+	 * Fecha o arquivo. As leituras em andamento em outras threads terminam com uma {@link ClosedChannelException}.
+	 * @throws IOException Se ocorrer problemas ao fechar o arquivo.
+	 */
+	public synchronized void close() throws IOException {
+		fechado = true;
+		canal.close();
+	}
+
+	public CabecalhoDbf getCabecalho() {
+		return cabecalho;
+	}
+
+	public Charset getCharSet() {
+		return charset;
+	}
+
+	/**
+	 * A quantidade de registros informada no cabealho na abertura do arquivo, incluindo os deletados.
+	 * @return Um <b>long</b> com a quantidade de registros.
+	 */
+	public long getNumeroDeRegistros() {
+		return numeroDeRegistros;
+	}
+
+	/**
+	 * A quantidade de vezes que o arquivo foi reaberto aps o canal ser fechado pela interrupo de uma thread.
+	 * @return Um <b>long</b> com a quantidade de reaberturas.
+	 */
+	public long getReaberturas() {
+		return reaberturas;
+	}
+}
@@ -0,0 +1,348 @@
+package io.github.deynne.dbf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.Linha;
+
+/**
+ * <p>
+ * 	Um leitor que apresenta um conjunto de arquivos dbf com o mesmo layout de campos como uma nica tabela.
+ * </p>
+ * <p>
+ * 	Os cabealhos de todos os arquivos so lidos na construo e validados contra o primeiro, comparando nome, tipo, tamanho e casas decimais de cada
+ * 	{@link io.github.deynne.dbf.model.CampoDbf CampoDbf}, de forma que um arquivo incompatvel  recusado antes da leitura de qualquer registro. Os
+ * 	registros recebem uma numerao global, comeando em 0, em que o primeiro registro de cada arquivo recebe a soma da quantidade de registros informada
+ * 	no cabealho dos arquivos anteriores.
+ * </p>
+ * <p>
+ * 	A leitura pode ser feita em ordem com {@link #proximosRegistros()}, que concatena os arquivos e abre o prximo arquivo em segundo plano enquanto o atual
+ * 	 lido, ou sem ordem definida com {@link #processarEmParalelo(int, ConsumidorDeLinha)}, que distribui os arquivos entre vrias threads.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class LeitorDbfUnificado implements Closeable {
+
+	private List<File> arquivos;
+	private Charset charset;
+
+	private CabecalhoDbf cabecalhoDeReferencia;
+	private File arquivoDeReferencia;
+	// Nmero global do primeiro registro de cada arquivo. A ltima posio contm o total de registros.
+	private long[] bases;
+
+	// Leitura em ordem
+	private ExecutorService preCarregamento;
+	private int indiceAtual = -1;
+	private LeitorDbf atual;
+	private Future<LeitorDbf> proximo;
+	private long baseAtual;
+	private long recordsLidos;
+	private long numeroDoUltimoRegistro = -1;
+
+	// Acesso aleatrio
+	private Map<Integer, LeitorDbf> leitoresAleatorios = new HashMap<>();
+
+	/**
+	 * <p>
+	 * 	Construtor baseado em uma lista de arquivos.
+	 * </p>
+	 * <p>
+	 * 	O charset padro  {@link StandardCharsets#UTF_8}.
+	 * </p>
+	 * @param arquivos Os arquivos dbf, na ordem em que devem ser concatenados.
+	 * @throws IOException Se ocorrer problemas na leitura do cabealho de algum arquivo.
+	 * @throws CampoDbfIlegalException Caso algum arquivo no possua o mesmo layout de campos do primeiro.
+	 * @see #LeitorDbfUnificado(List, Charset)
+	 */
+	public LeitorDbfUnificado(List<File> arquivos) throws IOException, CampoDbfIlegalException {
+		this(arquivos, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Construtor baseado em uma lista de arquivos.
+	 * @param arquivos Os arquivos dbf, na ordem em que devem ser concatenados.
+	 * @param charset O charset a ser utilizado na converso dos dados para string.
+	 * @throws IOException Se ocorrer problemas na leitura do cabealho de algum arquivo.
+	 * @throws CampoDbfIlegalException Caso algum arquivo no possua o mesmo layout de campos do primeiro.
+	 */
+	public LeitorDbfUnificado(List<File> arquivos, Charset charset) throws IOException, CampoDbfIlegalException {
+		if(arquivos == null || arquivos.isEmpty()) throw new IllegalArgumentException(" necessrio informar ao menos um arquivo.");
+		this.arquivos = new ArrayList<>(arquivos);
+		this.charset = charset;
+		this.bases = calcularBases();
+	}
+
+	/**
+	 * <p>
+	 * 	Recupera a prxima linha da tabela, passando para o prximo arquivo quando o atual termina.
+	 * </p>
+	 * <p>
+	 * 	Ao abrir um arquivo, o seguinte  aberto em segundo plano, de forma que o cabealho dele j esteja lido quando for necessrio.
+	 * </p>
+	 * @return Uma {@link Linha} com os dados do registro ou <b>null</b> caso no existam mais registros em nenhum arquivo.
+	 * @throws IOException Se ocorrer problemas na abertura de algum arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso a leitura de um campo seja feita de forma incorreta.
+	 * @throws CampoDbfIlegalException Caso algum arquivo no possua o mesmo layout de campos do primeiro.
+	 */
+	public Linha proximosRegistros() throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		while(true) {
+			if(atual == null && !abrirProximo()) return null;
+
+			Linha linha = atual.proximosRegistros();
+			if(linha != null) {
+				recordsLidos++;
+				numeroDoUltimoRegistro = baseAtual + atual.getRecordsLidos() - 1;
+				return linha;
+			}
+			baseAtual += atual.getCabecalho().getNumeroDeRegistros() & 0xFFFFFFFFL;
+			atual.close();
+			atual = null;
+		}
+	}
+
+	private boolean abrirProximo() throws IOException, CampoDbfIlegalException {
+		if(indiceAtual + 1 >= arquivos.size()) return false;
+		File arquivo = arquivos.get(indiceAtual + 1);
+
+		LeitorDbf leitor;
+		if(proximo != null) {
+			Future<LeitorDbf> preCarregado = proximo;
+			proximo = null;
+			leitor = obter(preCarregado);
+		}
+		else {
+			leitor = new LeitorDbf(arquivo, charset);
+		}
+		try {
+			// O arquivo pode ter sido substitudo depois da validao feita na construo
+			validar(leitor.getCabecalho(), arquivo);
+		} catch (CampoDbfIlegalException e) {
+			leitor.close();
+			throw e;
+		}
+		indiceAtual++;
+		atual = leitor;
+
+		if(indiceAtual + 1 < arquivos.size()) {
+			final File seguinte = arquivos.get(indiceAtual + 1);
+			if(preCarregamento == null) {
+				preCarregamento = Executors.newSingleThreadExecutor(r -> {
+					Thread t = new Thread(r, "dbf-pre-carregamento");
+					t.setDaemon(true);
+					return t;
+				});
+			}
+			proximo = preCarregamento.submit(() -> new LeitorDbf(seguinte, charset));
+		}
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * 	Processa todos os registros de todos os arquivos em vrias threads, sem ordem definida. Cada arquivo  lido inteiramente por uma nica thread, ento
+	 * 	os registros de um mesmo arquivo so entregues em ordem.
+	 * </p>
+	 * <p>
+	 * 	O consumidor  chamado simultaneamente por vrias threads. Esta leitura  independente da leitura feita por {@link #proximosRegistros()}.
+	 * </p>
+	 * @param threads A quantidade de threads.
+	 * @param consumidor O {@link ConsumidorDeLinha} que receber as linhas com a numerao global.
+	 * @throws IOException Se ocorrer problemas na leitura dos arquivos ou no consumidor.
+	 * @throws LeituraIncorretaDeCampoException Caso a leitura de um campo seja feita de forma incorreta.
+	 */
+	public void processarEmParalelo(int threads, ConsumidorDeLinha consumidor) throws IOException, LeituraIncorretaDeCampoException {
+		if(threads <= 0) throw new IllegalArgumentException("A quantidade de threads deve ser positiva.");
+		AtomicInteger proximoArquivo = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, arquivos.size()));
+		try {
+			List<Future<Void>> tarefas = new ArrayList<>();
+			for(int t = 0; t < Math.min(threads, arquivos.size()); t++) {
+				tarefas.add(executor.submit(() -> {
+					int i;
+					while((i = proximoArquivo.getAndIncrement()) < arquivos.size()) {
+						try(LeitorDbf leitor = new LeitorDbf(arquivos.get(i), charset)) {
+							Linha linha;
+							while((linha = leitor.proximosRegistros()) != null) {
+								consumidor.consumir(bases[i] + leitor.getRecordsLidos() - 1, linha);
+							}
+						}
+					}
+					return null;
+				}));
+			}
+			for(Future<Void> tarefa : tarefas) {
+				try {
+					tarefa.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("A leitura foi interrompida.", e);
+				} catch (ExecutionException e) {
+					Throwable causa = e.getCause();
+					if(causa instanceof IOException) throw (IOException) causa;
+					if(causa instanceof LeituraIncorretaDeCampoException) throw (LeituraIncorretaDeCampoException) causa;
+					throw new IOException("Erro durante a leitura dos arquivos.", causa);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Recupera um registro a partir do seu nmero global.
+	 * @param numeroDoRegistro O nmero global do registro, comeando em 0.
+	 * @return Uma {@link Linha} com os dados do registro ou <b>null</b> caso o nmero esteja fora do intervalo de registros.
+	 * @throws IOException Se ocorrer problemas na leitura dos arquivos.
+	 * @throws LeituraIncorretaDeCampoException Caso o registro esteja incompleto no arquivo.
+	 * @see LeitorDbf#getRegistro(long)
+	 */
+	public Linha getRegistro(long numeroDoRegistro) throws IOException, LeituraIncorretaDeCampoException {
+		if(numeroDoRegistro < 0 || numeroDoRegistro >= bases[arquivos.size()]) return null;
+
+		int posicao = Arrays.binarySearch(bases, 0, arquivos.size(), numeroDoRegistro);
+		// Arquivos vazios compartilham a base do seguinte, ento procura o ltimo arquivo com a mesma base
+		int i = posicao >= 0 ? posicao : -posicao - 2;
+		while(i + 1 < arquivos.size() && bases[i + 1] <= numeroDoRegistro) i++;
+
+		LeitorDbf leitor = leitoresAleatorios.get(i);
+		if(leitor == null) {
+			leitor = new LeitorDbf(arquivos.get(i), charset);
+			leitoresAleatorios.put(i, leitor);
+		}
+		return leitor.getRegistro(numeroDoRegistro - bases[i]);
+	}
+
+	/**
+	 * A quantidade total de registros, segundo o cabealho de cada arquivo lido na construo.
+	 * @return Um <b>long</b> com a soma da quantidade de registros de todos os arquivos.
+	 */
+	public long getTotalDeRegistros() {
+		return bases[arquivos.size()];
+	}
+
+	/**
+	 * L e valida o cabealho de todos os arquivos, calculando o nmero global do primeiro registro de cada um.
+	 */
+	private long[] calcularBases() throws IOException, CampoDbfIlegalException {
+		long[] calculadas = new long[arquivos.size() + 1];
+		for(int i = 0; i < arquivos.size(); i++) {
+			CabecalhoDbf cabecalho;
+			try(LeitorDbf leitor = new LeitorDbf(arquivos.get(i), charset)) {
+				cabecalho = leitor.getCabecalho();
+			}
+			validar(cabecalho, arquivos.get(i));
+			calculadas[i + 1] = calculadas[i] + (cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL);
+		}
+		return calculadas;
+	}
+
+	private void validar(CabecalhoDbf cabecalho, File arquivo) throws CampoDbfIlegalException {
+		if(cabecalhoDeReferencia == null) {
+			cabecalhoDeReferencia = cabecalho;
+			arquivoDeReferencia = arquivo;
+		}
+		else if(!arquivo.equals(arquivoDeReferencia) && !cabecalhoDeReferencia.isMesmoLayout(cabecalho)) {
+			throw new CampoDbfIlegalException("O arquivo " + arquivo + " no possui o mesmo layout de campos do arquivo " + arquivoDeReferencia + ".");
+		}
+	}
+
+	private static LeitorDbf obter(Future<LeitorDbf> futuro) throws IOException {
+		try {
+			return futuro.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("A abertura do arquivo foi interrompida.", e);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException("Erro na abertura do arquivo.", e.getCause());
+		}
+	}
+
+	/**
+	 * O cabealho do primeiro arquivo, que define o layout de campos da tabela.
+	 * @return O {@link CabecalhoDbf} de referncia.
+	 */
+	public CabecalhoDbf getCabecalho() {
+		return cabecalhoDeReferencia;
+	}
+
+	/**
+	 * A quantidade de linhas retornadas por {@link #proximosRegistros()}.
+	 * @return Um <b>long</b> com a quantidade de linhas lidas em todos os arquivos.
+	 */
+	public long getRecordsLidos() {
+		return recordsLidos;
+	}
+
+	/**
+	 * O nmero global do ltimo registro retornado por {@link #proximosRegistros()}.
+	 * @return Um <b>long</b> com o nmero do registro ou -1 caso nenhum registro tenha sido lido.
+	 */
+	public long getNumeroDoUltimoRegistro() {
+		return numeroDoUltimoRegistro;
+	}
+
+	/**
+	 * O arquivo sendo lido por {@link #proximosRegistros()}.
+	 * @return O {@link File} atual ou <b>null</b> caso a leitura no tenha comeado ou j tenha terminado.
+	 */
+	public File getArquivoAtual() {
+		return atual == null ? null : arquivos.get(indiceAtual);
+	}
+
+	/**
+	 * Os arquivos que formam a tabela.
+	 * @return Uma {@link List}&lt;{@link File}&gt; com os arquivos na ordem de concatenao.
+	 */
+	public List<File> getArquivos() {
+		return arquivos;
+	}
+
+	/**
+	 * Fecha todos os arquivos abertos.
+	 * @throws IOException Se ocorrer problemas ao fechar algum arquivo.
+	 */
+	public void close() throws IOException {
+		IOException erro = null;
+		List<LeitorDbf> abertos = new ArrayList<>(leitoresAleatorios.values());
+		if(atual != null) abertos.add(atual);
+		if(proximo != null) {
+			try {
+				abertos.add(obter(proximo));
+			} catch (IOException e) {
+				// O arquivo pr-carregado no chegou a ser aberto
+			}
+		}
+		for(LeitorDbf leitor : abertos) {
+			try {
+				leitor.close();
+			} catch (IOException e) {
+				erro = e;
+			}
+		}
+		atual = null;
+		proximo = null;
+		leitoresAleatorios.clear();
+		if(preCarregamento != null) preCarregamento.shutdownNow();
+		if(erro != null) throw erro;
+	}
+}
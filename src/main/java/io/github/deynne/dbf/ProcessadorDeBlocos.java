@@ -0,0 +1,160 @@
+package io.github.deynne.dbf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+
+/**
+ * <p>
+ * 	Processa os registros de um {@link LeitorDbf} em paralelo: os registros so lidos em blocos no formato bruto com
+ * 	{@link LeitorDbf#lerRegistros(byte[], int, int)} e cada bloco  entregue a uma thread, que acumula o resultado em um parcial prprio. Ao final os
+ * 	parciais das threads so combinados em um nico resultado.
+ * </p>
+ * <p>
+ * 	A leitura acontece na thread que chama {@link #processar(LeitorDbf, int, int, Supplier, TarefaDoBloco, BiConsumer)} e os blocos so reaproveitados:
+ * 	no mximo o dobro da quantidade de threads fica em memria, e a leitura aguarda a devoluo de um bloco quando todos esto em uso.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class ProcessadorDeBlocos {
+
+	// Maior array que a JVM costuma conseguir alocar
+	private static final int TAMANHO_MAXIMO_DO_BLOCO = Integer.MAX_VALUE - 8;
+
+	private ProcessadorDeBlocos() { }
+
+	/**
+	 * O processamento de um bloco de registros por uma thread.
+	 * @param <P> O tipo do resultado parcial de cada thread.
+	 */
+	@FunctionalInterface
+	public interface TarefaDoBloco<P> {
+
+		/**
+		 * Processa os registros de um bloco. O bloco  reaproveitado aps o retorno, ento os dados que precisarem ser mantidos devem ser copiados.
+		 * @param parcial O resultado parcial da thread atual, que no  compartilhado com as demais.
+		 * @param bloco O array com os registros, a partir da posio 0, incluindo os deletados.
+		 * @param quantidade A quantidade de registros no bloco.
+		 * @throws IOException Se ocorrer problemas no processamento.
+		 */
+		void processar(P parcial, byte[] bloco, int quantidade) throws IOException;
+	}
+
+	/**
+	 * Processa os registros restantes do leitor.
+	 * @param <P> O tipo do resultado parcial de cada thread.
+	 * @param leitor O {@link LeitorDbf} posicionado antes do primeiro registro a ser processado.
+	 * @param threads A quantidade de threads que processam os blocos.
+	 * @param registrosPorBloco A quantidade de registros lidos e entregues a uma thread de cada vez, limitada  quantidade que cabe em um array.
+	 * @param criarParcial Cria o resultado parcial vazio de uma thread.
+	 * @param tarefa O processamento de cada bloco.
+	 * @param mesclar Combina o segundo parcial no primeiro.
+	 * @return Os parciais combinados ou um parcial vazio caso no haja registros.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo, no processamento de um bloco ou caso o processamento seja interrompido.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 */
+	public static <P> P processar(LeitorDbf leitor, int threads, int registrosPorBloco, Supplier<P> criarParcial, TarefaDoBloco<P> tarefa,
+			BiConsumer<P, P> mesclar) throws IOException, LeituraIncorretaDeCampoException {
+		int tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		// Limita a quantidade para que o bloco de registros largos no ultrapasse o maior array nem tenha um tamanho negativo
+		int porBloco = (int) Math.min(registrosPorBloco, TAMANHO_MAXIMO_DO_BLOCO / Math.max(1, tamanhoDoRegistro));
+
+		// Um parcial por thread
+		Queue<P> parciais = new ConcurrentLinkedQueue<>();
+		ThreadLocal<P> parcialDaThread = ThreadLocal.withInitial(() -> {
+			P parcial = criarParcial.get();
+			parciais.add(parcial);
+			return parcial;
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			BlockingQueue<byte[]> blocosLivres = new ArrayBlockingQueue<>(threads * 2);
+			int blocosCriados = 0;
+			List<Future<?>> pendentes = new ArrayList<>();
+
+			while(true) {
+				byte[] bloco = blocosLivres.poll();
+				if(bloco == null) {
+					if(blocosCriados < threads * 2) {
+						bloco = new byte[porBloco * tamanhoDoRegistro];
+						blocosCriados++;
+					}
+					else {
+						bloco = aguardar(blocosLivres);
+					}
+				}
+				int quantidade = leitor.lerRegistros(bloco, 0, porBloco);
+				if(quantidade == 0) break;
+
+				final byte[] blocoLido = bloco;
+				pendentes.add(executor.submit(() -> {
+					try {
+						tarefa.processar(parcialDaThread.get(), blocoLido, quantidade);
+						return null;
+					} finally {
+						blocosLivres.offer(blocoLido);
+					}
+				}));
+				// Descarta as tarefas concludas para no acumular referncias
+				pendentes.removeIf(f -> f.isDone() && concluida(f));
+			}
+
+			for(Future<?> f : pendentes) {
+				esperar(f);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		P resultado = null;
+		for(P parcial : parciais) {
+			if(resultado == null) resultado = parcial;
+			else mesclar.accept(resultado, parcial);
+		}
+		return resultado == null ? criarParcial.get() : resultado;
+	}
+
+	private static boolean concluida(Future<?> futuro) {
+		// Tarefas com erro permanecem na lista para que o erro seja lanado ao final
+		try {
+			futuro.get();
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private static void esperar(Future<?> futuro) throws IOException {
+		try {
+			futuro.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("O processamento dos registros foi interrompido.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Erro durante o processamento dos registros.", e.getCause());
+		}
+	}
+
+	private static byte[] aguardar(BlockingQueue<byte[]> fila) throws IOException {
+		try {
+			return fila.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("O processamento dos registros foi interrompido.", e);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package io.github.deynne.dbf.agregacao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.deynne.dbf.FiltroDeRegistro;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.ProcessadorDeBlocos;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.ChaveDeRegistro;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Uma consulta de agregao (agrupamento com contagem, soma, mnimo, mximo e mdia) executada diretamente sobre os registros no formato bruto.
+ * </p>
+ * <p>
+ * 	Os registros so lidos em blocos pelo {@link LeitorDbf} e distribudos entre vrias threads por {@link ProcessadorDeBlocos}. Cada thread acumula
+ * 	seus resultados parciais em uma tabela hash prpria, indexada pelos bytes da chave de agrupamento, e as tabelas so combinadas ao final. Os valores
+ * 	numricos so convertidos com {@link DecodificadorDbf}, sem a criao de objetos por campo.
+ * </p>
+ * <p>
+ * 	Os registros marcados como deletados so ignorados. Campos vazios ou que no contm um nmero vlido no so considerados na soma, mnimo, mximo
+ * 	e mdia.
+ * </p>
+ * <pre>
+ * ConsultaAgregada consulta = new ConsultaAgregada("UF");
+ * int total = consulta.adicionar(FuncaoDeAgregacao.SOMA, "VALOR");
+ * ResultadoDaAgregacao resultado = consulta.executar(leitor);
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class ConsultaAgregada {
+
+	public static final int REGISTROS_POR_BLOCO_PADRAO = 8192;
+
+	private String[] camposDeGrupo;
+	private List<FuncaoDeAgregacao> funcoes = new ArrayList<>();
+	private List<String> camposAgregados = new ArrayList<>();
+	private FiltroDeRegistro filtro;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int registrosPorBloco = REGISTROS_POR_BLOCO_PADRAO;
+
+	/**
+	 * Cria a consulta.
+	 * @param camposDeGrupo Os nomes dos campos de agrupamento. Sem campos, todos os registros formam um nico grupo.
+	 */
+	public ConsultaAgregada(String... camposDeGrupo) {
+		this.camposDeGrupo = camposDeGrupo == null ? new String[0] : camposDeGrupo;
+	}
+
+	/**
+	 * Adiciona uma funo de agregao  consulta.
+	 * @param funcao A {@link FuncaoDeAgregacao}.
+	 * @param campo O nome do campo agregado. Pode ser <b>null</b> para {@link FuncaoDeAgregacao#CONTAGEM}, que ento conta os registros do grupo.
+	 * @return O ndice do agregado, utilizado em {@link ResultadoDaAgregacao#getValor(int, int)}.
+	 */
+	public int adicionar(FuncaoDeAgregacao funcao, String campo) {
+		if(campo == null && funcao != FuncaoDeAgregacao.CONTAGEM) throw new IllegalArgumentException("A funo " + funcao + " precisa de um campo.");
+		funcoes.add(funcao);
+		camposAgregados.add(campo);
+		return funcoes.size() - 1;
+	}
+
+	/**
+	 * Executa a consulta sobre os registros restantes do leitor.
+	 * @param leitor O {@link LeitorDbf} posicionado antes do primeiro registro a ser considerado.
+	 * @return O {@link ResultadoDaAgregacao} com os grupos encontrados.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum campo da consulta no exista no arquivo.
+	 */
+	public ResultadoDaAgregacao executar(LeitorDbf leitor) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		CabecalhoDbf cabecalho = leitor.getCabecalho();
+		ChaveDeRegistro chave = camposDeGrupo.length == 0 ? null : new ChaveDeRegistro(cabecalho, camposDeGrupo);
+		FuncaoDeAgregacao[] funcoesArray = funcoes.toArray(new FuncaoDeAgregacao[funcoes.size()]);
+		int numAgregados = funcoesArray.length;
+
+		// Posio e tamanho dos campos agregados no registro. Deslocamento -1 indica contagem de registros.
+		int[] deslocamentos = new int[numAgregados];
+		int[] tamanhos = new int[numAgregados];
+		TiposDbf[] tipos = new TiposDbf[numAgregados];
+		for(int a = 0; a < numAgregados; a++) {
+			String nome = camposAgregados.get(a);
+			if(nome == null) {
+				deslocamentos[a] = -1;
+				continue;
+			}
+			int indice = cabecalho.getIdByNome(nome);
+			if(indice < 0) throw new CampoDbfIlegalException("O campo " + nome + " no existe no arquivo.");
+			CampoDbf campo = cabecalho.getCampos()[indice];
+			deslocamentos[a] = campo.getDeslocamento();
+			tamanhos[a] = campo.getTamanhoDoCampo() & 0xFF;
+			tipos[a] = campo.getTipo();
+		}
+
+		int tamanhoDaChave = chave == null ? 0 : chave.getTamanhoDaChave();
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+
+		TabelaDeGrupos resultado = ProcessadorDeBlocos.processar(leitor, threads, registrosPorBloco, () -> new TabelaDeGrupos(funcoesArray, tamanhoDaChave),
+				(tabela, bloco, quantidade) -> {
+					for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro) {
+						if(LeitorDbf.isDeletado(bloco, offset)) continue;
+						if(filtro != null && !filtro.aceitar(bloco, offset)) continue;
+
+						int g = tabela.grupo(chave, bloco, offset);
+						tabela.registros[g]++;
+						for(int a = 0; a < numAgregados; a++) {
+							if(deslocamentos[a] < 0) continue;
+							int inicio = offset + deslocamentos[a];
+							// Nos campos binrios todos os bytes 0 formam um valor vlido, ento a contagem usa a decodificao
+							if(funcoesArray[a] == FuncaoDeAgregacao.CONTAGEM && (tipos[a] == null || !tipos[a].isBinario())) {
+								tabela.acumular(g, a, DecodificadorDbf.isVazio(bloco, inicio, tamanhos[a]) ? Double.NaN : 1);
+							}
+							else {
+								tabela.acumular(g, a, DecodificadorDbf.lerNumero(tipos[a], bloco, inicio, tamanhos[a]));
+							}
+						}
+					}
+				}, TabelaDeGrupos::mesclar);
+		// Sem campos de agrupamento o resultado sempre tem um grupo, mesmo que nenhum registro tenha sido aceito
+		if(chave == null && resultado.grupos == 0) resultado.grupo(null, null, 0);
+
+		return new ResultadoDaAgregacao(resultado, chave, funcoesArray, deslocamentos, leitor.getCharSet());
+	}
+
+	/**
+	 * Os nomes dos campos de agrupamento.
+	 * @return Um {@link String}[ ] com os campos de agrupamento.
+	 */
+	public String[] getCamposDeGrupo() {
+		return camposDeGrupo;
+	}
+
+	public FiltroDeRegistro getFiltro() {
+		return filtro;
+	}
+
+	/**
+	 * Define um filtro aplicado aos registros antes da agregao.
+	 * @param filtro O {@link FiltroDeRegistro}. <b>null</b> considera todos os registros no deletados.
+	 */
+	public void setFiltro(FiltroDeRegistro filtro) {
+		this.filtro = filtro;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Define a quantidade de threads que processam os blocos de registros.
+	 * @param threads A quantidade de threads. Padro  a quantidade de processadores disponveis.
+	 */
+	public void setThreads(int threads) {
+		if(threads <= 0) throw new IllegalArgumentException("A quantidade de threads deve ser positiva.");
+		this.threads = threads;
+	}
+
+	public int getRegistrosPorBloco() {
+		return registrosPorBloco;
+	}
+
+	/**
+	 * Define a quantidade de registros lidos e entregues a uma thread de cada vez.
+	 * @param registrosPorBloco A quantidade de registros por bloco. Padro {@value #REGISTROS_POR_BLOCO_PADRAO}.
+	 */
+	public void setRegistrosPorBloco(int registrosPorBloco) {
+		if(registrosPorBloco <= 0) throw new IllegalArgumentException("A quantidade de registros por bloco deve ser positiva.");
+		this.registrosPorBloco = registrosPorBloco;
+	}
+}
@@ -0,0 +1,29 @@
+package io.github.deynne.dbf.agregacao;
+
+/**
+ * As funes de agregao suportadas por {@link ConsultaAgregada}.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public enum FuncaoDeAgregacao {
+	/**
+	 * Quantidade de registros do grupo, quando no h campo, ou quantidade de valores no vazios do campo.
+	 */
+	CONTAGEM,
+	/**
+	 * Soma dos valores numricos do campo.
+	 */
+	SOMA,
+	/**
+	 * Menor valor numrico do campo.
+	 */
+	MINIMO,
+	/**
+	 * Maior valor numrico do campo.
+	 */
+	MAXIMO,
+	/**
+	 * Mdia dos valores numricos do campo.
+	 */
+	MEDIA;
+}
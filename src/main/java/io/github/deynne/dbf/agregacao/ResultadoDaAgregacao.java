@@ -0,0 +1,98 @@
+package io.github.deynne.dbf.agregacao;
+
+import java.nio.charset.Charset;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.ChaveDeRegistro;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+
+/**
+ * O resultado de uma {@link ConsultaAgregada}. Os grupos so identificados por ndices de 0 a {@link #getQuantidadeDeGrupos()} - 1, sem ordem definida.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class ResultadoDaAgregacao {
+
+	private final TabelaDeGrupos tabela;
+	private final ChaveDeRegistro chave;
+	private final FuncaoDeAgregacao[] funcoes;
+	private final int[] deslocamentos;
+	private final Charset charset;
+
+	ResultadoDaAgregacao(TabelaDeGrupos tabela, ChaveDeRegistro chave, FuncaoDeAgregacao[] funcoes, int[] deslocamentos, Charset charset) {
+		this.tabela = tabela;
+		this.chave = chave;
+		this.funcoes = funcoes;
+		this.deslocamentos = deslocamentos;
+		this.charset = charset;
+	}
+
+	/**
+	 * A quantidade de grupos encontrados.
+	 * @return Um <b>int</b> com a quantidade de grupos.
+	 */
+	public int getQuantidadeDeGrupos() {
+		return tabela.grupos;
+	}
+
+	/**
+	 * A quantidade de registros de um grupo.
+	 * @param grupo O ndice do grupo.
+	 * @return Um <b>long</b> com a quantidade de registros que passaram pelo filtro e pertencem ao grupo.
+	 */
+	public long getQuantidadeDeRegistros(int grupo) {
+		return tabela.registros[grupo];
+	}
+
+	/**
+	 * O valor de um agregado para um grupo.
+	 * @param grupo O ndice do grupo.
+	 * @param agregado O ndice do agregado, retornado por {@link ConsultaAgregada#adicionar(FuncaoDeAgregacao, String)}.
+	 * @return Um <b>double</b> com o valor do agregado. Para soma, mnimo, mximo e mdia, retorna {@link Double#NaN} caso o grupo no tenha nenhum valor vlido.
+	 */
+	public double getValor(int grupo, int agregado) {
+		int i = grupo * funcoes.length + agregado;
+		if(funcoes[agregado] == FuncaoDeAgregacao.CONTAGEM) {
+			return deslocamentos[agregado] < 0 ? tabela.registros[grupo] : tabela.contagens[i];
+		}
+		if(tabela.contagens[i] == 0) return Double.NaN;
+		if(funcoes[agregado] == FuncaoDeAgregacao.MEDIA) return tabela.valores[i] / tabela.contagens[i];
+		return tabela.valores[i];
+	}
+
+	/**
+	 * Os bytes da chave de um grupo, com os campos de agrupamento em sequncia.
+	 * @param grupo O ndice do grupo.
+	 * @return Um <b>byte</b>[ ] com a chave do grupo.
+	 */
+	public byte[] getChave(int grupo) {
+		return tabela.getChave(grupo);
+	}
+
+	/**
+	 * O valor de um dos campos de agrupamento de um grupo, sem os espaos do incio e do fim.
+	 * @param grupo O ndice do grupo.
+	 * @param campoDoGrupo O ndice do campo na lista de campos de agrupamento.
+	 * @return Uma {@link String} com o valor do campo.
+	 * @throws IllegalStateException Caso a consulta no tenha campos de agrupamento e o nico grupo seja o total dos registros.
+	 * @throws IllegalArgumentException Caso o ndice do campo no corresponda a um campo de agrupamento.
+	 */
+	public String getValorDaChave(int grupo, int campoDoGrupo) {
+		if(chave == null) throw new IllegalStateException("A consulta no tem campos de agrupamento.");
+		CampoDbf[] campos = chave.getCampos();
+		if(campoDoGrupo < 0 || campoDoGrupo >= campos.length) throw new IllegalArgumentException("A consulta tem " + campos.length + " campos de agrupamento, mas foi solicitado o campo " + campoDoGrupo + ".");
+		int offset = grupo * tabela.getTamanhoDaChave();
+		for(int c = 0; c < campoDoGrupo; c++) {
+			offset += campos[c].getTamanhoDoCampo() & 0xFF;
+		}
+		return DecodificadorDbf.lerString(tabela.getChaves(), offset, campos[campoDoGrupo].getTamanhoDoCampo() & 0xFF, charset, true);
+	}
+
+	/**
+	 * As funes de agregao da consulta.
+	 * @return Um {@link FuncaoDeAgregacao}[ ] na ordem em que foram adicionadas.
+	 */
+	public FuncaoDeAgregacao[] getFuncoes() {
+		return funcoes;
+	}
+}
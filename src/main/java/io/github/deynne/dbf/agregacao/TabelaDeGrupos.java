@@ -0,0 +1,191 @@
+package io.github.deynne.dbf.agregacao;
+
+import java.util.Arrays;
+
+import io.github.deynne.dbf.util.ChaveDeRegistro;
+
+/**
+ * <p>
+ * 	Tabela hash de endereamento aberto com os acumuladores de cada grupo em arrays primitivos.
+ * </p>
+ * <p>
+ * 	As chaves so mantidas em sequncia em um nico array de bytes, e os acumuladores de cada grupo ocupam posies consecutivas
+ * 	de {@link #valores} e {@link #contagens}. No  criado nenhum objeto por grupo ou por registro.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class TabelaDeGrupos {
+
+	private final FuncaoDeAgregacao[] funcoes;
+	private final int tamanhoDaChave;
+	private final int numAgregados;
+
+	// Posio na tabela -> grupo + 1. 0 indica posio vazia
+	private int[] posicoes;
+	private long[] hashes;
+	private byte[] chaves;
+	long[] registros;
+	double[] valores;
+	long[] contagens;
+	int grupos;
+
+	TabelaDeGrupos(FuncaoDeAgregacao[] funcoes, int tamanhoDaChave) {
+		this.funcoes = funcoes;
+		this.tamanhoDaChave = tamanhoDaChave;
+		this.numAgregados = funcoes.length;
+		int capacidade = 64;
+		posicoes = new int[capacidade * 2];
+		hashes = new long[capacidade];
+		chaves = new byte[capacidade * tamanhoDaChave];
+		registros = new long[capacidade];
+		valores = new double[capacidade * numAgregados];
+		contagens = new long[capacidade * numAgregados];
+	}
+
+	/**
+	 * Encontra o grupo da chave de um registro, criando-o caso no exista.
+	 */
+	int grupo(ChaveDeRegistro chave, byte[] registro, int offset) {
+		if(chave == null) return grupos == 0 ? criar(0, registro, offset, null) : 0;
+		long hash = chave.hash(registro, offset);
+		int mascara = posicoes.length - 1;
+		for(int p = (int) hash & mascara; ; p = (p + 1) & mascara) {
+			int g = posicoes[p] - 1;
+			if(g < 0) {
+				g = criar(hash, registro, offset, chave);
+				posicoes[p] = g + 1;
+				if(grupos * 2 > posicoes.length) redimensionar();
+				return g;
+			}
+			if(hashes[g] == hash && chave.iguais(registro, offset, chaves, g * tamanhoDaChave)) return g;
+		}
+	}
+
+	/**
+	 * Encontra o grupo de uma chave j copiada, criando-o caso no exista.
+	 */
+	private int grupo(long hash, byte[] chave, int offsetChave) {
+		if(tamanhoDaChave == 0) return grupos == 0 ? criar(0, null, 0, null) : 0;
+		int mascara = posicoes.length - 1;
+		for(int p = (int) hash & mascara; ; p = (p + 1) & mascara) {
+			int g = posicoes[p] - 1;
+			if(g < 0) {
+				g = criar(hash, null, 0, null);
+				System.arraycopy(chave, offsetChave, chaves, g * tamanhoDaChave, tamanhoDaChave);
+				posicoes[p] = g + 1;
+				if(grupos * 2 > posicoes.length) redimensionar();
+				return g;
+			}
+			if(hashes[g] == hash && iguais(chave, offsetChave, g * tamanhoDaChave)) return g;
+		}
+	}
+
+	private boolean iguais(byte[] chave, int offsetChave, int offsetLocal) {
+		for(int i = 0; i < tamanhoDaChave; i++) {
+			if(chave[offsetChave + i] != chaves[offsetLocal + i]) return false;
+		}
+		return true;
+	}
+
+	private int criar(long hash, byte[] registro, int offset, ChaveDeRegistro chave) {
+		if(grupos == hashes.length) crescer();
+		int g = grupos++;
+		hashes[g] = hash;
+		if(chave != null) chave.copiar(registro, offset, chaves, g * tamanhoDaChave);
+		int base = g * numAgregados;
+		for(int a = 0; a < numAgregados; a++) {
+			switch(funcoes[a]) {
+			case MINIMO:
+				valores[base + a] = Double.POSITIVE_INFINITY;
+				break;
+			case MAXIMO:
+				valores[base + a] = Double.NEGATIVE_INFINITY;
+				break;
+			default:
+				valores[base + a] = 0;
+			}
+		}
+		return g;
+	}
+
+	private void crescer() {
+		int capacidade = hashes.length * 2;
+		hashes = Arrays.copyOf(hashes, capacidade);
+		chaves = Arrays.copyOf(chaves, capacidade * tamanhoDaChave);
+		registros = Arrays.copyOf(registros, capacidade);
+		valores = Arrays.copyOf(valores, capacidade * numAgregados);
+		contagens = Arrays.copyOf(contagens, capacidade * numAgregados);
+	}
+
+	private void redimensionar() {
+		posicoes = new int[posicoes.length * 2];
+		int mascara = posicoes.length - 1;
+		for(int g = 0; g < grupos; g++) {
+			int p = (int) hashes[g] & mascara;
+			while(posicoes[p] != 0) p = (p + 1) & mascara;
+			posicoes[p] = g + 1;
+		}
+	}
+
+	/**
+	 * Acumula um valor em um agregado do grupo. Valores {@link Double#NaN} representam campos vazios ou invlidos e so ignorados.
+	 */
+	void acumular(int grupo, int agregado, double valor) {
+		if(Double.isNaN(valor)) return;
+		int i = grupo * numAgregados + agregado;
+		contagens[i]++;
+		switch(funcoes[agregado]) {
+		case SOMA:
+		case MEDIA:
+			valores[i] += valor;
+			break;
+		case MINIMO:
+			if(valor < valores[i]) valores[i] = valor;
+			break;
+		case MAXIMO:
+			if(valor > valores[i]) valores[i] = valor;
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Incorpora os grupos de outra tabela, que deve ter os mesmos agregados.
+	 */
+	void mesclar(TabelaDeGrupos outra) {
+		for(int og = 0; og < outra.grupos; og++) {
+			int g = grupo(outra.hashes[og], outra.chaves, og * tamanhoDaChave);
+			registros[g] += outra.registros[og];
+			int base = g * numAgregados;
+			int outraBase = og * numAgregados;
+			for(int a = 0; a < numAgregados; a++) {
+				contagens[base + a] += outra.contagens[outraBase + a];
+				double v = outra.valores[outraBase + a];
+				switch(funcoes[a]) {
+				case MINIMO:
+					if(v < valores[base + a]) valores[base + a] = v;
+					break;
+				case MAXIMO:
+					if(v > valores[base + a]) valores[base + a] = v;
+					break;
+				default:
+					valores[base + a] += v;
+				}
+			}
+		}
+	}
+
+	byte[] getChave(int grupo) {
+		return Arrays.copyOfRange(chaves, grupo * tamanhoDaChave, (grupo + 1) * tamanhoDaChave);
+	}
+
+	byte[] getChaves() {
+		return chaves;
+	}
+
+	int getTamanhoDaChave() {
+		return tamanhoDaChave;
+	}
+}
@@ -0,0 +1,270 @@
+package io.github.deynne.dbf.amostragem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import io.github.deynne.dbf.ConsumidorDeRegistro;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.model.Linha;
+
+/**
+ * <p>
+ * 	Amostragem de registros de um arquivo dbf sem a leitura do arquivo inteiro.
+ * </p>
+ * <p>
+ * 	Como os registros tm tamanho fixo, a posio de cada um  calculada a partir do cabealho. Os nmeros dos registros sorteados so ordenados e lidos
+ * 	com leituras posicionais em ordem crescente de posio, atravs de {@link LeitorDbf#lerRegistros(long, byte[], int, int)}. Registros prximos uns dos
+ * 	outros so lidos em uma nica leitura.
+ * </p>
+ * <p>
+ * 	Na amostragem {@link #uniforme(int, long) uniforme}, os registros deletados sorteados so substitudos por novos sorteios entre os registros ainda
+ * 	no sorteados, de forma que a amostra  uniforme entre os registros presentes e s tem menos registros que o pedido quando o arquivo no tem registros
+ * 	presentes suficientes. Na amostragem {@link #sistematica(long, long) sistemtica}, os registros deletados so apenas ignorados.
+ * </p>
+ * <pre>
+ * try(LeitorDbf leitor = new LeitorDbf(arquivo)) {
+ * 	List&lt;Linha&gt; amostra = AmostradorDbf.uniforme(5000, 42).amostrar(leitor);
+ * }
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class AmostradorDbf {
+
+	/**
+	 * Distncia mxima, em bytes, entre o incio de dois registros sorteados para que sejam lidos em uma nica leitura.
+	 */
+	private static final int DISTANCIA_MAXIMA_DE_LEITURA = 64 * 1024;
+	/**
+	 * Quantidade de registros gerados de cada vez na amostragem sistemtica.
+	 */
+	private static final int REGISTROS_POR_LOTE = 4096;
+	// Maior array que a JVM costuma conseguir alocar
+	private static final int TAMANHO_MAXIMO_DA_AMOSTRA = Integer.MAX_VALUE - 8;
+
+	private final int quantidade;
+	private final long semente;
+	private final long intervalo;
+	private final long primeiro;
+	private long registrosLidos;
+
+	private AmostradorDbf(int quantidade, long semente, long intervalo, long primeiro) {
+		this.quantidade = quantidade;
+		this.semente = semente;
+		this.intervalo = intervalo;
+		this.primeiro = primeiro;
+	}
+
+	/**
+	 * Cria um amostrador que sorteia registros com a mesma probabilidade. A mesma semente produz a mesma amostra enquanto o arquivo no mudar.
+	 * @param quantidade A quantidade de registros da amostra.
+	 * @param semente A semente do sorteio.
+	 * @return O {@link AmostradorDbf}.
+	 */
+	public static AmostradorDbf uniforme(int quantidade, long semente) {
+		if(quantidade <= 0) throw new IllegalArgumentException("A quantidade de registros da amostra deve ser positiva.");
+		return new AmostradorDbf(quantidade, semente, 0, 0);
+	}
+
+	/**
+	 * Cria um amostrador que seleciona um registro a cada intervalo, a partir de um registro inicial.
+	 * @param intervalo A distncia entre os registros selecionados.
+	 * @param primeiro O nmero do primeiro registro selecionado, comeando em 0.
+	 * @return O {@link AmostradorDbf}.
+	 */
+	public static AmostradorDbf sistematica(long intervalo, long primeiro) {
+		if(intervalo <= 0) throw new IllegalArgumentException("O intervalo da amostragem deve ser positivo.");
+		if(primeiro < 0) throw new IllegalArgumentException("O primeiro registro no pode ser negativo.");
+		return new AmostradorDbf(0, 0, intervalo, primeiro);
+	}
+
+	/**
+	 * L a amostra e a entrega ao consumidor, em ordem crescente de nmero do registro.
+	 * @param leitor O {@link LeitorDbf} criado a partir de um arquivo. A posio da leitura sequencial no  alterada.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros da amostra.
+	 * @return A quantidade de registros entregues.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo ou no consumidor.
+	 * @throws UnsupportedOperationException Caso o leitor no tenha sido criado a partir de um arquivo.
+	 * @throws IllegalArgumentException Caso a amostra uniforme no caiba em um array.
+	 */
+	public long amostrar(LeitorDbf leitor, ConsumidorDeRegistro consumidor) throws IOException {
+		registrosLidos = 0;
+		return intervalo > 0 ? amostrarSistematica(leitor, consumidor) : amostrarUniforme(leitor, consumidor);
+	}
+
+	/**
+	 * L a amostra como uma lista de {@link Linha}, em ordem crescente de nmero do registro.
+	 * @param leitor O {@link LeitorDbf} criado a partir de um arquivo. A posio da leitura sequencial no  alterada.
+	 * @return Uma {@link List} com as linhas da amostra.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws UnsupportedOperationException Caso o leitor no tenha sido criado a partir de um arquivo.
+	 * @throws IllegalArgumentException Caso a amostra uniforme no caiba em um array.
+	 * @see #amostrar(LeitorDbf, ConsumidorDeRegistro)
+	 */
+	public List<Linha> amostrar(LeitorDbf leitor) throws IOException {
+		int tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		List<Linha> linhas = new ArrayList<>();
+		amostrar(leitor, (registro, offset) -> linhas.add(new Linha(Arrays.copyOfRange(registro, offset, offset + tamanhoDoRegistro),
+				leitor.getCabecalho(), leitor.getCharSet())));
+		return linhas;
+	}
+
+	private long amostrarSistematica(LeitorDbf leitor, ConsumidorDeRegistro consumidor) throws IOException {
+		long registros = leitor.getCabecalho().getNumeroDeRegistros() & 0xFFFFFFFFL;
+		long[] lote = new long[REGISTROS_POR_LOTE];
+		long[] entregues = new long[1];
+		for(long proximo = primeiro; proximo < registros; ) {
+			int quantidadeNoLote = 0;
+			for(; quantidadeNoLote < lote.length && proximo < registros; proximo += intervalo) {
+				lote[quantidadeNoLote++] = proximo;
+			}
+			ler(leitor, lote, quantidadeNoLote, (registro, offset, numero) -> {
+				consumidor.consumir(registro, offset);
+				entregues[0]++;
+			});
+		}
+		return entregues[0];
+	}
+
+	private long amostrarUniforme(LeitorDbf leitor, ConsumidorDeRegistro consumidor) throws IOException {
+		long registros = leitor.getCabecalho().getNumeroDeRegistros() & 0xFFFFFFFFL;
+		int tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		int maximo = (int) Math.min(quantidade, registros);
+		SplittableRandom aleatorio = new SplittableRandom(semente);
+
+		long tamanhoDaAmostra = (long) maximo * tamanhoDoRegistro;
+		if(tamanhoDaAmostra > TAMANHO_MAXIMO_DA_AMOSTRA) throw new IllegalArgumentException("Uma amostra de " + maximo + " registros de " + tamanhoDoRegistro
+				+ " bytes ocupa " + tamanhoDaAmostra + " bytes, mais do que um array suporta. Reduza a quantidade de registros da amostra.");
+
+		byte[] amostra = new byte[(int) tamanhoDaAmostra];
+		// Nmero do registro nos 33 bits mais altos e posio na amostra nos 31 bits mais baixos, para a ordenao final
+		long[] ordem = new long[maximo];
+		int[] obtidos = new int[1];
+		long[] sorteados = new long[0];
+		while(obtidos[0] < maximo && sorteados.length < registros) {
+			long[] novos = sortear(aleatorio, registros, maximo - obtidos[0], sorteados);
+			ler(leitor, novos, novos.length, (registro, offset, numero) -> {
+				System.arraycopy(registro, offset, amostra, obtidos[0] * tamanhoDoRegistro, tamanhoDoRegistro);
+				ordem[obtidos[0]] = numero << 31 | obtidos[0];
+				obtidos[0]++;
+			});
+			sorteados = unir(sorteados, novos);
+		}
+
+		// Os registros que substituram os deletados foram lidos depois, ento a amostra  reordenada pelo nmero do registro
+		Arrays.sort(ordem, 0, obtidos[0]);
+		for(int i = 0; i < obtidos[0]; i++) {
+			consumidor.consumir(amostra, (int) (ordem[i] & 0x7FFFFFFF) * tamanhoDoRegistro);
+		}
+		return obtidos[0];
+	}
+
+	/**
+	 * Sorteia nmeros de registros distintos que ainda no foram sorteados.
+	 * @param registros A quantidade de registros do arquivo.
+	 * @param quantidade A quantidade de nmeros desejada.
+	 * @param sorteados Os nmeros j sorteados, em ordem crescente.
+	 * @return Os nmeros sorteados em ordem crescente, no mximo a quantidade de nmeros ainda disponveis.
+	 */
+	private static long[] sortear(SplittableRandom aleatorio, long registros, int quantidade, long[] sorteados) {
+		long disponiveis = registros - sorteados.length;
+		int total = (int) Math.min(quantidade, disponiveis);
+		long[] numeros = new long[total];
+
+		if(total > disponiveis / 4) {
+			// Amostras grandes em relao aos disponveis: seleo sequencial, em que cada nmero  escolhido com a probabilidade dos que ainda faltam
+			int escolhidos = 0;
+			int proximoSorteado = 0;
+			long restantes = disponiveis;
+			for(long numero = 0; numero < registros && escolhidos < total; numero++) {
+				if(proximoSorteado < sorteados.length && sorteados[proximoSorteado] == numero) {
+					proximoSorteado++;
+					continue;
+				}
+				if(aleatorio.nextLong(restantes) < total - escolhidos) numeros[escolhidos++] = numero;
+				restantes--;
+			}
+			return numeros;
+		}
+
+		// Amostras pequenas: sorteios independentes, descartando os repetidos at completar a quantidade
+		int obtidos = 0;
+		while(obtidos < total) {
+			while(obtidos < total) {
+				long numero = aleatorio.nextLong(registros);
+				if(Arrays.binarySearch(sorteados, numero) < 0) numeros[obtidos++] = numero;
+			}
+			Arrays.sort(numeros, 0, obtidos);
+			int distintos = 0;
+			for(int i = 0; i < obtidos; i++) {
+				if(i == 0 || numeros[i] != numeros[distintos - 1]) numeros[distintos++] = numeros[i];
+			}
+			obtidos = distintos;
+		}
+		return numeros;
+	}
+
+	private static long[] unir(long[] a, long[] b) {
+		long[] resultado = new long[a.length + b.length];
+		int i = 0, j = 0, k = 0;
+		while(i < a.length && j < b.length) resultado[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+		while(i < a.length) resultado[k++] = a[i++];
+		while(j < b.length) resultado[k++] = b[j++];
+		return resultado;
+	}
+
+	/**
+	 * L os registros de nmeros informados, em ordem crescente, e entrega os que no esto deletados. Registros a menos de
+	 * {@value #DISTANCIA_MAXIMA_DE_LEITURA} bytes do primeiro registro de uma leitura so lidos junto com ele.
+	 */
+	private void ler(LeitorDbf leitor, long[] numeros, int quantidadeDeNumeros, Entrega entrega) throws IOException {
+		int tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		int registrosPorLeitura = Math.max(1, DISTANCIA_MAXIMA_DE_LEITURA / tamanhoDoRegistro);
+		byte[] bloco = new byte[registrosPorLeitura * tamanhoDoRegistro];
+		for(int i = 0; i < quantidadeDeNumeros; ) {
+			long inicio = numeros[i];
+			int fim = i + 1;
+			while(fim < quantidadeDeNumeros && numeros[fim] - inicio < registrosPorLeitura) fim++;
+			int lidos = leitor.lerRegistros(inicio, bloco, 0, (int) (numeros[fim - 1] - inicio + 1));
+			registrosLidos += lidos;
+			for(; i < fim; i++) {
+				int indice = (int) (numeros[i] - inicio);
+				if(indice >= lidos) continue;
+				if(!LeitorDbf.isDeletado(bloco, indice * tamanhoDoRegistro)) entrega.entregar(bloco, indice * tamanhoDoRegistro, numeros[i]);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface Entrega {
+		void entregar(byte[] registro, int offset, long numero) throws IOException;
+	}
+
+	/**
+	 * A quantidade de registros lidos do arquivo na ltima amostragem, incluindo os deletados e os registros entre os sorteados que foram lidos junto
+	 * com eles.
+	 * @return Um <b>long</b> com a quantidade de registros lidos.
+	 */
+	public long getRegistrosLidos() {
+		return registrosLidos;
+	}
+
+	public int getQuantidade() {
+		return quantidade;
+	}
+
+	public long getSemente() {
+		return semente;
+	}
+
+	public long getIntervalo() {
+		return intervalo;
+	}
+
+	public long getPrimeiro() {
+		return primeiro;
+	}
+}
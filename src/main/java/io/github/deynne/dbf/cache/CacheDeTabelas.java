@@ -0,0 +1,253 @@
+package io.github.deynne.dbf.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.deynne.dbf.catalogo.CatalogoDbf;
+import io.github.deynne.dbf.catalogo.EntradaDoCatalogo;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+
+/**
+ * <p>
+ * 	Um cache de tabelas dbf pequenas, como tabelas de cdigos e de referncia, lidas com frequncia. Cada arquivo  lido uma vez para uma
+ * 	{@link TabelaEmMemoria} e a mesma instncia  retornada enquanto o arquivo no mudar.
+ * </p>
+ * <p>
+ * 	A cada {@link #obter(File)} a data de modificao, o tamanho do arquivo e a {@link TabelaEmMemoria#getImpressaoDigital() impresso digital} do
+ * 	cabealho so comparados com os da leitura e, caso algum seja diferente, o arquivo  lido novamente. O cabealho  relido com uma nica leitura
+ * 	pelo {@link CatalogoDbf}, e cobre os arquivos substitudos sem mudana de tamanho em sistemas de arquivos com pouca resoluo na data de modificao. A tabela anterior continua vlida para quem j a obteve. Cada verso carregada  identificada pelo caminho, pela data de modificao, pelo
+ * 	tamanho e pela {@link TabelaEmMemoria#getImpressaoDigital() impresso digital} do cabealho.
+ * </p>
+ * <p>
+ * 	Quando a soma dos {@link TabelaEmMemoria#getPeso() pesos} das tabelas ultrapassa o peso mximo, as tabelas obtidas h mais tempo so descartadas. O
+ * 	cache pode ser utilizado por vrias threads: leituras do mesmo arquivo so feitas uma nica vez e leituras de arquivos diferentes no se bloqueiam.
+ * </p>
+ * <pre>
+ * static final CacheDeTabelas CACHE = new CacheDeTabelas(StandardCharsets.ISO_8859_1, 32 * 1024 * 1024);
+ * ...
+ * TabelaEmMemoria municipios = CACHE.obter(arquivo, "CODIGO");
+ * int linha = municipios.buscar("CODIGO", 3550308);
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class CacheDeTabelas {
+
+	/**
+	 * Peso mximo padro das tabelas mantidas em memria (64 MB).
+	 */
+	public static final long PESO_MAXIMO_PADRAO = 64L * 1024 * 1024;
+
+	private final Charset charset;
+	private final long pesoMaximo;
+	private final CatalogoDbf catalogo;
+	private final ConcurrentHashMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+	private final AtomicLong relogio = new AtomicLong();
+	private final AtomicLong acertos = new AtomicLong();
+	private final AtomicLong carregamentos = new AtomicLong();
+	private final AtomicLong descartes = new AtomicLong();
+
+	private static class Entrada {
+		private final String caminho;
+		private volatile TabelaEmMemoria tabela;
+		private volatile long ultimoAcesso;
+
+		private Entrada(String caminho) {
+			this.caminho = caminho;
+		}
+
+		private long getPeso() {
+			TabelaEmMemoria atual = tabela;
+			return atual == null ? 0 : atual.getPeso();
+		}
+	}
+
+	/**
+	 * Construtor com o charset {@link StandardCharsets#UTF_8}, o mesmo de {@link io.github.deynne.dbf.LeitorDbf#LeitorDbf(File)}, e o peso mximo padro.
+	 * @see #CacheDeTabelas(Charset, long)
+	 */
+	public CacheDeTabelas() {
+		this(StandardCharsets.UTF_8, PESO_MAXIMO_PADRAO);
+	}
+
+	/**
+	 * Construtor com a definio do charset e do peso mximo.
+	 * @param charset O {@link Charset} dos campos de texto das tabelas.
+	 * @param pesoMaximo A quantidade aproximada de bytes que as tabelas podem ocupar.
+	 */
+	public CacheDeTabelas(Charset charset, long pesoMaximo) {
+		if(charset == null) throw new IllegalArgumentException("O charset no pode ser nulo.");
+		if(pesoMaximo <= 0) throw new IllegalArgumentException("O peso mximo deve ser positivo.");
+		this.charset = charset;
+		this.pesoMaximo = pesoMaximo;
+		this.catalogo = new CatalogoDbf(charset);
+	}
+
+	/**
+	 * Obtm a tabela de um arquivo, lendo o arquivo caso ele ainda no esteja no cache ou tenha mudado.
+	 * @param arquivo O arquivo dbf.
+	 * @return A {@link TabelaEmMemoria} com o contedo atual do arquivo.
+	 * @throws IOException Se o arquivo no existir ou ocorrer problemas na sua leitura.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 */
+	public TabelaEmMemoria obter(File arquivo) throws IOException, LeituraIncorretaDeCampoException {
+		String caminho = arquivo.toPath().toAbsolutePath().normalize().toString();
+		BasicFileAttributes atributos;
+		try {
+			atributos = Files.readAttributes(arquivo.toPath(), BasicFileAttributes.class);
+		} catch (IOException e) {
+			invalidar(arquivo);
+			throw e;
+		}
+		long modificacao = atributos.lastModifiedTime().toMillis();
+		long tamanho = atributos.size();
+
+		Entrada entrada = entradas.computeIfAbsent(caminho, Entrada::new);
+		entrada.ultimoAcesso = relogio.incrementAndGet();
+		TabelaEmMemoria tabela = entrada.tabela;
+		if(isAtual(tabela, arquivo, modificacao, tamanho)) {
+			acertos.incrementAndGet();
+			return tabela;
+		}
+
+		synchronized(entrada) {
+			tabela = entrada.tabela;
+			if(isAtual(tabela, arquivo, modificacao, tamanho)) {
+				acertos.incrementAndGet();
+				return tabela;
+			}
+			tabela = TabelaEmMemoria.carregar(arquivo, charset, modificacao, tamanho);
+			entrada.tabela = tabela;
+			carregamentos.incrementAndGet();
+		}
+		// A entrada pode ter sido descartada por outra thread durante a leitura
+		entradas.putIfAbsent(caminho, entrada);
+		descartarExcedente(entrada);
+		return tabela;
+	}
+
+	/**
+	 * Obtm a tabela de um arquivo, criando os ndices de busca dos campos informados caso ainda no existam.
+	 * @param arquivo O arquivo dbf.
+	 * @param camposIndexados Os campos que sero utilizados em {@link TabelaEmMemoria#buscar(String, Object)}.
+	 * @return A {@link TabelaEmMemoria} com o contedo atual do arquivo.
+	 * @throws IOException Se o arquivo no existir ou ocorrer problemas na sua leitura.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum campo no exista no arquivo.
+	 * @see #obter(File)
+	 */
+	public TabelaEmMemoria obter(File arquivo, String... camposIndexados) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		TabelaEmMemoria tabela = obter(arquivo);
+		if(camposIndexados != null && camposIndexados.length > 0) {
+			tabela.indexar(camposIndexados);
+			descartarExcedente(entradas.get(arquivo.toPath().toAbsolutePath().normalize().toString()));
+		}
+		return tabela;
+	}
+
+	/**
+	 * Remove a tabela de um arquivo do cache. A prxima chamada de {@link #obter(File)} ler o arquivo novamente.
+	 * @param arquivo O arquivo dbf.
+	 */
+	public void invalidar(File arquivo) {
+		entradas.remove(arquivo.toPath().toAbsolutePath().normalize().toString());
+	}
+
+	/**
+	 * Remove todas as tabelas do cache.
+	 */
+	public void limpar() {
+		entradas.clear();
+	}
+
+	/**
+	 * A soma dos pesos das tabelas no cache.
+	 * @return Um <b>long</b> com a quantidade aproximada de bytes ocupada.
+	 */
+	public long getPeso() {
+		long peso = 0;
+		for(Entrada entrada : entradas.values()) {
+			peso += entrada.getPeso();
+		}
+		return peso;
+	}
+
+	public long getPesoMaximo() {
+		return pesoMaximo;
+	}
+
+	public Charset getCharset() {
+		return charset;
+	}
+
+	/**
+	 * A quantidade de tabelas no cache.
+	 * @return Um <b>int</b> com a quantidade de arquivos.
+	 */
+	public int getQuantidadeDeTabelas() {
+		return entradas.size();
+	}
+
+	/**
+	 * A quantidade de chamadas de {@link #obter(File)} atendidas sem a leitura do arquivo.
+	 * @return Um <b>long</b> com a quantidade de acertos.
+	 */
+	public long getAcertos() {
+		return acertos.get();
+	}
+
+	/**
+	 * A quantidade de leituras de arquivos, incluindo as releituras de arquivos alterados.
+	 * @return Um <b>long</b> com a quantidade de carregamentos.
+	 */
+	public long getCarregamentos() {
+		return carregamentos.get();
+	}
+
+	/**
+	 * A quantidade de tabelas descartadas por excesso de peso.
+	 * @return Um <b>long</b> com a quantidade de descartes.
+	 */
+	public long getDescartes() {
+		return descartes.get();
+	}
+
+	private boolean isAtual(TabelaEmMemoria tabela, File arquivo, long modificacao, long tamanho) {
+		if(tabela == null || tabela.getModificacao() != modificacao || tabela.getTamanhoDoArquivo() != tamanho) return false;
+		EntradaDoCatalogo entrada = catalogo.ler(arquivo);
+		return entrada.isValida() && entrada.getCabecalho().getImpressaoDigital() == tabela.getImpressaoDigital();
+	}
+
+	/**
+	 * Descarta as tabelas obtidas h mais tempo at o peso ficar abaixo do mximo. A tabela recm-obtida s  descartada caso sozinha ultrapasse o
+	 * mximo; ela ainda  retornada para quem a obteve, mas no fica no cache.
+	 */
+	private synchronized void descartarExcedente(Entrada protegida) {
+		long peso = getPeso();
+		if(peso <= pesoMaximo) return;
+		List<Entrada> ordem = new ArrayList<>(entradas.values());
+		ordem.sort(Comparator.comparingLong(entrada -> entrada.ultimoAcesso));
+		for(Entrada entrada : ordem) {
+			if(peso <= pesoMaximo) return;
+			if(entrada == protegida) continue;
+			long pesoDaEntrada = entrada.getPeso();
+			if(entradas.remove(entrada.caminho, entrada)) {
+				peso -= pesoDaEntrada;
+				descartes.incrementAndGet();
+			}
+		}
+		if(peso > pesoMaximo && protegida != null && entradas.remove(protegida.caminho, protegida)) {
+			descartes.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,491 @@
+package io.github.deynne.dbf.cache;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Os valores de uma coluna de uma {@link TabelaEmMemoria}, em um array do tipo primitivo correspondente ao tipo do campo. Os textos so guardados sem os
+ * 	espaos do incio e do fim, concatenados em um nico array de bytes.
+ * </p>
+ * <p>
+ * 	A coluna  preenchida apenas durante a carga da tabela e depois s  lida, ento pode ser compartilhada entre threads sem sincronizao.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+abstract class ColunaEmMemoria {
+
+	final CampoDbf campo;
+	final int tamanho;
+
+	private ColunaEmMemoria(CampoDbf campo) {
+		this.campo = campo;
+		this.tamanho = campo.getTamanhoDoCampo() & 0xFF;
+	}
+
+	/**
+	 * Cria a coluna adequada ao tipo do campo.
+	 * @param campo O {@link CampoDbf}.
+	 * @param charset O {@link Charset} dos campos de texto.
+	 * @param capacidade A quantidade mxima de linhas, normalmente a quantidade de registros do cabealho.
+	 */
+	static ColunaEmMemoria criar(CampoDbf campo, Charset charset, int capacidade) {
+		TiposDbf tipo = campo.getTipo();
+		int tamanho = campo.getTamanhoDoCampo() & 0xFF;
+		if(tipo == TiposDbf.NUMERICO && tamanho <= 18) return new Numeros(campo, capacidade, campo.getContagemDecimal());
+		if(tipo == TiposDbf.INTEIRO || tipo == TiposDbf.AUTOINCREMENTO) return new Numeros(campo, capacidade, 0);
+		if(tipo == TiposDbf.MOEDA) return new Numeros(campo, capacidade, 4);
+		if(tipo == TiposDbf.NUMERICO || tipo == TiposDbf.FLUTUANTE || tipo == TiposDbf.DUPLO || tipo == TiposDbf.DUPLO_DBASE) return new Doubles(campo, capacidade);
+		if(tipo == TiposDbf.DATA) return new Datas(campo, capacidade);
+		if(tipo == TiposDbf.DATA_HORA || tipo == TiposDbf.DATA_HORA_DBASE) return new DatasEHoras(campo, capacidade);
+		if(tipo == TiposDbf.LOGICO) return new Logicos(campo, capacidade);
+		return new Textos(campo, capacidade, charset);
+	}
+
+	/**
+	 * Guarda o valor do campo de um registro na prxima linha.
+	 * @param linha O ndice da linha.
+	 * @param registro O array contendo o registro.
+	 * @param inicio A posio do primeiro byte do campo.
+	 */
+	abstract void adicionar(int linha, byte[] registro, int inicio);
+
+	/**
+	 * Libera a capacidade no utilizada ao final da carga.
+	 * @param linhas A quantidade de linhas carregadas.
+	 */
+	abstract void concluir(int linhas);
+
+	abstract boolean isNulo(int linha);
+
+	/**
+	 * O valor no tipo natural da coluna: {@link String}, {@link Long}, {@link BigDecimal}, {@link Double}, {@link LocalDate}, {@link LocalDateTime} ou
+	 * {@link Boolean}.
+	 */
+	abstract Object getValor(int linha);
+
+	/**
+	 * Converte um valor informado pelo usurio para o tipo natural da coluna, para a busca no ndice.
+	 * @return O valor convertido ou <b>null</b> caso ele no possa existir na coluna.
+	 */
+	abstract Object normalizar(Object valor);
+
+	/**
+	 * A quantidade aproximada de bytes ocupada pela coluna.
+	 */
+	abstract long getPeso();
+
+	String getString(int linha) {
+		Object valor = getValor(linha);
+		return valor == null ? null : valor.toString();
+	}
+
+	long getLong(int linha) {
+		Object valor = getValor(linha);
+		if(valor instanceof Number) return ((Number) valor).longValue();
+		if(valor instanceof Boolean) return (Boolean) valor ? 1 : 0;
+		if(valor == null) return 0;
+		return Long.parseLong(valor.toString());
+	}
+
+	double getDouble(int linha) {
+		Object valor = getValor(linha);
+		if(valor instanceof Number) return ((Number) valor).doubleValue();
+		if(valor instanceof Boolean) return (Boolean) valor ? 1 : 0;
+		if(valor == null) return 0;
+		return Double.parseDouble(valor.toString());
+	}
+
+	BigDecimal getBigDecimal(int linha) {
+		Object valor = getValor(linha);
+		if(valor == null || valor instanceof BigDecimal) return (BigDecimal) valor;
+		if(valor instanceof Long) return BigDecimal.valueOf((Long) valor);
+		if(valor instanceof Double) return BigDecimal.valueOf((Double) valor);
+		return new BigDecimal(valor.toString());
+	}
+
+	/**
+	 * Nmeros com at 18 dgitos, guardados como <b>long</b> com a escala do campo, o que mantm a preciso dos valores monetrios.
+	 */
+	private static final class Numeros extends ColunaEmMemoria {
+		private static final long NULO = Long.MIN_VALUE;
+		private final int escala;
+		private long[] valores;
+
+		Numeros(CampoDbf campo, int capacidade, int escala) {
+			super(campo);
+			this.escala = escala;
+			this.valores = new long[capacidade];
+		}
+
+		@Override
+		void adicionar(int linha, byte[] registro, int inicio) {
+			TiposDbf tipo = campo.getTipo();
+			if(tipo == TiposDbf.INTEIRO) valores[linha] = tamanho < 4 ? NULO : DecodificadorDbf.lerInteiroBinario(registro, inicio);
+			else if(tipo == TiposDbf.AUTOINCREMENTO) valores[linha] = tamanho < 4 ? NULO : DecodificadorDbf.lerInteiroDBase(registro, inicio);
+			else if(tipo == TiposDbf.MOEDA) valores[linha] = tamanho < 8 ? NULO : DecodificadorDbf.lerLongBinario(registro, inicio);
+			else valores[linha] = DecodificadorDbf.lerLongEscalado(registro, inicio, tamanho, escala);
+		}
+
+		@Override
+		void concluir(int linhas) {
+			if(linhas < valores.length) valores = Arrays.copyOf(valores, linhas);
+		}
+
+		@Override
+		boolean isNulo(int linha) {
+			return valores[linha] == NULO;
+		}
+
+		@Override
+		Object getValor(int linha) {
+			long valor = valores[linha];
+			if(valor == NULO) return null;
+			return escala == 0 ? (Object) valor : BigDecimal.valueOf(valor, escala);
+		}
+
+		@Override
+		long getLong(int linha) {
+			long valor = valores[linha];
+			if(valor == NULO) return 0;
+			for(int i = 0; i < escala; i++) valor /= 10;
+			return valor;
+		}
+
+		@Override
+		double getDouble(int linha) {
+			long valor = valores[linha];
+			if(valor == NULO) return 0;
+			return escala == 0 ? valor : BigDecimal.valueOf(valor, escala).doubleValue();
+		}
+
+		@Override
+		Object normalizar(Object valor) {
+			try {
+				BigDecimal numero = valor instanceof BigDecimal ? (BigDecimal) valor : new BigDecimal(valor.toString().trim());
+				numero = numero.setScale(escala);
+				return escala == 0 ? (Object) numero.longValueExact() : numero;
+			} catch (ArithmeticException | NumberFormatException e) {
+				return null;
+			}
+		}
+
+		@Override
+		long getPeso() {
+			return 8L * valores.length;
+		}
+	}
+
+	private static final class Doubles extends ColunaEmMemoria {
+		private double[] valores;
+
+		Doubles(CampoDbf campo, int capacidade) {
+			super(campo);
+			this.valores = new double[capacidade];
+		}
+
+		@Override
+		void adicionar(int linha, byte[] registro, int inicio) {
+			valores[linha] = DecodificadorDbf.lerNumero(campo.getTipo(), registro, inicio, tamanho);
+		}
+
+		@Override
+		void concluir(int linhas) {
+			if(linhas < valores.length) valores = Arrays.copyOf(valores, linhas);
+		}
+
+		@Override
+		boolean isNulo(int linha) {
+			return Double.isNaN(valores[linha]);
+		}
+
+		@Override
+		Object getValor(int linha) {
+			double valor = valores[linha];
+			return Double.isNaN(valor) ? null : (Double) valor;
+		}
+
+		@Override
+		double getDouble(int linha) {
+			double valor = valores[linha];
+			return Double.isNaN(valor) ? 0 : valor;
+		}
+
+		@Override
+		long getLong(int linha) {
+			return (long) getDouble(linha);
+		}
+
+		@Override
+		Object normalizar(Object valor) {
+			try {
+				double numero = valor instanceof Number ? ((Number) valor).doubleValue() : Double.parseDouble(valor.toString().trim());
+				return numero == 0 ? 0.0 : numero;
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		@Override
+		long getPeso() {
+			return 8L * valores.length;
+		}
+	}
+
+	/**
+	 * Datas como AAAAMMDD, com 0 para as datas vazias.
+	 */
+	private static final class Datas extends ColunaEmMemoria {
+		private int[] valores;
+
+		Datas(CampoDbf campo, int capacidade) {
+			super(campo);
+			this.valores = new int[capacidade];
+		}
+
+		@Override
+		void adicionar(int linha, byte[] registro, int inicio) {
+			valores[linha] = tamanho < 8 ? 0 : DecodificadorDbf.lerData(registro, inicio);
+		}
+
+		@Override
+		void concluir(int linhas) {
+			if(linhas < valores.length) valores = Arrays.copyOf(valores, linhas);
+		}
+
+		@Override
+		boolean isNulo(int linha) {
+			return valores[linha] == 0;
+		}
+
+		@Override
+		Object getValor(int linha) {
+			int data = valores[linha];
+			return data == 0 ? null : LocalDate.of(data / 10000, data / 100 % 100, data % 100);
+		}
+
+		@Override
+		long getLong(int linha) {
+			return valores[linha];
+		}
+
+		@Override
+		double getDouble(int linha) {
+			return valores[linha];
+		}
+
+		@Override
+		Object normalizar(Object valor) {
+			if(valor instanceof java.sql.Date) return ((java.sql.Date) valor).toLocalDate();
+			if(valor instanceof LocalDate) return valor;
+			if(valor instanceof LocalDateTime) return ((LocalDateTime) valor).toLocalDate();
+			String texto = valor.toString().trim().replace("-", "");
+			if(texto.length() != 8) return null;
+			try {
+				int data = Integer.parseInt(texto);
+				return LocalDate.of(data / 10000, data / 100 % 100, data % 100);
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+
+		@Override
+		long getPeso() {
+			return 4L * valores.length;
+		}
+	}
+
+	/**
+	 * Datas e horas em milissegundos desde 1970-01-01T00:00, sem fuso horrio.
+	 */
+	private static final class DatasEHoras extends ColunaEmMemoria {
+		private long[] valores;
+
+		DatasEHoras(CampoDbf campo, int capacidade) {
+			super(campo);
+			this.valores = new long[capacidade];
+		}
+
+		@Override
+		void adicionar(int linha, byte[] registro, int inicio) {
+			valores[linha] = tamanho < 8 ? DecodificadorDbf.DATA_HORA_VAZIA : DecodificadorDbf.lerDataHora(registro, inicio, campo.getTipo() == TiposDbf.DATA_HORA_DBASE);
+		}
+
+		@Override
+		void concluir(int linhas) {
+			if(linhas < valores.length) valores = Arrays.copyOf(valores, linhas);
+		}
+
+		@Override
+		boolean isNulo(int linha) {
+			return valores[linha] == DecodificadorDbf.DATA_HORA_VAZIA;
+		}
+
+		@Override
+		Object getValor(int linha) {
+			long dataHora = valores[linha];
+			if(dataHora == DecodificadorDbf.DATA_HORA_VAZIA) return null;
+			int data = DecodificadorDbf.getData(dataHora);
+			LocalTime hora = LocalTime.ofNanoOfDay(DecodificadorDbf.getMilissegundosDoDia(dataHora) * 1000000L);
+			return LocalDateTime.of(LocalDate.of(data / 10000, data / 100 % 100, data % 100), hora);
+		}
+
+		@Override
+		long getLong(int linha) {
+			return isNulo(linha) ? 0 : valores[linha];
+		}
+
+		@Override
+		double getDouble(int linha) {
+			return getLong(linha);
+		}
+
+		@Override
+		Object normalizar(Object valor) {
+			if(valor instanceof java.sql.Timestamp) return ((java.sql.Timestamp) valor).toLocalDateTime();
+			if(valor instanceof LocalDateTime) return valor;
+			if(valor instanceof LocalDate) return ((LocalDate) valor).atStartOfDay();
+			try {
+				return LocalDateTime.parse(valor.toString().trim().replace(' ', 'T'));
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+
+		@Override
+		long getPeso() {
+			return 8L * valores.length;
+		}
+	}
+
+	/**
+	 * Valores lgicos como 1, 0 ou -1 para os indefinidos.
+	 */
+	private static final class Logicos extends ColunaEmMemoria {
+		private byte[] valores;
+
+		Logicos(CampoDbf campo, int capacidade) {
+			super(campo);
+			this.valores = new byte[capacidade];
+		}
+
+		@Override
+		void adicionar(int linha, byte[] registro, int inicio) {
+			byte b = registro[inicio];
+			valores[linha] = b == ' ' || b == '?' || b == 0 ? -1 : DecodificadorDbf.lerLogico(b) ? (byte) 1 : (byte) 0;
+		}
+
+		@Override
+		void concluir(int linhas) {
+			if(linhas < valores.length) valores = Arrays.copyOf(valores, linhas);
+		}
+
+		@Override
+		boolean isNulo(int linha) {
+			return valores[linha] < 0;
+		}
+
+		@Override
+		Object getValor(int linha) {
+			byte valor = valores[linha];
+			return valor < 0 ? null : (Boolean) (valor == 1);
+		}
+
+		@Override
+		long getLong(int linha) {
+			return valores[linha] == 1 ? 1 : 0;
+		}
+
+		@Override
+		double getDouble(int linha) {
+			return getLong(linha);
+		}
+
+		@Override
+		Object normalizar(Object valor) {
+			if(valor instanceof Boolean) return valor;
+			if(valor instanceof Number) return ((Number) valor).intValue() != 0;
+			String texto = valor.toString().trim();
+			if(texto.equalsIgnoreCase("true")) return Boolean.TRUE;
+			if(texto.equalsIgnoreCase("false")) return Boolean.FALSE;
+			return texto.length() == 1 ? (Boolean) DecodificadorDbf.lerLogico((byte) texto.charAt(0)) : null;
+		}
+
+		@Override
+		long getPeso() {
+			return valores.length;
+		}
+	}
+
+	/**
+	 * Textos sem os espaos do incio e do fim, concatenados, com a posio de cada um. Um texto vazio  nulo.
+	 */
+	private static final class Textos extends ColunaEmMemoria {
+		private final Charset charset;
+		private byte[] bytes;
+		private int[] inicios;
+		private int usados;
+
+		Textos(CampoDbf campo, int capacidade, Charset charset) {
+			super(campo);
+			this.charset = charset;
+			this.inicios = new int[capacidade + 1];
+			// Os textos costumam ocupar bem menos que o tamanho do campo
+			this.bytes = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(16L, (long) capacidade * Math.max(1, tamanho / 2)))];
+		}
+
+		@Override
+		void adicionar(int linha, byte[] registro, int inicio) {
+			int primeiro = DecodificadorDbf.inicioSemEspacos(registro, inicio, tamanho);
+			int fim = DecodificadorDbf.fimSemEspacos(registro, primeiro, inicio + tamanho - primeiro);
+			int comprimento = fim - primeiro;
+			if(usados + comprimento > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, usados + comprimento));
+			System.arraycopy(registro, primeiro, bytes, usados, comprimento);
+			usados += comprimento;
+			inicios[linha + 1] = usados;
+		}
+
+		@Override
+		void concluir(int linhas) {
+			if(linhas + 1 < inicios.length) inicios = Arrays.copyOf(inicios, linhas + 1);
+			if(usados < bytes.length) bytes = Arrays.copyOf(bytes, usados);
+		}
+
+		@Override
+		boolean isNulo(int linha) {
+			return inicios[linha] == inicios[linha + 1];
+		}
+
+		@Override
+		Object getValor(int linha) {
+			return getString(linha);
+		}
+
+		@Override
+		String getString(int linha) {
+			int inicio = inicios[linha];
+			int fim = inicios[linha + 1];
+			return inicio == fim ? null : new String(bytes, inicio, fim - inicio, charset);
+		}
+
+		@Override
+		Object normalizar(Object valor) {
+			String texto = valor.toString().trim();
+			return texto.isEmpty() ? null : texto;
+		}
+
+		@Override
+		long getPeso() {
+			return bytes.length + 4L * inicios.length;
+		}
+	}
+}
@@ -0,0 +1,319 @@
+package io.github.deynne.dbf.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Uma cpia imutvel em memria dos registros no deletados de um arquivo dbf, organizada por colunas. Cada coluna  guardada em um array do tipo
+ * 	primitivo correspondente ao tipo do campo: nmeros em <b>long</b> com as casas decimais do campo (ou <b>double</b> para os de ponto flutuante),
+ * 	datas como AAAAMMDD e textos sem os espaos do incio e do fim, concatenados em um nico array de bytes.
+ * </p>
+ * <p>
+ * 	Os valores vazios so retornados como <b>null</b>, ou 0 nos mtodos que retornam primitivos. A tabela no  alterada aps a carga e pode ser
+ * 	compartilhada entre threads. Os ndices de {@link #buscar(String, Object)} so criados na primeira busca por cada campo.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ * @see CacheDeTabelas
+ */
+public final class TabelaEmMemoria {
+
+	private static final int REGISTROS_POR_LEITURA = 1024;
+	private static final int[] NENHUMA = new int[0];
+
+	private final File arquivo;
+	private final long modificacao;
+	private final long tamanhoDoArquivo;
+	private final long impressaoDigital;
+	private final String[] nomes;
+	private final ColunaEmMemoria[] colunas;
+	private final int linhas;
+	private final Map<Integer, Map<Object, int[]>> indices = new ConcurrentHashMap<>();
+
+	private TabelaEmMemoria(File arquivo, long modificacao, long tamanhoDoArquivo, long impressaoDigital, String[] nomes, ColunaEmMemoria[] colunas, int linhas) {
+		this.arquivo = arquivo;
+		this.modificacao = modificacao;
+		this.tamanhoDoArquivo = tamanhoDoArquivo;
+		this.impressaoDigital = impressaoDigital;
+		this.nomes = nomes;
+		this.colunas = colunas;
+		this.linhas = linhas;
+	}
+
+	/**
+	 * L todos os registros de um arquivo.
+	 * @param arquivo O arquivo dbf.
+	 * @param charset O {@link Charset} dos campos de texto.
+	 * @param modificacao A data de modificao do arquivo antes da leitura.
+	 * @param tamanhoDoArquivo O tamanho do arquivo antes da leitura.
+	 * @return A {@link TabelaEmMemoria}.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 */
+	static TabelaEmMemoria carregar(File arquivo, Charset charset, long modificacao, long tamanhoDoArquivo) throws IOException, LeituraIncorretaDeCampoException {
+		try(LeitorDbf leitor = new LeitorDbf(arquivo, charset)) {
+			CabecalhoDbf cabecalho = leitor.getCabecalho();
+			CampoDbf[] campos = cabecalho.getCampos();
+			int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+			long registros = cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL;
+			if(registros > Integer.MAX_VALUE - 8) throw new IOException("O arquivo " + arquivo + " tem registros demais para ser mantido em memria.");
+
+			String[] nomes = new String[campos.length];
+			ColunaEmMemoria[] colunas = new ColunaEmMemoria[campos.length];
+			int[] deslocamentos = new int[campos.length];
+			for(int c = 0; c < campos.length; c++) {
+				nomes[c] = campos[c].getNome().trim();
+				colunas[c] = ColunaEmMemoria.criar(campos[c], charset, (int) registros);
+				deslocamentos[c] = campos[c].getDeslocamento();
+			}
+
+			byte[] bloco = new byte[REGISTROS_POR_LEITURA * tamanhoDoRegistro];
+			int linhas = 0;
+			int quantidade;
+			// L no mximo a quantidade de registros do cabealho, que  a capacidade das colunas
+			while(linhas < registros && (quantidade = leitor.lerRegistros(bloco, 0, (int) Math.min(REGISTROS_POR_LEITURA, registros - linhas))) > 0) {
+				for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro) {
+					if(LeitorDbf.isDeletado(bloco, offset)) continue;
+					for(int c = 0; c < colunas.length; c++) {
+						colunas[c].adicionar(linhas, bloco, offset + deslocamentos[c]);
+					}
+					linhas++;
+				}
+			}
+			for(ColunaEmMemoria coluna : colunas) {
+				coluna.concluir(linhas);
+			}
+			return new TabelaEmMemoria(arquivo, modificacao, tamanhoDoArquivo, cabecalho.getImpressaoDigital(), nomes, colunas, linhas);
+		}
+	}
+
+	/**
+	 * A quantidade de linhas, sem os registros deletados.
+	 * @return Um <b>int</b> com a quantidade de linhas.
+	 */
+	public int getQuantidadeDeLinhas() {
+		return linhas;
+	}
+
+	/**
+	 * Os nomes dos campos, na ordem das colunas.
+	 * @return Um {@link String}[ ] com os nomes sem espaos.
+	 */
+	public String[] getNomesDosCampos() {
+		return nomes.clone();
+	}
+
+	/**
+	 * O ndice da coluna de um campo, sem diferenciar maisculas de minsculas.
+	 * @param campo O nome do campo.
+	 * @return O ndice da coluna ou -1 caso o campo no exista.
+	 */
+	public int getColuna(String campo) {
+		for(int c = 0; c < nomes.length; c++) {
+			if(nomes[c].equalsIgnoreCase(campo)) return c;
+		}
+		return -1;
+	}
+
+	public boolean isNulo(int linha, int coluna) {
+		return colunas[coluna].isNulo(linha);
+	}
+
+	/**
+	 * O valor no tipo natural da coluna: {@link String}, {@link Long} para nmeros sem casas decimais, {@link BigDecimal} para nmeros com casas decimais e
+	 * moeda, {@link Double} para nmeros de ponto flutuante, {@link LocalDate}, {@link LocalDateTime} ou {@link Boolean}.
+	 * @param linha O ndice da linha.
+	 * @param coluna O ndice da coluna.
+	 * @return O valor ou <b>null</b> caso o campo esteja vazio.
+	 */
+	public Object getValor(int linha, int coluna) {
+		return colunas[coluna].getValor(linha);
+	}
+
+	/**
+	 * O valor como texto.
+	 * @param linha O ndice da linha.
+	 * @param coluna O ndice da coluna.
+	 * @return Uma {@link String} sem os espaos do incio e do fim ou <b>null</b> caso o campo esteja vazio.
+	 */
+	public String getString(int linha, int coluna) {
+		return colunas[coluna].getString(linha);
+	}
+
+	/**
+	 * O valor como <b>long</b>. Nmeros com casas decimais so truncados, datas so AAAAMMDD e datas e horas so milissegundos desde 1970-01-01T00:00.
+	 * @param linha O ndice da linha.
+	 * @param coluna O ndice da coluna.
+	 * @return O valor ou 0 caso o campo esteja vazio.
+	 * @throws NumberFormatException Caso a coluna seja de texto e o valor no seja um nmero.
+	 */
+	public long getLong(int linha, int coluna) {
+		return colunas[coluna].getLong(linha);
+	}
+
+	/**
+	 * O valor como <b>double</b>, na mesma escala de {@link #getLong(int, int)}.
+	 * @param linha O ndice da linha.
+	 * @param coluna O ndice da coluna.
+	 * @return O valor ou 0 caso o campo esteja vazio.
+	 * @throws NumberFormatException Caso a coluna seja de texto e o valor no seja um nmero.
+	 */
+	public double getDouble(int linha, int coluna) {
+		return colunas[coluna].getDouble(linha);
+	}
+
+	/**
+	 * O valor como {@link BigDecimal}, sem perda de preciso nos nmeros com casas decimais e na moeda.
+	 * @param linha O ndice da linha.
+	 * @param coluna O ndice da coluna.
+	 * @return O valor ou <b>null</b> caso o campo esteja vazio.
+	 * @throws NumberFormatException Caso a coluna seja de texto e o valor no seja um nmero.
+	 */
+	public BigDecimal getBigDecimal(int linha, int coluna) {
+		return colunas[coluna].getBigDecimal(linha);
+	}
+
+	/**
+	 * Procura a primeira linha com um valor em um campo. Na primeira busca por um campo  criado um ndice com todos os valores da coluna, mantido
+	 * enquanto a tabela estiver em memria.
+	 * @param campo O nome do campo.
+	 * @param valor O valor procurado, no tipo natural da coluna (ver {@link #getValor(int, int)}) ou como texto.
+	 * @return O ndice da primeira linha com o valor ou -1 caso nenhuma linha tenha o valor.
+	 * @throws CampoDbfIlegalException Caso o campo no exista no arquivo.
+	 */
+	public int buscar(String campo, Object valor) throws CampoDbfIlegalException {
+		int[] encontradas = procurar(campo, valor);
+		return encontradas.length == 0 ? -1 : encontradas[0];
+	}
+
+	/**
+	 * Procura todas as linhas com um valor em um campo.
+	 * @param campo O nome do campo.
+	 * @param valor O valor procurado, no tipo natural da coluna (ver {@link #getValor(int, int)}) ou como texto.
+	 * @return Um <b>int</b>[ ] com os ndices das linhas, em ordem crescente. O array  uma cpia e pode ser alterado sem afetar o ndice.
+	 * @throws CampoDbfIlegalException Caso o campo no exista no arquivo.
+	 * @see #buscar(String, Object)
+	 */
+	public int[] buscarTodas(String campo, Object valor) throws CampoDbfIlegalException {
+		int[] encontradas = procurar(campo, valor);
+		return encontradas.length == 0 ? NENHUMA : encontradas.clone();
+	}
+
+	/**
+	 * As linhas com o valor no ndice do campo. O array retornado  o do prprio ndice, compartilhado entre as threads.
+	 */
+	private int[] procurar(String campo, Object valor) throws CampoDbfIlegalException {
+		int coluna = getColuna(campo);
+		if(coluna < 0) throw new CampoDbfIlegalException("O campo " + campo + " no existe no arquivo.");
+		if(valor == null) return NENHUMA;
+		Object chave = colunas[coluna].normalizar(valor);
+		if(chave == null) return NENHUMA;
+		int[] encontradas = indexar(coluna).get(chave);
+		return encontradas == null ? NENHUMA : encontradas;
+	}
+
+	/**
+	 * Cria os ndices de busca dos campos, caso ainda no existam.
+	 * @param campos Os nomes dos campos.
+	 * @throws CampoDbfIlegalException Caso algum campo no exista no arquivo.
+	 */
+	public void indexar(String... campos) throws CampoDbfIlegalException {
+		for(String campo : campos) {
+			int coluna = getColuna(campo);
+			if(coluna < 0) throw new CampoDbfIlegalException("O campo " + campo + " no existe no arquivo.");
+			indexar(coluna);
+		}
+	}
+
+	/**
+	 * O arquivo de onde a tabela foi lida.
+	 * @return O {@link File} do dbf.
+	 */
+	public File getArquivo() {
+		return arquivo;
+	}
+
+	/**
+	 * A data de modificao do arquivo na leitura, em milissegundos.
+	 * @return Um <b>long</b> com a data de modificao.
+	 */
+	public long getModificacao() {
+		return modificacao;
+	}
+
+	/**
+	 * O tamanho do arquivo na leitura.
+	 * @return Um <b>long</b> com a quantidade de bytes do arquivo.
+	 */
+	public long getTamanhoDoArquivo() {
+		return tamanhoDoArquivo;
+	}
+
+	/**
+	 * A {@link CabecalhoDbf#getImpressaoDigital() impresso digital} do cabealho na leitura.
+	 * @return Um <b>long</b> com a impresso digital.
+	 */
+	public long getImpressaoDigital() {
+		return impressaoDigital;
+	}
+
+	/**
+	 * A quantidade aproximada de bytes ocupada pela tabela, incluindo os ndices j criados.
+	 * @return Um <b>long</b> com o peso da tabela.
+	 */
+	public long getPeso() {
+		long peso = 0;
+		for(ColunaEmMemoria coluna : colunas) {
+			peso += coluna.getPeso();
+		}
+		for(Map<Object, int[]> indice : indices.values()) {
+			// Entrada do mapa, chave e array de linhas
+			peso += indice.size() * 80L + 4L * linhas;
+		}
+		return peso;
+	}
+
+	/**
+	 * Cria o ndice de uma coluna na primeira chamada. Duas threads podem criar o mesmo ndice ao mesmo tempo, mas apenas um  mantido.
+	 */
+	private Map<Object, int[]> indexar(int coluna) {
+		Map<Object, int[]> indice = indices.get(coluna);
+		if(indice != null) return indice;
+
+		ColunaEmMemoria valores = colunas[coluna];
+		Map<Object, int[]> linhasPorValor = new HashMap<>();
+		Map<Object, Integer> quantidades = new HashMap<>();
+		for(int linha = 0; linha < linhas; linha++) {
+			Object valor = valores.getValor(linha);
+			if(valor != null) quantidades.merge(valor, 1, Integer::sum);
+		}
+		for(Map.Entry<Object, Integer> entrada : quantidades.entrySet()) {
+			linhasPorValor.put(entrada.getKey(), new int[entrada.getValue()]);
+		}
+		// Reaproveita as quantidades como a posio de escrita de cada valor
+		quantidades.replaceAll((valor, quantidade) -> 0);
+		for(int linha = 0; linha < linhas; linha++) {
+			Object valor = valores.getValor(linha);
+			if(valor == null) continue;
+			int posicao = quantidades.get(valor);
+			linhasPorValor.get(valor)[posicao] = linha;
+			quantidades.put(valor, posicao + 1);
+		}
+		Map<Object, int[]> existente = indices.putIfAbsent(coluna, linhasPorValor);
+		return existente == null ? linhasPorValor : existente;
+	}
+}
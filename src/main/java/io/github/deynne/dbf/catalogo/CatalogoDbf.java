@@ -0,0 +1,268 @@
+package io.github.deynne.dbf.catalogo;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.deynne.dbf.model.CabecalhoDbf;
+
+/**
+ * <p>
+ * 	Cataloga diretrios com muitos arquivos dbf lendo apenas os cabealhos. Para cada arquivo  gerada uma {@link EntradaDoCatalogo} com o esquema, a
+ * 	quantidade de registros, a data da ltima atualizao e a impresso digital do layout, sem abrir um {@link io.github.deynne.dbf.LeitorDbf}.
+ * </p>
+ * <p>
+ * 	O cabealho e os descritores dos campos so lidos em uma nica leitura posicional de at {@link #TAMANHO_DA_LEITURA} bytes, suficiente para a maioria
+ * 	dos arquivos, e decodificados diretamente do {@link ByteBuffer}. Os arquivos so distribudos entre vrias threads, j que em diretrios grandes o tempo
+ * 	 dominado pela abertura dos arquivos e pela latncia do disco.
+ * </p>
+ * <pre>
+ * CatalogoDbf catalogo = new CatalogoDbf(StandardCharsets.ISO_8859_1);
+ * catalogo.setRecursivo(true);
+ * List&lt;EntradaDoCatalogo&gt; entradas = catalogo.catalogar(new File("/dados"));
+ * for(List&lt;EntradaDoCatalogo&gt; grupo : CatalogoDbf.agruparPorLayout(entradas)) {
+ * 	...
+ * }
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class CatalogoDbf {
+
+	/**
+	 * Bytes lidos do incio de cada arquivo na primeira leitura (4 KB), o que cobre cabealhos com mais de 100 campos, mesmo com o backlink do Visual FoxPro.
+	 * Cabealhos maiores precisam de uma segunda leitura.
+	 */
+	public static final int TAMANHO_DA_LEITURA = 4 * 1024;
+
+	private final Charset charset;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private boolean recursivo;
+
+	/**
+	 * Construtor com o charset {@link StandardCharsets#UTF_8}, o mesmo de {@link io.github.deynne.dbf.LeitorDbf#LeitorDbf(File)}.
+	 */
+	public CatalogoDbf() {
+		this(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Construtor com a definio do charset.
+	 * @param charset O {@link Charset} utilizado para os nomes dos campos.
+	 */
+	public CatalogoDbf(Charset charset) {
+		if(charset == null) throw new IllegalArgumentException("O charset no pode ser nulo.");
+		this.charset = charset;
+	}
+
+	/**
+	 * Cataloga os arquivos com a extenso .dbf, sem diferenciar maisculas e minsculas, de um diretrio e, caso {@link #setRecursivo(boolean)} esteja
+	 * ativo, dos seus subdiretrios.
+	 * @param diretorio O diretrio a ser catalogado.
+	 * @return Uma {@link List} com as entradas ordenadas pelo caminho dos arquivos.
+	 * @throws IOException Caso o diretrio no possa ser listado ou a catalogao seja interrompida. Falhas na leitura de um arquivo no interrompem a
+	 * catalogao e so informadas na entrada do arquivo.
+	 */
+	public List<EntradaDoCatalogo> catalogar(File diretorio) throws IOException {
+		if(diretorio == null || !diretorio.isDirectory()) throw new IOException("O caminho " + diretorio + " no  um diretrio.");
+		List<File> arquivos = new ArrayList<>();
+		listar(diretorio.toPath(), arquivos);
+		arquivos.sort(null);
+		return catalogar(arquivos);
+	}
+
+	/**
+	 * Cataloga os arquivos informados.
+	 * @param arquivos Os arquivos dbf a serem catalogados.
+	 * @return Uma {@link List} com as entradas na ordem dos arquivos informados.
+	 * @throws IOException Caso a catalogao seja interrompida. Falhas na leitura de um arquivo no interrompem a catalogao e so informadas na entrada
+	 * do arquivo.
+	 */
+	public List<EntradaDoCatalogo> catalogar(Collection<File> arquivos) throws IOException {
+		List<File> lista = new ArrayList<>(arquivos);
+		EntradaDoCatalogo[] entradas = new EntradaDoCatalogo[lista.size()];
+		if(lista.isEmpty()) return new ArrayList<>();
+		AtomicInteger proximoArquivo = new AtomicInteger();
+		int quantidadeDeThreads = Math.min(threads, lista.size());
+
+		ExecutorService executor = Executors.newFixedThreadPool(quantidadeDeThreads);
+		try {
+			List<Future<Void>> tarefas = new ArrayList<>();
+			for(int t = 0; t < quantidadeDeThreads; t++) {
+				tarefas.add(executor.submit(() -> {
+					// Cada thread reutiliza o mesmo buffer para todos os arquivos que l
+					ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_DA_LEITURA);
+					int i;
+					while((i = proximoArquivo.getAndIncrement()) < lista.size()) {
+						entradas[i] = ler(lista.get(i), buffer);
+					}
+					return null;
+				}));
+			}
+			for(Future<Void> tarefa : tarefas) {
+				try {
+					tarefa.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("A catalogao foi interrompida.", e);
+				} catch (ExecutionException e) {
+					throw new IOException("Erro durante a catalogao dos arquivos.", e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		List<EntradaDoCatalogo> resultado = new ArrayList<>(entradas.length);
+		for(EntradaDoCatalogo entrada : entradas) resultado.add(entrada);
+		return resultado;
+	}
+
+	/**
+	 * L o cabealho de um nico arquivo.
+	 * @param arquivo O arquivo dbf.
+	 * @return A {@link EntradaDoCatalogo} do arquivo, com o erro caso o cabealho no possa ser lido.
+	 */
+	public EntradaDoCatalogo ler(File arquivo) {
+		return ler(arquivo, ByteBuffer.allocate(TAMANHO_DA_LEITURA));
+	}
+
+	/**
+	 * <p>
+	 * 	Agrupa as entradas cujos arquivos tm o mesmo layout de registros segundo {@link CabecalhoDbf#isMesmoLayout(CabecalhoDbf)}, como os arquivos mensais
+	 * 	de uma mesma tabela, que podem ento ser lidos juntos pelo {@link io.github.deynne.dbf.LeitorDbfUnificado}.
+	 * </p>
+	 * <p>
+	 * 	As entradas so separadas pela {@link CabecalhoDbf#getImpressaoDigitalDoLayout() impresso digital do layout} e comparadas apenas dentro da mesma
+	 * 	impresso digital. Entradas sem cabealho so ignoradas.
+	 * </p>
+	 * @param entradas As entradas do catlogo.
+	 * @return Uma {@link List} com os grupos, na ordem em que a primeira entrada de cada grupo aparece, e as entradas de cada grupo na ordem recebida.
+	 */
+	public static List<List<EntradaDoCatalogo>> agruparPorLayout(Collection<EntradaDoCatalogo> entradas) {
+		Map<Long, List<List<EntradaDoCatalogo>>> porImpressaoDigital = new LinkedHashMap<>();
+		List<List<EntradaDoCatalogo>> grupos = new ArrayList<>();
+		for(EntradaDoCatalogo entrada : entradas) {
+			if(!entrada.isValida()) continue;
+			List<List<EntradaDoCatalogo>> candidatos = porImpressaoDigital.computeIfAbsent(entrada.getImpressaoDigitalDoLayout(), k -> new ArrayList<>(1));
+			List<EntradaDoCatalogo> grupo = null;
+			// Colises da impresso digital formam grupos separados
+			for(List<EntradaDoCatalogo> candidato : candidatos) {
+				if(candidato.get(0).getCabecalho().isMesmoLayout(entrada.getCabecalho())) {
+					grupo = candidato;
+					break;
+				}
+			}
+			if(grupo == null) {
+				grupo = new ArrayList<>();
+				candidatos.add(grupo);
+				grupos.add(grupo);
+			}
+			grupo.add(entrada);
+		}
+		return grupos;
+	}
+
+	private EntradaDoCatalogo ler(File arquivo, ByteBuffer buffer) {
+		long tamanhoDoArquivo = -1;
+		try(FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+			tamanhoDoArquivo = canal.size();
+			buffer.clear();
+			if(tamanhoDoArquivo < buffer.capacity()) buffer.limit((int) tamanhoDoArquivo);
+			preencher(canal, buffer, 0);
+			if(buffer.position() < 32) throw new EOFException("O arquivo tem " + tamanhoDoArquivo + " bytes, menos que os 32 do cabealho.");
+
+			int tamanhoDoCabecalho = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getShort(8) & 0xFFFF;
+			ByteBuffer cabecalhoCompleto = buffer;
+			if(tamanhoDoCabecalho > buffer.position()) {
+				// Cabealho maior que a primeira leitura: apenas o restante  lido
+				cabecalhoCompleto = ByteBuffer.allocate(tamanhoDoCabecalho);
+				buffer.flip();
+				cabecalhoCompleto.put(buffer);
+				preencher(canal, cabecalhoCompleto, cabecalhoCompleto.position());
+			}
+			cabecalhoCompleto.flip();
+
+			IOException[] falha = new IOException[1];
+			CabecalhoDbf cabecalho = new CabecalhoDbf();
+			cabecalho.buildCabecalho(cabecalhoCompleto, charset, (erro, numeroDoRegistro, posicao, campo, causa) -> {
+				if(falha[0] == null) falha[0] = causa != null ? causa : new IOException(erro.toString());
+			});
+			if(falha[0] != null) return new EntradaDoCatalogo(arquivo, tamanhoDoArquivo, null, falha[0]);
+			return new EntradaDoCatalogo(arquivo, tamanhoDoArquivo, cabecalho, null);
+		} catch (IOException e) {
+			return new EntradaDoCatalogo(arquivo, tamanhoDoArquivo, null, e);
+		}
+	}
+
+	/**
+	 * L do canal a partir da posio informada at completar o buffer ou chegar ao fim do arquivo.
+	 */
+	private static void preencher(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+		while(buffer.hasRemaining()) {
+			int lidos = canal.read(buffer, posicao);
+			if(lidos < 0) break;
+			posicao += lidos;
+		}
+	}
+
+	private void listar(Path diretorio, List<File> arquivos) throws IOException {
+		try(DirectoryStream<Path> conteudo = Files.newDirectoryStream(diretorio)) {
+			for(Path caminho : conteudo) {
+				if(Files.isDirectory(caminho)) {
+					if(recursivo) listar(caminho, arquivos);
+				} else if(caminho.getFileName().toString().toLowerCase().endsWith(".dbf")) {
+					arquivos.add(caminho.toFile());
+				}
+			}
+		}
+	}
+
+	public Charset getCharset() {
+		return charset;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Define a quantidade de threads que leem os cabealhos.
+	 * @param threads A quantidade de threads. Padro  a quantidade de processadores disponveis.
+	 */
+	public void setThreads(int threads) {
+		if(threads <= 0) throw new IllegalArgumentException("A quantidade de threads deve ser positiva.");
+		this.threads = threads;
+	}
+
+	public boolean isRecursivo() {
+		return recursivo;
+	}
+
+	/**
+	 * Define se os subdiretrios tambm so catalogados por {@link #catalogar(File)}.
+	 * @param recursivo <b>true</b> para incluir os subdiretrios. Padro  <b>false</b>.
+	 */
+	public void setRecursivo(boolean recursivo) {
+		this.recursivo = recursivo;
+	}
+}
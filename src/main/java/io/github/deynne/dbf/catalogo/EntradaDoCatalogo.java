@@ -0,0 +1,116 @@
+package io.github.deynne.dbf.catalogo;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import io.github.deynne.dbf.model.CabecalhoDbf;
+
+/**
+ * <p>
+ * 	O resultado da leitura do cabealho de um arquivo pelo {@link CatalogoDbf}: o esquema, a quantidade de registros, a data da ltima atualizao e a
+ * 	impresso digital do layout.
+ * </p>
+ * <p>
+ * 	Arquivos cujo cabealho no pde ser lido tambm geram uma entrada, sem cabealho e com o erro em {@link #getErro()}, para que um arquivo com problema
+ * 	no interrompa a catalogao do diretrio.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class EntradaDoCatalogo {
+
+	private final File arquivo;
+	private final long tamanhoDoArquivo;
+	private final CabecalhoDbf cabecalho;
+	private final IOException erro;
+
+	EntradaDoCatalogo(File arquivo, long tamanhoDoArquivo, CabecalhoDbf cabecalho, IOException erro) {
+		this.arquivo = arquivo;
+		this.tamanhoDoArquivo = tamanhoDoArquivo;
+		this.cabecalho = cabecalho;
+		this.erro = erro;
+	}
+
+	public File getArquivo() {
+		return arquivo;
+	}
+
+	public long getTamanhoDoArquivo() {
+		return tamanhoDoArquivo;
+	}
+
+	/**
+	 * O cabealho lido do arquivo, com os descritores dos campos.
+	 * @return O {@link CabecalhoDbf} ou <b>null</b> caso a leitura tenha falhado.
+	 */
+	public CabecalhoDbf getCabecalho() {
+		return cabecalho;
+	}
+
+	/**
+	 * A falha na leitura do cabealho.
+	 * @return A {@link IOException} ou <b>null</b> caso o cabealho tenha sido lido.
+	 */
+	public IOException getErro() {
+		return erro;
+	}
+
+	/**
+	 * Indica se o cabealho foi lido com sucesso.
+	 * @return <b>true</b> caso exista um cabealho.
+	 */
+	public boolean isValida() {
+		return cabecalho != null;
+	}
+
+	/**
+	 * A quantidade de registros informada no cabealho, incluindo os deletados.
+	 * @return Um <b>long</b> com a quantidade de registros ou -1 caso o cabealho no tenha sido lido.
+	 */
+	public long getNumeroDeRegistros() {
+		return cabecalho == null ? -1 : cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * A data da ltima atualizao informada no cabealho. O ano  gravado no arquivo como a quantidade de anos desde 1900.
+	 * @return Um {@link LocalDate} ou <b>null</b> caso o cabealho no tenha sido lido ou a data gravada seja invlida.
+	 */
+	public LocalDate getDataDaUltimaAtualizacao() {
+		if(cabecalho == null) return null;
+		try {
+			return LocalDate.of(1900 + (cabecalho.getAno() & 0xFF), cabecalho.getMes(), cabecalho.getDia());
+		} catch (DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * A impresso digital do layout dos registros.
+	 * @return Um <b>long</b> com o valor de {@link CabecalhoDbf#getImpressaoDigitalDoLayout()} ou 0 caso o cabealho no tenha sido lido.
+	 */
+	public long getImpressaoDigitalDoLayout() {
+		return cabecalho == null ? 0 : cabecalho.getImpressaoDigitalDoLayout();
+	}
+
+	/**
+	 * <p>
+	 * 	Indica se o arquivo  menor do que o cabealho e a quantidade de registros informada nele exigem, como acontece quando uma cpia  interrompida ou
+	 * 	quando um programa grava os registros sem atualizar o cabealho.
+	 * </p>
+	 * @return <b>true</b> caso faltem bytes no arquivo. <b>false</b> tambm caso o cabealho no tenha sido lido.
+	 */
+	public boolean isTruncada() {
+		if(cabecalho == null) return false;
+		long esperado = (cabecalho.getTamanhoHeader() & 0xFFFF) + getNumeroDeRegistros() * (cabecalho.getTamanhoDoRegistro() & 0xFFFF);
+		return tamanhoDoArquivo < esperado;
+	}
+
+	@Override
+	public String toString() {
+		if(cabecalho == null) return "EntradaDoCatalogo [ arquivo=" + arquivo + ", erro=" + erro + " ]";
+		return "EntradaDoCatalogo [ arquivo=" + arquivo + ", registros=" + getNumeroDeRegistros() + ", campos=" + cabecalho.getNumCampos()
+				+ ", atualizacao=" + getDataDaUltimaAtualizacao() + ", layout=" + Long.toHexString(getImpressaoDigitalDoLayout()) + " ]";
+	}
+}
@@ -0,0 +1,134 @@
+package io.github.deynne.dbf.deduplicacao;
+
+import java.nio.ByteBuffer;
+
+import io.github.deynne.dbf.util.ChaveDeRegistro;
+
+/**
+ * <p>
+ * 	Conjunto de chaves de endereamento aberto mantido em um nico {@link ByteBuffer} direto, fora da heap. Cada posio guarda o hash da chave, um valor
+ * 	associado e os bytes da chave, de forma que nenhum objeto  criado por chave e o coletor de lixo no percorre o conjunto.
+ * </p>
+ * <p>
+ * 	O conjunto dobra de tamanho at o limite de memria informado e, a partir da, recusa novas chaves com {@link #adicionar(long, long)}.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+final class ConjuntoDeChaves {
+
+	private static final int CAPACIDADE_INICIAL = 1024;
+	// Hash 0 indica posio vazia
+	private static final long VAZIO = 0;
+
+	private final ChaveDeRegistro chave;
+	private final int tamanhoDaChave;
+	// Hash (8 bytes) + valor (8 bytes) + chave
+	private final int tamanhoDaPosicao;
+	private final int capacidadeMaxima;
+	private final byte[] chaveAtual;
+	private ByteBuffer posicoes;
+	private int capacidade;
+	private int quantidade;
+
+	/**
+	 * @param memoriaMaxima A quantidade mxima de bytes ocupada pelas posies.
+	 */
+	ConjuntoDeChaves(ChaveDeRegistro chave, long memoriaMaxima) {
+		this.chave = chave;
+		this.tamanhoDaChave = chave.getTamanhoDaChave();
+		this.tamanhoDaPosicao = 16 + tamanhoDaChave;
+		this.chaveAtual = new byte[tamanhoDaChave];
+		// O buffer direto  indexado por int
+		long maximo = Math.max(16, Math.min(memoriaMaxima, Integer.MAX_VALUE) / tamanhoDaPosicao);
+		this.capacidadeMaxima = Integer.highestOneBit((int) Math.min(maximo, 1 << 30));
+		this.capacidade = Math.min(CAPACIDADE_INICIAL, capacidadeMaxima);
+		this.posicoes = ByteBuffer.allocateDirect(capacidade * tamanhoDaPosicao);
+	}
+
+	/**
+	 * Quantidade de bytes ocupada por chave no conjunto cheio, com a taxa de ocupao mxima.
+	 */
+	static long getPesoPorChave(ChaveDeRegistro chave) {
+		return (16L + chave.getTamanhoDaChave()) * 4 / 3;
+	}
+
+	/**
+	 * O hash utilizado para a chave de um registro. Nunca  0, que indica posio vazia.
+	 */
+	long hash(byte[] registro, int offset) {
+		long hash = chave.hash(registro, offset);
+		return hash == VAZIO ? 1 : hash;
+	}
+
+	/**
+	 * Procura a chave de um registro. A chave  guardada para um {@link #adicionar(long, long)} em seguida.
+	 * @return A posio da chave ou -1 caso ela no esteja no conjunto.
+	 */
+	int buscar(byte[] registro, int offset, long hash) {
+		chave.copiar(registro, offset, chaveAtual, 0);
+		int mascara = capacidade - 1;
+		for(int p = (int) hash & mascara; ; p = (p + 1) & mascara) {
+			int base = p * tamanhoDaPosicao;
+			long hashDaPosicao = posicoes.getLong(base);
+			if(hashDaPosicao == VAZIO) return -1;
+			if(hashDaPosicao == hash && isChaveAtual(base + 16)) return p;
+		}
+	}
+
+	/**
+	 * Adiciona a chave do ltimo {@link #buscar(byte[], int, long)}, que no pode estar no conjunto.
+	 * @return <b>false</b> caso o conjunto tenha atingido o limite de memria.
+	 */
+	boolean adicionar(long hash, long valor) {
+		if((quantidade + 1) * 4L > capacidade * 3L) {
+			if(capacidade >= capacidadeMaxima) return false;
+			redimensionar();
+		}
+		int mascara = capacidade - 1;
+		int p = (int) hash & mascara;
+		while(posicoes.getLong(p * tamanhoDaPosicao) != VAZIO) p = (p + 1) & mascara;
+		int base = p * tamanhoDaPosicao;
+		posicoes.putLong(base, hash);
+		posicoes.putLong(base + 8, valor);
+		for(int i = 0; i < tamanhoDaChave; i++) posicoes.put(base + 16 + i, chaveAtual[i]);
+		quantidade++;
+		return true;
+	}
+
+	long getValor(int posicao) {
+		return posicoes.getLong(posicao * tamanhoDaPosicao + 8);
+	}
+
+	void setValor(int posicao, long valor) {
+		posicoes.putLong(posicao * tamanhoDaPosicao + 8, valor);
+	}
+
+	int getQuantidade() {
+		return quantidade;
+	}
+
+	private boolean isChaveAtual(int inicio) {
+		for(int i = 0; i < tamanhoDaChave; i++) {
+			if(posicoes.get(inicio + i) != chaveAtual[i]) return false;
+		}
+		return true;
+	}
+
+	private void redimensionar() {
+		ByteBuffer anteriores = posicoes;
+		int capacidadeAnterior = capacidade;
+		capacidade *= 2;
+		posicoes = ByteBuffer.allocateDirect(capacidade * tamanhoDaPosicao);
+		int mascara = capacidade - 1;
+		for(int a = 0; a < capacidadeAnterior; a++) {
+			int origem = a * tamanhoDaPosicao;
+			long hash = anteriores.getLong(origem);
+			if(hash == VAZIO) continue;
+			int p = (int) hash & mascara;
+			while(posicoes.getLong(p * tamanhoDaPosicao) != VAZIO) p = (p + 1) & mascara;
+			int destino = p * tamanhoDaPosicao;
+			for(int i = 0; i < tamanhoDaPosicao; i++) posicoes.put(destino + i, anteriores.get(origem + i));
+		}
+	}
+}
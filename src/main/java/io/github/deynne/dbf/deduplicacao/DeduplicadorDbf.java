@@ -0,0 +1,488 @@
+package io.github.deynne.dbf.deduplicacao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.deynne.dbf.ConsumidorDeRegistro;
+import io.github.deynne.dbf.EscritorDbf;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.util.ChaveDeRegistro;
+import io.github.deynne.dbf.util.FiltroDeBloom;
+
+/**
+ * <p>
+ * 	Remove os registros com chave repetida de um ou mais arquivos dbf com o mesmo layout, mantendo a {@link OcorrenciaMantida primeira ou a ltima}
+ * 	ocorrncia de cada chave. As chaves so os bytes brutos dos campos informados, comparados byte a byte como em {@link ChaveDeRegistro}, sem a criao de
+ * 	{@link io.github.deynne.dbf.model.Linha Linha} ou {@link String}. Os registros deletados so ignorados.
+ * </p>
+ * <p>
+ * 	As chaves j vistas so mantidas em um conjunto fora da heap limitado por {@link #getMemoriaMaxima()}. Quando o conjunto enche, os registros cujas
+ * 	chaves no esto nele so divididos pelo hash da chave em parties gravadas em arquivos temporrios, e cada partio  deduplicada separadamente,
+ * 	sendo dividida novamente caso ainda seja grande demais. Como as chaves de uma partio nunca esto no conjunto nem em outra partio, cada chave 
+ * 	decidida em um nico lugar.
+ * </p>
+ * <p>
+ * 	Com {@link OcorrenciaMantida#PRIMEIRA} e o {@link #setFiltroDeBloom(boolean) filtro de Bloom} ativo, um quarto da memria  reservado para um filtro
+ * 	com as chaves gravadas nas parties. Os registros cuja chave certamente ainda no apareceu so entregues imediatamente e apenas os que talvez sejam
+ * 	repetidos esperam a deduplicao das parties.
+ * </p>
+ * <p>
+ * 	Sem parties, os registros so entregues na ordem de leitura. Com parties, os decididos em memria so entregues primeiro, na ordem de leitura, e
+ * 	os demais ao final, na ordem das parties.
+ * </p>
+ * <pre>
+ * DeduplicadorDbf deduplicador = new DeduplicadorDbf("CPF", "COMPETENC");
+ * deduplicador.setOcorrenciaMantida(OcorrenciaMantida.ULTIMA);
+ * deduplicador.deduplicar(Arrays.asList(janeiro, fevereiro, marco), destino);
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class DeduplicadorDbf {
+
+	/**
+	 * Memria mxima padro do conjunto de chaves e do filtro de Bloom (64 MB).
+	 */
+	public static final long MEMORIA_MAXIMA_PADRAO = 64L * 1024 * 1024;
+
+	private static final int TAMANHO_DO_BLOCO = 1024 * 1024;
+	private static final int TAMANHO_DO_BUFFER_DAS_PARTICOES = 64 * 1024;
+	private static final int MAXIMO_DE_PARTICOES = 256;
+	/**
+	 * Quantidade de bits do hash. Com todos os bits utilizados nas divises em parties o conjunto deixa de ser limitado pela memria mxima.
+	 */
+	private static final int BITS_DO_HASH = 64;
+	/**
+	 * Acima desta taxa de falsos positivos o filtro de Bloom deixaria passar quase todas as chaves, e no  criado.
+	 */
+	private static final double TAXA_MAXIMA_DO_FILTRO = 0.5;
+	private static final double TAXA_MINIMA_DO_FILTRO = 0.0001;
+
+	// Primeiro byte de cada entrada: o registro ainda pode ser entregue ou j foi entregue pelo filtro de Bloom
+	private static final byte CANDIDATO = 0;
+	private static final byte ENTREGUE = 1;
+
+	private final String[] camposChave;
+	private OcorrenciaMantida ocorrenciaMantida = OcorrenciaMantida.PRIMEIRA;
+	private long memoriaMaxima = MEMORIA_MAXIMA_PADRAO;
+	private boolean filtroDeBloom = true;
+	private File diretorioTemporario;
+	private int particoesCriadas;
+	private long registrosEmDisco;
+
+	/**
+	 * Cria o deduplicador.
+	 * @param camposChave Os nomes dos campos que formam a chave.
+	 */
+	public DeduplicadorDbf(String... camposChave) {
+		this.camposChave = camposChave;
+	}
+
+	/**
+	 * Deduplica os registros de um leitor e grava os mantidos em um novo arquivo dbf com o mesmo cabealho.
+	 * @param leitor O {@link LeitorDbf} criado a partir de um arquivo.
+	 * @param destino O arquivo dbf a ser criado.
+	 * @return A quantidade de registros gravados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita dos arquivos.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave no exista.
+	 * @see #deduplicar(List, File)
+	 */
+	public long deduplicar(LeitorDbf leitor, File destino) throws IOException, CampoDbfIlegalException {
+		return deduplicar(Collections.singletonList(leitor), destino);
+	}
+
+	/**
+	 * Deduplica os registros dos leitores, como se fossem um nico arquivo, e grava os mantidos em um novo arquivo dbf com o cabealho do primeiro leitor.
+	 * @param leitores Os {@link LeitorDbf} criados a partir de arquivos, com o mesmo layout.
+	 * @param destino O arquivo dbf a ser criado.
+	 * @return A quantidade de registros gravados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita dos arquivos.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave no exista ou os leitores no tenham o mesmo layout.
+	 */
+	public long deduplicar(List<LeitorDbf> leitores, File destino) throws IOException, CampoDbfIlegalException {
+		ChaveDeRegistro chave = validar(leitores);
+		try(EscritorDbf escritor = new EscritorDbf(destino, leitores.get(0).getCabecalho())) {
+			return deduplicar(leitores, chave, escritor::escreverRegistro);
+		}
+	}
+
+	/**
+	 * Deduplica os registros de um leitor e entrega os mantidos ao consumidor.
+	 * @param leitor O {@link LeitorDbf} criado a partir de um arquivo.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros mantidos.
+	 * @return A quantidade de registros entregues.
+	 * @throws IOException Se ocorrer problemas na leitura dos arquivos, na escrita das parties ou no consumidor.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave no exista.
+	 * @see #deduplicar(List, ConsumidorDeRegistro)
+	 */
+	public long deduplicar(LeitorDbf leitor, ConsumidorDeRegistro consumidor) throws IOException, CampoDbfIlegalException {
+		return deduplicar(Collections.singletonList(leitor), consumidor);
+	}
+
+	/**
+	 * <p>
+	 * 	Deduplica os registros dos leitores, como se fossem um nico arquivo, e entrega os mantidos ao consumidor.
+	 * </p>
+	 * <p>
+	 * 	Os registros so lidos com {@link LeitorDbf#lerRegistros(long, byte[], int, int)}, sem alterar a leitura sequencial dos leitores, que precisam ter
+	 * 	sido criados a partir de arquivos.
+	 * </p>
+	 * @param leitores Os {@link LeitorDbf} criados a partir de arquivos, com o mesmo layout.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros mantidos.
+	 * @return A quantidade de registros entregues.
+	 * @throws IOException Se ocorrer problemas na leitura dos arquivos, na escrita das parties ou no consumidor.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave no exista ou os leitores no tenham o mesmo layout.
+	 * @throws UnsupportedOperationException Caso algum leitor no tenha sido criado a partir de um arquivo.
+	 */
+	public long deduplicar(List<LeitorDbf> leitores, ConsumidorDeRegistro consumidor) throws IOException, CampoDbfIlegalException {
+		return deduplicar(leitores, validar(leitores), consumidor);
+	}
+
+	private long deduplicar(List<LeitorDbf> leitores, ChaveDeRegistro chave, ConsumidorDeRegistro consumidor) throws IOException {
+		particoesCriadas = 0;
+		registrosEmDisco = 0;
+		long registros = 0;
+		for(LeitorDbf leitor : leitores) registros += leitor.getCabecalho().getNumeroDeRegistros() & 0xFFFFFFFFL;
+		int tamanhoDoRegistro = leitores.get(0).getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		return deduplicar(deLeitores(leitores, tamanhoDoRegistro), registros, 0, chave, tamanhoDoRegistro, consumidor);
+	}
+
+	private ChaveDeRegistro validar(List<LeitorDbf> leitores) throws CampoDbfIlegalException {
+		if(leitores == null || leitores.isEmpty()) throw new IllegalArgumentException(" necessrio informar ao menos um leitor.");
+		CabecalhoDbf referencia = leitores.get(0).getCabecalho();
+		for(int i = 1; i < leitores.size(); i++) {
+			if(!referencia.isMesmoLayout(leitores.get(i).getCabecalho())) {
+				throw new CampoDbfIlegalException("O leitor " + i + " no possui o mesmo layout de campos do primeiro leitor.");
+			}
+		}
+		return new ChaveDeRegistro(referencia, camposChave);
+	}
+
+	/**
+	 * Deduplica uma sequncia de entradas, formadas pelo indicador de entrega seguido do registro. As chaves que no couberem no conjunto so gravadas
+	 * em parties pelos bits do hash seguintes aos j utilizados e deduplicadas ao final.
+	 * @param entradas A quantidade estimada de entradas, utilizada para dimensionar as parties e o filtro de Bloom.
+	 */
+	private long deduplicar(Origem origem, long entradas, int bitsUtilizados, ChaveDeRegistro chave, int tamanhoDoRegistro,
+			ConsumidorDeRegistro consumidor) throws IOException {
+		boolean primeira = ocorrenciaMantida == OcorrenciaMantida.PRIMEIRA;
+		long memoriaDoConjunto = primeira && filtroDeBloom ? memoriaMaxima / 4 * 3 : memoriaMaxima;
+		ConjuntoDeChaves conjunto = new ConjuntoDeChaves(chave, bitsUtilizados >= BITS_DO_HASH ? Long.MAX_VALUE : memoriaDoConjunto);
+		int tamanhoDaEntrada = tamanhoDoRegistro + 1;
+		int porBloco = Math.max(1, TAMANHO_DO_BLOCO / tamanhoDaEntrada);
+		byte[] bloco = new byte[porBloco * tamanhoDaEntrada];
+		Particoes particoes = null;
+		FiltroDeBloom filtro = null;
+		int bits = 0;
+		long entregues = 0;
+
+		try {
+			try(Fonte fonte = origem.abrir()) {
+				long lidas = 0;
+				int quantidade;
+				while((quantidade = fonte.ler(bloco, porBloco)) > 0) {
+					for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDaEntrada, lidas++) {
+						long hash = conjunto.hash(bloco, offset + 1);
+						int posicao = conjunto.buscar(bloco, offset + 1, hash);
+						if(posicao >= 0) {
+							// Chave repetida. Na ltima ocorrncia, a posio passa a ser a deste registro
+							if(!primeira) conjunto.setValor(posicao, lidas);
+							continue;
+						}
+						if(particoes == null && conjunto.adicionar(hash, lidas)) {
+							if(primeira && bloco[offset] == CANDIDATO) {
+								consumidor.consumir(bloco, offset + 1);
+								entregues++;
+							}
+							continue;
+						}
+
+						if(particoes == null) {
+							if(bitsUtilizados >= BITS_DO_HASH) throw new IOException("A quantidade de chaves distintas excede a capacidade do conjunto.");
+							long peso = (Math.max(entradas - lidas, 1)) * ConjuntoDeChaves.getPesoPorChave(chave);
+							int quantidadeDeParticoes = Integer.highestOneBit((int) Math.min(MAXIMO_DE_PARTICOES, peso / memoriaDoConjunto + 1) * 2 - 1);
+							bits = Math.min(Math.max(1, Integer.numberOfTrailingZeros(quantidadeDeParticoes)), BITS_DO_HASH - bitsUtilizados);
+							particoes = new Particoes(1 << bits);
+							if(primeira && filtroDeBloom) filtro = criarFiltro(entradas - lidas);
+						}
+						if(filtro != null) {
+							// Chave certamente nova: o registro  entregue agora e a entrada fica apenas para identificar as repeties seguintes
+							if(bloco[offset] == CANDIDATO && !filtro.podeConter(hash)) {
+								consumidor.consumir(bloco, offset + 1);
+								entregues++;
+								bloco[offset] = ENTREGUE;
+							}
+							filtro.adicionar(hash);
+						}
+						int p = (int) (hash >>> (BITS_DO_HASH - bitsUtilizados - bits)) & ((1 << bits) - 1);
+						particoes.saidas[p].write(bloco, offset, tamanhoDaEntrada);
+						particoes.quantidades[p]++;
+						registrosEmDisco++;
+					}
+				}
+			}
+
+			if(!primeira) entregues += entregarUltimas(origem, conjunto, bloco, porBloco, tamanhoDaEntrada, consumidor);
+			if(particoes == null) return entregues;
+
+			// O conjunto e o filtro no so mais necessrios e podem ser liberados antes das parties
+			conjunto = null;
+			filtro = null;
+			particoes.fecharSaidas();
+			for(int p = 0; p < particoes.arquivos.length; p++) {
+				if(particoes.quantidades[p] > 0) {
+					entregues += deduplicar(deParticao(particoes.arquivos[p], particoes.quantidades[p], tamanhoDaEntrada), particoes.quantidades[p],
+							bitsUtilizados + bits, chave, tamanhoDoRegistro, consumidor);
+				}
+				particoes.excluir(p);
+			}
+			return entregues;
+		} finally {
+			if(particoes != null) particoes.excluir();
+		}
+	}
+
+	/**
+	 * L novamente as entradas e entrega as que so a ltima ocorrncia de uma chave do conjunto. As chaves gravadas em parties no esto no conjunto.
+	 */
+	private static long entregarUltimas(Origem origem, ConjuntoDeChaves conjunto, byte[] bloco, int porBloco, int tamanhoDaEntrada,
+			ConsumidorDeRegistro consumidor) throws IOException {
+		long entregues = 0;
+		try(Fonte fonte = origem.abrir()) {
+			long lidas = 0;
+			int quantidade;
+			while((quantidade = fonte.ler(bloco, porBloco)) > 0) {
+				for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDaEntrada, lidas++) {
+					int posicao = conjunto.buscar(bloco, offset + 1, conjunto.hash(bloco, offset + 1));
+					if(posicao >= 0 && conjunto.getValor(posicao) == lidas) {
+						consumidor.consumir(bloco, offset + 1);
+						entregues++;
+					}
+				}
+			}
+		}
+		return entregues;
+	}
+
+	/**
+	 * Cria o filtro de Bloom com um quarto da memria mxima para as entradas restantes.
+	 * @return O {@link FiltroDeBloom} ou <b>null</b> caso a memria seja pouca para a quantidade de entradas.
+	 */
+	private FiltroDeBloom criarFiltro(long entradasRestantes) {
+		long n = Math.max(1, entradasRestantes);
+		double ln2 = Math.log(2);
+		double taxa = Math.exp(-(memoriaMaxima / 4 * 8.0 / n) * ln2 * ln2);
+		if(taxa > TAXA_MAXIMA_DO_FILTRO) return null;
+		return new FiltroDeBloom(n, Math.max(taxa, TAXA_MINIMA_DO_FILTRO));
+	}
+
+	/**
+	 * Os registros presentes dos leitores, em sequncia, como entradas ainda no entregues.
+	 */
+	private static Origem deLeitores(List<LeitorDbf> leitores, int tamanhoDoRegistro) {
+		return () -> new Fonte() {
+			private int atual;
+			private long proximo;
+			private byte[] registros;
+
+			@Override
+			public int ler(byte[] bloco, int quantidade) throws IOException {
+				if(registros == null || registros.length < quantidade * tamanhoDoRegistro) registros = new byte[quantidade * tamanhoDoRegistro];
+				// L novamente caso o bloco inteiro seja de registros deletados
+				while(atual < leitores.size()) {
+					int lidos = leitores.get(atual).lerRegistros(proximo, registros, 0, quantidade);
+					if(lidos == 0) {
+						atual++;
+						proximo = 0;
+						continue;
+					}
+					proximo += lidos;
+					int presentes = 0;
+					for(int r = 0; r < lidos; r++) {
+						if(LeitorDbf.isDeletado(registros, r * tamanhoDoRegistro)) continue;
+						int destino = presentes++ * (tamanhoDoRegistro + 1);
+						bloco[destino] = CANDIDATO;
+						System.arraycopy(registros, r * tamanhoDoRegistro, bloco, destino + 1, tamanhoDoRegistro);
+					}
+					if(presentes > 0) return presentes;
+				}
+				return 0;
+			}
+
+			@Override
+			public void close() {
+				// Os leitores pertencem a quem os criou
+			}
+		};
+	}
+
+	private static Origem deParticao(File arquivo, long entradas, int tamanhoDaEntrada) {
+		return () -> {
+			DataInputStream entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo), TAMANHO_DO_BUFFER_DAS_PARTICOES));
+			return new Fonte() {
+				private long restantes = entradas;
+
+				@Override
+				public int ler(byte[] bloco, int quantidade) throws IOException {
+					int lidas = (int) Math.min(quantidade, restantes);
+					entrada.readFully(bloco, 0, lidas * tamanhoDaEntrada);
+					restantes -= lidas;
+					return lidas;
+				}
+
+				@Override
+				public void close() throws IOException {
+					entrada.close();
+				}
+			};
+		};
+	}
+
+	/**
+	 * Uma sequncia de entradas que pode ser percorrida mais de uma vez, de leitores ou de uma partio.
+	 */
+	@FunctionalInterface
+	private interface Origem {
+		Fonte abrir() throws IOException;
+	}
+
+	/**
+	 * Uma leitura das entradas em blocos.
+	 */
+	private interface Fonte extends Closeable {
+		int ler(byte[] bloco, int quantidade) throws IOException;
+	}
+
+	private class Particoes {
+		private final File[] arquivos;
+		private final OutputStream[] saidas;
+		private final long[] quantidades;
+
+		Particoes(int particoes) throws IOException {
+			arquivos = new File[particoes];
+			saidas = new OutputStream[particoes];
+			quantidades = new long[particoes];
+			try {
+				for(int p = 0; p < particoes; p++) {
+					arquivos[p] = File.createTempFile("dbf-deduplicacao-", ".tmp", diretorioTemporario);
+					arquivos[p].deleteOnExit();
+					saidas[p] = new BufferedOutputStream(new FileOutputStream(arquivos[p]), TAMANHO_DO_BUFFER_DAS_PARTICOES);
+				}
+			} catch (IOException e) {
+				excluir();
+				throw e;
+			}
+			particoesCriadas += particoes;
+		}
+
+		void fecharSaidas() throws IOException {
+			for(int p = 0; p < saidas.length; p++) {
+				if(saidas[p] != null) saidas[p].close();
+				saidas[p] = null;
+			}
+		}
+
+		void excluir(int particao) {
+			if(arquivos[particao] != null) arquivos[particao].delete();
+			arquivos[particao] = null;
+		}
+
+		void excluir() {
+			for(int p = 0; p < arquivos.length; p++) {
+				try {
+					if(saidas[p] != null) saidas[p].close();
+				} catch (IOException e) {
+					// O arquivo ser excludo de qualquer forma
+				}
+				saidas[p] = null;
+				excluir(p);
+			}
+		}
+	}
+
+	/**
+	 * Os nomes dos campos da chave.
+	 * @return Um {@link String}[ ] com os campos na ordem da chave.
+	 */
+	public String[] getCamposChave() {
+		return camposChave;
+	}
+
+	public OcorrenciaMantida getOcorrenciaMantida() {
+		return ocorrenciaMantida;
+	}
+
+	/**
+	 * Define qual registro  mantido entre os que tm a mesma chave.
+	 * @param ocorrenciaMantida A {@link OcorrenciaMantida}. Padro {@link OcorrenciaMantida#PRIMEIRA}.
+	 */
+	public void setOcorrenciaMantida(OcorrenciaMantida ocorrenciaMantida) {
+		if(ocorrenciaMantida == null) throw new IllegalArgumentException("A ocorrncia mantida no pode ser nula.");
+		this.ocorrenciaMantida = ocorrenciaMantida;
+	}
+
+	public long getMemoriaMaxima() {
+		return memoriaMaxima;
+	}
+
+	/**
+	 * Define a memria utilizada pelo conjunto de chaves e pelo filtro de Bloom, acima da qual as chaves so gravadas em parties.
+	 * @param memoriaMaxima A quantidade aproximada de bytes. Padro {@value #MEMORIA_MAXIMA_PADRAO}.
+	 */
+	public void setMemoriaMaxima(long memoriaMaxima) {
+		if(memoriaMaxima <= 0) throw new IllegalArgumentException("A memria mxima deve ser positiva.");
+		this.memoriaMaxima = memoriaMaxima;
+	}
+
+	public boolean isFiltroDeBloom() {
+		return filtroDeBloom;
+	}
+
+	/**
+	 * Define se o filtro de Bloom  utilizado para entregar imediatamente os registros com chaves novas aps o conjunto encher. S tem efeito com
+	 * {@link OcorrenciaMantida#PRIMEIRA}.
+	 * @param filtroDeBloom <b>false</b> para dedicar toda a memria ao conjunto de chaves. Padro  <b>true</b>.
+	 */
+	public void setFiltroDeBloom(boolean filtroDeBloom) {
+		this.filtroDeBloom = filtroDeBloom;
+	}
+
+	public File getDiretorioTemporario() {
+		return diretorioTemporario;
+	}
+
+	/**
+	 * Define o diretrio onde as parties so gravadas.
+	 * @param diretorioTemporario O diretrio das parties. <b>null</b> utiliza o diretrio temporrio do sistema.
+	 */
+	public void setDiretorioTemporario(File diretorioTemporario) {
+		this.diretorioTemporario = diretorioTemporario;
+	}
+
+	/**
+	 * A quantidade de parties gravadas em disco na ltima deduplicao.
+	 * @return Um <b>int</b> com a quantidade de parties, ou 0 caso todas as chaves tenham cabido na memria.
+	 */
+	public int getParticoesCriadas() {
+		return particoesCriadas;
+	}
+
+	/**
+	 * A quantidade de registros gravados nas parties na ltima deduplicao, somando todas as divises.
+	 * @return Um <b>long</b> com a quantidade de registros gravados em disco.
+	 */
+	public long getRegistrosEmDisco() {
+		return registrosEmDisco;
+	}
+}
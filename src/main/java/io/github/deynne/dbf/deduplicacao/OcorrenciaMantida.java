@@ -0,0 +1,18 @@
+package io.github.deynne.dbf.deduplicacao;
+
+/**
+ * Qual registro  mantido pelo {@link DeduplicadorDbf} entre os que tm a mesma chave.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public enum OcorrenciaMantida {
+	/**
+	 * O primeiro registro de cada chave, na ordem dos leitores e dos registros. Os registros so lidos uma nica vez.
+	 */
+	PRIMEIRA,
+	/**
+	 * O ltimo registro de cada chave, na ordem dos leitores e dos registros. Os registros so lidos duas vezes: a primeira para encontrar a ltima
+	 * ocorrncia de cada chave e a segunda para entreg-las.
+	 */
+	ULTIMA
+}
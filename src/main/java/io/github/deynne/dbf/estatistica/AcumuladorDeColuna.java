@@ -0,0 +1,165 @@
+package io.github.deynne.dbf.estatistica;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.HashDeBytes;
+import io.github.deynne.dbf.util.HyperLogLog;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * Os valores parciais das estatsticas de uma coluna, acumulados por uma nica thread diretamente sobre os bytes dos registros.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class AcumuladorDeColuna {
+
+	final CampoDbf campo;
+	final TiposDbf tipo;
+	private final int deslocamento;
+	private final int tamanho;
+	private final boolean binario;
+
+	long valores;
+	long nulos;
+	int tamanhoMaximo;
+	double minimo = Double.NaN;
+	double maximo = Double.NaN;
+	// Os campos de texto guardam os bytes sem os espaos do fim do menor e do maior valor
+	byte[] minimoTexto;
+	byte[] maximoTexto;
+	int tamanhoMinimoTexto = -1;
+	int tamanhoMaximoTexto = -1;
+	final HyperLogLog distintos = new HyperLogLog();
+
+	AcumuladorDeColuna(CampoDbf campo) {
+		this.campo = campo;
+		this.tipo = campo.getTipo();
+		this.deslocamento = campo.getDeslocamento();
+		this.tamanho = campo.getTamanhoDoCampo() & 0xFF;
+		this.binario = tipo != null && tipo.isBinario();
+		if(!EstatisticasDaColuna.isOrdenadaComoNumero(tipo)) {
+			minimoTexto = new byte[tamanho];
+			maximoTexto = new byte[tamanho];
+		}
+	}
+
+	/**
+	 * Considera o valor da coluna em um registro.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio do registro no array.
+	 */
+	void acumular(byte[] registro, int offset) {
+		if(binario) {
+			acumularBinario(registro, offset + deslocamento);
+			return;
+		}
+		// Os textos mantm os espaos do incio, como na comparao dos filtros, que ignora apenas os do fim
+		int inicio = minimoTexto != null ? offset + deslocamento : DecodificadorDbf.inicioSemEspacos(registro, offset + deslocamento, tamanho);
+		int fim = DecodificadorDbf.fimSemEspacos(registro, inicio, offset + deslocamento + tamanho - inicio);
+		int comprimento = fim - inicio;
+		if(comprimento == 0) {
+			nulos++;
+			return;
+		}
+
+		if(minimoTexto != null) {
+			acumularTexto(registro, inicio, comprimento);
+		}
+		else {
+			double valor = lerNumero(tipo, registro, offset + deslocamento, tamanho, inicio, comprimento);
+			// Valores invlidos, como os campos numricos preenchidos com '*', so contados como nulos
+			if(Double.isNaN(valor)) {
+				nulos++;
+				return;
+			}
+			if(!(valor >= minimo)) minimo = valor;
+			if(!(valor <= maximo)) maximo = valor;
+		}
+
+		valores++;
+		if(comprimento > tamanhoMaximo) tamanhoMaximo = comprimento;
+		distintos.adicionar(HashDeBytes.hash(registro, inicio, comprimento));
+	}
+
+	/**
+	 * Converte o valor de uma coluna numrica, de data ou lgica para <b>double</b>, na representao de {@link EstatisticasDaColuna}.
+	 * @param tipo O tipo do campo.
+	 * @param registro O array contendo o registro.
+	 * @param offsetDoCampo A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @param inicio A posio do primeiro byte do campo que no  espao.
+	 * @param comprimento A quantidade de bytes do campo sem os espaos.
+	 * @return O valor do campo ou {@link Double#NaN} caso ele seja invlido.
+	 */
+	static double lerNumero(TiposDbf tipo, byte[] registro, int offsetDoCampo, int tamanho, int inicio, int comprimento) {
+		if(tipo != null && tipo.isBinario()) return DecodificadorDbf.lerNumero(tipo, registro, offsetDoCampo, tamanho);
+		if(tipo == TiposDbf.DATA) {
+			int data = tamanho < 8 ? 0 : DecodificadorDbf.lerData(registro, offsetDoCampo);
+			return data == 0 ? Double.NaN : data;
+		}
+		if(tipo == TiposDbf.LOGICO) {
+			byte b = registro[inicio];
+			return b == '?' ? Double.NaN : DecodificadorDbf.lerLogico(b) ? 1 : 0;
+		}
+		return DecodificadorDbf.lerDouble(registro, inicio, comprimento);
+	}
+
+	/**
+	 * Nos campos binrios todos os bytes do campo fazem parte do valor, inclusive os espaos e os bytes 0.
+	 */
+	private void acumularBinario(byte[] registro, int offsetDoCampo) {
+		double valor = DecodificadorDbf.lerNumero(tipo, registro, offsetDoCampo, tamanho);
+		if(Double.isNaN(valor)) {
+			nulos++;
+			return;
+		}
+		if(!(valor >= minimo)) minimo = valor;
+		if(!(valor <= maximo)) maximo = valor;
+		valores++;
+		tamanhoMaximo = tamanho;
+		distintos.adicionar(HashDeBytes.hash(registro, offsetDoCampo, tamanho));
+	}
+
+	private void acumularTexto(byte[] registro, int inicio, int comprimento) {
+		if(tamanhoMinimoTexto < 0 || comparar(registro, inicio, comprimento, minimoTexto, tamanhoMinimoTexto) < 0) {
+			System.arraycopy(registro, inicio, minimoTexto, 0, comprimento);
+			tamanhoMinimoTexto = comprimento;
+		}
+		if(tamanhoMaximoTexto < 0 || comparar(registro, inicio, comprimento, maximoTexto, tamanhoMaximoTexto) > 0) {
+			System.arraycopy(registro, inicio, maximoTexto, 0, comprimento);
+			tamanhoMaximoTexto = comprimento;
+		}
+	}
+
+	/**
+	 * Combina os valores acumulados por outra thread para a mesma coluna.
+	 * @param outro O outro acumulador.
+	 */
+	void mesclar(AcumuladorDeColuna outro) {
+		valores += outro.valores;
+		nulos += outro.nulos;
+		tamanhoMaximo = Math.max(tamanhoMaximo, outro.tamanhoMaximo);
+		distintos.mesclar(outro.distintos);
+		if(minimoTexto != null) {
+			if(outro.tamanhoMinimoTexto >= 0) acumularTexto(outro.minimoTexto, 0, outro.tamanhoMinimoTexto);
+			if(outro.tamanhoMaximoTexto >= 0) acumularTexto(outro.maximoTexto, 0, outro.tamanhoMaximoTexto);
+		}
+		else {
+			if(outro.valores == 0) return;
+			if(!(outro.minimo >= minimo)) minimo = outro.minimo;
+			if(!(outro.maximo <= maximo)) maximo = outro.maximo;
+		}
+	}
+
+	/**
+	 * Compara dois textos byte a byte sem sinal. Um texto que  prefixo do outro  menor.
+	 */
+	static int comparar(byte[] a, int offsetA, int tamanhoA, byte[] b, int tamanhoB) {
+		for(int i = 0, n = Math.min(tamanhoA, tamanhoB); i < n; i++) {
+			int x = a[offsetA + i] & 0xFF;
+			int y = b[i] & 0xFF;
+			if(x != y) return x - y;
+		}
+		return tamanhoA - tamanhoB;
+	}
+}
@@ -0,0 +1,138 @@
+package io.github.deynne.dbf.estatistica;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.ProcessadorDeBlocos;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Calcula, em uma nica leitura do arquivo, as estatsticas das colunas de um dbf: mnimo, mximo, quantidade de nulos, maior tamanho e quantidade
+ * 	aproximada de valores distintos.
+ * </p>
+ * <p>
+ * 	Os registros so lidos em blocos pelo {@link LeitorDbf} e distribudos entre vrias threads por {@link ProcessadorDeBlocos}. Cada thread acumula
+ * 	as estatsticas parciais diretamente sobre os bytes dos registros e os parciais so combinados ao final. Os registros deletados so ignorados.
+ * </p>
+ * <pre>
+ * EstatisticasDbf estatisticas = new CalculadoraDeEstatisticas().calcular(leitor);
+ * estatisticas.salvar(arquivo);
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class CalculadoraDeEstatisticas {
+
+	public static final int REGISTROS_POR_BLOCO_PADRAO = 8192;
+
+	private String[] campos;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int registrosPorBloco = REGISTROS_POR_BLOCO_PADRAO;
+
+	// Os acumuladores de uma thread
+	private static class Parcial {
+		final AcumuladorDeColuna[] colunas;
+		long registros;
+
+		Parcial(CampoDbf[] campos) {
+			colunas = new AcumuladorDeColuna[campos.length];
+			for(int i = 0; i < campos.length; i++) colunas[i] = new AcumuladorDeColuna(campos[i]);
+		}
+
+		void mesclar(Parcial outro) {
+			registros += outro.registros;
+			for(int i = 0; i < colunas.length; i++) colunas[i].mesclar(outro.colunas[i]);
+		}
+	}
+
+	/**
+	 * Calcula as estatsticas de todos os registros do leitor.
+	 * @param leitor O {@link LeitorDbf} posicionado no incio dos registros.
+	 * @return As {@link EstatisticasDbf} das colunas.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum dos campos definidos em {@link #setCampos(String...)} no exista no arquivo.
+	 * @throws IllegalStateException Caso algum registro j tenha sido lido, j que as estatsticas so gravadas como as do arquivo inteiro.
+	 */
+	public EstatisticasDbf calcular(LeitorDbf leitor) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		if(leitor.getRecordsLidos() != 0) throw new IllegalStateException("O leitor deve estar posicionado no incio dos registros.");
+		CabecalhoDbf cabecalho = leitor.getCabecalho();
+		CampoDbf[] selecionados = cabecalho.getCampos();
+		if(campos != null) {
+			selecionados = new CampoDbf[campos.length];
+			for(int i = 0; i < campos.length; i++) {
+				int indice = cabecalho.getIdByNome(campos[i]);
+				if(indice < 0) throw new CampoDbfIlegalException("O campo " + campos[i] + " no existe no arquivo.");
+				selecionados[i] = cabecalho.getCampos()[indice];
+			}
+		}
+		final CampoDbf[] camposCalculados = selecionados;
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+
+		Parcial resultado = ProcessadorDeBlocos.processar(leitor, threads, registrosPorBloco, () -> new Parcial(camposCalculados),
+				(parcial, bloco, quantidade) -> {
+					AcumuladorDeColuna[] colunas = parcial.colunas;
+					for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro) {
+						if(LeitorDbf.isDeletado(bloco, offset)) continue;
+						parcial.registros++;
+						for(AcumuladorDeColuna coluna : colunas) {
+							coluna.acumular(bloco, offset);
+						}
+					}
+				}, Parcial::mesclar);
+
+		Charset charset = leitor.getCharSet();
+		EstatisticasDaColuna[] colunas = new EstatisticasDaColuna[camposCalculados.length];
+		for(int i = 0; i < colunas.length; i++) {
+			AcumuladorDeColuna a = resultado.colunas[i];
+			String minimoTexto = a.minimoTexto == null || a.tamanhoMinimoTexto < 0 ? null : new String(a.minimoTexto, 0, a.tamanhoMinimoTexto, charset);
+			String maximoTexto = a.maximoTexto == null || a.tamanhoMaximoTexto < 0 ? null : new String(a.maximoTexto, 0, a.tamanhoMaximoTexto, charset);
+			colunas[i] = new EstatisticasDaColuna(a.campo.getNome().trim(), a.tipo, a.valores, a.nulos, a.tamanhoMaximo, a.distintos.estimar(),
+					a.minimo, a.maximo, minimoTexto, maximoTexto, charset);
+		}
+		return new EstatisticasDbf(cabecalho.getImpressaoDigital(), resultado.registros, charset, colunas);
+	}
+
+	public String[] getCampos() {
+		return campos;
+	}
+
+	/**
+	 * Define os campos cujas estatsticas sero calculadas.
+	 * @param campos Os nomes dos campos. <b>null</b> calcula as estatsticas de todos os campos do arquivo.
+	 */
+	public void setCampos(String... campos) {
+		this.campos = campos;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Define a quantidade de threads que processam os blocos de registros.
+	 * @param threads A quantidade de threads. Padro  a quantidade de processadores disponveis.
+	 */
+	public void setThreads(int threads) {
+		if(threads <= 0) throw new IllegalArgumentException("A quantidade de threads deve ser positiva.");
+		this.threads = threads;
+	}
+
+	public int getRegistrosPorBloco() {
+		return registrosPorBloco;
+	}
+
+	/**
+	 * Define a quantidade de registros lidos e entregues a uma thread de cada vez.
+	 * @param registrosPorBloco A quantidade de registros por bloco. Padro {@value #REGISTROS_POR_BLOCO_PADRAO}.
+	 */
+	public void setRegistrosPorBloco(int registrosPorBloco) {
+		if(registrosPorBloco <= 0) throw new IllegalArgumentException("A quantidade de registros por bloco deve ser positiva.");
+		this.registrosPorBloco = registrosPorBloco;
+	}
+}
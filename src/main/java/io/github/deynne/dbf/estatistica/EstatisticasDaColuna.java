@@ -0,0 +1,180 @@
+package io.github.deynne.dbf.estatistica;
+
+import java.nio.charset.Charset;
+
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	As estatsticas de uma coluna do dbf, calculadas por {@link CalculadoraDeEstatisticas}.
+ * </p>
+ * <p>
+ * 	Os campos numricos (N e F), de data (D) e lgicos (L) tm o mnimo e o mximo representados como <b>double</b>: as datas como AAAAMMDD e os lgicos como
+ * 	0 e 1. O mesmo vale para os campos binrios ({@link TiposDbf#isBinario()}), com as datas e horas em milissegundos desde 1970-01-01T00:00. Os demais
+ * 	campos tm o mnimo e o mximo representados como texto sem os espaos do fim, na ordem dos bytes do arquivo sem sinal. Os espaos do incio fazem
+ * 	parte do valor, como nas condies de texto de {@link io.github.deynne.dbf.jdbc.DriverDbf}. Essa ordem no coincide com a de
+ * 	{@link String#compareTo(String)} em todos os charsets, ento {@link #podeConter(String, String)} converte os limites com o charset do arquivo e compara
+ * 	os bytes.
+ * </p>
+ * <p>
+ * 	Campos vazios, nmeros invlidos (como os preenchidos com '*') e lgicos indefinidos ('?') so contados como nulos e no participam do mnimo, do
+ * 	mximo, do tamanho e da quantidade de valores distintos.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class EstatisticasDaColuna {
+
+	private final String nome;
+	private final TiposDbf tipo;
+	private final long valores;
+	private final long nulos;
+	private final int tamanhoMaximo;
+	private final long distintos;
+	private final double minimo;
+	private final double maximo;
+	private final String minimoTexto;
+	private final String maximoTexto;
+	private final Charset charset;
+	// O mnimo e o mximo textuais nos bytes do arquivo, para a comparao de podeConter
+	private final byte[] minimoBytes;
+	private final byte[] maximoBytes;
+
+	EstatisticasDaColuna(String nome, TiposDbf tipo, long valores, long nulos, int tamanhoMaximo, long distintos, double minimo, double maximo,
+			String minimoTexto, String maximoTexto, Charset charset) {
+		this.nome = nome;
+		this.tipo = tipo;
+		this.valores = valores;
+		this.nulos = nulos;
+		this.tamanhoMaximo = tamanhoMaximo;
+		this.distintos = distintos;
+		this.minimo = minimo;
+		this.maximo = maximo;
+		this.minimoTexto = minimoTexto;
+		this.maximoTexto = maximoTexto;
+		this.charset = charset;
+		this.minimoBytes = minimoTexto == null ? null : minimoTexto.getBytes(charset);
+		this.maximoBytes = maximoTexto == null ? null : maximoTexto.getBytes(charset);
+	}
+
+	/**
+	 * Indica se o mnimo e o mximo de um tipo de campo so representados como <b>double</b>.
+	 * @param tipo O {@link TiposDbf} do campo.
+	 * @return <b>true</b> para campos numricos, de data, lgicos e binrios.
+	 */
+	static boolean isOrdenadaComoNumero(TiposDbf tipo) {
+		return tipo == TiposDbf.NUMERICO || tipo == TiposDbf.FLUTUANTE || tipo == TiposDbf.DATA || tipo == TiposDbf.LOGICO || (tipo != null && tipo.isBinario());
+	}
+
+	/**
+	 * Indica se algum valor da coluna pode estar no intervalo informado, considerando o mnimo e o mximo numricos.
+	 * @param inicio O incio do intervalo, inclusive. {@link Double#NaN} para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. {@link Double#NaN} para um intervalo sem fim.
+	 * @return <b>false</b> apenas quando  certo que nenhum registro tem um valor no intervalo.
+	 */
+	public boolean podeConter(double inicio, double fim) {
+		if(!isOrdenadaComoNumero(tipo)) return true;
+		if(valores == 0) return false;
+		return !(fim < minimo) && !(inicio > maximo);
+	}
+
+	/**
+	 * Indica se algum valor da coluna pode estar no intervalo informado, considerando o mnimo e o mximo textuais. Os limites so convertidos com o charset
+	 * do arquivo e comparados byte a byte sem sinal, na mesma ordem utilizada no clculo. Os espaos do fim dos limites so ignorados.
+	 * @param inicio O incio do intervalo, inclusive. <b>null</b> para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. <b>null</b> para um intervalo sem fim.
+	 * @return <b>false</b> apenas quando  certo que nenhum registro tem um valor no intervalo.
+	 */
+	public boolean podeConter(String inicio, String fim) {
+		if(isOrdenadaComoNumero(tipo)) return true;
+		if(valores == 0) return false;
+		if(fim != null) {
+			byte[] bytes = fim.getBytes(charset);
+			if(AcumuladorDeColuna.comparar(bytes, 0, DecodificadorDbf.fimSemEspacos(bytes, 0, bytes.length), minimoBytes, minimoBytes.length) < 0) return false;
+		}
+		if(inicio != null) {
+			byte[] bytes = inicio.getBytes(charset);
+			if(AcumuladorDeColuna.comparar(bytes, 0, DecodificadorDbf.fimSemEspacos(bytes, 0, bytes.length), maximoBytes, maximoBytes.length) > 0) return false;
+		}
+		return true;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public TiposDbf getTipo() {
+		return tipo;
+	}
+
+	/**
+	 * A quantidade de registros com um valor vlido na coluna.
+	 * @return Um <b>long</b> com a quantidade de valores no nulos.
+	 */
+	public long getValores() {
+		return valores;
+	}
+
+	/**
+	 * A quantidade de registros com a coluna vazia ou invlida.
+	 * @return Um <b>long</b> com a quantidade de nulos.
+	 */
+	public long getNulos() {
+		return nulos;
+	}
+
+	/**
+	 * O maior tamanho, em bytes, de um valor da coluna sem os espaos do fim e, nas colunas numricas, de data e lgicas, tambm sem os do incio.
+	 * @return Um <b>int</b> com o maior tamanho encontrado.
+	 */
+	public int getTamanhoMaximo() {
+		return tamanhoMaximo;
+	}
+
+	/**
+	 * A quantidade aproximada de valores distintos, estimada com {@link io.github.deynne.dbf.util.HyperLogLog}.
+	 * @return Um <b>long</b> com a estimativa.
+	 */
+	public long getDistintos() {
+		return distintos;
+	}
+
+	/**
+	 * O menor valor de uma coluna numrica, de data ou lgica.
+	 * @return O menor valor ou {@link Double#NaN} caso a coluna seja de texto ou no tenha valores.
+	 */
+	public double getMinimo() {
+		return minimo;
+	}
+
+	/**
+	 * O maior valor de uma coluna numrica, de data ou lgica.
+	 * @return O maior valor ou {@link Double#NaN} caso a coluna seja de texto ou no tenha valores.
+	 */
+	public double getMaximo() {
+		return maximo;
+	}
+
+	/**
+	 * O menor valor de uma coluna de texto.
+	 * @return O menor valor ou <b>null</b> caso a coluna no seja de texto ou no tenha valores.
+	 */
+	public String getMinimoTexto() {
+		return minimoTexto;
+	}
+
+	/**
+	 * O maior valor de uma coluna de texto.
+	 * @return O maior valor ou <b>null</b> caso a coluna no seja de texto ou no tenha valores.
+	 */
+	public String getMaximoTexto() {
+		return maximoTexto;
+	}
+
+	@Override
+	public String toString() {
+		String faixa = isOrdenadaComoNumero(tipo) ? minimo + " - " + maximo : minimoTexto + " - " + maximoTexto;
+		return nome + " [valores=" + valores + ", nulos=" + nulos + ", tamanhoMaximo=" + tamanhoMaximo + ", distintos=" + distintos + ", faixa=" + faixa + "]";
+	}
+}
@@ -0,0 +1,206 @@
+package io.github.deynne.dbf.estatistica;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.util.ArquivoAuxiliar;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	As estatsticas das colunas de um arquivo dbf, calculadas por {@link CalculadoraDeEstatisticas}.
+ * </p>
+ * <p>
+ * 	As estatsticas podem ser gravadas em um arquivo auxiliar com a extenso {@value #EXTENSAO}, ao lado do dbf, e recuperadas depois sem a leitura dos
+ * 	registros. O arquivo auxiliar guarda a {@link CabecalhoDbf#getImpressaoDigital() impresso digital} do cabealho e  ignorado caso o dbf tenha sido
+ * 	alterado. Com elas  possvel descartar um arquivo inteiro quando o mnimo e o mximo de uma coluna mostram que nenhum registro atende a um filtro.
+ * </p>
+ * <pre>
+ * EstatisticasDbf estatisticas = EstatisticasDbf.carregar(arquivo);
+ * if(estatisticas != null &amp;&amp; !estatisticas.podeConter("VALOR", 1000, Double.NaN)) {
+ *     // nenhum registro com VALOR &gt;= 1000
+ * }
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class EstatisticasDbf {
+
+	public static final String EXTENSAO = "stats";
+
+	private static final int IDENTIFICADOR = 0x44425354; // "DBST"
+	private static final int VERSAO = 2;
+
+	private final long impressaoDigital;
+	private final long registros;
+	private final Charset charset;
+	private final EstatisticasDaColuna[] colunas;
+
+	EstatisticasDbf(long impressaoDigital, long registros, Charset charset, EstatisticasDaColuna[] colunas) {
+		this.impressaoDigital = impressaoDigital;
+		this.registros = registros;
+		this.charset = charset;
+		this.colunas = colunas;
+	}
+
+	/**
+	 * As estatsticas de uma coluna.
+	 * @param nome O nome do campo.
+	 * @return As {@link EstatisticasDaColuna} do campo.
+	 * @throws CampoDbfIlegalException Caso o campo no exista ou no tenha sido includo no clculo.
+	 */
+	public EstatisticasDaColuna getColuna(String nome) throws CampoDbfIlegalException {
+		for(EstatisticasDaColuna coluna : colunas) {
+			if(coluna.getNome().equals(nome)) return coluna;
+		}
+		throw new CampoDbfIlegalException("O campo " + nome + " no existe no arquivo.");
+	}
+
+	/**
+	 * Indica se algum registro pode ter um valor da coluna numrica, de data ou lgica no intervalo informado.
+	 * @param campo O nome do campo.
+	 * @param inicio O incio do intervalo, inclusive. {@link Double#NaN} para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. {@link Double#NaN} para um intervalo sem fim.
+	 * @return <b>false</b> apenas quando  certo que nenhum registro atende ao intervalo.
+	 * @throws CampoDbfIlegalException Caso o campo no exista ou no tenha sido includo no clculo.
+	 * @see EstatisticasDaColuna#podeConter(double, double)
+	 */
+	public boolean podeConter(String campo, double inicio, double fim) throws CampoDbfIlegalException {
+		return getColuna(campo).podeConter(inicio, fim);
+	}
+
+	/**
+	 * Indica se algum registro pode ter um valor da coluna de texto no intervalo informado.
+	 * @param campo O nome do campo.
+	 * @param inicio O incio do intervalo, inclusive. <b>null</b> para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. <b>null</b> para um intervalo sem fim.
+	 * @return <b>false</b> apenas quando  certo que nenhum registro atende ao intervalo.
+	 * @throws CampoDbfIlegalException Caso o campo no exista ou no tenha sido includo no clculo.
+	 * @see EstatisticasDaColuna#podeConter(String, String)
+	 */
+	public boolean podeConter(String campo, String inicio, String fim) throws CampoDbfIlegalException {
+		return getColuna(campo).podeConter(inicio, fim);
+	}
+
+	/**
+	 * Verifica se as estatsticas correspondem ao estado atual de um arquivo.
+	 * @param cabecalho O {@link CabecalhoDbf} atual do arquivo.
+	 * @return <b>true</b> caso o cabealho seja o mesmo do momento do clculo.
+	 */
+	public boolean isAtualizada(CabecalhoDbf cabecalho) {
+		return cabecalho.getImpressaoDigital() == impressaoDigital;
+	}
+
+	/**
+	 * Grava as estatsticas no arquivo auxiliar de um dbf, substituindo o anterior.
+	 * @param arquivoDbf O arquivo dbf a partir do qual as estatsticas foram calculadas.
+	 * @throws IOException Se ocorrer problemas na escrita.
+	 */
+	public void salvar(File arquivoDbf) throws IOException {
+		ArquivoAuxiliar.salvar(ArquivoAuxiliar.getArquivo(arquivoDbf, EXTENSAO), IDENTIFICADOR, VERSAO, impressaoDigital, saida -> {
+			saida.writeLong(registros);
+			saida.writeUTF(charset.name());
+			saida.writeInt(colunas.length);
+			for(EstatisticasDaColuna coluna : colunas) {
+				saida.writeUTF(coluna.getNome());
+				saida.writeByte(coluna.getTipo() == null ? 0 : coluna.getTipo().getLetra());
+				saida.writeLong(coluna.getValores());
+				saida.writeLong(coluna.getNulos());
+				saida.writeInt(coluna.getTamanhoMaximo());
+				saida.writeLong(coluna.getDistintos());
+				saida.writeDouble(coluna.getMinimo());
+				saida.writeDouble(coluna.getMaximo());
+				escreverTexto(saida, coluna.getMinimoTexto());
+				escreverTexto(saida, coluna.getMaximoTexto());
+			}
+		});
+	}
+
+	/**
+	 * L as estatsticas gravadas para um dbf, caso ainda correspondam a ele. Apenas o cabealho do dbf  lido.
+	 * @param arquivoDbf O arquivo dbf.
+	 * @return As {@link EstatisticasDbf} ou <b>null</b> caso no existam estatsticas gravadas ou o dbf tenha sido alterado depois do clculo.
+	 * @throws IOException Se ocorrer problemas na leitura dos arquivos.
+	 */
+	public static EstatisticasDbf carregar(File arquivoDbf) throws IOException {
+		try(LeitorDbf leitor = new LeitorDbf(arquivoDbf)) {
+			return carregar(arquivoDbf, leitor.getCabecalho());
+		}
+	}
+
+	/**
+	 * L as estatsticas gravadas para um dbf cujo cabealho j foi lido, caso ainda correspondam a ele.
+	 * @param arquivoDbf O arquivo dbf.
+	 * @param cabecalho O {@link CabecalhoDbf} atual do arquivo.
+	 * @return As {@link EstatisticasDbf} ou <b>null</b> caso no existam estatsticas gravadas ou o dbf tenha sido alterado depois do clculo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo auxiliar.
+	 */
+	public static EstatisticasDbf carregar(File arquivoDbf, CabecalhoDbf cabecalho) throws IOException {
+		long impressaoDigital = cabecalho.getImpressaoDigital();
+		return ArquivoAuxiliar.carregar(ArquivoAuxiliar.getArquivo(arquivoDbf, EXTENSAO), IDENTIFICADOR, VERSAO, impressaoDigital, entrada -> {
+			long registros = entrada.readLong();
+			Charset charset = Charset.forName(entrada.readUTF());
+			EstatisticasDaColuna[] colunas = new EstatisticasDaColuna[entrada.readInt()];
+			for(int i = 0; i < colunas.length; i++) {
+				String nome = entrada.readUTF();
+				TiposDbf tipo = TiposDbf.encontrarPorValor(entrada.readByte());
+				colunas[i] = new EstatisticasDaColuna(nome, tipo, entrada.readLong(), entrada.readLong(), entrada.readInt(), entrada.readLong(),
+						entrada.readDouble(), entrada.readDouble(), lerTexto(entrada), lerTexto(entrada), charset);
+			}
+			return new EstatisticasDbf(impressaoDigital, registros, charset, colunas);
+		});
+	}
+
+	private static void escreverTexto(DataOutputStream saida, String texto) throws IOException {
+		if(texto == null) {
+			saida.writeInt(-1);
+			return;
+		}
+		byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+		saida.writeInt(bytes.length);
+		saida.write(bytes);
+	}
+
+	private static String lerTexto(DataInputStream entrada) throws IOException {
+		int tamanho = entrada.readInt();
+		if(tamanho < 0) return null;
+		byte[] bytes = new byte[tamanho];
+		entrada.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * As estatsticas de todas as colunas calculadas, na ordem dos campos do arquivo.
+	 * @return Um {@link EstatisticasDaColuna}[ ] com as colunas.
+	 */
+	public EstatisticasDaColuna[] getColunas() {
+		return colunas;
+	}
+
+	/**
+	 * A quantidade de registros no deletados considerados no clculo.
+	 * @return Um <b>long</b> com a quantidade de registros.
+	 */
+	public long getRegistros() {
+		return registros;
+	}
+
+	/**
+	 * O charset utilizado na converso do mnimo e do mximo das colunas de texto.
+	 * @return O {@link Charset} do leitor utilizado no clculo.
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	public long getImpressaoDigital() {
+		return impressaoDigital;
+	}
+}
@@ -0,0 +1,220 @@
+package io.github.deynne.dbf.estatistica;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.ArquivoAuxiliar;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.FiltroDeBloom;
+import io.github.deynne.dbf.util.HashDeBytes;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Um {@link FiltroDeBloom} com os valores de uma coluna de um arquivo dbf, para verificar se uma chave existe no arquivo sem l-lo. Apenas uma resposta
+ * 	positiva precisa ser confirmada com a leitura do arquivo.
+ * </p>
+ * <p>
+ * 	Os valores das colunas de texto so comparados sem os espaos do incio e do fim. Os das colunas numricas, de data e lgicas so comparados pelo
+ * 	valor, na representao de {@link EstatisticasDaColuna}, ento "10", "10.00" e 10 so a mesma chave. Campos vazios e invlidos no so adicionados.
+ * </p>
+ * <p>
+ * 	O filtro pode ser gravado em um arquivo auxiliar ao lado do dbf, com o nome do campo e a extenso {@value #EXTENSAO}, que  ignorado quando o cabealho
+ * 	do dbf muda.
+ * </p>
+ * <pre>
+ * FiltroDeBloomDbf filtro = FiltroDeBloomDbf.construir(leitor, "CPF", 0.01);
+ * filtro.salvar(arquivo);
+ * ...
+ * if(filtro.podeConter("12345678900")) {
+ *     // confirma com a leitura do arquivo
+ * }
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class FiltroDeBloomDbf {
+
+	public static final String EXTENSAO = "bloom";
+	public static final double TAXA_DE_FALSOS_POSITIVOS_PADRAO = 0.01;
+
+	private static final int IDENTIFICADOR = 0x44424C4D; // "DBLM"
+	private static final int VERSAO = 1;
+	private static final int REGISTROS_POR_LEITURA = 8192;
+
+	private final long impressaoDigital;
+	private final String campo;
+	private final TiposDbf tipo;
+	private final Charset charset;
+	private final FiltroDeBloom filtro;
+
+	private FiltroDeBloomDbf(long impressaoDigital, String campo, TiposDbf tipo, Charset charset, FiltroDeBloom filtro) {
+		this.impressaoDigital = impressaoDigital;
+		this.campo = campo;
+		this.tipo = tipo;
+		this.charset = charset;
+		this.filtro = filtro;
+	}
+
+	/**
+	 * Constri o filtro lendo todos os registros do leitor uma nica vez. Os registros deletados so ignorados.
+	 * @param leitor O {@link LeitorDbf} posicionado no incio dos registros. O leitor  consumido, mas no  fechado.
+	 * @param campo O nome do campo.
+	 * @param taxaDeFalsosPositivos A probabilidade desejada de uma chave inexistente ser considerada possvel, entre 0 e 1.
+	 * @return O {@link FiltroDeBloomDbf} da coluna.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso o campo no exista no arquivo.
+	 */
+	public static FiltroDeBloomDbf construir(LeitorDbf leitor, String campo, double taxaDeFalsosPositivos)
+			throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		if(leitor.getRecordsLidos() != 0) throw new IllegalStateException("O leitor deve estar posicionado no incio dos registros.");
+		CabecalhoDbf cabecalho = leitor.getCabecalho();
+		int indice = cabecalho.getIdByNome(campo);
+		if(indice < 0) throw new CampoDbfIlegalException("O campo " + campo + " no existe no arquivo.");
+		CampoDbf campoDbf = cabecalho.getCampos()[indice];
+		TiposDbf tipo = campoDbf.getTipo();
+		int deslocamento = campoDbf.getDeslocamento();
+		int tamanho = campoDbf.getTamanhoDoCampo() & 0xFF;
+
+		// A quantidade de registros do cabealho inclui os deletados, ento o filtro nunca fica menor que o necessrio
+		FiltroDeBloom filtro = new FiltroDeBloom(cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL, taxaDeFalsosPositivos);
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		byte[] bloco = new byte[REGISTROS_POR_LEITURA * tamanhoDoRegistro];
+		int quantidade;
+		while((quantidade = leitor.lerRegistros(bloco, 0, REGISTROS_POR_LEITURA)) > 0) {
+			for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro) {
+				if(LeitorDbf.isDeletado(bloco, offset)) continue;
+				long hash = hash(tipo, bloco, offset + deslocamento, tamanho);
+				if(hash != 0) filtro.adicionar(hash);
+			}
+		}
+		return new FiltroDeBloomDbf(cabecalho.getImpressaoDigital(), campo.trim(), tipo, leitor.getCharSet(), filtro);
+	}
+
+	/**
+	 * O hash do valor de um campo, ou 0 caso o campo esteja vazio ou seja invlido.
+	 */
+	private static long hash(TiposDbf tipo, byte[] registro, int offsetDoCampo, int tamanho) {
+		int inicio = DecodificadorDbf.inicioSemEspacos(registro, offsetDoCampo, tamanho);
+		int fim = DecodificadorDbf.fimSemEspacos(registro, inicio, offsetDoCampo + tamanho - inicio);
+		if(inicio == fim && (tipo == null || !tipo.isBinario())) return 0;
+		if(!EstatisticasDaColuna.isOrdenadaComoNumero(tipo)) return HashDeBytes.hash(registro, inicio, fim - inicio);
+		double valor = AcumuladorDeColuna.lerNumero(tipo, registro, offsetDoCampo, tamanho, inicio, fim - inicio);
+		return Double.isNaN(valor) ? 0 : hash(valor);
+	}
+
+	private static long hash(double valor) {
+		if(valor == 0) valor = 0.0; // -0.0 e 0.0 so iguais
+		return HashDeBytes.finalizar(HashDeBytes.INICIO ^ Double.doubleToLongBits(valor));
+	}
+
+	/**
+	 * Verifica se uma chave pode existir na coluna.
+	 * @param chave O valor procurado. Nas colunas numricas, de data (AAAAMMDD), lgicas (0 ou 1) e binrias  convertido para nmero.
+	 * @return <b>false</b> caso nenhum registro tenha o valor e <b>true</b> caso ele talvez exista.
+	 * @throws NumberFormatException Caso a coluna seja numrica e a chave no seja um nmero.
+	 */
+	public boolean podeConter(String chave) {
+		if(EstatisticasDaColuna.isOrdenadaComoNumero(tipo)) return podeConter(Double.parseDouble(chave.trim()));
+		byte[] bytes = chave.trim().getBytes(charset);
+		return bytes.length > 0 && filtro.podeConter(HashDeBytes.hash(bytes, 0, bytes.length));
+	}
+
+	/**
+	 * Verifica se um valor pode existir em uma coluna numrica, de data ou lgica.
+	 * @param valor O valor procurado. Datas como AAAAMMDD, lgicos como 0 ou 1 e datas e horas como milissegundos desde 1970-01-01T00:00.
+	 * @return <b>false</b> caso nenhum registro tenha o valor e <b>true</b> caso ele talvez exista.
+	 * @throws IllegalArgumentException Caso a coluna seja de texto.
+	 */
+	public boolean podeConter(double valor) {
+		if(!EstatisticasDaColuna.isOrdenadaComoNumero(tipo)) throw new IllegalArgumentException("O campo " + campo + " no  numrico, de data ou lgico.");
+		return !Double.isNaN(valor) && filtro.podeConter(hash(valor));
+	}
+
+	/**
+	 * Verifica se o valor de um campo no formato bruto, como o de um registro de outro arquivo, pode existir na coluna. O campo  interpretado com o tipo da
+	 * coluna do filtro.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @return <b>false</b> caso nenhum registro tenha o valor e <b>true</b> caso ele talvez exista.
+	 */
+	public boolean podeConter(byte[] registro, int offset, int tamanho) {
+		long hash = hash(tipo, registro, offset, tamanho);
+		return hash != 0 && filtro.podeConter(hash);
+	}
+
+	/**
+	 * Verifica se o filtro corresponde ao estado atual de um arquivo.
+	 * @param cabecalho O {@link CabecalhoDbf} atual do arquivo.
+	 * @return <b>true</b> caso o cabealho seja o mesmo do momento da construo.
+	 */
+	public boolean isAtualizado(CabecalhoDbf cabecalho) {
+		return cabecalho.getImpressaoDigital() == impressaoDigital;
+	}
+
+	/**
+	 * O arquivo auxiliar do filtro de uma coluna.
+	 * @param arquivoDbf O arquivo dbf.
+	 * @param campo O nome do campo.
+	 * @return O {@link File} com o nome do dbf, o nome do campo e a extenso {@value #EXTENSAO}.
+	 */
+	public static File getArquivo(File arquivoDbf, String campo) {
+		return ArquivoAuxiliar.getArquivo(arquivoDbf, campo.trim().toLowerCase() + "." + EXTENSAO);
+	}
+
+	/**
+	 * Grava o filtro no arquivo auxiliar da coluna, substituindo o anterior.
+	 * @param arquivoDbf O arquivo dbf a partir do qual o filtro foi construdo.
+	 * @throws IOException Se ocorrer problemas na escrita.
+	 */
+	public void salvar(File arquivoDbf) throws IOException {
+		ArquivoAuxiliar.salvar(getArquivo(arquivoDbf, campo), IDENTIFICADOR, VERSAO, impressaoDigital, saida -> {
+			saida.writeUTF(campo);
+			saida.writeByte(tipo == null ? 0 : tipo.getLetra());
+			saida.writeUTF(charset.name());
+			filtro.escrever(saida);
+		});
+	}
+
+	/**
+	 * L o filtro gravado para uma coluna de um dbf, caso ainda corresponda a ele.
+	 * @param arquivoDbf O arquivo dbf.
+	 * @param cabecalho O {@link CabecalhoDbf} atual do arquivo.
+	 * @param campo O nome do campo.
+	 * @return O {@link FiltroDeBloomDbf} ou <b>null</b> caso no exista um filtro gravado ou o dbf tenha sido alterado depois da construo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo auxiliar.
+	 */
+	public static FiltroDeBloomDbf carregar(File arquivoDbf, CabecalhoDbf cabecalho, String campo) throws IOException {
+		long impressaoDigital = cabecalho.getImpressaoDigital();
+		return ArquivoAuxiliar.carregar(getArquivo(arquivoDbf, campo), IDENTIFICADOR, VERSAO, impressaoDigital, entrada -> {
+			String nome = entrada.readUTF();
+			TiposDbf tipo = TiposDbf.encontrarPorValor(entrada.readByte());
+			Charset charset = Charset.forName(entrada.readUTF());
+			return new FiltroDeBloomDbf(impressaoDigital, nome, tipo, charset, FiltroDeBloom.ler(entrada));
+		});
+	}
+
+	public String getCampo() {
+		return campo;
+	}
+
+	/**
+	 * O filtro de Bloom com os valores da coluna.
+	 * @return O {@link FiltroDeBloom} utilizado.
+	 */
+	public FiltroDeBloom getFiltro() {
+		return filtro;
+	}
+
+	public long getImpressaoDigital() {
+		return impressaoDigital;
+	}
+}
@@ -0,0 +1,390 @@
+package io.github.deynne.dbf.estatistica;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import io.github.deynne.dbf.ConsumidorDeRegistro;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.ArquivoAuxiliar;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Um mapa de zonas: o mnimo e o mximo de algumas colunas em cada bloco de registros consecutivos (zona) de um arquivo dbf.
+ * </p>
+ * <p>
+ * 	Em uma consulta por intervalo, as zonas cujo mnimo e mximo no alcanam o intervalo so descartadas sem a leitura dos seus registros, e as demais
+ * 	so lidas diretamente da sua posio no arquivo com {@link LeitorDbf#lerRegistros(long, byte[], int, int)}. Quanto mais os registros estiverem
+ * 	ordenados pela coluna, como em arquivos de movimento gravados em ordem de data, menos zonas so lidas. Os registros das zonas lidas ainda precisam
+ * 	ser filtrados, pois o mapa apenas descarta as zonas em que  certo que nenhum registro atende ao intervalo.
+ * </p>
+ * <p>
+ * 	Os valores so guardados como <b>long</b> com a mesma ordem, comparados sem sinal: os campos numricos, de data e lgicos pela representao de
+ * 	{@link EstatisticasDaColuna} e os demais pelos primeiros 8 bytes do texto sem os espaos do fim, que
+ * 	so ignorados tambm nos limites das consultas. O mapa pode ser gravado em um arquivo auxiliar com a extenso {@value #EXTENSAO}, que  ignorado
+ * 	quando o cabealho do dbf muda.
+ * </p>
+ * <pre>
+ * MapaDeZonas mapa = MapaDeZonas.carregar(arquivo, leitor.getCabecalho());
+ * if(mapa == null) {
+ *     mapa = MapaDeZonas.construir(new LeitorDbf(arquivo), MapaDeZonas.REGISTROS_POR_ZONA_PADRAO, "DATA");
+ *     mapa.salvar(arquivo);
+ * }
+ * mapa.percorrer(leitor, "DATA", 20240101, 20240131, (registro, offset) -&gt; { ... });
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class MapaDeZonas {
+
+	public static final String EXTENSAO = "zmap";
+	public static final int REGISTROS_POR_ZONA_PADRAO = 64 * 1024;
+
+	private static final int IDENTIFICADOR = 0x445A4D50; // "DZMP"
+	private static final int VERSAO = 2;
+	// Quantidade de registros lidos de cada vez durante a construo e o percurso
+	private static final int REGISTROS_POR_LEITURA = 8192;
+
+	private final long impressaoDigital;
+	private final int registrosPorZona;
+	private final long registros;
+	private final Charset charset;
+	private final String[] campos;
+	private final TiposDbf[] tipos;
+	// minimos[c][z] e maximos[c][z]; uma zona sem valores tem o mnimo maior que o mximo
+	private final long[][] minimos;
+	private final long[][] maximos;
+
+	private MapaDeZonas(long impressaoDigital, int registrosPorZona, long registros, Charset charset, String[] campos, TiposDbf[] tipos,
+			long[][] minimos, long[][] maximos) {
+		this.impressaoDigital = impressaoDigital;
+		this.registrosPorZona = registrosPorZona;
+		this.registros = registros;
+		this.charset = charset;
+		this.campos = campos;
+		this.tipos = tipos;
+		this.minimos = minimos;
+		this.maximos = maximos;
+	}
+
+	/**
+	 * Constri o mapa de zonas lendo todos os registros do arquivo uma nica vez.
+	 * @param leitor O {@link LeitorDbf} posicionado no incio dos registros. O leitor  consumido, mas no  fechado.
+	 * @param registrosPorZona A quantidade de registros de cada zona.
+	 * @param campos Os nomes dos campos includos no mapa.
+	 * @return O {@link MapaDeZonas} do arquivo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum campo no exista no arquivo ou nenhum campo seja informado.
+	 */
+	public static MapaDeZonas construir(LeitorDbf leitor, int registrosPorZona, String... campos)
+			throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		if(registrosPorZona <= 0) throw new IllegalArgumentException("A quantidade de registros por zona deve ser positiva.");
+		if(campos == null || campos.length == 0) throw new CampoDbfIlegalException(" necessrio informar ao menos um campo para o mapa de zonas.");
+		if(leitor.getRecordsLidos() != 0) throw new IllegalStateException("O leitor deve estar posicionado no incio dos registros.");
+
+		CabecalhoDbf cabecalho = leitor.getCabecalho();
+		int numCampos = campos.length;
+		TiposDbf[] tipos = new TiposDbf[numCampos];
+		int[] deslocamentos = new int[numCampos];
+		int[] tamanhos = new int[numCampos];
+		for(int c = 0; c < numCampos; c++) {
+			int indice = cabecalho.getIdByNome(campos[c]);
+			if(indice < 0) throw new CampoDbfIlegalException("O campo " + campos[c] + " no existe no arquivo.");
+			CampoDbf campo = cabecalho.getCampos()[indice];
+			tipos[c] = campo.getTipo();
+			deslocamentos[c] = campo.getDeslocamento();
+			tamanhos[c] = campo.getTamanhoDoCampo() & 0xFF;
+		}
+
+		long totalDeRegistros = cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL;
+		int numZonas = (int) ((totalDeRegistros + registrosPorZona - 1) / registrosPorZona);
+		long[][] minimos = new long[numCampos][numZonas];
+		long[][] maximos = new long[numCampos][numZonas];
+		for(int c = 0; c < numCampos; c++) {
+			Arrays.fill(minimos[c], -1L);
+		}
+
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		byte[] bloco = new byte[REGISTROS_POR_LEITURA * tamanhoDoRegistro];
+		long numero = 0;
+		int quantidade;
+		while((quantidade = leitor.lerRegistros(bloco, 0, REGISTROS_POR_LEITURA)) > 0) {
+			for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro, numero++) {
+				if(LeitorDbf.isDeletado(bloco, offset)) continue;
+				int zona = (int) (numero / registrosPorZona);
+				// Registros alm da quantidade do cabealho no fazem parte de nenhuma zona e so sempre descartados na leitura posicional
+				if(zona >= numZonas) break;
+				for(int c = 0; c < numCampos; c++) {
+					int offsetDoCampo = offset + deslocamentos[c];
+					boolean numerico = EstatisticasDaColuna.isOrdenadaComoNumero(tipos[c]);
+					// Os textos mantm os espaos do incio, como na comparao dos filtros, que ignora apenas os do fim
+					int inicio = numerico ? DecodificadorDbf.inicioSemEspacos(bloco, offsetDoCampo, tamanhos[c]) : offsetDoCampo;
+					int fim = DecodificadorDbf.fimSemEspacos(bloco, inicio, offsetDoCampo + tamanhos[c] - inicio);
+					if(inicio == fim && (tipos[c] == null || !tipos[c].isBinario())) continue;
+
+					long valor;
+					if(numerico) {
+						double numeroLido = AcumuladorDeColuna.lerNumero(tipos[c], bloco, offsetDoCampo, tamanhos[c], inicio, fim - inicio);
+						if(Double.isNaN(numeroLido)) continue;
+						valor = codificar(numeroLido);
+					}
+					else {
+						valor = codificar(bloco, inicio, fim - inicio);
+					}
+					if(Long.compareUnsigned(valor, minimos[c][zona]) < 0) minimos[c][zona] = valor;
+					if(Long.compareUnsigned(valor, maximos[c][zona]) > 0) maximos[c][zona] = valor;
+				}
+			}
+		}
+
+		String[] nomes = new String[numCampos];
+		for(int c = 0; c < numCampos; c++) nomes[c] = campos[c].trim();
+		return new MapaDeZonas(cabecalho.getImpressaoDigital(), registrosPorZona, totalDeRegistros, leitor.getCharSet(), nomes, tipos, minimos, maximos);
+	}
+
+	/**
+	 * Converte um nmero para um <b>long</b> que, comparado sem sinal, segue a ordem numrica.
+	 */
+	private static long codificar(double valor) {
+		if(valor == 0) valor = 0.0; // -0.0 e 0.0 so iguais
+		long bits = Double.doubleToLongBits(valor);
+		return bits < 0 ? ~bits : bits | Long.MIN_VALUE;
+	}
+
+	/**
+	 * Os primeiros 8 bytes de um texto agrupados em um <b>long</b>, completados com 0, como em {@link io.github.deynne.dbf.util.ChaveDeRegistro#prefixo(byte[], int)}.
+	 */
+	private static long codificar(byte[] texto, int offset, int tamanho) {
+		long prefixo = 0;
+		int bytes = Math.min(tamanho, 8);
+		for(int i = 0; i < bytes; i++) {
+			prefixo = (prefixo << 8) | (texto[offset + i] & 0xFF);
+		}
+		return prefixo << (8 * (8 - bytes));
+	}
+
+	/**
+	 * Indica quais zonas podem conter registros com o valor de uma coluna numrica, de data ou lgica no intervalo informado.
+	 * @param campo O nome do campo.
+	 * @param inicio O incio do intervalo, inclusive. {@link Double#NaN} para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. {@link Double#NaN} para um intervalo sem fim.
+	 * @return Um <b>boolean</b>[ ] com uma posio por zona, <b>false</b> apenas para as zonas que certamente no tm registros no intervalo.
+	 * @throws CampoDbfIlegalException Caso o campo no faa parte do mapa.
+	 */
+	public boolean[] getZonas(String campo, double inicio, double fim) throws CampoDbfIlegalException {
+		int c = getIndice(campo);
+		if(!EstatisticasDaColuna.isOrdenadaComoNumero(tipos[c])) throw new CampoDbfIlegalException("O campo " + campo + " no  numrico, de data ou lgico.");
+		return getZonas(c, Double.isNaN(inicio) ? 0 : codificar(inicio), Double.isNaN(fim) ? -1L : codificar(fim));
+	}
+
+	/**
+	 * Indica quais zonas podem conter registros com o valor de uma coluna de texto no intervalo informado.
+	 * @param campo O nome do campo.
+	 * @param inicio O incio do intervalo, inclusive. Os espaos do fim so ignorados. <b>null</b> para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. Os espaos do fim so ignorados. <b>null</b> para um intervalo sem fim.
+	 * @return Um <b>boolean</b>[ ] com uma posio por zona, <b>false</b> apenas para as zonas que certamente no tm registros no intervalo.
+	 * @throws CampoDbfIlegalException Caso o campo no faa parte do mapa.
+	 */
+	public boolean[] getZonas(String campo, String inicio, String fim) throws CampoDbfIlegalException {
+		int c = getIndice(campo);
+		if(EstatisticasDaColuna.isOrdenadaComoNumero(tipos[c])) throw new CampoDbfIlegalException("O campo " + campo + " no  de texto.");
+		long codigoInicio = 0, codigoFim = -1L;
+		if(inicio != null) {
+			byte[] bytes = inicio.getBytes(charset);
+			codigoInicio = codificar(bytes, 0, DecodificadorDbf.fimSemEspacos(bytes, 0, bytes.length));
+		}
+		if(fim != null) {
+			byte[] bytes = fim.getBytes(charset);
+			codigoFim = codificar(bytes, 0, DecodificadorDbf.fimSemEspacos(bytes, 0, bytes.length));
+		}
+		return getZonas(c, codigoInicio, codigoFim);
+	}
+
+	private boolean[] getZonas(int c, long inicio, long fim) {
+		boolean[] zonas = new boolean[minimos[c].length];
+		for(int z = 0; z < zonas.length; z++) {
+			zonas[z] = Long.compareUnsigned(fim, minimos[c][z]) >= 0 && Long.compareUnsigned(inicio, maximos[c][z]) <= 0;
+		}
+		return zonas;
+	}
+
+	/**
+	 * Percorre os registros no deletados das zonas que podem conter valores de uma coluna numrica, de data ou lgica no intervalo informado.
+	 * @param leitor Um {@link LeitorDbf} do mesmo arquivo, criado a partir de um {@link File}. A posio da leitura sequencial no  alterada.
+	 * @param campo O nome do campo.
+	 * @param inicio O incio do intervalo, inclusive. {@link Double#NaN} para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. {@link Double#NaN} para um intervalo sem fim.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros, que ainda devem ser filtrados pelo intervalo.
+	 * @return A quantidade de registros entregues ao consumidor.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo ou no consumidor.
+	 * @throws CampoDbfIlegalException Caso o campo no faa parte do mapa.
+	 * @see #percorrer(LeitorDbf, boolean[], ConsumidorDeRegistro)
+	 */
+	public long percorrer(LeitorDbf leitor, String campo, double inicio, double fim, ConsumidorDeRegistro consumidor) throws IOException, CampoDbfIlegalException {
+		return percorrer(leitor, getZonas(campo, inicio, fim), consumidor);
+	}
+
+	/**
+	 * Percorre os registros no deletados das zonas que podem conter valores de uma coluna de texto no intervalo informado.
+	 * @param leitor Um {@link LeitorDbf} do mesmo arquivo, criado a partir de um {@link File}. A posio da leitura sequencial no  alterada.
+	 * @param campo O nome do campo.
+	 * @param inicio O incio do intervalo, inclusive. Os espaos do fim so ignorados. <b>null</b> para um intervalo sem incio.
+	 * @param fim O fim do intervalo, inclusive. Os espaos do fim so ignorados. <b>null</b> para um intervalo sem fim.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros, que ainda devem ser filtrados pelo intervalo.
+	 * @return A quantidade de registros entregues ao consumidor.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo ou no consumidor.
+	 * @throws CampoDbfIlegalException Caso o campo no faa parte do mapa.
+	 * @see #percorrer(LeitorDbf, boolean[], ConsumidorDeRegistro)
+	 */
+	public long percorrer(LeitorDbf leitor, String campo, String inicio, String fim, ConsumidorDeRegistro consumidor) throws IOException, CampoDbfIlegalException {
+		return percorrer(leitor, getZonas(campo, inicio, fim), consumidor);
+	}
+
+	/**
+	 * <p>
+	 * 	Percorre os registros no deletados das zonas selecionadas, em ordem, lendo cada zona diretamente da sua posio no arquivo. Zonas vizinhas
+	 * 	selecionadas so lidas em sequncia, sem novo posicionamento.
+	 * </p>
+	 * <p>
+	 * 	Caso o cabealho do leitor seja diferente do cabealho a partir do qual o mapa foi construdo, todos os registros so percorridos.
+	 * </p>
+	 * @param leitor Um {@link LeitorDbf} do mesmo arquivo, criado a partir de um {@link File}. A posio da leitura sequencial no  alterada.
+	 * @param zonas As zonas a serem lidas, como retornadas por {@link #getZonas(String, double, double)}.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros.
+	 * @return A quantidade de registros entregues ao consumidor.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo ou no consumidor.
+	 */
+	public long percorrer(LeitorDbf leitor, boolean[] zonas, ConsumidorDeRegistro consumidor) throws IOException {
+		CabecalhoDbf cabecalho = leitor.getCabecalho();
+		boolean atualizado = isAtualizado(cabecalho);
+		long totalDeRegistros = cabecalho.getNumeroDeRegistros() & 0xFFFFFFFFL;
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		byte[] bloco = new byte[REGISTROS_POR_LEITURA * tamanhoDoRegistro];
+
+		long entregues = 0;
+		long numero = 0;
+		while(numero < totalDeRegistros) {
+			int zona = (int) (numero / registrosPorZona);
+			if(atualizado && !zonas[zona]) {
+				numero = (long) (zona + 1) * registrosPorZona;
+				continue;
+			}
+			long fimDaZona = Math.min((long) (zona + 1) * registrosPorZona, totalDeRegistros);
+			int quantidade = leitor.lerRegistros(numero, bloco, 0, (int) Math.min(REGISTROS_POR_LEITURA, fimDaZona - numero));
+			if(quantidade == 0) break;
+			for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro) {
+				if(LeitorDbf.isDeletado(bloco, offset)) continue;
+				consumidor.consumir(bloco, offset);
+				entregues++;
+			}
+			numero += quantidade;
+		}
+		return entregues;
+	}
+
+	/**
+	 * Verifica se o mapa corresponde ao estado atual de um arquivo.
+	 * @param cabecalho O {@link CabecalhoDbf} atual do arquivo.
+	 * @return <b>true</b> caso o cabealho seja o mesmo do momento da construo.
+	 */
+	public boolean isAtualizado(CabecalhoDbf cabecalho) {
+		return cabecalho.getImpressaoDigital() == impressaoDigital;
+	}
+
+	/**
+	 * Grava o mapa no arquivo auxiliar de um dbf, substituindo o anterior.
+	 * @param arquivoDbf O arquivo dbf a partir do qual o mapa foi construdo.
+	 * @throws IOException Se ocorrer problemas na escrita.
+	 */
+	public void salvar(File arquivoDbf) throws IOException {
+		ArquivoAuxiliar.salvar(ArquivoAuxiliar.getArquivo(arquivoDbf, EXTENSAO), IDENTIFICADOR, VERSAO, impressaoDigital, saida -> {
+			saida.writeInt(registrosPorZona);
+			saida.writeLong(registros);
+			saida.writeUTF(charset.name());
+			saida.writeInt(campos.length);
+			saida.writeInt(getQuantidadeDeZonas());
+			for(int c = 0; c < campos.length; c++) {
+				saida.writeUTF(campos[c]);
+				saida.writeByte(tipos[c] == null ? 0 : tipos[c].getLetra());
+				for(int z = 0; z < minimos[c].length; z++) {
+					saida.writeLong(minimos[c][z]);
+					saida.writeLong(maximos[c][z]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * L o mapa de zonas gravado para um dbf, caso ainda corresponda a ele.
+	 * @param arquivoDbf O arquivo dbf.
+	 * @param cabecalho O {@link CabecalhoDbf} atual do arquivo.
+	 * @return O {@link MapaDeZonas} ou <b>null</b> caso no exista um mapa gravado ou o dbf tenha sido alterado depois da construo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo auxiliar.
+	 */
+	public static MapaDeZonas carregar(File arquivoDbf, CabecalhoDbf cabecalho) throws IOException {
+		long impressaoDigital = cabecalho.getImpressaoDigital();
+		return ArquivoAuxiliar.carregar(ArquivoAuxiliar.getArquivo(arquivoDbf, EXTENSAO), IDENTIFICADOR, VERSAO, impressaoDigital, entrada -> {
+			int registrosPorZona = entrada.readInt();
+			long registros = entrada.readLong();
+			Charset charset = Charset.forName(entrada.readUTF());
+			int numCampos = entrada.readInt();
+			int numZonas = entrada.readInt();
+			String[] campos = new String[numCampos];
+			TiposDbf[] tipos = new TiposDbf[numCampos];
+			long[][] minimos = new long[numCampos][numZonas];
+			long[][] maximos = new long[numCampos][numZonas];
+			for(int c = 0; c < numCampos; c++) {
+				campos[c] = entrada.readUTF();
+				tipos[c] = TiposDbf.encontrarPorValor(entrada.readByte());
+				for(int z = 0; z < numZonas; z++) {
+					minimos[c][z] = entrada.readLong();
+					maximos[c][z] = entrada.readLong();
+				}
+			}
+			return new MapaDeZonas(impressaoDigital, registrosPorZona, registros, charset, campos, tipos, minimos, maximos);
+		});
+	}
+
+	private int getIndice(String campo) throws CampoDbfIlegalException {
+		for(int c = 0; c < campos.length; c++) {
+			if(campos[c].equals(campo)) return c;
+		}
+		throw new CampoDbfIlegalException("O campo " + campo + " no faz parte do mapa de zonas.");
+	}
+
+	/**
+	 * Os nomes dos campos includos no mapa.
+	 * @return Um {@link String}[ ] com os campos.
+	 */
+	public String[] getCampos() {
+		return campos;
+	}
+
+	public int getRegistrosPorZona() {
+		return registrosPorZona;
+	}
+
+	public int getQuantidadeDeZonas() {
+		return minimos.length == 0 ? 0 : minimos[0].length;
+	}
+
+	/**
+	 * A quantidade de registros do arquivo no momento da construo, inclusive os deletados.
+	 * @return Um <b>long</b> com a quantidade de registros.
+	 */
+	public long getRegistros() {
+		return registros;
+	}
+
+	public long getImpressaoDigital() {
+		return impressaoDigital;
+	}
+}
@@ -0,0 +1,25 @@
+package io.github.deynne.dbf.exceptions;
+
+/**
+ * Os tipos de erro informados a um {@link TratadorDeErros} durante a leitura de um arquivo dbf.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public enum ErroDeLeitura {
+	/**
+	 * O registro no comea com uma flag de deleo vlida (' ' ou '*'). O registro  descartado e a leitura continua no registro seguinte.
+	 */
+	FLAG_INVALIDA,
+	/**
+	 * O arquivo termina no meio do registro. O campo informado  o primeiro que no foi lido por completo.
+	 */
+	REGISTRO_INCOMPLETO,
+	/**
+	 * Ocorreu uma falha de entrada e sada durante a leitura dos registros. A leitura  encerrada.
+	 */
+	FALHA_DE_LEITURA,
+	/**
+	 * Ocorreu uma falha durante a leitura do cabealho ou dos descritores dos campos.
+	 */
+	CABECALHO_INVALIDO
+}
@@ -0,0 +1,44 @@
+package io.github.deynne.dbf.exceptions;
+
+import java.io.IOException;
+
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Recebe os erros encontrados durante a leitura de um arquivo dbf no modo tolerante, sem a criao de excees.
+ * </p>
+ * <p>
+ * 	Com um tratador definido em {@link io.github.deynne.dbf.LeitorDbf#setTratadorDeErros(TratadorDeErros)}, os registros com problema so informados e
+ * 	descartados e a leitura continua no registro seguinte, localizado pelo tamanho fixo do registro. Na leitura em blocos os registros descartados so
+ * 	marcados como deletados, sem alterar a posio dos demais.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface TratadorDeErros {
+
+	/**
+	 * Descarta os erros. Eles ainda so contabilizados pelo leitor.
+	 */
+	TratadorDeErros IGNORAR = (erro, numeroDoRegistro, posicao, campo, causa) -> { };
+
+	/**
+	 * Imprime os erros na sada de erro padro.
+	 */
+	TratadorDeErros IMPRIMIR = (erro, numeroDoRegistro, posicao, campo, causa) -> {
+		if(causa != null) causa.printStackTrace();
+		else System.err.println(erro + ": registro " + numeroDoRegistro + ", posio " + posicao + (campo == null ? "" : ", campo " + campo.getNome()));
+	};
+
+	/**
+	 * Trata um erro.
+	 * @param erro O tipo do {@link ErroDeLeitura}.
+	 * @param numeroDoRegistro O nmero do registro, comeando em 0, ou -1 caso o erro no seja de um registro.
+	 * @param posicao A posio no arquivo do primeiro byte do registro ou -1 caso o erro no seja de um registro.
+	 * @param campo O {@link CampoDbf} relacionado ao erro ou <b>null</b>.
+	 * @param causa A {@link IOException} que causou o erro, apenas para {@link ErroDeLeitura#FALHA_DE_LEITURA} e {@link ErroDeLeitura#CABECALHO_INVALIDO}.
+	 */
+	void tratar(ErroDeLeitura erro, long numeroDoRegistro, long posicao, CampoDbf campo, IOException causa);
+}
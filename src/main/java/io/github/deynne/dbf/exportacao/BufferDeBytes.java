@@ -0,0 +1,68 @@
+package io.github.deynne.dbf.exportacao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Um array de bytes que cresce conforme necessrio, sem sincronizao, utilizado para acumular a sada codificada de um bloco de registros.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class BufferDeBytes {
+
+	// Maior array que a JVM costuma conseguir alocar
+	static final int TAMANHO_MAXIMO = Integer.MAX_VALUE - 8;
+
+	private byte[] dados;
+	private int tamanho;
+
+	BufferDeBytes(int capacidadeInicial) {
+		dados = new byte[Math.max(capacidadeInicial, 16)];
+	}
+
+	void escrever(int b) {
+		if(tamanho == dados.length) crescer(1);
+		dados[tamanho++] = (byte) b;
+	}
+
+	void escrever(byte[] b, int offset, int quantidade) {
+		if(quantidade > dados.length - tamanho) crescer(quantidade);
+		System.arraycopy(b, offset, dados, tamanho, quantidade);
+		tamanho += quantidade;
+	}
+
+	void escrever(byte[] b) {
+		escrever(b, 0, b.length);
+	}
+
+	void limpar() {
+		tamanho = 0;
+	}
+
+	byte[] getDados() {
+		return dados;
+	}
+
+	int getTamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Grava o contedo no canal em uma nica chamada sempre que o canal permitir.
+	 */
+	void gravar(WritableByteChannel canal) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(dados, 0, tamanho);
+		while(buffer.hasRemaining()) {
+			canal.write(buffer);
+		}
+	}
+
+	private void crescer(int minimo) {
+		// Calculado em long para que o dobro de um buffer grande no resulte em um tamanho negativo
+		long necessario = (long) tamanho + minimo;
+		if(necessario > TAMANHO_MAXIMO) throw new IllegalStateException("A sada codificada ultrapassa o tamanho mximo de um array. Reduza a quantidade de registros por bloco.");
+		dados = Arrays.copyOf(dados, (int) Math.min(Math.max((long) dados.length * 2, necessario), TAMANHO_MAXIMO));
+	}
+}
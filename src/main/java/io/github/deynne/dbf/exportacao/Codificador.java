@@ -0,0 +1,226 @@
+package io.github.deynne.dbf.exportacao;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Base dos codificadores de registros no formato bruto para os bytes de um formato de sada. A sada  sempre UTF-8.
+ * </p>
+ * <p>
+ * 	Os textos em ASCII, UTF-8 ou ISO-8859-1 so convertidos byte a byte, sem a criao de {@link String}. Os demais charsets s so decodificados
+ * 	quando o campo contm bytes fora do ASCII. Os codificadores no guardam estado e podem ser utilizados por vrias threads.
+ * </p>
+ * <p>
+ * 	Os campos binrios ({@link TiposDbf#isBinario()}) so convertidos para texto dgito a dgito, tambm sem a criao de {@link String}, exceto os
+ * 	nmeros de ponto flutuante.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+abstract class Codificador {
+
+	private static final int COPIAR = 0;
+	private static final int LATIN1 = 1;
+	private static final int DECODIFICAR = 2;
+
+	protected final CampoDbf[] campos;
+	protected final int[] deslocamentos;
+	protected final int[] tamanhos;
+	protected final TiposDbf[] tipos;
+	private final Charset charset;
+	private final int conversao;
+
+	Codificador(CampoDbf[] campos, Charset charset) {
+		this.campos = campos;
+		this.charset = charset;
+		this.deslocamentos = new int[campos.length];
+		this.tamanhos = new int[campos.length];
+		this.tipos = new TiposDbf[campos.length];
+		for(int i = 0; i < campos.length; i++) {
+			deslocamentos[i] = campos[i].getDeslocamento();
+			tamanhos[i] = campos[i].getTamanhoDoCampo() & 0xFF;
+			tipos[i] = campos[i].getTipo();
+		}
+		if(charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)) conversao = COPIAR;
+		else if(charset.equals(StandardCharsets.ISO_8859_1)) conversao = LATIN1;
+		else conversao = DECODIFICAR;
+	}
+
+	/**
+	 * Escreve o que precede o primeiro registro, como a linha de ttulos do CSV.
+	 * @param saida O {@link BufferDeBytes} de destino.
+	 */
+	abstract void codificarInicio(BufferDeBytes saida);
+
+	/**
+	 * Escreve um registro, incluindo a quebra de linha.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio do registro no array.
+	 * @param saida O {@link BufferDeBytes} de destino.
+	 */
+	abstract void codificar(byte[] registro, int offset, BufferDeBytes saida);
+
+	/**
+	 * Escreve um byte ASCII de um texto, aplicando o escape do formato quando necessrio.
+	 * @param c O byte, entre 0 e 127.
+	 * @param saida O {@link BufferDeBytes} de destino.
+	 */
+	protected abstract void escreverAscii(int c, BufferDeBytes saida);
+
+	/**
+	 * Escreve um trecho de texto do registro em UTF-8, repassando os caracteres ASCII para {@link #escreverAscii(int, BufferDeBytes)}.
+	 * @param registro O array contendo o texto.
+	 * @param inicio A posio do primeiro byte.
+	 * @param fim A posio seguinte ao ltimo byte.
+	 * @param saida O {@link BufferDeBytes} de destino.
+	 */
+	protected void escreverTexto(byte[] registro, int inicio, int fim, BufferDeBytes saida) {
+		if(conversao == DECODIFICAR && !isAscii(registro, inicio, fim)) {
+			byte[] utf8 = new String(registro, inicio, fim - inicio, charset).getBytes(StandardCharsets.UTF_8);
+			escreverUtf8(utf8, 0, utf8.length, saida, true);
+		}
+		else {
+			escreverUtf8(registro, inicio, fim, saida, conversao != LATIN1);
+		}
+	}
+
+	/**
+	 * Escreve uma {@link String} j em memria, como os nomes dos campos.
+	 */
+	protected void escreverTexto(String texto, BufferDeBytes saida) {
+		byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+		escreverUtf8(utf8, 0, utf8.length, saida, true);
+	}
+
+	/**
+	 * Indica se o campo  de um tipo binrio e deve ser escrito com {@link #escreverBinario(byte[], int, int, BufferDeBytes, boolean)}.
+	 * @param i O ndice do campo.
+	 * @return <b>true</b> caso o campo seja binrio.
+	 */
+	protected boolean isBinario(int i) {
+		return tipos[i] != null && tipos[i].isBinario();
+	}
+
+	/**
+	 * Escreve um campo binrio como texto: inteiros sem casas decimais, moeda com 4 casas decimais, nmeros de ponto flutuante como em
+	 * {@link Double#toString(double)} e datas e horas como AAAA-MM-DDTHH:MM:SS.mmm.
+	 * @param registro O array contendo o registro.
+	 * @param posicao A posio do primeiro byte do campo.
+	 * @param i O ndice do campo.
+	 * @param saida O {@link BufferDeBytes} de destino.
+	 * @param aspasNaDataHora Indica se as datas e horas devem ser escritas entre aspas.
+	 * @return <b>false</b>, sem escrever nada, caso o campo esteja vazio ou no seja um nmero finito.
+	 */
+	protected boolean escreverBinario(byte[] registro, int posicao, int i, BufferDeBytes saida, boolean aspasNaDataHora) {
+		TiposDbf tipo = tipos[i];
+		if(tamanhos[i] < (tipo == TiposDbf.INTEIRO || tipo == TiposDbf.AUTOINCREMENTO ? 4 : 8)) return false;
+		switch(tipo) {
+		case INTEIRO:
+			escreverLong(DecodificadorDbf.lerInteiroBinario(registro, posicao), saida);
+			return true;
+		case AUTOINCREMENTO:
+			escreverLong(DecodificadorDbf.lerInteiroDBase(registro, posicao), saida);
+			return true;
+		case MOEDA:
+			long moeda = DecodificadorDbf.lerLongBinario(registro, posicao);
+			if(moeda < 0) saida.escrever('-');
+			long negativo = moeda < 0 ? moeda : -moeda;
+			escreverDigitos(negativo / 10000, 1, saida);
+			saida.escrever('.');
+			escreverDigitos(negativo % 10000, 4, saida);
+			return true;
+		case DUPLO:
+		case DUPLO_DBASE:
+			double valor = tipo == TiposDbf.DUPLO ? DecodificadorDbf.lerDoubleBinario(registro, posicao) : DecodificadorDbf.lerDoubleDBase(registro, posicao);
+			if(Double.isNaN(valor) || Double.isInfinite(valor)) return false;
+			saida.escrever(Double.toString(valor).getBytes(StandardCharsets.US_ASCII));
+			return true;
+		default:
+			long dataHora = DecodificadorDbf.lerDataHora(registro, posicao, tipo == TiposDbf.DATA_HORA_DBASE);
+			if(dataHora == DecodificadorDbf.DATA_HORA_VAZIA) return false;
+			if(aspasNaDataHora) saida.escrever('"');
+			escreverDataHora(dataHora, saida);
+			if(aspasNaDataHora) saida.escrever('"');
+			return true;
+		}
+	}
+
+	/**
+	 * Escreve um <b>long</b> em decimal.
+	 * @param valor O valor a ser escrito.
+	 * @param saida O {@link BufferDeBytes} de destino.
+	 */
+	protected static void escreverLong(long valor, BufferDeBytes saida) {
+		if(valor < 0) saida.escrever('-');
+		escreverDigitos(valor < 0 ? valor : -valor, 1, saida);
+	}
+
+	/**
+	 * Escreve uma data e hora retornada por {@link DecodificadorDbf#lerDataHora(byte[], int, boolean)} como AAAA-MM-DDTHH:MM:SS.mmm.
+	 * @param dataHora Os milissegundos desde 1970-01-01T00:00.
+	 * @param saida O {@link BufferDeBytes} de destino.
+	 */
+	protected static void escreverDataHora(long dataHora, BufferDeBytes saida) {
+		int data = DecodificadorDbf.getData(dataHora);
+		int milissegundos = DecodificadorDbf.getMilissegundosDoDia(dataHora);
+		if(data < 0) saida.escrever('-');
+		int ano = Math.abs(data / 10000);
+		escreverDigitos(-ano, 4, saida);
+		saida.escrever('-');
+		escreverDigitos(-Math.abs(data / 100 % 100), 2, saida);
+		saida.escrever('-');
+		escreverDigitos(-Math.abs(data % 100), 2, saida);
+		saida.escrever('T');
+		escreverDigitos(-(milissegundos / 3600000), 2, saida);
+		saida.escrever(':');
+		escreverDigitos(-(milissegundos / 60000 % 60), 2, saida);
+		saida.escrever(':');
+		escreverDigitos(-(milissegundos / 1000 % 60), 2, saida);
+		saida.escrever('.');
+		escreverDigitos(-(milissegundos % 1000), 3, saida);
+	}
+
+	/**
+	 * Escreve os dgitos de um valor negativo ou zero, completando com zeros  esquerda. O valor  negativo para comportar {@link Long#MIN_VALUE}.
+	 */
+	private static void escreverDigitos(long negativo, int minimoDeDigitos, BufferDeBytes saida) {
+		long potencia = 1;
+		int digitos = 1;
+		while(negativo / potencia <= -10) {
+			potencia *= 10;
+			digitos++;
+		}
+		for(; digitos < minimoDeDigitos; digitos++) saida.escrever('0');
+		for(; potencia > 0; potencia /= 10) {
+			saida.escrever('0' - (int) (negativo / potencia % 10));
+		}
+	}
+
+	private void escreverUtf8(byte[] b, int inicio, int fim, BufferDeBytes saida, boolean jaUtf8) {
+		for(int i = inicio; i < fim; i++) {
+			int c = b[i] & 0xFF;
+			if(c < 0x80) {
+				escreverAscii(c, saida);
+			}
+			else if(jaUtf8) {
+				saida.escrever(c);
+			}
+			else {
+				saida.escrever(0xC0 | (c >> 6));
+				saida.escrever(0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	private static boolean isAscii(byte[] b, int inicio, int fim) {
+		for(int i = inicio; i < fim; i++) {
+			if(b[i] < 0) return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,72 @@
+package io.github.deynne.dbf.exportacao;
+
+import java.nio.charset.Charset;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+
+/**
+ * Codificao de registros em CSV, seguindo a RFC 4180.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class CodificadorCsv extends Codificador {
+
+	private final int separador;
+	private final boolean titulos;
+
+	CodificadorCsv(CampoDbf[] campos, Charset charset, char separador, boolean titulos) {
+		super(campos, charset);
+		this.separador = separador;
+		this.titulos = titulos;
+	}
+
+	@Override
+	void codificarInicio(BufferDeBytes saida) {
+		if(!titulos) return;
+		for(int i = 0; i < campos.length; i++) {
+			if(i > 0) saida.escrever(separador);
+			String nome = campos[i].getNome().trim();
+			boolean aspas = nome.indexOf(separador) >= 0 || nome.indexOf('"') >= 0;
+			if(aspas) saida.escrever('"');
+			escreverTexto(nome, saida);
+			if(aspas) saida.escrever('"');
+		}
+		saida.escrever('\r');
+		saida.escrever('\n');
+	}
+
+	@Override
+	void codificar(byte[] registro, int offset, BufferDeBytes saida) {
+		for(int i = 0; i < campos.length; i++) {
+			if(i > 0) saida.escrever(separador);
+			if(isBinario(i)) {
+				escreverBinario(registro, offset + deslocamentos[i], i, saida, false);
+				continue;
+			}
+			int inicio = DecodificadorDbf.inicioSemEspacos(registro, offset + deslocamentos[i], tamanhos[i]);
+			int fim = DecodificadorDbf.fimSemEspacos(registro, inicio, offset + deslocamentos[i] + tamanhos[i] - inicio);
+			boolean aspas = precisaDeAspas(registro, inicio, fim);
+			if(aspas) saida.escrever('"');
+			escreverTexto(registro, inicio, fim, saida);
+			if(aspas) saida.escrever('"');
+		}
+		saida.escrever('\r');
+		saida.escrever('\n');
+	}
+
+	@Override
+	protected void escreverAscii(int c, BufferDeBytes saida) {
+		// Dentro de aspas, a aspa  representada por duas aspas
+		if(c == '"') saida.escrever('"');
+		saida.escrever(c);
+	}
+
+	private boolean precisaDeAspas(byte[] registro, int inicio, int fim) {
+		for(int i = inicio; i < fim; i++) {
+			byte b = registro[i];
+			if(b == separador || b == '"' || b == '\r' || b == '\n') return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,162 @@
+package io.github.deynne.dbf.exportacao;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * Codificao de registros em JSON Lines: um objeto por linha, com os nomes dos campos como chaves.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class CodificadorJsonl extends Codificador {
+
+	private static final byte[] NULO = "null".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] VERDADEIRO = "true".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] FALSO = "false".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] HEXADECIMAL = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	// "{"NOME": e ,"NOME": j codificados
+	private final byte[][] chaves;
+
+	CodificadorJsonl(CampoDbf[] campos, Charset charset) {
+		super(campos, charset);
+		chaves = new byte[campos.length][];
+		for(int i = 0; i < campos.length; i++) {
+			BufferDeBytes chave = new BufferDeBytes(campos[i].getNome().length() + 4);
+			chave.escrever(i == 0 ? '{' : ',');
+			chave.escrever('"');
+			escreverTexto(campos[i].getNome().trim(), chave);
+			chave.escrever('"');
+			chave.escrever(':');
+			chaves[i] = Arrays.copyOf(chave.getDados(), chave.getTamanho());
+		}
+	}
+
+	@Override
+	void codificarInicio(BufferDeBytes saida) { }
+
+	@Override
+	void codificar(byte[] registro, int offset, BufferDeBytes saida) {
+		if(campos.length == 0) saida.escrever('{');
+		for(int i = 0; i < campos.length; i++) {
+			saida.escrever(chaves[i]);
+			int posicao = offset + deslocamentos[i];
+			int tamanho = tamanhos[i];
+			TiposDbf tipo = tipos[i];
+			if(isBinario(i)) {
+				if(!escreverBinario(registro, posicao, i, saida, true)) saida.escrever(NULO);
+			}
+			else if(tipo == TiposDbf.NUMERICO || tipo == TiposDbf.FLUTUANTE) {
+				escreverNumero(registro, posicao, tamanho, saida);
+			}
+			else if(tipo == TiposDbf.DATA) {
+				escreverData(registro, posicao, tamanho, saida);
+			}
+			else if(tipo == TiposDbf.LOGICO) {
+				byte b = registro[posicao];
+				saida.escrever(b == ' ' || b == '?' || b == 0 ? NULO : DecodificadorDbf.lerLogico(b) ? VERDADEIRO : FALSO);
+			}
+			else {
+				int inicio = DecodificadorDbf.inicioSemEspacos(registro, posicao, tamanho);
+				int fim = DecodificadorDbf.fimSemEspacos(registro, inicio, posicao + tamanho - inicio);
+				saida.escrever('"');
+				escreverTexto(registro, inicio, fim, saida);
+				saida.escrever('"');
+			}
+		}
+		saida.escrever('}');
+		saida.escrever('\n');
+	}
+
+	@Override
+	protected void escreverAscii(int c, BufferDeBytes saida) {
+		if(c == '"' || c == '\\') {
+			saida.escrever('\\');
+			saida.escrever(c);
+		}
+		else if(c >= 0x20) {
+			saida.escrever(c);
+		}
+		else if(c == '\n') {
+			saida.escrever('\\');
+			saida.escrever('n');
+		}
+		else if(c == '\r') {
+			saida.escrever('\\');
+			saida.escrever('r');
+		}
+		else if(c == '\t') {
+			saida.escrever('\\');
+			saida.escrever('t');
+		}
+		else {
+			saida.escrever('\\');
+			saida.escrever('u');
+			saida.escrever('0');
+			saida.escrever('0');
+			saida.escrever(HEXADECIMAL[c >> 4]);
+			saida.escrever(HEXADECIMAL[c & 0xF]);
+		}
+	}
+
+	/**
+	 * Escreve o nmero como est no arquivo quando ele j  um nmero JSON vlido, o caso comum. Formas como "+1", ".5" ou "007" so
+	 * normalizadas e valores invlidos, como os preenchidos com '*' em caso de estouro, so escritos como null.
+	 */
+	private static void escreverNumero(byte[] registro, int posicao, int tamanho, BufferDeBytes saida) {
+		int inicio = DecodificadorDbf.inicioSemEspacos(registro, posicao, tamanho);
+		int fim = DecodificadorDbf.fimSemEspacos(registro, inicio, posicao + tamanho - inicio);
+		if(isNumeroJson(registro, inicio, fim)) {
+			saida.escrever(registro, inicio, fim - inicio);
+			return;
+		}
+		double valor = DecodificadorDbf.lerDouble(registro, posicao, tamanho);
+		if(Double.isNaN(valor) || Double.isInfinite(valor)) {
+			saida.escrever(NULO);
+		}
+		else {
+			saida.escrever(Double.toString(valor).getBytes(StandardCharsets.US_ASCII));
+		}
+	}
+
+	private static void escreverData(byte[] registro, int posicao, int tamanho, BufferDeBytes saida) {
+		int data = tamanho >= 8 ? DecodificadorDbf.lerData(registro, posicao) : 0;
+		if(data == 0) {
+			saida.escrever(NULO);
+			return;
+		}
+		saida.escrever('"');
+		saida.escrever(registro, posicao, 4);
+		saida.escrever('-');
+		saida.escrever(registro, posicao + 4, 2);
+		saida.escrever('-');
+		saida.escrever(registro, posicao + 6, 2);
+		saida.escrever('"');
+	}
+
+	/**
+	 * Verifica a gramtica de nmero do JSON: -?(0|[1-9][0-9]*)(.[0-9]+)?
+	 */
+	private static boolean isNumeroJson(byte[] b, int inicio, int fim) {
+		int i = inicio;
+		if(i < fim && b[i] == '-') i++;
+		if(i >= fim || !isDigito(b[i])) return false;
+		if(b[i] == '0' && i + 1 < fim && isDigito(b[i + 1])) return false;
+		while(i < fim && isDigito(b[i])) i++;
+		if(i == fim) return true;
+		if(b[i] != '.') return false;
+		i++;
+		if(i >= fim) return false;
+		while(i < fim && isDigito(b[i])) i++;
+		return i == fim;
+	}
+
+	private static boolean isDigito(byte b) {
+		return b >= '0' && b <= '9';
+	}
+}
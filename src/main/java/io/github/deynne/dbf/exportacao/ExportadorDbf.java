@@ -0,0 +1,278 @@
+package io.github.deynne.dbf.exportacao;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.deynne.dbf.FiltroDeRegistro;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Exportao dos registros de um arquivo dbf para CSV ou JSON Lines, em UTF-8.
+ * </p>
+ * <p>
+ * 	Os registros so lidos em blocos no formato bruto pelo {@link LeitorDbf} e cada bloco  codificado por uma thread diretamente para bytes, sem
+ * 	a criao de {@link io.github.deynne.dbf.model.Linha Linha} ou {@link String} por campo. Os blocos codificados so gravados na ordem original
+ * 	dos registros, cada um com uma nica escrita no canal de sada. A quantidade de blocos em processamento  limitada, ento o consumo de memria
+ * 	no depende do tamanho do arquivo.
+ * </p>
+ * <p>
+ * 	Os registros marcados como deletados no so exportados.
+ * </p>
+ * <pre>
+ * ExportadorDbf exportador = new ExportadorDbf(FormatoDeExportacao.CSV);
+ * exportador.setCampos("ID", "NOME");
+ * long exportados = exportador.exportar(leitor, new File("saida.csv"));
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class ExportadorDbf {
+
+	public static final int REGISTROS_POR_BLOCO_PADRAO = 8192;
+	public static final char SEPARADOR_PADRAO = ',';
+
+	private final FormatoDeExportacao formato;
+	private String[] campos;
+	private FiltroDeRegistro filtro;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int registrosPorBloco = REGISTROS_POR_BLOCO_PADRAO;
+	private char separador = SEPARADOR_PADRAO;
+	private boolean incluirTitulos = true;
+
+	/**
+	 * Cria o exportador.
+	 * @param formato O {@link FormatoDeExportacao} da sada.
+	 */
+	public ExportadorDbf(FormatoDeExportacao formato) {
+		if(formato == null) throw new IllegalArgumentException("O formato no pode ser nulo.");
+		this.formato = formato;
+	}
+
+	/**
+	 * Exporta os registros restantes do leitor para um arquivo.
+	 * @param leitor O {@link LeitorDbf} posicionado antes do primeiro registro a ser exportado.
+	 * @param destino O arquivo a ser criado. Caso exista, ser sobrescrito.
+	 * @return A quantidade de registros exportados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum dos campos selecionados no exista no arquivo.
+	 */
+	public long exportar(LeitorDbf leitor, File destino) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		try(FileOutputStream saida = new FileOutputStream(destino); FileChannel canal = saida.getChannel()) {
+			return exportar(leitor, canal);
+		}
+	}
+
+	/**
+	 * Exporta os registros restantes do leitor para um {@link OutputStream}. O stream no  fechado.
+	 * @param leitor O {@link LeitorDbf} posicionado antes do primeiro registro a ser exportado.
+	 * @param saida O {@link OutputStream} de destino.
+	 * @return A quantidade de registros exportados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum dos campos selecionados no exista no arquivo.
+	 */
+	public long exportar(LeitorDbf leitor, OutputStream saida) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		long exportados = exportar(leitor, Channels.newChannel(saida));
+		saida.flush();
+		return exportados;
+	}
+
+	/**
+	 * Exporta os registros restantes do leitor para um canal. O canal no  fechado.
+	 * @param leitor O {@link LeitorDbf} posicionado antes do primeiro registro a ser exportado.
+	 * @param canal O {@link WritableByteChannel} de destino.
+	 * @return A quantidade de registros exportados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum dos campos selecionados no exista no arquivo.
+	 */
+	public long exportar(LeitorDbf leitor, WritableByteChannel canal) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		CabecalhoDbf cabecalho = leitor.getCabecalho();
+		Codificador codificador = criarCodificador(cabecalho, leitor);
+		int tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		// Limita a quantidade para que o bloco de registros largos no ultrapasse o maior array nem tenha um tamanho negativo
+		int porBloco = (int) Math.min(registrosPorBloco, BufferDeBytes.TAMANHO_MAXIMO / Math.max(1, tamanhoDoRegistro));
+
+		BufferDeBytes inicio = new BufferDeBytes(256);
+		codificador.codificarInicio(inicio);
+		inicio.gravar(canal);
+
+		AtomicLong exportados = new AtomicLong();
+		int janela = threads * 2;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			BlockingQueue<byte[]> blocosLivres = new ArrayBlockingQueue<>(janela + 1);
+			BlockingQueue<BufferDeBytes> saidasLivres = new ArrayBlockingQueue<>(janela + 1);
+			// Os blocos so gravados na ordem em que foram lidos, mesmo que terminem de ser codificados fora de ordem
+			Deque<Future<BufferDeBytes>> pendentes = new ArrayDeque<>();
+
+			while(true) {
+				if(pendentes.size() >= janela) gravar(pendentes.poll(), canal, saidasLivres);
+
+				byte[] bloco = blocosLivres.poll();
+				if(bloco == null) bloco = new byte[porBloco * tamanhoDoRegistro];
+				int quantidade = leitor.lerRegistros(bloco, 0, porBloco);
+				if(quantidade == 0) break;
+
+				final byte[] blocoLido = bloco;
+				pendentes.add(executor.submit(() -> {
+					BufferDeBytes saida = saidasLivres.poll();
+					if(saida == null) saida = new BufferDeBytes((int) Math.min((long) quantidade * tamanhoDoRegistro * 2, BufferDeBytes.TAMANHO_MAXIMO));
+					try {
+						int aceitos = 0;
+						for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro) {
+							if(LeitorDbf.isDeletado(blocoLido, offset)) continue;
+							if(filtro != null && !filtro.aceitar(blocoLido, offset)) continue;
+							codificador.codificar(blocoLido, offset, saida);
+							aceitos++;
+						}
+						exportados.addAndGet(aceitos);
+					} finally {
+						blocosLivres.offer(blocoLido);
+					}
+					return saida;
+				}));
+			}
+
+			while(!pendentes.isEmpty()) {
+				gravar(pendentes.poll(), canal, saidasLivres);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return exportados.get();
+	}
+
+	private Codificador criarCodificador(CabecalhoDbf cabecalho, LeitorDbf leitor) throws CampoDbfIlegalException {
+		CampoDbf[] selecionados = cabecalho.getCampos();
+		if(campos != null) {
+			selecionados = new CampoDbf[campos.length];
+			for(int i = 0; i < campos.length; i++) {
+				int indice = cabecalho.getIdByNome(campos[i]);
+				if(indice < 0) throw new CampoDbfIlegalException("O campo " + campos[i] + " no existe no arquivo.");
+				selecionados[i] = cabecalho.getCampos()[indice];
+			}
+		}
+		switch(formato) {
+		case JSONL:
+			return new CodificadorJsonl(selecionados, leitor.getCharSet());
+		default:
+			return new CodificadorCsv(selecionados, leitor.getCharSet(), separador, incluirTitulos);
+		}
+	}
+
+	private static void gravar(Future<BufferDeBytes> futuro, WritableByteChannel canal, BlockingQueue<BufferDeBytes> saidasLivres) throws IOException {
+		BufferDeBytes saida;
+		try {
+			saida = futuro.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("A exportao foi interrompida.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Erro durante a codificao dos registros.", e.getCause());
+		}
+		saida.gravar(canal);
+		saida.limpar();
+		saidasLivres.offer(saida);
+	}
+
+	public FormatoDeExportacao getFormato() {
+		return formato;
+	}
+
+	public String[] getCampos() {
+		return campos;
+	}
+
+	/**
+	 * Define os campos exportados e sua ordem.
+	 * @param campos Os nomes dos campos. Sem campos, todos os campos do arquivo so exportados.
+	 */
+	public void setCampos(String... campos) {
+		this.campos = campos == null || campos.length == 0 ? null : campos;
+	}
+
+	public FiltroDeRegistro getFiltro() {
+		return filtro;
+	}
+
+	/**
+	 * Define um filtro aplicado aos registros antes da exportao.
+	 * @param filtro O {@link FiltroDeRegistro}. <b>null</b> exporta todos os registros no deletados.
+	 */
+	public void setFiltro(FiltroDeRegistro filtro) {
+		this.filtro = filtro;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Define a quantidade de threads que codificam os blocos de registros.
+	 * @param threads A quantidade de threads. Padro  a quantidade de processadores disponveis.
+	 */
+	public void setThreads(int threads) {
+		if(threads <= 0) throw new IllegalArgumentException("A quantidade de threads deve ser positiva.");
+		this.threads = threads;
+	}
+
+	public int getRegistrosPorBloco() {
+		return registrosPorBloco;
+	}
+
+	/**
+	 * Define a quantidade de registros lidos e codificados de cada vez. Cada bloco resulta em uma escrita no destino.
+	 * @param registrosPorBloco A quantidade de registros por bloco. Padro {@value #REGISTROS_POR_BLOCO_PADRAO}. A quantidade utilizada  limitada 
+	 * que cabe em um array.
+	 */
+	public void setRegistrosPorBloco(int registrosPorBloco) {
+		if(registrosPorBloco <= 0) throw new IllegalArgumentException("A quantidade de registros por bloco deve ser positiva.");
+		this.registrosPorBloco = registrosPorBloco;
+	}
+
+	public char getSeparador() {
+		return separador;
+	}
+
+	/**
+	 * Define o separador de valores do CSV.
+	 * @param separador Um caracter ASCII diferente de aspas e de quebras de linha. Padro '{@value #SEPARADOR_PADRAO}'.
+	 */
+	public void setSeparador(char separador) {
+		if(separador > 0x7F || separador == '"' || separador == '\r' || separador == '\n') throw new IllegalArgumentException("Separador invlido: " + separador);
+		this.separador = separador;
+	}
+
+	public boolean isIncluirTitulos() {
+		return incluirTitulos;
+	}
+
+	/**
+	 * Define se a primeira linha do CSV contm os nomes dos campos.
+	 * @param incluirTitulos <b>true</b> para escrever a linha de ttulos. Padro <b>true</b>.
+	 */
+	public void setIncluirTitulos(boolean incluirTitulos) {
+		this.incluirTitulos = incluirTitulos;
+	}
+}
@@ -0,0 +1,18 @@
+package io.github.deynne.dbf.exportacao;
+
+/**
+ * Os formatos de sada do {@link ExportadorDbf}.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public enum FormatoDeExportacao {
+	/**
+	 * Valores separados por vrgula (RFC 4180). Os valores so escritos como esto no arquivo, sem os espaos do incio e do fim, e s so
+	 * colocados entre aspas quando contm o separador, aspas ou quebras de linha.
+	 */
+	CSV,
+	/**
+	 * Um objeto JSON por linha. Nmeros, datas (AAAA-MM-DD) e valores lgicos so escritos com o tipo correspondente e campos vazios como <b>null</b>.
+	 */
+	JSONL
+}
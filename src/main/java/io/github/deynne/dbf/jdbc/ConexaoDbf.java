@@ -0,0 +1,405 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+
+/**
+ * <p>
+ * 	Uma conexo somente leitura com um diretrio de arquivos dbf. Cada arquivo com a extenso .dbf  uma tabela cujo nome  o nome do arquivo sem a
+ * 	extenso, sem diferenciar maisculas de minsculas.
+ * </p>
+ * <p>
+ * 	No h transaes: {@link #commit()} e {@link #rollback()} no tm efeito e cada consulta l o estado atual do arquivo.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class ConexaoDbf implements Connection {
+
+	private static final String EXTENSAO = ".dbf";
+
+	private final String url;
+	private final File diretorio;
+	private final Charset charset;
+	private volatile boolean fechada;
+	private boolean autoCommit = true;
+
+	/**
+	 * Cria a conexo.
+	 * @param url A url utilizada na conexo.
+	 * @param diretorio O diretrio das tabelas.
+	 * @param charset O charset dos campos de texto das tabelas.
+	 */
+	ConexaoDbf(String url, File diretorio, Charset charset) {
+		this.url = url;
+		this.diretorio = diretorio;
+		this.charset = charset;
+	}
+
+	/**
+	 * Os arquivos das tabelas do diretrio, em ordem alfabtica.
+	 * @return Um {@link File}[ ] com os arquivos .dbf do diretrio.
+	 */
+	File[] getArquivosDasTabelas() {
+		File[] arquivos = diretorio.listFiles(arquivo -> arquivo.isFile() && arquivo.getName().toLowerCase().endsWith(EXTENSAO));
+		if(arquivos == null) return new File[0];
+		Arrays.sort(arquivos, (a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+		return arquivos;
+	}
+
+	/**
+	 * O arquivo de uma tabela.
+	 * @param tabela O nome da tabela, sem diferenciar maisculas de minsculas.
+	 * @return O {@link File} da tabela.
+	 * @throws SQLException Caso a tabela no exista.
+	 */
+	File getArquivoDaTabela(String tabela) throws SQLException {
+		for(File arquivo : getArquivosDasTabelas()) {
+			if(getNomeDaTabela(arquivo).equalsIgnoreCase(tabela)) return arquivo;
+		}
+		throw new SQLException("A tabela " + tabela + " no existe.", "42S02");
+	}
+
+	/**
+	 * O nome da tabela de um arquivo.
+	 * @param arquivo O arquivo dbf.
+	 * @return O nome do arquivo sem a extenso.
+	 */
+	static String getNomeDaTabela(File arquivo) {
+		String nome = arquivo.getName();
+		return nome.substring(0, nome.length() - EXTENSAO.length());
+	}
+
+	/**
+	 * L apenas o cabealho de uma tabela.
+	 * @param arquivo O arquivo da tabela.
+	 * @return O {@link CabecalhoDbf} da tabela.
+	 * @throws SQLException Se ocorrer problemas na leitura do arquivo.
+	 */
+	CabecalhoDbf lerCabecalho(File arquivo) throws SQLException {
+		try(LeitorDbf leitor = new LeitorDbf(arquivo, charset)) {
+			return leitor.getCabecalho();
+		} catch (FileNotFoundException e) {
+			throw new SQLException("A tabela " + getNomeDaTabela(arquivo) + " no existe.", "42S02", e);
+		} catch (IOException e) {
+			throw new SQLException("Falha na leitura da tabela " + getNomeDaTabela(arquivo) + ".", "58030", e);
+		}
+	}
+
+	Charset getCharset() {
+		return charset;
+	}
+
+	String getUrl() {
+		return url;
+	}
+
+	File getDiretorio() {
+		return diretorio;
+	}
+
+	@Override
+	public Statement createStatement() throws SQLException {
+		verificarAberta();
+		return new DeclaracaoDbf(this, null);
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+		verificarTipo(resultSetType, resultSetConcurrency);
+		return createStatement();
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		verificarTipo(resultSetType, resultSetConcurrency);
+		return createStatement();
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		verificarAberta();
+		return new DeclaracaoDbf(this, ConsultaSql.interpretar(sql));
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		verificarTipo(resultSetType, resultSetConcurrency);
+		return prepareStatement(sql);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		verificarTipo(resultSetType, resultSetConcurrency);
+		return prepareStatement(sql);
+	}
+
+	@Override
+	public DatabaseMetaData getMetaData() throws SQLException {
+		verificarAberta();
+		return new MetadadosDoBancoDbf(this);
+	}
+
+	@Override
+	public String nativeSQL(String sql) throws SQLException {
+		return sql;
+	}
+
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException {
+		verificarAberta();
+		this.autoCommit = autoCommit;
+	}
+
+	@Override
+	public boolean getAutoCommit() throws SQLException {
+		return autoCommit;
+	}
+
+	@Override
+	public void commit() throws SQLException {
+		verificarAberta();
+	}
+
+	@Override
+	public void rollback() throws SQLException {
+		verificarAberta();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		fechada = true;
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return fechada;
+	}
+
+	@Override
+	public boolean isValid(int timeout) throws SQLException {
+		if(timeout < 0) throw new SQLException("O tempo limite no pode ser negativo.");
+		return !fechada && diretorio.isDirectory();
+	}
+
+	@Override
+	public void setReadOnly(boolean readOnly) throws SQLException {
+		verificarAberta();
+	}
+
+	@Override
+	public boolean isReadOnly() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public void setCatalog(String catalog) throws SQLException { }
+
+	@Override
+	public String getCatalog() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void setSchema(String schema) throws SQLException { }
+
+	@Override
+	public String getSchema() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void setTransactionIsolation(int level) throws SQLException {
+		verificarAberta();
+	}
+
+	@Override
+	public int getTransactionIsolation() throws SQLException {
+		return TRANSACTION_NONE;
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException { }
+
+	@Override
+	public Map<String, Class<?>> getTypeMap() throws SQLException {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public void setHoldability(int holdability) throws SQLException { }
+
+	@Override
+	public int getHoldability() throws SQLException {
+		return ResultSet.CLOSE_CURSORS_AT_COMMIT;
+	}
+
+	@Override
+	public void setClientInfo(String name, String value) throws SQLClientInfoException {
+		throw new SQLClientInfoException();
+	}
+
+	@Override
+	public void setClientInfo(Properties properties) throws SQLClientInfoException {
+		throw new SQLClientInfoException();
+	}
+
+	@Override
+	public String getClientInfo(String name) throws SQLException {
+		return null;
+	}
+
+	@Override
+	public Properties getClientInfo() throws SQLException {
+		return new Properties();
+	}
+
+	@Override
+	public void abort(Executor executor) throws SQLException {
+		fechada = true;
+	}
+
+	@Override
+	public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException { }
+
+	@Override
+	public int getNetworkTimeout() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if(iface.isInstance(this)) return iface.cast(this);
+		throw new SQLException("A conexo no implementa " + iface.getName() + ".");
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+
+	private void verificarTipo(int tipo, int concorrencia) throws SQLException {
+		if(tipo != ResultSet.TYPE_FORWARD_ONLY || concorrencia != ResultSet.CONCUR_READ_ONLY) throw ResultadoAbstrato.naoSuportado();
+	}
+
+	private void verificarAberta() throws SQLException {
+		if(fechada) throw new SQLException("A conexo est fechada.", "08003");
+	}
+
+	// Procedimentos, savepoints e tipos de objetos grandes no so suportados
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setTypeMap(Map<String,Class<?>> map) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public Savepoint setSavepoint() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public Savepoint setSavepoint(String name) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void rollback(Savepoint savepoint) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public Clob createClob() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public Blob createBlob() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public NClob createNClob() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public SQLXML createSQLXML() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+}
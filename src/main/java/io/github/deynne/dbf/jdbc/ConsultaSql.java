@@ -0,0 +1,230 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * 	Interpretao do subconjunto de SQL suportado pelo driver:
+ * </p>
+ * <pre>
+ * SELECT * | campo [, campo ...] FROM tabela
+ *   [WHERE condicao [AND condicao ...]]
+ *   [LIMIT n]
+ *
+ * condicao: campo (= | &lt;&gt; | != | &lt; | &lt;= | &gt; | &gt;=) (literal | ?)
+ *         | campo IS [NOT] NULL
+ * </pre>
+ * <p>
+ * 	Os literais podem ser textos entre aspas simples, nmeros ou TRUE/FALSE. Palavras-chave e nomes de campos e tabelas no diferenciam maisculas de minsculas.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class ConsultaSql {
+
+	private List<String> colunas;
+	private String tabela;
+	private List<CondicaoSql> condicoes = new ArrayList<>();
+	private int limite = -1;
+	private int quantidadeDeParametros;
+
+	// Estado da interpretao
+	private List<String> tokens;
+	private int posicao;
+
+	/**
+	 * Uma condio da clusula WHERE.
+	 */
+	static class CondicaoSql {
+		final String campo;
+		final String operador;
+		final String literal;
+		final int parametro;
+
+		CondicaoSql(String campo, String operador, String literal, int parametro) {
+			this.campo = campo;
+			this.operador = operador;
+			this.literal = literal;
+			this.parametro = parametro;
+		}
+	}
+
+	private ConsultaSql() { }
+
+	/**
+	 * Interpreta uma consulta.
+	 * @param sql O texto da consulta.
+	 * @return A {@link ConsultaSql} interpretada.
+	 * @throws SQLException Caso a consulta no esteja no formato suportado.
+	 */
+	static ConsultaSql interpretar(String sql) throws SQLException {
+		if(sql == null) throw new SQLSyntaxErrorException("A consulta no pode ser nula.", "42000");
+		ConsultaSql consulta = new ConsultaSql();
+		consulta.tokens = separar(sql);
+		consulta.interpretar();
+		consulta.tokens = null;
+		return consulta;
+	}
+
+	private void interpretar() throws SQLException {
+		esperar("SELECT");
+		if(aceitar("*")) {
+			colunas = null;
+		}
+		else {
+			colunas = new ArrayList<>();
+			do {
+				colunas.add(identificador());
+			} while(aceitar(","));
+		}
+		esperar("FROM");
+		tabela = identificador();
+
+		if(aceitar("WHERE")) {
+			do {
+				condicoes.add(condicao());
+			} while(aceitar("AND"));
+		}
+		if(aceitar("LIMIT")) {
+			String valor = proximo();
+			try {
+				limite = Integer.parseInt(valor);
+			} catch (NumberFormatException e) {
+				throw erro("Valor de LIMIT invlido: " + valor);
+			}
+		}
+		aceitar(";");
+		if(posicao < tokens.size()) throw erro("Trecho no suportado: " + tokens.get(posicao));
+	}
+
+	private CondicaoSql condicao() throws SQLException {
+		String campo = identificador();
+		if(aceitar("IS")) {
+			boolean negado = aceitar("NOT");
+			esperar("NULL");
+			return new CondicaoSql(campo, negado ? "IS NOT NULL" : "IS NULL", null, -1);
+		}
+		String operador = proximo();
+		switch(operador) {
+		case "=": case "<>": case "<": case "<=": case ">": case ">=":
+			break;
+		case "!=":
+			operador = "<>";
+			break;
+		default:
+			throw erro("Operador no suportado: " + operador);
+		}
+		String valor = proximo();
+		if(valor.equals("?")) {
+			return new CondicaoSql(campo, operador, null, ++quantidadeDeParametros);
+		}
+		if(valor.startsWith("'")) {
+			return new CondicaoSql(campo, operador, valor.substring(1, valor.length() - 1).replace("''", "'"), -1);
+		}
+		return new CondicaoSql(campo, operador, valor, -1);
+	}
+
+	private String identificador() throws SQLException {
+		String token = proximo();
+		if(token.startsWith("\"")) return token.substring(1, token.length() - 1);
+		if(!Character.isLetter(token.charAt(0)) && token.charAt(0) != '_') throw erro("Era esperado um identificador, mas foi encontrado: " + token);
+		return token;
+	}
+
+	private String proximo() throws SQLException {
+		if(posicao >= tokens.size()) throw erro("Fim inesperado da consulta.");
+		return tokens.get(posicao++);
+	}
+
+	private boolean aceitar(String palavra) {
+		if(posicao < tokens.size() && tokens.get(posicao).equalsIgnoreCase(palavra)) {
+			posicao++;
+			return true;
+		}
+		return false;
+	}
+
+	private void esperar(String palavra) throws SQLException {
+		if(!aceitar(palavra)) throw erro("Era esperado " + palavra + (posicao < tokens.size() ? ", mas foi encontrado: " + tokens.get(posicao) : "."));
+	}
+
+	private static SQLException erro(String mensagem) {
+		return new SQLSyntaxErrorException(mensagem, "42000");
+	}
+
+	private static List<String> separar(String sql) throws SQLException {
+		List<String> tokens = new ArrayList<>();
+		int i = 0;
+		while(i < sql.length()) {
+			char c = sql.charAt(i);
+			if(Character.isWhitespace(c)) {
+				i++;
+			}
+			else if(c == '\'' || c == '"') {
+				int fim = i + 1;
+				while(true) {
+					if(fim >= sql.length()) throw erro("Texto sem fechamento na posio " + i + ".");
+					if(sql.charAt(fim) == c) {
+						// Aspas duplicadas representam a prpria aspa
+						if(fim + 1 < sql.length() && sql.charAt(fim + 1) == c) {
+							fim += 2;
+							continue;
+						}
+						break;
+					}
+					fim++;
+				}
+				tokens.add(sql.substring(i, fim + 1));
+				i = fim + 1;
+			}
+			else if(Character.isLetterOrDigit(c) || c == '_' || c == '.' || (c == '-' && i + 1 < sql.length() && Character.isDigit(sql.charAt(i + 1)))) {
+				int fim = i + 1;
+				while(fim < sql.length() && (Character.isLetterOrDigit(sql.charAt(fim)) || sql.charAt(fim) == '_' || sql.charAt(fim) == '.')) fim++;
+				tokens.add(sql.substring(i, fim));
+				i = fim;
+			}
+			else if((c == '<' || c == '>' || c == '!') && i + 1 < sql.length() && (sql.charAt(i + 1) == '=' || (c == '<' && sql.charAt(i + 1) == '>'))) {
+				tokens.add(sql.substring(i, i + 2));
+				i += 2;
+			}
+			else {
+				tokens.add(String.valueOf(c));
+				i++;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * As colunas projetadas.
+	 * @return Uma {@link List} com os nomes das colunas ou <b>null</b> para todas as colunas.
+	 */
+	List<String> getColunas() {
+		return colunas;
+	}
+
+	String getTabela() {
+		return tabela;
+	}
+
+	List<CondicaoSql> getCondicoes() {
+		return condicoes;
+	}
+
+	int getLimite() {
+		return limite;
+	}
+
+	int getQuantidadeDeParametros() {
+		return quantidadeDeParametros;
+	}
+
+	@Override
+	public String toString() {
+		return "ConsultaSql [ colunas=" + colunas + ", tabela=" + tabela + ", condicoes=" + condicoes.size() + ", limite=" + limite
+				+ ", parametros=" + quantidadeDeParametros + " ]";
+	}
+}
@@ -0,0 +1,651 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.deynne.dbf.FiltroDeRegistro;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Execuo de consultas sobre as tabelas de uma {@link ConexaoDbf}. A mesma classe atende aos {@link java.sql.Statement} e aos {@link PreparedStatement}.
+ * </p>
+ * <p>
+ * 	A projeo e as condies da consulta so aplicadas diretamente sobre os registros no formato bruto, ento apenas os campos selecionados das linhas
+ * 	que satisfazem as condies so convertidos.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ * @see ConsultaSql
+ */
+class DeclaracaoDbf implements PreparedStatement {
+
+	private final ConexaoDbf conexao;
+	private final ConsultaSql consulta;
+	private final Map<Integer, Object> parametros = new HashMap<>();
+
+	private ResultadoAbstrato resultado;
+	private int maximoDeLinhas;
+	private int tamanhoDaBusca;
+	private int tempoLimite;
+	private boolean fechado;
+	private boolean fecharAoConcluir;
+	private boolean reutilizavel;
+
+	/**
+	 * Cria a declarao.
+	 * @param conexao A {@link ConexaoDbf} de origem.
+	 * @param consulta A consulta preparada ou <b>null</b> para um {@link java.sql.Statement} comum.
+	 */
+	DeclaracaoDbf(ConexaoDbf conexao, ConsultaSql consulta) {
+		this.conexao = conexao;
+		this.consulta = consulta;
+	}
+
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+		if(consulta != null) throw new SQLException("Uma consulta preparada no pode receber outra consulta.");
+		return executar(ConsultaSql.interpretar(sql));
+	}
+
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		if(consulta == null) throw new SQLException("Nenhuma consulta foi preparada.");
+		return executar(consulta);
+	}
+
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		executeQuery(sql);
+		return true;
+	}
+
+	@Override
+	public boolean execute() throws SQLException {
+		executeQuery();
+		return true;
+	}
+
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public int executeUpdate() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		verificarAberta();
+		return resultado;
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return -1;
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		fecharResultado();
+		return false;
+	}
+
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		return getMoreResults();
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		if(consulta == null) return null;
+		File arquivo = conexao.getArquivoDaTabela(consulta.getTabela());
+		return new MetadadosDoResultado(ConexaoDbf.getNomeDaTabela(arquivo), projetar(conexao.lerCabecalho(arquivo), consulta.getColunas()));
+	}
+
+	@Override
+	public void clearParameters() throws SQLException {
+		parametros.clear();
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType) throws SQLException {
+		definir(parameterIndex, null);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		definir(parameterIndex, null);
+	}
+
+	@Override
+	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setByte(int parameterIndex, byte x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setShort(int parameterIndex, short x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setInt(int parameterIndex, int x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setLong(int parameterIndex, long x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setFloat(int parameterIndex, float x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setDouble(int parameterIndex, double x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setString(int parameterIndex, String x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setNString(int parameterIndex, String value) throws SQLException {
+		definir(parameterIndex, value);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+		definir(parameterIndex, x);
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if(fechado) return;
+		try {
+			fecharResultado();
+		} finally {
+			fechado = true;
+		}
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return fechado;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return conexao;
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException {
+		return maximoDeLinhas;
+	}
+
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+		if(max < 0) throw new SQLException("A quantidade mxima de linhas no pode ser negativa.");
+		maximoDeLinhas = max;
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException { }
+
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException { }
+
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return tempoLimite;
+	}
+
+	/**
+	 * Define o tempo limite das consultas. O tempo  contado a partir da execuo e verificado a cada bloco de registros lido pelo {@link ResultSet}, de
+	 * forma que a leitura de um resultado que ultrapassa o limite lana {@link java.sql.SQLTimeoutException}.
+	 * @param seconds O tempo limite em segundos. 0 para nenhum limite.
+	 */
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		if(seconds < 0) throw new SQLException("O tempo limite no pode ser negativo.");
+		tempoLimite = seconds;
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException { }
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return ResultSet.FETCH_FORWARD;
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		if(direction != ResultSet.FETCH_FORWARD) throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return tamanhoDaBusca;
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		if(rows < 0) throw new SQLException("O tamanho da busca no pode ser negativo.");
+		tamanhoDaBusca = rows;
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return ResultSet.CONCUR_READ_ONLY;
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException {
+		return ResultSet.TYPE_FORWARD_ONLY;
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return ResultSet.CLOSE_CURSORS_AT_COMMIT;
+	}
+
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException {
+		reutilizavel = poolable;
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return reutilizavel;
+	}
+
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		fecharAoConcluir = true;
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return fecharAoConcluir;
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if(iface.isInstance(this)) return iface.cast(this);
+		throw new SQLException("A declarao no implementa " + iface.getName() + ".");
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+
+	/**
+	 * Chamado quando um resultado desta declarao  fechado.
+	 * @param fechado O resultado fechado.
+	 * @throws SQLException Se ocorrer problemas ao fechar a declarao.
+	 */
+	void resultadoFechado(ResultadoAbstrato fechado) throws SQLException {
+		if(fechado != resultado) return;
+		resultado = null;
+		if(fecharAoConcluir) close();
+	}
+
+	private ResultSet executar(ConsultaSql consulta) throws SQLException {
+		verificarAberta();
+		fecharResultado();
+		File arquivo = conexao.getArquivoDaTabela(consulta.getTabela());
+		LeitorDbf leitor;
+		try {
+			leitor = new LeitorDbf(arquivo, conexao.getCharset());
+		} catch (FileNotFoundException e) {
+			throw new SQLException("A tabela " + consulta.getTabela() + " no existe.", "42S02", e);
+		}
+		try {
+			CabecalhoDbf cabecalho = leitor.getCabecalho();
+			CampoDbf[] campos = projetar(cabecalho, consulta.getColunas());
+			FiltroDeRegistro filtro = FiltroSql.compilar(consulta.getCondicoes(), cabecalho, conexao.getCharset(), parametros);
+			long limite = consulta.getLimite();
+			if(maximoDeLinhas > 0 && (limite < 0 || limite > maximoDeLinhas)) limite = maximoDeLinhas;
+			resultado = new ResultadoDbf(this, leitor, ConexaoDbf.getNomeDaTabela(arquivo), campos, filtro, limite, tempoLimite);
+			return resultado;
+		} catch (SQLException | RuntimeException e) {
+			try {
+				leitor.close();
+			} catch (IOException e1) {
+				e.addSuppressed(e1);
+			}
+			throw e;
+		}
+	}
+
+	private static CampoDbf[] projetar(CabecalhoDbf cabecalho, List<String> colunas) throws SQLException {
+		if(colunas == null) return cabecalho.getCampos();
+		CampoDbf[] campos = new CampoDbf[colunas.size()];
+		for(int i = 0; i < campos.length; i++) {
+			campos[i] = cabecalho.getCampos()[FiltroSql.indiceDoCampo(cabecalho, colunas.get(i))];
+		}
+		return campos;
+	}
+
+	private void definir(int indice, Object valor) throws SQLException {
+		verificarAberta();
+		if(consulta == null || indice < 1 || indice > consulta.getQuantidadeDeParametros()) throw new SQLException("Parmetro invlido: " + indice + ".", "07009");
+		parametros.put(indice, valor);
+	}
+
+	private void fecharResultado() throws SQLException {
+		if(resultado == null) return;
+		ResultadoAbstrato anterior = resultado;
+		resultado = null;
+		anterior.close();
+	}
+
+	private void verificarAberta() throws SQLException {
+		if(fechado) throw new SQLException("A declarao est fechada.");
+		if(conexao.isClosed()) throw new SQLException("A conexo est fechada.", "08003");
+	}
+
+	// Atualizaes, lotes e parmetros binrios no so suportados
+	@Override
+	public void cancel() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	@Deprecated
+	public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void addBatch() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setRef(int parameterIndex, Ref x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, Blob x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Clob x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setArray(int parameterIndex, Array x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setURL(int parameterIndex, URL x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setRowId(int parameterIndex, RowId x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, NClob value) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+		throw ResultadoAbstrato.naoSuportado();
+	}
+}
@@ -0,0 +1,119 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * 	Driver JDBC somente leitura para diretrios de arquivos dbf. A url tem o formato:
+ * </p>
+ * <pre>
+ * jdbc:dbf:&lt;diretrio&gt;[?charset=&lt;charset&gt;]
+ * </pre>
+ * <p>
+ * 	Cada arquivo .dbf do diretrio  uma tabela. O charset tambm pode ser informado pela propriedade <b>charset</b> e o padro 
+ * 	{@link StandardCharsets#UTF_8}, o mesmo do {@link io.github.deynne.dbf.LeitorDbf}.
+ * </p>
+ * <p>
+ * 	As consultas suportam projeo de colunas, condies simples combinadas com AND e LIMIT. As condies so avaliadas sobre os bytes dos registros,
+ * 	sem a converso dos campos das linhas descartadas. Veja {@link ConsultaSql} para a sintaxe aceita.
+ * </p>
+ * <pre>
+ * try(Connection conexao = DriverManager.getConnection("jdbc:dbf:/dados?charset=ISO-8859-1");
+ *     PreparedStatement consulta = conexao.prepareStatement("SELECT NOME, VALOR FROM CLIENTES WHERE UF = ? AND VALOR &gt; 100")) {
+ *     consulta.setString(1, "PE");
+ *     ...
+ * }
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class DriverDbf implements Driver {
+
+	/**
+	 * Prefixo das urls aceitas pelo driver.
+	 */
+	public static final String PREFIXO = "jdbc:dbf:";
+	/**
+	 * Nome da propriedade que define o charset dos campos de texto.
+	 */
+	public static final String PROPRIEDADE_CHARSET = "charset";
+
+	static final String NOME = "SimpleDBFReader JDBC";
+	static final int VERSAO_PRINCIPAL = 1;
+	static final int VERSAO_SECUNDARIA = 0;
+
+	static {
+		try {
+			DriverManager.registerDriver(new DriverDbf());
+		} catch (SQLException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@Override
+	public Connection connect(String url, Properties info) throws SQLException {
+		if(!acceptsURL(url)) return null;
+		String caminho = url.substring(PREFIXO.length());
+		String charset = info == null ? null : info.getProperty(PROPRIEDADE_CHARSET);
+
+		int inicioDosParametros = caminho.indexOf('?');
+		if(inicioDosParametros >= 0) {
+			for(String parametro : caminho.substring(inicioDosParametros + 1).split("&")) {
+				int igual = parametro.indexOf('=');
+				if(igual > 0 && parametro.substring(0, igual).equalsIgnoreCase(PROPRIEDADE_CHARSET)) charset = parametro.substring(igual + 1);
+			}
+			caminho = caminho.substring(0, inicioDosParametros);
+		}
+
+		File diretorio = new File(caminho.isEmpty() ? "." : caminho);
+		if(!diretorio.isDirectory()) throw new SQLException("O diretrio " + diretorio + " no existe.", "08001");
+		try {
+			return new ConexaoDbf(url, diretorio, charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset));
+		} catch (IllegalArgumentException e) {
+			throw new SQLException("Charset invlido: " + charset, "08001", e);
+		}
+	}
+
+	@Override
+	public boolean acceptsURL(String url) throws SQLException {
+		return url != null && url.startsWith(PREFIXO);
+	}
+
+	@Override
+	public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+		DriverPropertyInfo charset = new DriverPropertyInfo(PROPRIEDADE_CHARSET, info == null ? null : info.getProperty(PROPRIEDADE_CHARSET));
+		charset.description = "Charset dos campos de texto das tabelas.";
+		charset.required = false;
+		return new DriverPropertyInfo[] { charset };
+	}
+
+	@Override
+	public int getMajorVersion() {
+		return VERSAO_PRINCIPAL;
+	}
+
+	@Override
+	public int getMinorVersion() {
+		return VERSAO_SECUNDARIA;
+	}
+
+	@Override
+	public boolean jdbcCompliant() {
+		return false;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+}
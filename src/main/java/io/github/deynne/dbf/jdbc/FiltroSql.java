@@ -0,0 +1,280 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import io.github.deynne.dbf.FiltroDeRegistro;
+import io.github.deynne.dbf.jdbc.ConsultaSql.CondicaoSql;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Converte as condies da clusula WHERE em um {@link FiltroDeRegistro} que  avaliado diretamente sobre os bytes do registro.
+ * </p>
+ * <p>
+ * 	Apenas os campos que aparecem nas condies so lidos. Campos vazios so tratados como NULL, ento nenhuma comparao com eles  verdadeira.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+final class FiltroSql {
+
+	private static final int IGUAL = 0;
+	private static final int DIFERENTE = 1;
+	private static final int MENOR = 2;
+	private static final int MENOR_OU_IGUAL = 3;
+	private static final int MAIOR = 4;
+	private static final int MAIOR_OU_IGUAL = 5;
+
+	private FiltroSql() { }
+
+	/**
+	 * Monta o filtro das condies.
+	 * @param condicoes As condies, combinadas com AND.
+	 * @param cabecalho O {@link CabecalhoDbf} da tabela.
+	 * @param charset O charset utilizado para converter os literais de texto.
+	 * @param parametros Os valores dos parmetros, indexados a partir de 1.
+	 * @return O {@link FiltroDeRegistro} ou <b>null</b> caso no existam condies.
+	 * @throws SQLException Caso algum campo no exista ou algum valor no seja compatvel com o tipo do campo.
+	 */
+	static FiltroDeRegistro compilar(List<CondicaoSql> condicoes, CabecalhoDbf cabecalho, Charset charset, Map<Integer, Object> parametros) throws SQLException {
+		if(condicoes.isEmpty()) return null;
+		FiltroDeRegistro[] filtros = new FiltroDeRegistro[condicoes.size()];
+		for(int i = 0; i < filtros.length; i++) {
+			filtros[i] = compilar(condicoes.get(i), cabecalho, charset, parametros);
+		}
+		if(filtros.length == 1) return filtros[0];
+		return (registro, offset) -> {
+			for(FiltroDeRegistro filtro : filtros) {
+				if(!filtro.aceitar(registro, offset)) return false;
+			}
+			return true;
+		};
+	}
+
+	/**
+	 * O ndice de um campo do cabealho, sem diferenciar maisculas de minsculas.
+	 * @param cabecalho O {@link CabecalhoDbf} da tabela.
+	 * @param nome O nome do campo.
+	 * @return O ndice do campo.
+	 * @throws SQLException Caso o campo no exista.
+	 */
+	static int indiceDoCampo(CabecalhoDbf cabecalho, String nome) throws SQLException {
+		CampoDbf[] campos = cabecalho.getCampos();
+		for(int i = 0; i < campos.length; i++) {
+			if(campos[i].getNome().trim().equalsIgnoreCase(nome)) return i;
+		}
+		throw new SQLException("A coluna " + nome + " no existe.", "42S22");
+	}
+
+	private static FiltroDeRegistro compilar(CondicaoSql condicao, CabecalhoDbf cabecalho, Charset charset, Map<Integer, Object> parametros) throws SQLException {
+		CampoDbf campo = cabecalho.getCampos()[indiceDoCampo(cabecalho, condicao.campo)];
+		final int deslocamento = campo.getDeslocamento();
+		final int tamanho = campo.getTamanhoDoCampo() & 0xFF;
+		final TiposDbf tipo = campo.getTipo();
+
+		// Nos campos binrios um valor com todos os bytes 0  vlido, ento a ausncia de valor  verificada na decodificao
+		if(tipo != null && tipo.isBinario()) {
+			if(condicao.operador.equals("IS NULL")) {
+				return (registro, offset) -> Double.isNaN(DecodificadorDbf.lerNumero(tipo, registro, offset + deslocamento, tamanho));
+			}
+			if(condicao.operador.equals("IS NOT NULL")) {
+				return (registro, offset) -> !Double.isNaN(DecodificadorDbf.lerNumero(tipo, registro, offset + deslocamento, tamanho));
+			}
+		}
+		if(condicao.operador.equals("IS NULL")) {
+			return (registro, offset) -> DecodificadorDbf.isVazio(registro, offset + deslocamento, tamanho);
+		}
+		if(condicao.operador.equals("IS NOT NULL")) {
+			return (registro, offset) -> !DecodificadorDbf.isVazio(registro, offset + deslocamento, tamanho);
+		}
+
+		Object valor;
+		if(condicao.parametro > 0) {
+			if(!parametros.containsKey(condicao.parametro)) throw new SQLException("O parmetro " + condicao.parametro + " no foi definido.", "07001");
+			valor = parametros.get(condicao.parametro);
+			// Comparaes com NULL nunca so verdadeiras
+			if(valor == null) return (registro, offset) -> false;
+		}
+		else {
+			valor = condicao.literal;
+		}
+		final int operador = getOperador(condicao.operador);
+
+		switch(TiposSql.getTipoSql(campo)) {
+		case Types.INTEGER:
+		case Types.BIGINT:
+		case Types.DECIMAL:
+		case Types.DOUBLE:
+			final double numero = paraNumero(valor, condicao);
+			return (registro, offset) -> {
+				double v = DecodificadorDbf.lerNumero(tipo, registro, offset + deslocamento, tamanho);
+				return !Double.isNaN(v) && satisfaz(Double.compare(v, numero), operador);
+			};
+		case Types.TIMESTAMP:
+			final double dataHora = paraDataHora(valor, condicao);
+			return (registro, offset) -> {
+				double v = DecodificadorDbf.lerNumero(tipo, registro, offset + deslocamento, tamanho);
+				return !Double.isNaN(v) && satisfaz(Double.compare(v, dataHora), operador);
+			};
+		case Types.DATE:
+			final int data = paraData(valor, condicao);
+			return (registro, offset) -> {
+				int v = DecodificadorDbf.lerData(registro, offset + deslocamento);
+				return v != 0 && satisfaz(Integer.compare(v, data), operador);
+			};
+		case Types.BOOLEAN:
+			final boolean logico = paraLogico(valor, condicao);
+			return (registro, offset) -> {
+				byte b = registro[offset + deslocamento];
+				return b != ' ' && b != '?' && satisfaz(Boolean.compare(DecodificadorDbf.lerLogico(b), logico), operador);
+			};
+		default:
+			final byte[] texto = paraTexto(valor, charset);
+			return (registro, offset) -> satisfaz(compararTexto(registro, offset + deslocamento, tamanho, texto), operador);
+		}
+	}
+
+	/**
+	 * Compara o campo com o literal como no tipo CHAR do SQL, ignorando os espaos  direita de ambos.
+	 */
+	private static int compararTexto(byte[] registro, int inicio, int tamanho, byte[] texto) {
+		int fim = DecodificadorDbf.fimSemEspacos(registro, inicio, tamanho);
+		int tamanhoDoCampo = fim - inicio;
+		int n = Math.min(tamanhoDoCampo, texto.length);
+		for(int i = 0; i < n; i++) {
+			int x = registro[inicio + i] & 0xFF;
+			int y = texto[i] & 0xFF;
+			if(x != y) return x - y;
+		}
+		return tamanhoDoCampo - texto.length;
+	}
+
+	private static boolean satisfaz(int comparacao, int operador) {
+		switch(operador) {
+		case IGUAL:
+			return comparacao == 0;
+		case DIFERENTE:
+			return comparacao != 0;
+		case MENOR:
+			return comparacao < 0;
+		case MENOR_OU_IGUAL:
+			return comparacao <= 0;
+		case MAIOR:
+			return comparacao > 0;
+		default:
+			return comparacao >= 0;
+		}
+	}
+
+	private static int getOperador(String operador) {
+		switch(operador) {
+		case "=":
+			return IGUAL;
+		case "<>":
+			return DIFERENTE;
+		case "<":
+			return MENOR;
+		case "<=":
+			return MENOR_OU_IGUAL;
+		case ">":
+			return MAIOR;
+		default:
+			return MAIOR_OU_IGUAL;
+		}
+	}
+
+	private static double paraNumero(Object valor, CondicaoSql condicao) throws SQLException {
+		if(valor instanceof Number) return ((Number) valor).doubleValue();
+		try {
+			return new BigDecimal(valor.toString().trim()).doubleValue();
+		} catch (NumberFormatException e) {
+			throw new SQLDataException("O valor " + valor + " no  compatvel com a coluna numrica " + condicao.campo + ".", "22018");
+		}
+	}
+
+	private static int paraData(Object valor, CondicaoSql condicao) throws SQLException {
+		if(valor instanceof java.sql.Date) {
+			valor = ((java.sql.Date) valor).toLocalDate();
+		}
+		if(valor instanceof LocalDate) {
+			LocalDate data = (LocalDate) valor;
+			return data.getYear() * 10000 + data.getMonthValue() * 100 + data.getDayOfMonth();
+		}
+		if(valor instanceof java.util.Date) {
+			Calendar calendario = Calendar.getInstance();
+			calendario.setTime((java.util.Date) valor);
+			return calendario.get(Calendar.YEAR) * 10000 + (calendario.get(Calendar.MONTH) + 1) * 100 + calendario.get(Calendar.DAY_OF_MONTH);
+		}
+		// Aceita AAAA-MM-DD ou AAAAMMDD
+		String texto = valor.toString().trim().replace("-", "");
+		if(texto.length() == 8) {
+			try {
+				return Integer.parseInt(texto);
+			} catch (NumberFormatException e) {
+				// Tratado abaixo
+			}
+		}
+		throw new SQLDataException("O valor " + valor + " no  uma data vlida para a coluna " + condicao.campo + ".", "22007");
+	}
+
+	/**
+	 * Converte o valor para os milissegundos desde 1970-01-01T00:00 sem fuso horrio, a mesma escala de {@link DecodificadorDbf#lerDataHora(byte[], int, boolean)}.
+	 */
+	private static long paraDataHora(Object valor, CondicaoSql condicao) throws SQLException {
+		LocalDateTime dataHora;
+		if(valor instanceof Timestamp) {
+			dataHora = ((Timestamp) valor).toLocalDateTime();
+		}
+		else if(valor instanceof LocalDateTime) {
+			dataHora = (LocalDateTime) valor;
+		}
+		else if(valor instanceof java.sql.Date || valor instanceof LocalDate) {
+			int data = paraData(valor, condicao);
+			dataHora = LocalDate.of(data / 10000, data / 100 % 100, data % 100).atStartOfDay();
+		}
+		else if(valor instanceof java.util.Date) {
+			dataHora = new Timestamp(((java.util.Date) valor).getTime()).toLocalDateTime();
+		}
+		else {
+			// Aceita AAAA-MM-DD, AAAA-MM-DD HH:MM:SS[.fff] e AAAA-MM-DDTHH:MM:SS[.fff]
+			String texto = valor.toString().trim().replace('T', ' ');
+			try {
+				dataHora = texto.length() == 10 ? LocalDate.parse(texto).atStartOfDay() : Timestamp.valueOf(texto).toLocalDateTime();
+			} catch (DateTimeException | IllegalArgumentException e) {
+				throw new SQLDataException("O valor " + valor + " no  uma data e hora vlida para a coluna " + condicao.campo + ".", "22007");
+			}
+		}
+		return dataHora.toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+
+	private static boolean paraLogico(Object valor, CondicaoSql condicao) throws SQLException {
+		if(valor instanceof Boolean) return (Boolean) valor;
+		if(valor instanceof Number) return ((Number) valor).intValue() != 0;
+		String texto = valor.toString().trim();
+		if(texto.equalsIgnoreCase("TRUE")) return true;
+		if(texto.equalsIgnoreCase("FALSE")) return false;
+		if(texto.length() == 1) return DecodificadorDbf.lerLogico((byte) texto.charAt(0));
+		throw new SQLDataException("O valor " + valor + " no  um valor lgico vlido para a coluna " + condicao.campo + ".", "22018");
+	}
+
+	private static byte[] paraTexto(Object valor, Charset charset) {
+		byte[] bytes = valor.toString().getBytes(charset);
+		int fim = DecodificadorDbf.fimSemEspacos(bytes, 0, bytes.length);
+		return fim == bytes.length ? bytes : java.util.Arrays.copyOf(bytes, fim);
+	}
+}
@@ -0,0 +1,1020 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.RowIdLifetime;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Metadados de uma {@link ConexaoDbf}. As tabelas e suas colunas so obtidas dos arquivos do diretrio, lendo apenas o cabealho de cada arquivo.
+ * </p>
+ * <p>
+ * 	No existem catlogos, esquemas, chaves ou ndices, ento os mtodos correspondentes retornam resultados vazios com as colunas definidas pela
+ * 	especificao do JDBC.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class MetadadosDoBancoDbf implements DatabaseMetaData {
+
+	private static final String TIPO_DE_TABELA = "TABLE";
+
+	private final ConexaoDbf conexao;
+
+	MetadadosDoBancoDbf(ConexaoDbf conexao) {
+		this.conexao = conexao;
+	}
+
+	@Override
+	public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern, String[] types) throws SQLException {
+		List<Object[]> linhas = new ArrayList<>();
+		if(types == null || Arrays.asList(types).contains(TIPO_DE_TABELA)) {
+			for(File arquivo : conexao.getArquivosDasTabelas()) {
+				String tabela = ConexaoDbf.getNomeDaTabela(arquivo);
+				if(!corresponde(tableNamePattern, tabela)) continue;
+				linhas.add(new Object[] { null, null, tabela, TIPO_DE_TABELA, "", null, null, null, null, null });
+			}
+		}
+		return texto(linhas, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS", "TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME",
+				"SELF_REFERENCING_COL_NAME", "REF_GENERATION");
+	}
+
+	@Override
+	public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern, String columnNamePattern) throws SQLException {
+		List<Object[]> linhas = new ArrayList<>();
+		for(File arquivo : conexao.getArquivosDasTabelas()) {
+			String tabela = ConexaoDbf.getNomeDaTabela(arquivo);
+			if(!corresponde(tableNamePattern, tabela)) continue;
+			CampoDbf[] campos = conexao.lerCabecalho(arquivo).getCampos();
+			for(int i = 0; i < campos.length; i++) {
+				String nome = campos[i].getNome().trim();
+				if(!corresponde(columnNamePattern, nome)) continue;
+				int tipo = TiposSql.getTipoSql(campos[i]);
+				boolean numerico = tipo == Types.INTEGER || tipo == Types.BIGINT || tipo == Types.DECIMAL || tipo == Types.DOUBLE;
+				linhas.add(new Object[] { null, null, tabela, nome, tipo, TiposSql.getNomeDoTipo(tipo), TiposSql.getPrecisao(campos[i]), null,
+						numerico ? TiposSql.getEscala(campos[i]) : null, numerico ? 10 : null, columnNullable, "", null, null, null,
+						tipo == Types.VARCHAR ? campos[i].getTamanhoDoCampo() & 0xFF : null, i + 1, "YES", null, null, null, null, "NO", "NO" });
+			}
+		}
+		return resultado(linhas,
+				new String[] { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "TYPE_NAME", "COLUMN_SIZE", "BUFFER_LENGTH",
+						"DECIMAL_DIGITS", "NUM_PREC_RADIX", "NULLABLE", "REMARKS", "COLUMN_DEF", "SQL_DATA_TYPE", "SQL_DATETIME_SUB", "CHAR_OCTET_LENGTH",
+						"ORDINAL_POSITION", "IS_NULLABLE", "SCOPE_CATALOG", "SCOPE_SCHEMA", "SCOPE_TABLE", "SOURCE_DATA_TYPE", "IS_AUTOINCREMENT", "IS_GENERATEDCOLUMN" },
+				new int[] { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.INTEGER, Types.INTEGER,
+						Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.INTEGER,
+						Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.SMALLINT, Types.VARCHAR, Types.VARCHAR });
+	}
+
+	@Override
+	public ResultSet getTableTypes() throws SQLException {
+		return texto(Collections.singletonList(new Object[] { TIPO_DE_TABELA }), "TABLE_TYPE");
+	}
+
+	@Override
+	public ResultSet getSchemas() throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_SCHEM", "TABLE_CATALOG");
+	}
+
+	@Override
+	public ResultSet getSchemas(String catalog, String schemaPattern) throws SQLException {
+		return getSchemas();
+	}
+
+	@Override
+	public ResultSet getCatalogs() throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_CAT");
+	}
+
+	@Override
+	public ResultSet getTypeInfo() throws SQLException {
+		// Ordenado pelo DATA_TYPE, como exige a especificao
+		int[] tipos = { Types.BIGINT, Types.DECIMAL, Types.INTEGER, Types.DOUBLE, Types.VARCHAR, Types.BOOLEAN, Types.DATE };
+		int[] precisoes = { 19, 255, 10, 15, 254, 1, 10 };
+		List<Object[]> linhas = new ArrayList<>();
+		for(int i = 0; i < tipos.length; i++) {
+			int tipo = tipos[i];
+			boolean texto = tipo == Types.VARCHAR;
+			boolean numerico = tipo == Types.BIGINT || tipo == Types.DECIMAL || tipo == Types.INTEGER || tipo == Types.DOUBLE;
+			linhas.add(new Object[] { TiposSql.getNomeDoTipo(tipo), tipo, precisoes[i], texto ? "'" : null, texto ? "'" : null,
+					tipo == Types.DECIMAL ? "precision,scale" : null, (short) typeNullable, texto, (short) typeSearchable, !numerico, false, false,
+					null, (short) 0, (short) (tipo == Types.DECIMAL ? 15 : 0), null, null, numerico ? 10 : null });
+		}
+		return resultado(linhas,
+				new String[] { "TYPE_NAME", "DATA_TYPE", "PRECISION", "LITERAL_PREFIX", "LITERAL_SUFFIX", "CREATE_PARAMS", "NULLABLE", "CASE_SENSITIVE",
+						"SEARCHABLE", "UNSIGNED_ATTRIBUTE", "FIXED_PREC_SCALE", "AUTO_INCREMENT", "LOCAL_TYPE_NAME", "MINIMUM_SCALE", "MAXIMUM_SCALE",
+						"SQL_DATA_TYPE", "SQL_DATETIME_SUB", "NUM_PREC_RADIX" },
+				new int[] { Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.SMALLINT, Types.BOOLEAN,
+						Types.SMALLINT, Types.BOOLEAN, Types.BOOLEAN, Types.BOOLEAN, Types.VARCHAR, Types.SMALLINT, Types.SMALLINT, Types.INTEGER,
+						Types.INTEGER, Types.INTEGER });
+	}
+
+	@Override
+	public ResultSet getProcedures(String catalog, String schemaPattern, String procedureNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "PROCEDURE_CAT", "PROCEDURE_SCHEM", "PROCEDURE_NAME", "RESERVED1", "RESERVED2", "RESERVED3", "REMARKS",
+				"PROCEDURE_TYPE", "SPECIFIC_NAME");
+	}
+
+	@Override
+	public ResultSet getProcedureColumns(String catalog, String schemaPattern, String procedureNamePattern, String columnNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "PROCEDURE_CAT", "PROCEDURE_SCHEM", "PROCEDURE_NAME", "COLUMN_NAME", "COLUMN_TYPE", "DATA_TYPE",
+				"TYPE_NAME", "PRECISION", "LENGTH", "SCALE", "RADIX", "NULLABLE", "REMARKS", "COLUMN_DEF", "SQL_DATA_TYPE", "SQL_DATETIME_SUB",
+				"CHAR_OCTET_LENGTH", "ORDINAL_POSITION", "IS_NULLABLE", "SPECIFIC_NAME");
+	}
+
+	@Override
+	public ResultSet getColumnPrivileges(String catalog, String schema, String table, String columnNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "GRANTOR", "GRANTEE", "PRIVILEGE", "IS_GRANTABLE");
+	}
+
+	@Override
+	public ResultSet getTablePrivileges(String catalog, String schemaPattern, String tableNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "GRANTOR", "GRANTEE", "PRIVILEGE", "IS_GRANTABLE");
+	}
+
+	@Override
+	public ResultSet getBestRowIdentifier(String catalog, String schema, String table, int scope, boolean nullable) throws SQLException {
+		return getVersionColumns(catalog, schema, table);
+	}
+
+	@Override
+	public ResultSet getVersionColumns(String catalog, String schema, String table) throws SQLException {
+		return texto(Collections.emptyList(), "SCOPE", "COLUMN_NAME", "DATA_TYPE", "TYPE_NAME", "COLUMN_SIZE", "BUFFER_LENGTH", "DECIMAL_DIGITS",
+				"PSEUDO_COLUMN");
+	}
+
+	@Override
+	public ResultSet getPrimaryKeys(String catalog, String schema, String table) throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME");
+	}
+
+	@Override
+	public ResultSet getImportedKeys(String catalog, String schema, String table) throws SQLException {
+		return chavesEstrangeiras();
+	}
+
+	@Override
+	public ResultSet getExportedKeys(String catalog, String schema, String table) throws SQLException {
+		return chavesEstrangeiras();
+	}
+
+	@Override
+	public ResultSet getCrossReference(String parentCatalog, String parentSchema, String parentTable, String foreignCatalog, String foreignSchema,
+			String foreignTable) throws SQLException {
+		return chavesEstrangeiras();
+	}
+
+	@Override
+	public ResultSet getIndexInfo(String catalog, String schema, String table, boolean unique, boolean approximate) throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "NON_UNIQUE", "INDEX_QUALIFIER", "INDEX_NAME", "TYPE",
+				"ORDINAL_POSITION", "COLUMN_NAME", "ASC_OR_DESC", "CARDINALITY", "PAGES", "FILTER_CONDITION");
+	}
+
+	@Override
+	public ResultSet getUDTs(String catalog, String schemaPattern, String typeNamePattern, int[] types) throws SQLException {
+		return texto(Collections.emptyList(), "TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME", "CLASS_NAME", "DATA_TYPE", "REMARKS", "BASE_TYPE");
+	}
+
+	@Override
+	public ResultSet getSuperTypes(String catalog, String schemaPattern, String typeNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME", "SUPERTYPE_CAT", "SUPERTYPE_SCHEM", "SUPERTYPE_NAME");
+	}
+
+	@Override
+	public ResultSet getSuperTables(String catalog, String schemaPattern, String tableNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "SUPERTABLE_NAME");
+	}
+
+	@Override
+	public ResultSet getAttributes(String catalog, String schemaPattern, String typeNamePattern, String attributeNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME", "ATTR_NAME", "DATA_TYPE", "ATTR_TYPE_NAME", "ATTR_SIZE",
+				"DECIMAL_DIGITS", "NUM_PREC_RADIX", "NULLABLE", "REMARKS", "ATTR_DEF", "SQL_DATA_TYPE", "SQL_DATETIME_SUB", "CHAR_OCTET_LENGTH",
+				"ORDINAL_POSITION", "IS_NULLABLE", "SCOPE_CATALOG", "SCOPE_SCHEMA", "SCOPE_TABLE", "SOURCE_DATA_TYPE");
+	}
+
+	@Override
+	public ResultSet getClientInfoProperties() throws SQLException {
+		return texto(Collections.emptyList(), "NAME", "MAX_LEN", "DEFAULT_VALUE", "DESCRIPTION");
+	}
+
+	@Override
+	public ResultSet getFunctions(String catalog, String schemaPattern, String functionNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "FUNCTION_CAT", "FUNCTION_SCHEM", "FUNCTION_NAME", "REMARKS", "FUNCTION_TYPE", "SPECIFIC_NAME");
+	}
+
+	@Override
+	public ResultSet getFunctionColumns(String catalog, String schemaPattern, String functionNamePattern, String columnNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "FUNCTION_CAT", "FUNCTION_SCHEM", "FUNCTION_NAME", "COLUMN_NAME", "COLUMN_TYPE", "DATA_TYPE", "TYPE_NAME",
+				"PRECISION", "LENGTH", "SCALE", "RADIX", "NULLABLE", "REMARKS", "CHAR_OCTET_LENGTH", "ORDINAL_POSITION", "IS_NULLABLE", "SPECIFIC_NAME");
+	}
+
+	@Override
+	public ResultSet getPseudoColumns(String catalog, String schemaPattern, String tableNamePattern, String columnNamePattern) throws SQLException {
+		return texto(Collections.emptyList(), "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "COLUMN_SIZE", "DECIMAL_DIGITS",
+				"NUM_PREC_RADIX", "COLUMN_USAGE", "REMARKS", "CHAR_OCTET_LENGTH", "IS_NULLABLE");
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return conexao;
+	}
+
+	@Override
+	public String getURL() throws SQLException {
+		return conexao.getUrl();
+	}
+
+	@Override
+	public String getUserName() throws SQLException {
+		return "";
+	}
+
+	@Override
+	public boolean isReadOnly() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public String getDatabaseProductName() throws SQLException {
+		return "DBF";
+	}
+
+	@Override
+	public String getDatabaseProductVersion() throws SQLException {
+		return "1.0";
+	}
+
+	@Override
+	public int getDatabaseMajorVersion() throws SQLException {
+		return 1;
+	}
+
+	@Override
+	public int getDatabaseMinorVersion() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public String getDriverName() throws SQLException {
+		return DriverDbf.NOME;
+	}
+
+	@Override
+	public String getDriverVersion() throws SQLException {
+		return DriverDbf.VERSAO_PRINCIPAL + "." + DriverDbf.VERSAO_SECUNDARIA;
+	}
+
+	@Override
+	public int getDriverMajorVersion() {
+		return DriverDbf.VERSAO_PRINCIPAL;
+	}
+
+	@Override
+	public int getDriverMinorVersion() {
+		return DriverDbf.VERSAO_SECUNDARIA;
+	}
+
+	@Override
+	public int getJDBCMajorVersion() throws SQLException {
+		return 4;
+	}
+
+	@Override
+	public int getJDBCMinorVersion() throws SQLException {
+		return 2;
+	}
+
+	@Override
+	public boolean allTablesAreSelectable() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean usesLocalFiles() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean usesLocalFilePerTable() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean storesMixedCaseIdentifiers() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean storesMixedCaseQuotedIdentifiers() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean nullPlusNonNullIsNull() throws SQLException {
+		return true;
+	}
+
+	@Override
+	public String getIdentifierQuoteString() throws SQLException {
+		return "\"";
+	}
+
+	@Override
+	public String getSQLKeywords() throws SQLException {
+		return "LIMIT";
+	}
+
+	@Override
+	public String getNumericFunctions() throws SQLException {
+		return "";
+	}
+
+	@Override
+	public String getStringFunctions() throws SQLException {
+		return "";
+	}
+
+	@Override
+	public String getSystemFunctions() throws SQLException {
+		return "";
+	}
+
+	@Override
+	public String getTimeDateFunctions() throws SQLException {
+		return "";
+	}
+
+	@Override
+	public String getSearchStringEscape() throws SQLException {
+		return "\\";
+	}
+
+	@Override
+	public String getExtraNameCharacters() throws SQLException {
+		return "";
+	}
+
+	@Override
+	public String getSchemaTerm() throws SQLException {
+		return "schema";
+	}
+
+	@Override
+	public String getProcedureTerm() throws SQLException {
+		return "procedure";
+	}
+
+	@Override
+	public String getCatalogTerm() throws SQLException {
+		return "catalog";
+	}
+
+	@Override
+	public String getCatalogSeparator() throws SQLException {
+		return ".";
+	}
+
+	@Override
+	public int getMaxColumnNameLength() throws SQLException {
+		// O nome do campo ocupa 11 bytes no descritor, terminado por 0
+		return 10;
+	}
+
+	@Override
+	public int getMaxColumnsInTable() throws SQLException {
+		return 255;
+	}
+
+	@Override
+	public int getMaxRowSize() throws SQLException {
+		return 0xFFFF;
+	}
+
+	@Override
+	public int getMaxTablesInSelect() throws SQLException {
+		return 1;
+	}
+
+	@Override
+	public int getDefaultTransactionIsolation() throws SQLException {
+		return Connection.TRANSACTION_NONE;
+	}
+
+	@Override
+	public boolean supportsTransactionIsolationLevel(int level) throws SQLException {
+		return level == Connection.TRANSACTION_NONE;
+	}
+
+	@Override
+	public boolean supportsResultSetType(int type) throws SQLException {
+		return type == ResultSet.TYPE_FORWARD_ONLY;
+	}
+
+	@Override
+	public boolean supportsResultSetConcurrency(int type, int concurrency) throws SQLException {
+		return type == ResultSet.TYPE_FORWARD_ONLY && concurrency == ResultSet.CONCUR_READ_ONLY;
+	}
+
+	@Override
+	public boolean supportsResultSetHoldability(int holdability) throws SQLException {
+		return holdability == ResultSet.CLOSE_CURSORS_AT_COMMIT;
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return ResultSet.CLOSE_CURSORS_AT_COMMIT;
+	}
+
+	@Override
+	public int getSQLStateType() throws SQLException {
+		return sqlStateSQL;
+	}
+
+	@Override
+	public RowIdLifetime getRowIdLifetime() throws SQLException {
+		return RowIdLifetime.ROWID_UNSUPPORTED;
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if(iface.isInstance(this)) return iface.cast(this);
+		throw new SQLException("Os metadados no implementam " + iface.getName() + ".");
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+
+	/**
+	 * Verifica se um nome corresponde a um padro de busca do JDBC, em que '%' representa qualquer sequncia e '_' qualquer caracter. A comparao
+	 * no diferencia maisculas de minsculas, assim como as consultas.
+	 */
+	private static boolean corresponde(String padrao, String nome) {
+		if(padrao == null || padrao.equals("%")) return true;
+		StringBuilder expressao = new StringBuilder();
+		for(int i = 0; i < padrao.length(); i++) {
+			char c = padrao.charAt(i);
+			if(c == '\\' && i + 1 < padrao.length()) {
+				expressao.append(Pattern.quote(String.valueOf(padrao.charAt(++i))));
+			}
+			else if(c == '%') {
+				expressao.append(".*");
+			}
+			else if(c == '_') {
+				expressao.append('.');
+			}
+			else {
+				expressao.append(Pattern.quote(String.valueOf(c)));
+			}
+		}
+		return Pattern.compile(expressao.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL).matcher(nome).matches();
+	}
+
+	private ResultSet chavesEstrangeiras() {
+		return texto(Collections.emptyList(), "PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME", "PKCOLUMN_NAME", "FKTABLE_CAT", "FKTABLE_SCHEM",
+				"FKTABLE_NAME", "FKCOLUMN_NAME", "KEY_SEQ", "UPDATE_RULE", "DELETE_RULE", "FK_NAME", "PK_NAME", "DEFERRABILITY");
+	}
+
+	private static ResultSet texto(List<Object[]> linhas, String... colunas) {
+		int[] tipos = new int[colunas.length];
+		Arrays.fill(tipos, Types.VARCHAR);
+		return resultado(linhas, colunas, tipos);
+	}
+
+	private static ResultSet resultado(List<Object[]> linhas, String[] colunas, int[] tipos) {
+		return new ResultadoEmMemoria(null, new MetadadosDoResultado("", colunas, tipos), linhas);
+	}
+
+	// Recursos de SQL, transaes e atualizaes que o driver no oferece
+	@Override
+	public boolean allProceduresAreCallable() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean nullsAreSortedHigh() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean nullsAreSortedLow() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean nullsAreSortedAtStart() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean nullsAreSortedAtEnd() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsMixedCaseIdentifiers() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean storesUpperCaseIdentifiers() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean storesLowerCaseIdentifiers() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsMixedCaseQuotedIdentifiers() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean storesUpperCaseQuotedIdentifiers() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean storesLowerCaseQuotedIdentifiers() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsAlterTableWithAddColumn() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsAlterTableWithDropColumn() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsColumnAliasing() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsConvert() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsConvert(int fromType, int toType) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsTableCorrelationNames() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsDifferentTableCorrelationNames() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsExpressionsInOrderBy() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsOrderByUnrelated() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsGroupBy() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsGroupByUnrelated() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsGroupByBeyondSelect() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsLikeEscapeClause() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsMultipleResultSets() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsMultipleTransactions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsNonNullableColumns() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsMinimumSQLGrammar() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsCoreSQLGrammar() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsExtendedSQLGrammar() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsANSI92EntryLevelSQL() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsANSI92IntermediateSQL() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsANSI92FullSQL() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsIntegrityEnhancementFacility() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsOuterJoins() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsFullOuterJoins() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsLimitedOuterJoins() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean isCatalogAtStart() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSchemasInDataManipulation() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSchemasInProcedureCalls() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSchemasInTableDefinitions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSchemasInIndexDefinitions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSchemasInPrivilegeDefinitions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsCatalogsInDataManipulation() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsCatalogsInProcedureCalls() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsCatalogsInTableDefinitions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsCatalogsInIndexDefinitions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsCatalogsInPrivilegeDefinitions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsPositionedDelete() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsPositionedUpdate() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSelectForUpdate() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsStoredProcedures() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSubqueriesInComparisons() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSubqueriesInExists() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSubqueriesInIns() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSubqueriesInQuantifieds() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsCorrelatedSubqueries() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsUnion() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsUnionAll() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsOpenCursorsAcrossCommit() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsOpenCursorsAcrossRollback() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsOpenStatementsAcrossCommit() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsOpenStatementsAcrossRollback() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public int getMaxBinaryLiteralLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxCharLiteralLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxColumnsInGroupBy() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxColumnsInIndex() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxColumnsInOrderBy() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxColumnsInSelect() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxConnections() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxCursorNameLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxIndexLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxSchemaNameLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxProcedureNameLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxCatalogNameLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public boolean doesMaxRowSizeIncludeBlobs() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public int getMaxStatementLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxStatements() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxTableNameLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getMaxUserNameLength() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public boolean supportsTransactions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsDataDefinitionAndDataManipulationTransactions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsDataManipulationTransactionsOnly() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean dataDefinitionCausesTransactionCommit() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean dataDefinitionIgnoredInTransactions() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean ownUpdatesAreVisible(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean ownDeletesAreVisible(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean ownInsertsAreVisible(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean othersUpdatesAreVisible(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean othersDeletesAreVisible(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean othersInsertsAreVisible(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean updatesAreDetected(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean deletesAreDetected(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean insertsAreDetected(int type) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsBatchUpdates() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsSavepoints() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsNamedParameters() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsMultipleOpenResults() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsGetGeneratedKeys() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean locatorsUpdateCopy() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsStatementPooling() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsStoredFunctionsUsingCallSyntax() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean autoCommitFailureClosesAllResultSets() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean generatedKeyAlwaysReturned() throws SQLException {
+		return false;
+	}
+}
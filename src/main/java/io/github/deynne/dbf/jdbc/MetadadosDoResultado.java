@@ -0,0 +1,184 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * Descrio das colunas de um resultado do driver.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class MetadadosDoResultado implements ResultSetMetaData {
+
+	private final String tabela;
+	private final String[] nomes;
+	private final int[] tipos;
+	private final int[] precisoes;
+	private final int[] escalas;
+
+	/**
+	 * Cria os metadados de colunas calculadas, como as dos resultados de {@link java.sql.DatabaseMetaData}.
+	 * @param tabela O nome da tabela de origem ou uma {@link String} vazia.
+	 * @param nomes Os nomes das colunas.
+	 * @param tipos Os tipos SQL das colunas.
+	 */
+	MetadadosDoResultado(String tabela, String[] nomes, int[] tipos) {
+		this.tabela = tabela;
+		this.nomes = nomes;
+		this.tipos = tipos;
+		this.precisoes = new int[nomes.length];
+		this.escalas = new int[nomes.length];
+	}
+
+	/**
+	 * Cria os metadados das colunas projetadas de uma tabela dbf.
+	 * @param tabela O nome da tabela.
+	 * @param campos Os campos projetados, na ordem das colunas.
+	 */
+	MetadadosDoResultado(String tabela, CampoDbf[] campos) {
+		this.tabela = tabela;
+		this.nomes = new String[campos.length];
+		this.tipos = new int[campos.length];
+		this.precisoes = new int[campos.length];
+		this.escalas = new int[campos.length];
+		for(int i = 0; i < campos.length; i++) {
+			nomes[i] = campos[i].getNome().trim();
+			tipos[i] = TiposSql.getTipoSql(campos[i]);
+			precisoes[i] = TiposSql.getPrecisao(campos[i]);
+			escalas[i] = TiposSql.getEscala(campos[i]);
+		}
+	}
+
+	@Override
+	public int getColumnCount() throws SQLException {
+		return nomes.length;
+	}
+
+	@Override
+	public boolean isAutoIncrement(int column) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean isCaseSensitive(int column) throws SQLException {
+		return tipos[indice(column)] == Types.VARCHAR;
+	}
+
+	@Override
+	public boolean isSearchable(int column) throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean isCurrency(int column) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public int isNullable(int column) throws SQLException {
+		return columnNullableUnknown;
+	}
+
+	@Override
+	public boolean isSigned(int column) throws SQLException {
+		switch(tipos[indice(column)]) {
+		case Types.INTEGER:
+		case Types.BIGINT:
+		case Types.DECIMAL:
+		case Types.DOUBLE:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	public int getColumnDisplaySize(int column) throws SQLException {
+		int precisao = precisoes[indice(column)];
+		return precisao > 0 ? precisao : 255;
+	}
+
+	@Override
+	public String getColumnLabel(int column) throws SQLException {
+		return nomes[indice(column)];
+	}
+
+	@Override
+	public String getColumnName(int column) throws SQLException {
+		return nomes[indice(column)];
+	}
+
+	@Override
+	public String getSchemaName(int column) throws SQLException {
+		return "";
+	}
+
+	@Override
+	public int getPrecision(int column) throws SQLException {
+		return precisoes[indice(column)];
+	}
+
+	@Override
+	public int getScale(int column) throws SQLException {
+		return escalas[indice(column)];
+	}
+
+	@Override
+	public String getTableName(int column) throws SQLException {
+		return tabela;
+	}
+
+	@Override
+	public String getCatalogName(int column) throws SQLException {
+		return "";
+	}
+
+	@Override
+	public int getColumnType(int column) throws SQLException {
+		return tipos[indice(column)];
+	}
+
+	@Override
+	public String getColumnTypeName(int column) throws SQLException {
+		return TiposSql.getNomeDoTipo(tipos[indice(column)]);
+	}
+
+	@Override
+	public boolean isReadOnly(int column) throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean isWritable(int column) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public boolean isDefinitelyWritable(int column) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public String getColumnClassName(int column) throws SQLException {
+		return TiposSql.getClasse(tipos[indice(column)]);
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if(iface.isInstance(this)) return iface.cast(this);
+		throw new SQLException("Os metadados no implementam " + iface.getName() + ".");
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+
+	private int indice(int coluna) throws SQLException {
+		if(coluna < 1 || coluna > nomes.length) throw new SQLException("Coluna invlida: " + coluna + ".", "07009");
+		return coluna - 1;
+	}
+}
@@ -0,0 +1,1161 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * <p>
+ * 	Base dos {@link ResultSet} do driver. Os resultados so somente leitura e percorridos apenas para frente.
+ * </p>
+ * <p>
+ * 	As subclasses fornecem o valor de cada coluna da linha atual j convertido para o tipo Java correspondente ao tipo SQL da coluna
+ * 	e os demais mtodos de leitura so derivados desse valor. Os mtodos numricos primitivos, como {@link #getLong(int)} e {@link #getDouble(int)},
+ * 	usam leituras prprias das subclasses, que podem converter o valor sem a criao de objetos.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+abstract class ResultadoAbstrato implements ResultSet {
+
+	private final Statement declaracao;
+	private final MetadadosDoResultado metadados;
+	private boolean fechado;
+	private boolean ultimoNulo;
+	private int linha;
+	private boolean fim;
+	private int tamanhoDaBusca;
+
+	ResultadoAbstrato(Statement declaracao, MetadadosDoResultado metadados) {
+		this.declaracao = declaracao;
+		this.metadados = metadados;
+	}
+
+	/**
+	 * Avana para a prxima linha.
+	 * @return <b>false</b> caso no existam mais linhas.
+	 * @throws SQLException Se ocorrer problemas na leitura.
+	 */
+	protected abstract boolean avancar() throws SQLException;
+
+	/**
+	 * O valor de uma coluna da linha atual.
+	 * @param coluna O ndice da coluna, comeando em 1.
+	 * @return O valor convertido para a classe de {@link MetadadosDoResultado#getColumnClassName(int)} ou <b>null</b> caso seja NULL.
+	 * @throws SQLException Caso o valor no possa ser convertido.
+	 */
+	protected abstract Object getValor(int coluna) throws SQLException;
+
+	/**
+	 * O valor de uma coluna da linha atual como <b>long</b>, para {@link #getLong(int)} e os demais mtodos inteiros. Os dgitos aps o ponto decimal
+	 * so descartados.
+	 * @param coluna O ndice da coluna, comeando em 1.
+	 * @return O valor ou 0 caso seja NULL, o que deve ser indicado com {@link #marcarNulo()}.
+	 * @throws SQLException Caso o valor no seja numrico.
+	 */
+	protected abstract long lerLong(int coluna) throws SQLException;
+
+	/**
+	 * O valor de uma coluna da linha atual como <b>double</b>, para {@link #getDouble(int)} e {@link #getFloat(int)}.
+	 * @param coluna O ndice da coluna, comeando em 1.
+	 * @return O valor ou 0 caso seja NULL, o que deve ser indicado com {@link #marcarNulo()}.
+	 * @throws SQLException Caso o valor no seja numrico.
+	 */
+	protected abstract double lerDouble(int coluna) throws SQLException;
+
+	/**
+	 * Indica que o valor lido por {@link #lerLong(int)} ou {@link #lerDouble(int)}  NULL, para {@link #wasNull()}.
+	 */
+	protected final void marcarNulo() {
+		ultimoNulo = true;
+	}
+
+	/**
+	 * Libera os recursos do resultado.
+	 * @throws SQLException Se ocorrer problemas ao liberar os recursos.
+	 */
+	protected void liberar() throws SQLException { }
+
+	static SQLFeatureNotSupportedException naoSuportado() {
+		return new SQLFeatureNotSupportedException("Operao no suportada pelo driver dbf.");
+	}
+
+	@Override
+	public boolean next() throws SQLException {
+		verificarAberto();
+		if(fim) return false;
+		if(avancar()) {
+			linha++;
+			return true;
+		}
+		fim = true;
+		return false;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if(fechado) return;
+		fechado = true;
+		try {
+			liberar();
+		} finally {
+			if(declaracao instanceof DeclaracaoDbf) ((DeclaracaoDbf) declaracao).resultadoFechado(this);
+		}
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return fechado;
+	}
+
+	@Override
+	public boolean wasNull() throws SQLException {
+		return ultimoNulo;
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return metadados;
+	}
+
+	@Override
+	public int findColumn(String columnLabel) throws SQLException {
+		for(int i = 1; i <= metadados.getColumnCount(); i++) {
+			if(metadados.getColumnLabel(i).equalsIgnoreCase(columnLabel)) return i;
+		}
+		throw new SQLException("A coluna " + columnLabel + " no existe no resultado.", "42S22");
+	}
+
+	@Override
+	public Statement getStatement() throws SQLException {
+		return declaracao;
+	}
+
+	@Override
+	public int getRow() throws SQLException {
+		return fim ? 0 : linha;
+	}
+
+	@Override
+	public boolean isBeforeFirst() throws SQLException {
+		return linha == 0 && !fim;
+	}
+
+	@Override
+	public boolean isAfterLast() throws SQLException {
+		return fim && linha > 0;
+	}
+
+	@Override
+	public boolean isFirst() throws SQLException {
+		return linha == 1 && !fim;
+	}
+
+	@Override
+	public int getType() throws SQLException {
+		return TYPE_FORWARD_ONLY;
+	}
+
+	@Override
+	public int getConcurrency() throws SQLException {
+		return CONCUR_READ_ONLY;
+	}
+
+	@Override
+	public int getHoldability() throws SQLException {
+		return CLOSE_CURSORS_AT_COMMIT;
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return FETCH_FORWARD;
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		if(direction != FETCH_FORWARD) throw naoSuportado();
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return tamanhoDaBusca;
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		if(rows < 0) throw new SQLException("O tamanho da busca no pode ser negativo.");
+		tamanhoDaBusca = rows;
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException { }
+
+	@Override
+	public Object getObject(int columnIndex) throws SQLException {
+		return valor(columnIndex);
+	}
+
+	@Override
+	public String getString(int columnIndex) throws SQLException {
+		Object valor = valor(columnIndex);
+		if(valor instanceof BigDecimal) return ((BigDecimal) valor).toPlainString();
+		return valor == null ? null : valor.toString();
+	}
+
+	@Override
+	public boolean getBoolean(int columnIndex) throws SQLException {
+		Object valor = valor(columnIndex);
+		if(valor == null) return false;
+		if(valor instanceof Boolean) return (Boolean) valor;
+		if(valor instanceof Number) return ((Number) valor).doubleValue() != 0;
+		String texto = valor.toString().trim();
+		return texto.equalsIgnoreCase("true") || texto.equals("1") || texto.equalsIgnoreCase("T") || texto.equalsIgnoreCase("Y");
+	}
+
+	@Override
+	public byte getByte(int columnIndex) throws SQLException {
+		return (byte) estreitar(getLong(columnIndex), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte", columnIndex);
+	}
+
+	@Override
+	public short getShort(int columnIndex) throws SQLException {
+		return (short) estreitar(getLong(columnIndex), Short.MIN_VALUE, Short.MAX_VALUE, "short", columnIndex);
+	}
+
+	@Override
+	public int getInt(int columnIndex) throws SQLException {
+		return (int) estreitar(getLong(columnIndex), Integer.MIN_VALUE, Integer.MAX_VALUE, "int", columnIndex);
+	}
+
+	/**
+	 * Verifica se o valor de uma coluna cabe no tipo primitivo menor que <b>long</b> pedido, em vez de truncar os bits mais altos.
+	 */
+	private static long estreitar(long valor, long minimo, long maximo, String tipo, int columnIndex) throws SQLException {
+		if(valor < minimo || valor > maximo) throw new SQLDataException("O valor " + valor + " da coluna " + columnIndex + " no cabe em um " + tipo + ".", "22003");
+		return valor;
+	}
+
+	@Override
+	public long getLong(int columnIndex) throws SQLException {
+		verificarColuna(columnIndex);
+		ultimoNulo = false;
+		return lerLong(columnIndex);
+	}
+
+	@Override
+	public float getFloat(int columnIndex) throws SQLException {
+		return (float) getDouble(columnIndex);
+	}
+
+	@Override
+	public double getDouble(int columnIndex) throws SQLException {
+		verificarColuna(columnIndex);
+		ultimoNulo = false;
+		return lerDouble(columnIndex);
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+		Number numero = numero(columnIndex);
+		if(numero == null || numero instanceof BigDecimal) return (BigDecimal) numero;
+		if(numero instanceof Double) return BigDecimal.valueOf(numero.doubleValue());
+		return BigDecimal.valueOf(numero.longValue());
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+		BigDecimal valor = getBigDecimal(columnIndex);
+		return valor == null ? null : valor.setScale(scale, RoundingMode.HALF_UP);
+	}
+
+	@Override
+	public Date getDate(int columnIndex) throws SQLException {
+		Object valor = valor(columnIndex);
+		if(valor == null || valor instanceof Date) return (Date) valor;
+		if(valor instanceof Timestamp) return Date.valueOf(((Timestamp) valor).toLocalDateTime().toLocalDate());
+		try {
+			return Date.valueOf(valor.toString().trim());
+		} catch (IllegalArgumentException e) {
+			throw new SQLDataException("O valor " + valor + " da coluna " + columnIndex + " no  uma data.", "22007");
+		}
+	}
+
+	@Override
+	public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+		return getDate(columnIndex);
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex) throws SQLException {
+		Object valor = valor(columnIndex);
+		if(valor instanceof Timestamp) return (Timestamp) valor;
+		Date data = getDate(columnIndex);
+		return data == null ? null : new Timestamp(data.getTime());
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+		return getTimestamp(columnIndex);
+	}
+
+	@Override
+	public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+		if(type == String.class) return type.cast(getString(columnIndex));
+		if(type == Date.class) return type.cast(getDate(columnIndex));
+		if(type == Timestamp.class) return type.cast(getTimestamp(columnIndex));
+		if(type == BigDecimal.class) return type.cast(getBigDecimal(columnIndex));
+		Object valor = valor(columnIndex);
+		if(valor == null) return null;
+		if(type.isInstance(valor)) return type.cast(valor);
+		if(type == Boolean.class) return type.cast(getBoolean(columnIndex));
+		if(type == Integer.class) return type.cast(getInt(columnIndex));
+		if(type == Long.class) return type.cast(getLong(columnIndex));
+		if(type == Double.class) return type.cast(getDouble(columnIndex));
+		if(type == java.time.LocalDate.class) return type.cast(getDate(columnIndex).toLocalDate());
+		if(type == java.time.LocalDateTime.class) return type.cast(getTimestamp(columnIndex).toLocalDateTime());
+		throw new SQLDataException("A coluna " + columnIndex + " no pode ser convertida para " + type.getName() + ".", "22018");
+	}
+
+	@Override
+	public Object getObject(String columnLabel) throws SQLException {
+		return getObject(findColumn(columnLabel));
+	}
+
+	@Override
+	public String getString(String columnLabel) throws SQLException {
+		return getString(findColumn(columnLabel));
+	}
+
+	@Override
+	public boolean getBoolean(String columnLabel) throws SQLException {
+		return getBoolean(findColumn(columnLabel));
+	}
+
+	@Override
+	public byte getByte(String columnLabel) throws SQLException {
+		return getByte(findColumn(columnLabel));
+	}
+
+	@Override
+	public short getShort(String columnLabel) throws SQLException {
+		return getShort(findColumn(columnLabel));
+	}
+
+	@Override
+	public int getInt(String columnLabel) throws SQLException {
+		return getInt(findColumn(columnLabel));
+	}
+
+	@Override
+	public long getLong(String columnLabel) throws SQLException {
+		return getLong(findColumn(columnLabel));
+	}
+
+	@Override
+	public float getFloat(String columnLabel) throws SQLException {
+		return getFloat(findColumn(columnLabel));
+	}
+
+	@Override
+	public double getDouble(String columnLabel) throws SQLException {
+		return getDouble(findColumn(columnLabel));
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+		return getBigDecimal(findColumn(columnLabel));
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+		return getBigDecimal(findColumn(columnLabel), scale);
+	}
+
+	@Override
+	public Date getDate(String columnLabel) throws SQLException {
+		return getDate(findColumn(columnLabel));
+	}
+
+	@Override
+	public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+		return getDate(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel) throws SQLException {
+		return getTimestamp(findColumn(columnLabel));
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+		return getTimestamp(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+		return getObject(findColumn(columnLabel), type);
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if(iface.isInstance(this)) return iface.cast(this);
+		throw new SQLException("O resultado no implementa " + iface.getName() + ".");
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+
+	private Object valor(int coluna) throws SQLException {
+		verificarColuna(coluna);
+		Object valor = getValor(coluna);
+		ultimoNulo = valor == null;
+		return valor;
+	}
+
+	private void verificarColuna(int coluna) throws SQLException {
+		verificarAberto();
+		if(linha == 0 || fim) throw new SQLException("O cursor no est posicionado em uma linha.", "24000");
+		if(coluna < 1 || coluna > metadados.getColumnCount()) throw new SQLException("Coluna invlida: " + coluna + ".", "07009");
+	}
+
+	/**
+	 * O valor de uma coluna como {@link Number}, a partir de {@link #getValor(int)}. Utilizado pelas subclasses nas colunas sem leitura numrica prpria.
+	 * @param coluna O ndice da coluna, comeando em 1.
+	 * @return O valor ou <b>null</b> caso seja NULL ou vazio.
+	 * @throws SQLException Caso o valor no seja numrico.
+	 */
+	final Number numero(int coluna) throws SQLException {
+		Object valor = valor(coluna);
+		if(valor == null || valor instanceof Number) return (Number) valor;
+		if(valor instanceof Boolean) return (Boolean) valor ? 1 : 0;
+		String texto = valor.toString().trim();
+		if(texto.isEmpty()) return null;
+		try {
+			return new BigDecimal(texto);
+		} catch (NumberFormatException e) {
+			throw new SQLDataException("O valor " + valor + " da coluna " + coluna + " no  numrico.", "22018");
+		}
+	}
+
+	private void verificarAberto() throws SQLException {
+		if(fechado) throw new SQLException("O resultado est fechado.");
+	}
+
+	// Os mtodos abaixo no fazem sentido para um resultado somente leitura percorrido apenas para frente
+	@Override
+	public byte[] getBytes(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Time getTime(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public InputStream getAsciiStream(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public InputStream getBinaryStream(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public byte[] getBytes(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Time getTime(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public InputStream getAsciiStream(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public InputStream getBinaryStream(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public String getCursorName() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Reader getCharacterStream(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Reader getCharacterStream(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean isLast() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void beforeFirst() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void afterLast() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean first() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean last() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean absolute(int row) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean relative(int rows) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean previous() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean rowUpdated() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean rowInserted() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public boolean rowDeleted() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNull(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateByte(int columnIndex, byte x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateShort(int columnIndex, short x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateInt(int columnIndex, int x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateLong(int columnIndex, long x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateFloat(int columnIndex, float x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateDouble(int columnIndex, double x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateString(int columnIndex, String x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBytes(int columnIndex, byte x[]) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateDate(int columnIndex, Date x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateTime(int columnIndex, Time x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateObject(int columnIndex, Object x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNull(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateByte(String columnLabel, byte x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateShort(String columnLabel, short x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateInt(String columnLabel, int x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateLong(String columnLabel, long x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateFloat(String columnLabel, float x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateDouble(String columnLabel, double x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateString(String columnLabel, String x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBytes(String columnLabel, byte x[]) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateDate(String columnLabel, Date x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateTime(String columnLabel, Time x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateObject(String columnLabel, Object x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void insertRow() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateRow() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void deleteRow() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void refreshRow() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void cancelRowUpdates() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void moveToInsertRow() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void moveToCurrentRow() throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Object getObject(int columnIndex, Map<String,Class<?>> map) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Ref getRef(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Blob getBlob(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Clob getClob(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Array getArray(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Object getObject(String columnLabel, Map<String,Class<?>> map) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Ref getRef(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Blob getBlob(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Clob getClob(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Array getArray(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public URL getURL(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public URL getURL(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateRef(int columnIndex, Ref x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateRef(String columnLabel, Ref x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, Blob x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, Blob x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Clob x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Clob x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateArray(int columnIndex, Array x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateArray(String columnLabel, Array x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public RowId getRowId(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public RowId getRowId(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateRowId(int columnIndex, RowId x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateRowId(String columnLabel, RowId x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNString(int columnIndex, String nString) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNString(String columnLabel, String nString) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public NClob getNClob(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public NClob getNClob(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public SQLXML getSQLXML(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public SQLXML getSQLXML(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public String getNString(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public String getNString(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Reader getNCharacterStream(int columnIndex) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public Reader getNCharacterStream(String columnLabel) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Reader reader) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Reader reader) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+		throw naoSuportado();
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+		throw naoSuportado();
+	}
+}
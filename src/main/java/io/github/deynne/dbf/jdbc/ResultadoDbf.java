@@ -0,0 +1,275 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import io.github.deynne.dbf.FiltroDeRegistro;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	O resultado de uma consulta sobre uma tabela dbf.
+ * </p>
+ * <p>
+ * 	Os registros so lidos em blocos no formato bruto com {@link LeitorDbf#lerRegistros(byte[], int, int)}. Registros deletados e os que no passam
+ * 	pelo filtro da clusula WHERE so descartados sem converso, e os campos projetados s so convertidos quando lidos pelos mtodos get. Os mtodos
+ * 	numricos primitivos, como {@link #getLong(int)} e {@link #getDouble(int)}, convertem os campos numricos diretamente do bloco, sem a criao de objetos.
+ * </p>
+ * <p>
+ * 	Campos numricos, de data e lgicos vazios so retornados como NULL. Campos de texto vazios so retornados como uma {@link String} vazia.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class ResultadoDbf extends ResultadoAbstrato {
+
+	/**
+	 * Quantidade aproximada de bytes lidos por bloco.
+	 */
+	private static final int TAMANHO_DO_BLOCO = 256 * 1024;
+
+	private final LeitorDbf leitor;
+	private final Charset charset;
+	private final FiltroDeRegistro filtro;
+	private final long limite;
+	private final int tempoLimite;
+	private final long inicioDaExecucao = System.nanoTime();
+	private final int tamanhoDoRegistro;
+	private final int[] deslocamentos;
+	private final int[] tamanhos;
+	private final int[] tipos;
+	private final TiposDbf[] binarios;
+
+	private final byte[] bloco;
+	private int registrosNoBloco;
+	private int registroAtual = -1;
+	private int inicioDoRegistro;
+	private long entregues;
+
+	/**
+	 * Cria o resultado.
+	 * @param declaracao O {@link Statement} que gerou o resultado.
+	 * @param leitor O {@link LeitorDbf} da tabela, que ser fechado junto com o resultado.
+	 * @param tabela O nome da tabela.
+	 * @param campos Os campos projetados, na ordem das colunas.
+	 * @param filtro O filtro da clusula WHERE ou <b>null</b>.
+	 * @param limite A quantidade mxima de linhas ou um valor negativo para todas as linhas.
+	 * @param tempoLimite O tempo limite da consulta em segundos, verificado a cada bloco lido, ou 0 para nenhum limite.
+	 */
+	ResultadoDbf(Statement declaracao, LeitorDbf leitor, String tabela, CampoDbf[] campos, FiltroDeRegistro filtro, long limite, int tempoLimite) {
+		super(declaracao, new MetadadosDoResultado(tabela, campos));
+		this.leitor = leitor;
+		this.charset = leitor.getCharSet();
+		this.filtro = filtro;
+		this.limite = limite;
+		this.tempoLimite = tempoLimite;
+		this.tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		this.deslocamentos = new int[campos.length];
+		this.tamanhos = new int[campos.length];
+		this.tipos = new int[campos.length];
+		this.binarios = new TiposDbf[campos.length];
+		for(int i = 0; i < campos.length; i++) {
+			if(campos[i].getTipo() != null && campos[i].getTipo().isBinario()) binarios[i] = campos[i].getTipo();
+			deslocamentos[i] = campos[i].getDeslocamento();
+			tamanhos[i] = campos[i].getTamanhoDoCampo() & 0xFF;
+			tipos[i] = TiposSql.getTipoSql(campos[i]);
+		}
+		this.bloco = new byte[Math.max(1, TAMANHO_DO_BLOCO / tamanhoDoRegistro) * tamanhoDoRegistro];
+	}
+
+	@Override
+	protected boolean avancar() throws SQLException {
+		if(limite >= 0 && entregues >= limite) return false;
+		while(true) {
+			if(++registroAtual >= registrosNoBloco) {
+				if(!lerBloco()) return false;
+				registroAtual = 0;
+			}
+			inicioDoRegistro = registroAtual * tamanhoDoRegistro;
+			if(LeitorDbf.isDeletado(bloco, inicioDoRegistro)) continue;
+			if(filtro != null && !filtro.aceitar(bloco, inicioDoRegistro)) continue;
+			entregues++;
+			return true;
+		}
+	}
+
+	@Override
+	protected Object getValor(int coluna) throws SQLException {
+		int c = coluna - 1;
+		int inicio = inicioDoRegistro + deslocamentos[c];
+		int tamanho = tamanhos[c];
+		if(tipos[c] == Types.VARCHAR) return DecodificadorDbf.lerString(bloco, inicio, tamanho, charset, true);
+		if(binarios[c] != null) return getValorBinario(binarios[c], inicio);
+		if(DecodificadorDbf.isVazio(bloco, inicio, tamanho)) return null;
+		try {
+			switch(tipos[c]) {
+			case Types.INTEGER:
+				return (int) DecodificadorDbf.lerLong(bloco, inicio, tamanho);
+			case Types.BIGINT:
+				return DecodificadorDbf.lerLong(bloco, inicio, tamanho);
+			case Types.DOUBLE:
+				double valor = DecodificadorDbf.lerDouble(bloco, inicio, tamanho);
+				if(Double.isNaN(valor)) throw new NumberFormatException();
+				return valor;
+			case Types.DECIMAL:
+				return new BigDecimal(DecodificadorDbf.lerString(bloco, inicio, tamanho, StandardCharsets.ISO_8859_1, true));
+			case Types.BOOLEAN:
+				byte logico = bloco[inicio];
+				return logico == '?' ? null : DecodificadorDbf.lerLogico(logico);
+			default:
+				int data = DecodificadorDbf.lerData(bloco, inicio);
+				if(data == 0) throw new DateTimeException("");
+				return java.sql.Date.valueOf(LocalDate.of(data / 10000, data / 100 % 100, data % 100));
+			}
+		} catch (NumberFormatException | DateTimeException e) {
+			throw valorInvalido(coluna, inicio, tamanho, e);
+		}
+	}
+
+	@Override
+	protected long lerLong(int coluna) throws SQLException {
+		int c = coluna - 1;
+		int inicio = inicioDoRegistro + deslocamentos[c];
+		int tamanho = tamanhos[c];
+		if(binarios[c] != null) {
+			switch(binarios[c]) {
+			case INTEIRO:
+				return DecodificadorDbf.lerInteiroBinario(bloco, inicio);
+			case AUTOINCREMENTO:
+				return DecodificadorDbf.lerInteiroDBase(bloco, inicio);
+			case DUPLO:
+				return (long) DecodificadorDbf.lerDoubleBinario(bloco, inicio);
+			case DUPLO_DBASE:
+				return (long) DecodificadorDbf.lerDoubleDBase(bloco, inicio);
+			case MOEDA:
+				return DecodificadorDbf.lerLongBinario(bloco, inicio) / 10000;
+			default:
+				break;
+			}
+		}
+		else if(tipos[c] == Types.DOUBLE) {
+			return (long) lerDouble(coluna);
+		}
+		// Campos com mais de 18 dgitos podem no caber em um long e seguem pela converso de getValor
+		else if(isNumerico(c) && tamanho <= 18) {
+			if(DecodificadorDbf.isVazio(bloco, inicio, tamanho)) {
+				marcarNulo();
+				return 0;
+			}
+			try {
+				return DecodificadorDbf.lerLong(bloco, inicio, tamanho);
+			} catch (NumberFormatException e) {
+				throw valorInvalido(coluna, inicio, tamanho, e);
+			}
+		}
+		Number numero = numero(coluna);
+		return numero == null ? 0 : numero.longValue();
+	}
+
+	@Override
+	protected double lerDouble(int coluna) throws SQLException {
+		int c = coluna - 1;
+		int inicio = inicioDoRegistro + deslocamentos[c];
+		int tamanho = tamanhos[c];
+		if(binarios[c] != null) {
+			switch(binarios[c]) {
+			case INTEIRO:
+				return DecodificadorDbf.lerInteiroBinario(bloco, inicio);
+			case AUTOINCREMENTO:
+				return DecodificadorDbf.lerInteiroDBase(bloco, inicio);
+			case DUPLO:
+				return DecodificadorDbf.lerDoubleBinario(bloco, inicio);
+			case DUPLO_DBASE:
+				return DecodificadorDbf.lerDoubleDBase(bloco, inicio);
+			case MOEDA:
+				return DecodificadorDbf.lerLongBinario(bloco, inicio) / 10000.0;
+			default:
+				break;
+			}
+		}
+		else if(isNumerico(c)) {
+			if(DecodificadorDbf.isVazio(bloco, inicio, tamanho)) {
+				marcarNulo();
+				return 0;
+			}
+			double valor = DecodificadorDbf.lerDouble(bloco, inicio, tamanho);
+			if(Double.isNaN(valor)) throw valorInvalido(coluna, inicio, tamanho, new NumberFormatException());
+			return valor;
+		}
+		Number numero = numero(coluna);
+		return numero == null ? 0 : numero.doubleValue();
+	}
+
+	/**
+	 * Indica se a coluna  um campo numrico gravado como texto (N ou F).
+	 */
+	private boolean isNumerico(int c) {
+		return tipos[c] == Types.INTEGER || tipos[c] == Types.BIGINT || tipos[c] == Types.DOUBLE || tipos[c] == Types.DECIMAL;
+	}
+
+	private SQLDataException valorInvalido(int coluna, int inicio, int tamanho, Exception causa) throws SQLException {
+		int c = coluna - 1;
+		String texto = DecodificadorDbf.lerString(bloco, inicio, tamanho, charset, true);
+		return new SQLDataException("O valor '" + texto + "' da coluna " + getMetaData().getColumnName(coluna) + " no registro " + (leitor.getRecordsLidos() - registrosNoBloco + registroAtual + 1)
+				+ " no  vlido para o tipo " + TiposSql.getNomeDoTipo(tipos[c]) + ".", "22018", causa);
+	}
+
+	// Os campos binrios no tm representao vazia, exceto os de data e hora
+	private Object getValorBinario(TiposDbf tipo, int inicio) {
+		switch(tipo) {
+		case INTEIRO:
+			return DecodificadorDbf.lerInteiroBinario(bloco, inicio);
+		case AUTOINCREMENTO:
+			return DecodificadorDbf.lerInteiroDBase(bloco, inicio);
+		case DUPLO:
+			return DecodificadorDbf.lerDoubleBinario(bloco, inicio);
+		case DUPLO_DBASE:
+			return DecodificadorDbf.lerDoubleDBase(bloco, inicio);
+		case MOEDA:
+			return BigDecimal.valueOf(DecodificadorDbf.lerLongBinario(bloco, inicio), 4);
+		default:
+			long dataHora = DecodificadorDbf.lerDataHora(bloco, inicio, tipo == TiposDbf.DATA_HORA_DBASE);
+			if(dataHora == DecodificadorDbf.DATA_HORA_VAZIA) return null;
+			int data = DecodificadorDbf.getData(dataHora);
+			LocalTime hora = LocalTime.ofNanoOfDay(DecodificadorDbf.getMilissegundosDoDia(dataHora) * 1000000L);
+			return Timestamp.valueOf(LocalDateTime.of(LocalDate.of(data / 10000, data / 100 % 100, data % 100), hora));
+		}
+	}
+
+	@Override
+	protected void liberar() throws SQLException {
+		try {
+			leitor.close();
+		} catch (IOException e) {
+			throw new SQLException("No foi possvel fechar a tabela.", e);
+		}
+	}
+
+	private boolean lerBloco() throws SQLException {
+		if(tempoLimite > 0 && System.nanoTime() - inicioDaExecucao > TimeUnit.SECONDS.toNanos(tempoLimite))
+			throw new SQLTimeoutException("A consulta excedeu o tempo limite de " + tempoLimite + " segundos.", "HYT00");
+		try {
+			registrosNoBloco = leitor.lerRegistros(bloco, 0, bloco.length / tamanhoDoRegistro);
+			return registrosNoBloco > 0;
+		} catch (IOException | LeituraIncorretaDeCampoException e) {
+			throw new SQLException("Falha na leitura da tabela: " + e.getMessage(), "58030", e);
+		}
+	}
+}
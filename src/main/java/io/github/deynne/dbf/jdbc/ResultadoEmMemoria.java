@@ -0,0 +1,56 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Um resultado com as linhas j carregadas em memria, utilizado pelos metadados do banco.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+class ResultadoEmMemoria extends ResultadoAbstrato {
+
+	private final List<Object[]> linhas;
+	private int atual = -1;
+
+	/**
+	 * Cria o resultado.
+	 * @param declaracao O {@link Statement} que gerou o resultado ou <b>null</b>.
+	 * @param metadados A descrio das colunas.
+	 * @param linhas As linhas, com os valores na ordem das colunas.
+	 */
+	ResultadoEmMemoria(Statement declaracao, MetadadosDoResultado metadados, List<Object[]> linhas) {
+		super(declaracao, metadados);
+		this.linhas = linhas;
+	}
+
+	@Override
+	protected boolean avancar() throws SQLException {
+		if(atual + 1 >= linhas.size()) return false;
+		atual++;
+		return true;
+	}
+
+	@Override
+	protected Object getValor(int coluna) throws SQLException {
+		return linhas.get(atual)[coluna - 1];
+	}
+
+	@Override
+	protected long lerLong(int coluna) throws SQLException {
+		Number numero = numero(coluna);
+		return numero == null ? 0 : numero.longValue();
+	}
+
+	@Override
+	protected double lerDouble(int coluna) throws SQLException {
+		Number numero = numero(coluna);
+		return numero == null ? 0 : numero.doubleValue();
+	}
+
+	@Override
+	public boolean isLast() throws SQLException {
+		return atual >= 0 && atual == linhas.size() - 1;
+	}
+}
@@ -0,0 +1,138 @@
+package io.github.deynne.dbf.jdbc;
+
+import java.sql.Types;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * Mapeamento dos {@link TiposDbf} para os tipos SQL de {@link Types}.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+final class TiposSql {
+
+	private TiposSql() { }
+
+	/**
+	 * O tipo SQL de um campo. Campos numricos sem casas decimais so mapeados para INTEGER ou BIGINT, de acordo com o tamanho, e os demais para DECIMAL.
+	 * Os campos de moeda so DECIMAL com 4 casas decimais.
+	 * @param campo O {@link CampoDbf}.
+	 * @return Uma das constantes de {@link Types}.
+	 */
+	static int getTipoSql(CampoDbf campo) {
+		TiposDbf tipo = campo.getTipo();
+		if(tipo == null) return Types.VARCHAR;
+		switch(tipo) {
+		case DATA:
+			return Types.DATE;
+		case LOGICO:
+			return Types.BOOLEAN;
+		case FLUTUANTE:
+		case DUPLO:
+		case DUPLO_DBASE:
+			return Types.DOUBLE;
+		case INTEIRO:
+		case AUTOINCREMENTO:
+			return Types.INTEGER;
+		case MOEDA:
+			return Types.DECIMAL;
+		case DATA_HORA:
+		case DATA_HORA_DBASE:
+			return Types.TIMESTAMP;
+		case NUMERICO:
+			int tamanho = campo.getTamanhoDoCampo() & 0xFF;
+			if(campo.getContagemDecimal() > 0 || tamanho > 18) return Types.DECIMAL;
+			return tamanho < 10 ? Types.INTEGER : Types.BIGINT;
+		default:
+			return Types.VARCHAR;
+		}
+	}
+
+	/**
+	 * O nome do tipo SQL.
+	 * @param tipoSql Uma das constantes de {@link Types}.
+	 * @return Uma {@link String} com o nome do tipo.
+	 */
+	static String getNomeDoTipo(int tipoSql) {
+		switch(tipoSql) {
+		case Types.DATE:
+			return "DATE";
+		case Types.TIMESTAMP:
+			return "TIMESTAMP";
+		case Types.BOOLEAN:
+			return "BOOLEAN";
+		case Types.DOUBLE:
+			return "DOUBLE";
+		case Types.DECIMAL:
+			return "DECIMAL";
+		case Types.INTEGER:
+			return "INTEGER";
+		case Types.BIGINT:
+			return "BIGINT";
+		default:
+			return "VARCHAR";
+		}
+	}
+
+	/**
+	 * O nome da classe Java retornada por {@link java.sql.ResultSet#getObject(int)} para o tipo SQL.
+	 * @param tipoSql Uma das constantes de {@link Types}.
+	 * @return Uma {@link String} com o nome completo da classe.
+	 */
+	static String getClasse(int tipoSql) {
+		switch(tipoSql) {
+		case Types.DATE:
+			return java.sql.Date.class.getName();
+		case Types.TIMESTAMP:
+			return java.sql.Timestamp.class.getName();
+		case Types.BOOLEAN:
+			return Boolean.class.getName();
+		case Types.DOUBLE:
+			return Double.class.getName();
+		case Types.DECIMAL:
+			return java.math.BigDecimal.class.getName();
+		case Types.INTEGER:
+			return Integer.class.getName();
+		case Types.BIGINT:
+			return Long.class.getName();
+		default:
+			return String.class.getName();
+		}
+	}
+
+	/**
+	 * A preciso de um campo: a quantidade de dgitos para nmeros, 10 para datas, 23 para datas e horas, 1 para lgicos e a quantidade de caracteres para
+	 * textos.
+	 * @param campo O {@link CampoDbf}.
+	 * @return Um <b>int</b> com a preciso.
+	 */
+	static int getPrecisao(CampoDbf campo) {
+		switch(getTipoSql(campo)) {
+		case Types.DATE:
+			return 10;
+		case Types.BOOLEAN:
+			return 1;
+		case Types.TIMESTAMP:
+			return 23;
+		case Types.DOUBLE:
+			return 15;
+		case Types.INTEGER:
+			return campo.getTipo().isBinario() ? 10 : campo.getTamanhoDoCampo() & 0xFF;
+		case Types.DECIMAL:
+			return campo.getTipo() == TiposDbf.MOEDA ? 19 : campo.getTamanhoDoCampo() & 0xFF;
+		default:
+			return campo.getTamanhoDoCampo() & 0xFF;
+		}
+	}
+
+	/**
+	 * A quantidade de casas decimais de um campo.
+	 * @param campo O {@link CampoDbf}.
+	 * @return Um <b>int</b> com a escala.
+	 */
+	static int getEscala(CampoDbf campo) {
+		if(getTipoSql(campo) != Types.DECIMAL) return 0;
+		return campo.getTipo() == TiposDbf.MOEDA ? 4 : campo.getContagemDecimal();
+	}
+}
@@ -0,0 +1,118 @@
+package io.github.deynne.dbf.juncao;
+
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.HashDeBytes;
+
+/**
+ * <p>
+ * 	A chave de juno de um dos lados, formada por um ou mais campos do registro no formato bruto.
+ * </p>
+ * <p>
+ * 	Os campos de texto so comparados sem os espaos do incio e do fim, de forma que campos de tamanhos diferentes nos dois arquivos, como um cdigo
+ * 	C(10) e um C(12) ou um N(8) e um N(10), correspondem quando tm o mesmo contedo. Os campos binrios so comparados byte a byte e precisam ter o
+ * 	mesmo tipo nos dois lados. Uma chave com algum campo de texto vazio no corresponde a nenhuma outra, como o <b>NULL</b> no SQL.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+final class ChaveDaJuncao {
+
+	/**
+	 * Separa os campos no hash, para que ("AB", "C") e ("A", "BC") tenham hashes diferentes.
+	 */
+	private static final byte[] SEPARADOR = { 0 };
+
+	private final int[] deslocamentos;
+	private final int[] tamanhos;
+	private final boolean[] binarios;
+
+	ChaveDaJuncao(CabecalhoDbf cabecalho, String[] nomesDosCampos) throws CampoDbfIlegalException {
+		if(nomesDosCampos == null || nomesDosCampos.length == 0) throw new CampoDbfIlegalException(" necessrio informar ao menos um campo para a chave.");
+		deslocamentos = new int[nomesDosCampos.length];
+		tamanhos = new int[nomesDosCampos.length];
+		binarios = new boolean[nomesDosCampos.length];
+		for(int i = 0; i < nomesDosCampos.length; i++) {
+			int indice = cabecalho.getIdByNome(nomesDosCampos[i]);
+			if(indice < 0) throw new CampoDbfIlegalException("O campo " + nomesDosCampos[i] + " no existe no arquivo.");
+			CampoDbf campo = cabecalho.getCampos()[indice];
+			deslocamentos[i] = campo.getDeslocamento();
+			tamanhos[i] = campo.getTamanhoDoCampo() & 0xFF;
+			binarios[i] = campo.getTipo() != null && campo.getTipo().isBinario();
+		}
+	}
+
+	/**
+	 * Verifica se as chaves dos dois lados podem ser comparadas: a mesma quantidade de campos e, para os binrios, o mesmo tipo e tamanho.
+	 */
+	static void verificar(CabecalhoDbf esquerda, String[] camposDaEsquerda, CabecalhoDbf direita, String[] camposDaDireita) throws CampoDbfIlegalException {
+		if(camposDaEsquerda.length != camposDaDireita.length) {
+			throw new CampoDbfIlegalException("A chave da esquerda tem " + camposDaEsquerda.length + " campos e a da direita " + camposDaDireita.length + ".");
+		}
+		for(int i = 0; i < camposDaEsquerda.length; i++) {
+			CampoDbf a = esquerda.getCampos()[esquerda.getIdByNome(camposDaEsquerda[i])];
+			CampoDbf b = direita.getCampos()[direita.getIdByNome(camposDaDireita[i])];
+			boolean binarioA = a.getTipo() != null && a.getTipo().isBinario();
+			boolean binarioB = b.getTipo() != null && b.getTipo().isBinario();
+			if((binarioA || binarioB) && (a.getTipo() != b.getTipo() || a.getTamanhoDoCampo() != b.getTamanhoDoCampo())) {
+				throw new CampoDbfIlegalException("Os campos " + camposDaEsquerda[i] + " e " + camposDaDireita[i] + " no podem ser comparados na juno.");
+			}
+		}
+	}
+
+	/**
+	 * O hash da chave de um registro, igual para chaves correspondentes dos dois lados.
+	 */
+	long hash(byte[] registro, int offset) {
+		long hash = HashDeBytes.INICIO;
+		for(int c = 0; c < deslocamentos.length; c++) {
+			int inicio = offset + deslocamentos[c];
+			int fim = inicio + tamanhos[c];
+			if(!binarios[c]) {
+				while(inicio < fim && registro[inicio] == ' ') inicio++;
+				while(fim > inicio && registro[fim - 1] == ' ') fim--;
+			}
+			hash = HashDeBytes.adicionar(hash, registro, inicio, fim - inicio);
+			hash = HashDeBytes.adicionar(hash, SEPARADOR, 0, 1);
+		}
+		return HashDeBytes.finalizar(hash);
+	}
+
+	/**
+	 * Indica se algum campo de texto da chave est vazio.
+	 */
+	boolean isVazia(byte[] registro, int offset) {
+		for(int c = 0; c < deslocamentos.length; c++) {
+			if(binarios[c]) continue;
+			int inicio = offset + deslocamentos[c];
+			int fim = inicio + tamanhos[c];
+			while(inicio < fim && registro[inicio] == ' ') inicio++;
+			if(inicio == fim) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Compara a chave de um registro deste lado com a chave de um registro do outro lado.
+	 */
+	boolean iguais(byte[] registro, int offset, ChaveDaJuncao outra, byte[] registroDaOutra, int offsetDaOutra) {
+		for(int c = 0; c < deslocamentos.length; c++) {
+			int inicioA = offset + deslocamentos[c];
+			int fimA = inicioA + tamanhos[c];
+			int inicioB = offsetDaOutra + outra.deslocamentos[c];
+			int fimB = inicioB + outra.tamanhos[c];
+			if(!binarios[c]) {
+				while(inicioA < fimA && registro[inicioA] == ' ') inicioA++;
+				while(fimA > inicioA && registro[fimA - 1] == ' ') fimA--;
+				while(inicioB < fimB && registroDaOutra[inicioB] == ' ') inicioB++;
+				while(fimB > inicioB && registroDaOutra[fimB - 1] == ' ') fimB--;
+			}
+			if(fimA - inicioA != fimB - inicioB) return false;
+			for(; inicioA < fimA; inicioA++, inicioB++) {
+				if(registro[inicioA] != registroDaOutra[inicioB]) return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,24 @@
+package io.github.deynne.dbf.juncao;
+
+import java.io.IOException;
+
+/**
+ * Recebe os pares de registros no formato bruto produzidos pelo {@link JuncaoDbf}, comeando pela flag de deleo. Os arrays so reaproveitados aps o
+ * retorno de {@link #consumir(byte[], int, byte[], int)}, ento os dados que precisarem ser mantidos devem ser copiados.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ConsumidorDeJuncao {
+
+	/**
+	 * Processa um par de registros.
+	 * @param esquerda O array contendo o registro da esquerda.
+	 * @param offsetEsquerda A posio do registro da esquerda no array.
+	 * @param direita O array contendo o registro da direita ou <b>null</b> quando o registro da esquerda no tem correspondente em
+	 * {@link TipoDeJuncao#ESQUERDA}.
+	 * @param offsetDireita A posio do registro da direita no array.
+	 * @throws IOException Se ocorrer problemas no processamento dos registros.
+	 */
+	void consumir(byte[] esquerda, int offsetEsquerda, byte[] direita, int offsetDireita) throws IOException;
+}
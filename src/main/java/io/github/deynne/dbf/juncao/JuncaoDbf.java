@@ -0,0 +1,462 @@
+package io.github.deynne.dbf.juncao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.github.deynne.dbf.EscritorDbf;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Juno por hash entre dois arquivos dbf a partir de campos chave, sem a criao de {@link io.github.deynne.dbf.model.Linha Linha}.
+ * </p>
+ * <p>
+ * 	Os registros da direita, normalmente o arquivo menor, so lidos em blocos no formato bruto para uma tabela hash em arrays primitivos. Os registros da
+ * 	esquerda so ento lidos em blocos e cada um  procurado na tabela pela sua chave. A comparao das chaves segue as regras de
+ * 	{@link ChaveDaJuncao}: campos de texto sem os espaos do incio e do fim e chaves com campos vazios sem correspondncia. Os registros deletados dos dois
+ * 	lados so ignorados.
+ * </p>
+ * <p>
+ * 	Quando o peso estimado da tabela ultrapassa {@link #getMemoriaMaxima()}, os dois lados so divididos pelo hash da chave em parties gravadas em
+ * 	arquivos temporrios, e cada par de parties  juntado separadamente (<i>Grace hash join</i>). Parties que ainda forem grandes demais so divididas
+ * 	novamente. Sem parties, os pares so produzidos na ordem dos registros da esquerda; com parties, na ordem das parties.
+ * </p>
+ * <pre>
+ * JuncaoDbf juncao = new JuncaoDbf("COD_CLIENTE");
+ * juncao.setTipo(TipoDeJuncao.ESQUERDA);
+ * juncao.setProjecao(new String[] {"COD_CLIENTE", "VALOR"}, new String[] {"NOME"});
+ * juncao.juntar(transacoes, clientes, destino);
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class JuncaoDbf {
+
+	/**
+	 * Peso mximo padro da tabela hash (64 MB).
+	 */
+	public static final long MEMORIA_MAXIMA_PADRAO = 64L * 1024 * 1024;
+
+	private static final int TAMANHO_DO_BLOCO = 1024 * 1024;
+	private static final int TAMANHO_DO_BUFFER_DAS_PARTICOES = 64 * 1024;
+	private static final int MAXIMO_DE_PARTICOES = 256;
+	/**
+	 * Quantidade mxima de bits do hash utilizados nas divises em parties. Acima disso a tabela  montada mesmo que ultrapasse a memria mxima, j que
+	 * as chaves restantes so muito repetidas para serem divididas.
+	 */
+	private static final int MAXIMO_DE_BITS = 32;
+
+	private String[] camposDaEsquerda;
+	private String[] camposDaDireita;
+	private TipoDeJuncao tipo = TipoDeJuncao.INTERNA;
+	private long memoriaMaxima = MEMORIA_MAXIMA_PADRAO;
+	private File diretorioTemporario;
+	private String[] projecaoDaEsquerda;
+	private String[] projecaoDaDireita;
+	private int particoesCriadas;
+
+	/**
+	 * Cria a juno por campos com o mesmo nome nos dois arquivos.
+	 * @param camposChave Os nomes dos campos que formam a chave.
+	 */
+	public JuncaoDbf(String... camposChave) {
+		this(camposChave, camposChave);
+	}
+
+	/**
+	 * Cria a juno por campos com nomes diferentes em cada arquivo.
+	 * @param camposDaEsquerda Os nomes dos campos da chave no arquivo da esquerda.
+	 * @param camposDaDireita Os nomes dos campos correspondentes no arquivo da direita, na mesma ordem.
+	 */
+	public JuncaoDbf(String[] camposDaEsquerda, String[] camposDaDireita) {
+		this.camposDaEsquerda = camposDaEsquerda;
+		this.camposDaDireita = camposDaDireita;
+	}
+
+	/**
+	 * Junta os registros dos leitores e grava os pares em um novo arquivo dbf com os campos da {@link #setProjecao(String[], String[]) projeo}. Em
+	 * {@link TipoDeJuncao#ESQUERDA}, os campos da direita dos registros sem correspondente ficam vazios.
+	 * @param esquerda O {@link LeitorDbf} do arquivo da esquerda, percorrido uma vez.
+	 * @param direita O {@link LeitorDbf} do arquivo da direita, carregado na tabela hash.
+	 * @param destino O arquivo dbf a ser criado.
+	 * @return A quantidade de registros gravados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita dos arquivos.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave ou da projeo no exista ou a projeo repita um nome de campo.
+	 */
+	public long juntar(LeitorDbf esquerda, LeitorDbf direita, File destino) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		CabecalhoDbf cabecalhoDaEsquerda = esquerda.getCabecalho();
+		CabecalhoDbf cabecalhoDaDireita = direita.getCabecalho();
+		String[] daEsquerda = projecaoDaEsquerda != null ? projecaoDaEsquerda : getNomes(cabecalhoDaEsquerda);
+		String[] daDireita = projecaoDaDireita;
+		if(daDireita == null) {
+			// Por padro, os campos da direita que j existem na esquerda, como a prpria chave, no so repetidos
+			Set<String> nomes = new HashSet<>(Arrays.asList(daEsquerda));
+			List<String> restantes = new ArrayList<>();
+			for(String nome : getNomes(cabecalhoDaDireita)) {
+				if(!nomes.contains(nome)) restantes.add(nome);
+			}
+			daDireita = restantes.toArray(new String[restantes.size()]);
+		}
+
+		CampoDbf[] campos = new CampoDbf[daEsquerda.length + daDireita.length];
+		for(int i = 0; i < campos.length; i++) {
+			boolean daEsquerdaAtual = i < daEsquerda.length;
+			campos[i] = getCampo(daEsquerdaAtual ? cabecalhoDaEsquerda : cabecalhoDaDireita, daEsquerdaAtual ? daEsquerda[i] : daDireita[i - daEsquerda.length]);
+		}
+		CabecalhoDbf projecao;
+		try {
+			projecao = cabecalhoDaEsquerda.projetar(campos);
+		} catch (IllegalArgumentException e) {
+			throw new CampoDbfIlegalException(e.getMessage(), e);
+		}
+
+		int tamanhoDaSaida = projecao.getTamanhoDoRegistro() & 0xFFFF;
+		int[] origens = new int[campos.length];
+		int[] destinos = new int[campos.length];
+		int[] tamanhos = new int[campos.length];
+		// Registro de sada com os campos da direita vazios: espaos nos campos de texto e 0 nos binrios
+		byte[] vazio = new byte[tamanhoDaSaida];
+		Arrays.fill(vazio, (byte) ' ');
+		for(int i = 0; i < campos.length; i++) {
+			origens[i] = campos[i].getDeslocamento();
+			destinos[i] = projecao.getCampos()[i].getDeslocamento();
+			tamanhos[i] = campos[i].getTamanhoDoCampo() & 0xFF;
+			if(campos[i].getTipo() != null && campos[i].getTipo().isBinario()) Arrays.fill(vazio, destinos[i], destinos[i] + tamanhos[i], (byte) 0);
+		}
+		int camposDaEsquerdaNaSaida = daEsquerda.length;
+		byte[] saida = new byte[tamanhoDaSaida];
+
+		try(EscritorDbf escritor = new EscritorDbf(destino, projecao)) {
+			return juntar(esquerda, direita, (registroDaEsquerda, offsetEsquerda, registroDaDireita, offsetDireita) -> {
+				saida[0] = ' ';
+				for(int i = 0; i < camposDaEsquerdaNaSaida; i++) {
+					System.arraycopy(registroDaEsquerda, offsetEsquerda + origens[i], saida, destinos[i], tamanhos[i]);
+				}
+				for(int i = camposDaEsquerdaNaSaida; i < origens.length; i++) {
+					if(registroDaDireita == null) System.arraycopy(vazio, destinos[i], saida, destinos[i], tamanhos[i]);
+					else System.arraycopy(registroDaDireita, offsetDireita + origens[i], saida, destinos[i], tamanhos[i]);
+				}
+				escritor.escreverRegistro(saida, 0);
+			});
+		}
+	}
+
+	/**
+	 * Junta os registros dos leitores e entrega os pares ao consumidor.
+	 * @param esquerda O {@link LeitorDbf} do arquivo da esquerda, percorrido uma vez.
+	 * @param direita O {@link LeitorDbf} do arquivo da direita, carregado na tabela hash.
+	 * @param consumidor O {@link ConsumidorDeJuncao} que receber os pares de registros.
+	 * @return A quantidade de pares entregues.
+	 * @throws IOException Se ocorrer problemas na leitura dos arquivos ou na escrita das parties.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave no exista ou as chaves no possam ser comparadas.
+	 */
+	public long juntar(LeitorDbf esquerda, LeitorDbf direita, ConsumidorDeJuncao consumidor) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		ChaveDaJuncao chaveDaEsquerda = new ChaveDaJuncao(esquerda.getCabecalho(), camposDaEsquerda);
+		ChaveDaJuncao chaveDaDireita = new ChaveDaJuncao(direita.getCabecalho(), camposDaDireita);
+		ChaveDaJuncao.verificar(esquerda.getCabecalho(), camposDaEsquerda, direita.getCabecalho(), camposDaDireita);
+		particoesCriadas = 0;
+
+		Lado ladoDaEsquerda = new Lado(chaveDaEsquerda, esquerda.getCabecalho().getTamanhoDoRegistro() & 0xFFFF);
+		Lado ladoDaDireita = new Lado(chaveDaDireita, direita.getCabecalho().getTamanhoDoRegistro() & 0xFFFF);
+		long registrosDaDireita = direita.getCabecalho().getNumeroDeRegistros() & 0xFFFFFFFFL;
+		return juntar(ladoDaEsquerda, deLeitor(esquerda), ladoDaDireita, deLeitor(direita), registrosDaDireita, 0, consumidor);
+	}
+
+	private long juntar(Lado esquerda, Fonte fonteDaEsquerda, Lado direita, Fonte fonteDaDireita, long registrosDaDireita, int bitsUtilizados,
+			ConsumidorDeJuncao consumidor) throws IOException, LeituraIncorretaDeCampoException {
+		long peso = registrosDaDireita * (direita.tamanhoDoRegistro + TabelaDeJuncao.PESO_POR_REGISTRO);
+		if(peso <= memoriaMaxima || bitsUtilizados >= MAXIMO_DE_BITS) {
+			return juntarEmMemoria(esquerda, fonteDaEsquerda, direita, fonteDaDireita, consumidor);
+		}
+
+		int particoes = Integer.highestOneBit((int) Math.min(MAXIMO_DE_PARTICOES, peso / memoriaMaxima + 1) * 2 - 1);
+		int bits = Math.min(Integer.numberOfTrailingZeros(particoes), MAXIMO_DE_BITS - bitsUtilizados);
+		particoes = 1 << bits;
+		Particoes particoesDaDireita = null;
+		Particoes particoesDaEsquerda = null;
+		try {
+			particoesDaDireita = particionar(direita, fonteDaDireita, particoes, bitsUtilizados);
+			particoesDaEsquerda = particionar(esquerda, fonteDaEsquerda, particoes, bitsUtilizados);
+			long pares = 0;
+			for(int p = 0; p < particoes; p++) {
+				// Sem registros na direita, apenas a juno  esquerda produz pares
+				if(particoesDaDireita.quantidades[p] == 0 && tipo == TipoDeJuncao.INTERNA) continue;
+				// Uma partio com todos os registros indica chaves repetidas demais para serem divididas
+				int proximosBits = particoesDaDireita.quantidades[p] == registrosDaDireita ? MAXIMO_DE_BITS : bitsUtilizados + bits;
+				try(DataInputStream entradaDaDireita = particoesDaDireita.abrir(p); DataInputStream entradaDaEsquerda = particoesDaEsquerda.abrir(p)) {
+					pares += juntar(esquerda, deParticao(entradaDaEsquerda, particoesDaEsquerda.quantidades[p], esquerda.tamanhoDoRegistro), direita,
+							deParticao(entradaDaDireita, particoesDaDireita.quantidades[p], direita.tamanhoDoRegistro), particoesDaDireita.quantidades[p],
+							proximosBits, consumidor);
+				}
+				particoesDaDireita.excluir(p);
+				particoesDaEsquerda.excluir(p);
+			}
+			return pares;
+		} finally {
+			if(particoesDaDireita != null) particoesDaDireita.excluir();
+			if(particoesDaEsquerda != null) particoesDaEsquerda.excluir();
+		}
+	}
+
+	private long juntarEmMemoria(Lado esquerda, Fonte fonteDaEsquerda, Lado direita, Fonte fonteDaDireita, ConsumidorDeJuncao consumidor)
+			throws IOException, LeituraIncorretaDeCampoException {
+		TabelaDeJuncao tabela = new TabelaDeJuncao(direita.chave, direita.tamanhoDoRegistro);
+		int porBloco = Math.max(1, TAMANHO_DO_BLOCO / direita.tamanhoDoRegistro);
+		byte[] bloco = new byte[porBloco * direita.tamanhoDoRegistro];
+		int quantidade;
+		while((quantidade = fonteDaDireita.ler(bloco, porBloco)) > 0) {
+			for(int r = 0; r < quantidade; r++) {
+				tabela.adicionar(bloco, r * direita.tamanhoDoRegistro);
+			}
+		}
+		if(tabela.getQuantidade() == 0 && tipo == TipoDeJuncao.INTERNA) return 0;
+
+		byte[] registrosDaDireita = tabela.getRegistros();
+		porBloco = Math.max(1, TAMANHO_DO_BLOCO / esquerda.tamanhoDoRegistro);
+		bloco = new byte[porBloco * esquerda.tamanhoDoRegistro];
+		long pares = 0;
+		while((quantidade = fonteDaEsquerda.ler(bloco, porBloco)) > 0) {
+			for(int r = 0, offset = 0; r < quantidade; r++, offset += esquerda.tamanhoDoRegistro) {
+				int encontrado = esquerda.chave.isVazia(bloco, offset) ? -1 : tabela.buscar(esquerda.chave, bloco, offset, esquerda.chave.hash(bloco, offset));
+				if(encontrado < 0) {
+					if(tipo == TipoDeJuncao.ESQUERDA) {
+						consumidor.consumir(bloco, offset, null, 0);
+						pares++;
+					}
+					continue;
+				}
+				for(; encontrado >= 0; encontrado = tabela.proximo(encontrado)) {
+					consumidor.consumir(bloco, offset, registrosDaDireita, encontrado * direita.tamanhoDoRegistro);
+					pares++;
+				}
+			}
+		}
+		return pares;
+	}
+
+	/**
+	 * Distribui os registros de uma fonte entre as parties pelos bits do hash da chave seguintes aos j utilizados. Os registros com chave vazia vo
+	 * para a partio 0, j que s aparecem na juno  esquerda.
+	 */
+	private Particoes particionar(Lado lado, Fonte fonte, int particoes, int bitsUtilizados) throws IOException, LeituraIncorretaDeCampoException {
+		Particoes resultado = new Particoes(particoes);
+		int bits = Integer.numberOfTrailingZeros(particoes);
+		int porBloco = Math.max(1, TAMANHO_DO_BLOCO / lado.tamanhoDoRegistro);
+		byte[] bloco = new byte[porBloco * lado.tamanhoDoRegistro];
+		try {
+			int quantidade;
+			while((quantidade = fonte.ler(bloco, porBloco)) > 0) {
+				for(int r = 0, offset = 0; r < quantidade; r++, offset += lado.tamanhoDoRegistro) {
+					int p = lado.chave.isVazia(bloco, offset) ? 0 : (int) (lado.chave.hash(bloco, offset) >>> (64 - bitsUtilizados - bits)) & (particoes - 1);
+					resultado.saidas[p].write(bloco, offset, lado.tamanhoDoRegistro);
+					resultado.quantidades[p]++;
+				}
+			}
+			resultado.fecharSaidas();
+		} catch (IOException | LeituraIncorretaDeCampoException | RuntimeException e) {
+			resultado.excluir();
+			throw e;
+		}
+		return resultado;
+	}
+
+	private static Fonte deLeitor(LeitorDbf leitor) {
+		int tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		return (bloco, quantidade) -> {
+			int lidos;
+			// Descarta os registros deletados, lendo novamente caso o bloco inteiro tenha sido descartado
+			while((lidos = leitor.lerRegistros(bloco, 0, quantidade)) > 0) {
+				int presentes = 0;
+				for(int i = 0; i < lidos; i++) {
+					if(LeitorDbf.isDeletado(bloco, i * tamanhoDoRegistro)) continue;
+					if(i != presentes) System.arraycopy(bloco, i * tamanhoDoRegistro, bloco, presentes * tamanhoDoRegistro, tamanhoDoRegistro);
+					presentes++;
+				}
+				if(presentes > 0) return presentes;
+			}
+			return 0;
+		};
+	}
+
+	private static Fonte deParticao(DataInputStream entrada, long registros, int tamanhoDoRegistro) {
+		long[] restantes = { registros };
+		return (bloco, quantidade) -> {
+			int lidos = (int) Math.min(quantidade, restantes[0]);
+			entrada.readFully(bloco, 0, lidos * tamanhoDoRegistro);
+			restantes[0] -= lidos;
+			return lidos;
+		};
+	}
+
+	private static String[] getNomes(CabecalhoDbf cabecalho) {
+		String[] nomes = new String[cabecalho.getNumCampos()];
+		for(int i = 0; i < nomes.length; i++) {
+			nomes[i] = cabecalho.getCampos()[i].getNome().trim();
+		}
+		return nomes;
+	}
+
+	private CampoDbf getCampo(CabecalhoDbf cabecalho, String nome) throws CampoDbfIlegalException {
+		int indice = cabecalho.getIdByNome(nome);
+		if(indice < 0) throw new CampoDbfIlegalException("O campo " + nome + " no existe no arquivo.");
+		return cabecalho.getCampos()[indice];
+	}
+
+	/**
+	 * Uma sequncia de registros presentes lida em blocos, de um leitor ou de uma partio.
+	 */
+	@FunctionalInterface
+	private interface Fonte {
+		int ler(byte[] bloco, int quantidade) throws IOException, LeituraIncorretaDeCampoException;
+	}
+
+	private static class Lado {
+		private final ChaveDaJuncao chave;
+		private final int tamanhoDoRegistro;
+
+		Lado(ChaveDaJuncao chave, int tamanhoDoRegistro) {
+			this.chave = chave;
+			this.tamanhoDoRegistro = tamanhoDoRegistro;
+		}
+	}
+
+	private class Particoes {
+		private final File[] arquivos;
+		private final OutputStream[] saidas;
+		private final long[] quantidades;
+
+		Particoes(int particoes) throws IOException {
+			arquivos = new File[particoes];
+			saidas = new OutputStream[particoes];
+			quantidades = new long[particoes];
+			try {
+				for(int p = 0; p < particoes; p++) {
+					arquivos[p] = File.createTempFile("dbf-juncao-", ".tmp", diretorioTemporario);
+					arquivos[p].deleteOnExit();
+					saidas[p] = new BufferedOutputStream(new FileOutputStream(arquivos[p]), TAMANHO_DO_BUFFER_DAS_PARTICOES);
+				}
+			} catch (IOException e) {
+				excluir();
+				throw e;
+			}
+			particoesCriadas += particoes;
+		}
+
+		DataInputStream abrir(int particao) throws IOException {
+			return new DataInputStream(new BufferedInputStream(new FileInputStream(arquivos[particao]), TAMANHO_DO_BUFFER_DAS_PARTICOES));
+		}
+
+		void fecharSaidas() throws IOException {
+			for(int p = 0; p < saidas.length; p++) {
+				if(saidas[p] != null) saidas[p].close();
+				saidas[p] = null;
+			}
+		}
+
+		void excluir(int particao) {
+			if(arquivos[particao] != null) arquivos[particao].delete();
+			arquivos[particao] = null;
+		}
+
+		void excluir() {
+			for(int p = 0; p < arquivos.length; p++) {
+				try {
+					if(saidas[p] != null) saidas[p].close();
+				} catch (IOException e) {
+					// O arquivo ser excludo de qualquer forma
+				}
+				saidas[p] = null;
+				excluir(p);
+			}
+		}
+	}
+
+	/**
+	 * Os nomes dos campos da chave no arquivo da esquerda.
+	 * @return Um {@link String}[ ] com os campos na ordem da chave.
+	 */
+	public String[] getCamposDaEsquerda() {
+		return camposDaEsquerda;
+	}
+
+	/**
+	 * Os nomes dos campos da chave no arquivo da direita.
+	 * @return Um {@link String}[ ] com os campos na ordem da chave.
+	 */
+	public String[] getCamposDaDireita() {
+		return camposDaDireita;
+	}
+
+	public TipoDeJuncao getTipo() {
+		return tipo;
+	}
+
+	/**
+	 * Define o tipo da juno.
+	 * @param tipo O {@link TipoDeJuncao}. Padro {@link TipoDeJuncao#INTERNA}.
+	 */
+	public void setTipo(TipoDeJuncao tipo) {
+		if(tipo == null) throw new IllegalArgumentException("O tipo da juno no pode ser nulo.");
+		this.tipo = tipo;
+	}
+
+	public long getMemoriaMaxima() {
+		return memoriaMaxima;
+	}
+
+	/**
+	 * Define o peso mximo da tabela hash com os registros da direita, acima do qual os arquivos so divididos em parties.
+	 * @param memoriaMaxima A quantidade aproximada de bytes. Padro {@value #MEMORIA_MAXIMA_PADRAO}.
+	 */
+	public void setMemoriaMaxima(long memoriaMaxima) {
+		if(memoriaMaxima <= 0) throw new IllegalArgumentException("A memria mxima deve ser positiva.");
+		this.memoriaMaxima = memoriaMaxima;
+	}
+
+	public File getDiretorioTemporario() {
+		return diretorioTemporario;
+	}
+
+	/**
+	 * Define o diretrio onde as parties so gravadas.
+	 * @param diretorioTemporario O diretrio das parties. <b>null</b> utiliza o diretrio temporrio do sistema.
+	 */
+	public void setDiretorioTemporario(File diretorioTemporario) {
+		this.diretorioTemporario = diretorioTemporario;
+	}
+
+	/**
+	 * Define os campos gravados por {@link #juntar(LeitorDbf, LeitorDbf, File)}: primeiro os da esquerda e depois os da direita, na ordem informada.
+	 * @param camposDaEsquerda Os campos da esquerda. <b>null</b> grava todos.
+	 * @param camposDaDireita Os campos da direita. <b>null</b> grava todos que no tenham o nome de um campo gravado da esquerda.
+	 */
+	public void setProjecao(String[] camposDaEsquerda, String[] camposDaDireita) {
+		this.projecaoDaEsquerda = camposDaEsquerda;
+		this.projecaoDaDireita = camposDaDireita;
+	}
+
+	/**
+	 * A quantidade de parties gravadas em disco na ltima juno.
+	 * @return Um <b>int</b> com a quantidade de parties de cada lado, ou 0 caso a juno tenha sido feita em memria.
+	 */
+	public int getParticoesCriadas() {
+		return particoesCriadas;
+	}
+}
@@ -0,0 +1,125 @@
+package io.github.deynne.dbf.juncao;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * 	Tabela hash de endereamento aberto com os registros do lado da direita de uma juno, em arrays primitivos.
+ * </p>
+ * <p>
+ * 	Os registros so mantidos em sequncia em um nico array de bytes. Cada posio da tabela aponta para o primeiro registro de uma chave e os registros
+ * 	seguintes com a mesma chave formam uma lista em {@link #proximos}, na ordem em que foram adicionados. No  criado nenhum objeto por registro.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+final class TabelaDeJuncao {
+
+	/**
+	 * Bytes ocupados por registro alm do prprio registro: hash, prximo, ltimo e as posies da tabela.
+	 */
+	static final int PESO_POR_REGISTRO = 24;
+
+	private final ChaveDaJuncao chave;
+	private final int tamanhoDoRegistro;
+
+	// Posio na tabela -> primeiro registro da chave + 1. 0 indica posio vazia
+	private int[] posicoes;
+	private long[] hashes;
+	// Registro -> prximo registro com a mesma chave + 1
+	private int[] proximos;
+	// Primeiro registro da chave -> ltimo registro da chave. -1 para os demais registros
+	private int[] ultimos;
+	private byte[] registros;
+	private int quantidade;
+
+	TabelaDeJuncao(ChaveDaJuncao chave, int tamanhoDoRegistro) {
+		this.chave = chave;
+		this.tamanhoDoRegistro = tamanhoDoRegistro;
+		int capacidade = 64;
+		posicoes = new int[capacidade * 2];
+		hashes = new long[capacidade];
+		proximos = new int[capacidade];
+		ultimos = new int[capacidade];
+		registros = new byte[capacidade * tamanhoDoRegistro];
+	}
+
+	/**
+	 * Adiciona um registro. Registros com chave vazia no so adicionados, j que no correspondem a nenhum outro.
+	 */
+	void adicionar(byte[] registro, int offset) {
+		if(chave.isVazia(registro, offset)) return;
+		if(quantidade == hashes.length) crescer();
+		int r = quantidade++;
+		long hash = chave.hash(registro, offset);
+		hashes[r] = hash;
+		System.arraycopy(registro, offset, registros, r * tamanhoDoRegistro, tamanhoDoRegistro);
+
+		int mascara = posicoes.length - 1;
+		for(int p = (int) hash & mascara; ; p = (p + 1) & mascara) {
+			int primeiro = posicoes[p] - 1;
+			if(primeiro < 0) {
+				posicoes[p] = r + 1;
+				ultimos[r] = r;
+				if(quantidade * 2 > posicoes.length) redimensionar();
+				return;
+			}
+			if(hashes[primeiro] == hash && chave.iguais(registros, primeiro * tamanhoDoRegistro, chave, registros, r * tamanhoDoRegistro)) {
+				proximos[ultimos[primeiro]] = r + 1;
+				ultimos[primeiro] = r;
+				ultimos[r] = -1;
+				if(quantidade * 2 > posicoes.length) redimensionar();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * O primeiro registro com a chave de um registro do outro lado.
+	 * @return O ndice do registro ou -1 caso no exista.
+	 */
+	int buscar(ChaveDaJuncao chaveDoOutroLado, byte[] registro, int offset, long hash) {
+		int mascara = posicoes.length - 1;
+		for(int p = (int) hash & mascara; ; p = (p + 1) & mascara) {
+			int primeiro = posicoes[p] - 1;
+			if(primeiro < 0) return -1;
+			if(hashes[primeiro] == hash && chaveDoOutroLado.iguais(registro, offset, chave, registros, primeiro * tamanhoDoRegistro)) return primeiro;
+		}
+	}
+
+	/**
+	 * O prximo registro com a mesma chave.
+	 * @return O ndice do registro ou -1 caso no exista.
+	 */
+	int proximo(int registro) {
+		return proximos[registro] - 1;
+	}
+
+	byte[] getRegistros() {
+		return registros;
+	}
+
+	int getQuantidade() {
+		return quantidade;
+	}
+
+	private void crescer() {
+		int capacidade = hashes.length * 2;
+		hashes = Arrays.copyOf(hashes, capacidade);
+		proximos = Arrays.copyOf(proximos, capacidade);
+		ultimos = Arrays.copyOf(ultimos, capacidade);
+		registros = Arrays.copyOf(registros, capacidade * tamanhoDoRegistro);
+	}
+
+	private void redimensionar() {
+		posicoes = new int[posicoes.length * 2];
+		int mascara = posicoes.length - 1;
+		for(int r = 0; r < quantidade; r++) {
+			// Apenas o primeiro registro de cada chave ocupa uma posio
+			if(ultimos[r] < 0) continue;
+			int p = (int) hashes[r] & mascara;
+			while(posicoes[p] != 0) p = (p + 1) & mascara;
+			posicoes[p] = r + 1;
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package io.github.deynne.dbf.juncao;
+
+/**
+ * Os tipos de juno suportados pelo {@link JuncaoDbf}.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public enum TipoDeJuncao {
+	/**
+	 * Apenas os registros da esquerda que tm ao menos um registro correspondente na direita, uma vez para cada correspondente.
+	 */
+	INTERNA,
+	/**
+	 * Todos os registros da esquerda. Os que no tm correspondente na direita aparecem uma vez, sem registro da direita.
+	 */
+	ESQUERDA
+}
@@ -0,0 +1,35 @@
+package io.github.deynne.dbf.mapeamento;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * 	Associa um atributo, ou um componente de um record, a um campo do dbf com nome diferente. Sem a anotao, o atributo  associado ao campo com o
+ * 	mesmo nome, sem diferenciar maisculas de minsculas, e ignorado caso o campo no exista.
+ * </p>
+ * <pre>
+ * public class Cliente {
+ * 	&#64;ColunaDbf("NM_CLIENTE")
+ * 	private String nome;
+ * 	private int codigo;
+ * }
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ * @see MapeadorDbf
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ColunaDbf {
+
+	/**
+	 * O nome do campo no dbf, sem diferenciar maisculas de minsculas.
+	 * @return Uma {@link String} com o nome do campo.
+	 */
+	String value();
+}
@@ -0,0 +1,208 @@
+package io.github.deynne.dbf.mapeamento;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.util.DecodificadorDbf;
+import io.github.deynne.dbf.util.TiposDbf;
+
+/**
+ * <p>
+ * 	Converte um campo do dbf para os tipos Java suportados pelo {@link MapeadorDbf}, a partir dos bytes do campo e sem a criao de {@link String} para os
+ * 	tipos primitivos.
+ * </p>
+ * <p>
+ * 	Os conversores primitivos retornam 0 ou <b>false</b> para campos vazios e os demais retornam <b>null</b>, exceto {@link #lerString(byte[], int)}, que
+ * 	retorna o texto vazio para os campos de texto, como {@link io.github.deynne.dbf.model.Linha#getValueAsString(int, boolean)}.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+final class ConversorDeColuna {
+
+	private final CampoDbf campo;
+	private final TiposDbf tipo;
+	private final int tamanho;
+	private final boolean binario;
+	private final Charset charset;
+
+	ConversorDeColuna(CampoDbf campo, Charset charset) {
+		this.campo = campo;
+		this.tipo = campo.getTipo();
+		this.tamanho = campo.getTamanhoDoCampo() & 0xFF;
+		this.binario = tipo != null && tipo.isBinario();
+		this.charset = charset;
+	}
+
+	/**
+	 * Indica se o campo est vazio. Nos campos binrios apenas as datas e horas podem estar vazias.
+	 */
+	boolean isVazio(byte[] dados, int inicio) {
+		if(binario) return Double.isNaN(DecodificadorDbf.lerNumero(tipo, dados, inicio, tamanho));
+		return DecodificadorDbf.isVazio(dados, inicio, tamanho);
+	}
+
+	/**
+	 * O campo como <b>long</b>. Nmeros com casas decimais so truncados, datas so AAAAMMDD, datas e horas so milissegundos desde 1970-01-01T00:00 e
+	 * lgicos so 0 ou 1.
+	 * @throws NumberFormatException Caso o campo no seja um nmero vlido.
+	 */
+	long lerLong(byte[] dados, int inicio) {
+		if(tipo == TiposDbf.INTEIRO) return DecodificadorDbf.lerInteiroBinario(dados, inicio);
+		if(tipo == TiposDbf.AUTOINCREMENTO) return DecodificadorDbf.lerInteiroDBase(dados, inicio);
+		if(tipo == TiposDbf.MOEDA) return DecodificadorDbf.lerLongBinario(dados, inicio) / 10000;
+		if(binario || tipo == TiposDbf.FLUTUANTE) {
+			double valor = lerDouble(dados, inicio);
+			return Double.isNaN(valor) ? 0 : (long) valor;
+		}
+		if(tipo == TiposDbf.DATA) return DecodificadorDbf.lerData(dados, inicio);
+		if(tipo == TiposDbf.LOGICO) return DecodificadorDbf.lerLogico(dados[inicio]) ? 1 : 0;
+		return DecodificadorDbf.lerLong(dados, inicio, tamanho);
+	}
+
+	/**
+	 * O campo como <b>double</b>, na mesma escala de {@link #lerLong(byte[], int)}.
+	 * @throws NumberFormatException Caso o campo no seja um nmero vlido.
+	 */
+	double lerDouble(byte[] dados, int inicio) {
+		if(tipo == TiposDbf.DATA) return DecodificadorDbf.lerData(dados, inicio);
+		if(tipo == TiposDbf.LOGICO) return DecodificadorDbf.lerLogico(dados[inicio]) ? 1 : 0;
+		if(binario) {
+			double valor = DecodificadorDbf.lerNumero(tipo, dados, inicio, tamanho);
+			return Double.isNaN(valor) ? 0 : valor;
+		}
+		if(DecodificadorDbf.isVazio(dados, inicio, tamanho)) return 0;
+		double valor = DecodificadorDbf.lerDouble(dados, inicio, tamanho);
+		if(Double.isNaN(valor)) throw numeroInvalido(dados, inicio);
+		return valor;
+	}
+
+	/**
+	 * O campo como <b>boolean</b>. Campos numricos so verdadeiros quando diferentes de 0 e os demais seguem {@link DecodificadorDbf#lerLogico(byte)}
+	 * aplicado ao primeiro caracter.
+	 */
+	boolean lerBoolean(byte[] dados, int inicio) {
+		if(binario || tipo == TiposDbf.NUMERICO || tipo == TiposDbf.FLUTUANTE) return !isVazio(dados, inicio) && lerDouble(dados, inicio) != 0;
+		int primeiro = DecodificadorDbf.inicioSemEspacos(dados, inicio, tamanho);
+		return primeiro < inicio + tamanho && DecodificadorDbf.lerLogico(dados[primeiro]);
+	}
+
+	/**
+	 * O campo como texto, sem os espaos do incio e do fim. Os campos binrios so convertidos com {@link #lerObjeto(byte[], int)}.
+	 */
+	String lerString(byte[] dados, int inicio) {
+		if(!binario) return DecodificadorDbf.lerString(dados, inicio, tamanho, charset, true);
+		Object valor = lerObjeto(dados, inicio);
+		return valor == null ? null : valor.toString();
+	}
+
+	/**
+	 * O campo como {@link BigDecimal}. Os campos de moeda tm sempre 4 casas decimais e os numricos de texto mantm as casas do arquivo.
+	 * @throws NumberFormatException Caso o campo no seja um nmero vlido.
+	 */
+	BigDecimal lerBigDecimal(byte[] dados, int inicio) {
+		if(isVazio(dados, inicio)) return null;
+		if(tipo == TiposDbf.MOEDA) return BigDecimal.valueOf(DecodificadorDbf.lerLongBinario(dados, inicio), 4);
+		if(binario || tipo == TiposDbf.DATA || tipo == TiposDbf.LOGICO) return BigDecimal.valueOf(lerDouble(dados, inicio));
+		try {
+			return new BigDecimal(DecodificadorDbf.lerString(dados, inicio, tamanho, charset, true));
+		} catch (NumberFormatException e) {
+			throw numeroInvalido(dados, inicio);
+		}
+	}
+
+	/**
+	 * O campo como {@link LocalDateTime}, a partir de um campo de data, ou de data e hora.
+	 */
+	LocalDateTime lerDataHora(byte[] dados, int inicio) {
+		if(tipo == TiposDbf.DATA_HORA || tipo == TiposDbf.DATA_HORA_DBASE) {
+			long dataHora = DecodificadorDbf.lerDataHora(dados, inicio, tipo == TiposDbf.DATA_HORA_DBASE);
+			if(dataHora == DecodificadorDbf.DATA_HORA_VAZIA) return null;
+			LocalTime hora = LocalTime.ofNanoOfDay(DecodificadorDbf.getMilissegundosDoDia(dataHora) * 1000000L);
+			return LocalDateTime.of(paraData(DecodificadorDbf.getData(dataHora)), hora);
+		}
+		LocalDate data = lerData(dados, inicio);
+		return data == null ? null : data.atStartOfDay();
+	}
+
+	/**
+	 * O campo como {@link LocalDate}, a partir de um campo de data, ou de data e hora.
+	 * @throws IllegalArgumentException Caso o campo no seja de data.
+	 */
+	LocalDate lerData(byte[] dados, int inicio) {
+		if(tipo == TiposDbf.DATA_HORA || tipo == TiposDbf.DATA_HORA_DBASE) {
+			LocalDateTime dataHora = lerDataHora(dados, inicio);
+			return dataHora == null ? null : dataHora.toLocalDate();
+		}
+		if(tipo != TiposDbf.DATA) throw new IllegalArgumentException("O campo " + campo.getNome().trim() + " no  uma data.");
+		int data = tamanho < 8 ? 0 : DecodificadorDbf.lerData(dados, inicio);
+		return data == 0 ? null : paraData(data);
+	}
+
+	/**
+	 * O campo como {@link Date}, com a data e a hora interpretadas no fuso local.
+	 */
+	Date lerDate(byte[] dados, int inicio) {
+		LocalDateTime dataHora = lerDataHora(dados, inicio);
+		return dataHora == null ? null : Date.from(dataHora.atZone(ZoneId.systemDefault()).toInstant());
+	}
+
+	/**
+	 * O campo no tipo Java natural do seu tipo dbf: {@link Long} ou {@link Double} para nmeros de texto, de acordo com as casas decimais, ou
+	 * {@link BigDecimal} para os inteiros que no cabem em um <b>long</b>, {@link Integer},
+	 * {@link Double} ou {@link BigDecimal} para os binrios, {@link LocalDate}, {@link LocalDateTime}, {@link Boolean} ou {@link String}.
+	 */
+	Object lerObjeto(byte[] dados, int inicio) {
+		if(tipo == null) return lerString(dados, inicio);
+		switch(tipo) {
+		case INTEIRO:
+		case AUTOINCREMENTO:
+			return (int) lerLong(dados, inicio);
+		case DUPLO:
+		case DUPLO_DBASE:
+			return lerDouble(dados, inicio);
+		case MOEDA:
+			return lerBigDecimal(dados, inicio);
+		case DATA_HORA:
+		case DATA_HORA_DBASE:
+			return lerDataHora(dados, inicio);
+		case DATA:
+			return lerData(dados, inicio);
+		case LOGICO:
+			byte logico = dados[inicio];
+			return logico == ' ' || logico == '?' ? null : DecodificadorDbf.lerLogico(logico);
+		case NUMERICO:
+		case FLUTUANTE:
+			if(isVazio(dados, inicio)) return null;
+			if(campo.getContagemDecimal() != 0 || tipo != TiposDbf.NUMERICO) return lerDouble(dados, inicio);
+			if(tamanho <= 18) return lerLong(dados, inicio);
+			try {
+				return lerLong(dados, inicio);
+			} catch (NumberFormatException e) {
+				// Excede o intervalo de um long ou  invlido, caso em que lerBigDecimal lana a exceo
+				return lerBigDecimal(dados, inicio);
+			}
+		default:
+			return lerString(dados, inicio);
+		}
+	}
+
+	CampoDbf getCampo() {
+		return campo;
+	}
+
+	private static LocalDate paraData(int data) {
+		return LocalDate.of(data / 10000, data / 100 % 100, data % 100);
+	}
+
+	private NumberFormatException numeroInvalido(byte[] dados, int inicio) {
+		return new NumberFormatException("O valor '" + DecodificadorDbf.lerString(dados, inicio, tamanho, charset, true) + "' do campo " + campo.getNome().trim()
+				+ " no  um nmero vlido.");
+	}
+}
@@ -0,0 +1,552 @@
+package io.github.deynne.dbf.mapeamento;
+
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+import io.github.deynne.dbf.model.Linha;
+
+/**
+ * <p>
+ * 	Converte registros do dbf em objetos de uma classe ou record. A associao entre os atributos e os campos do {@link CabecalhoDbf}, os conversores e
+ * 	os setters so resolvidos uma nica vez na criao do mapeador, ento cada registro  convertido sem busca por nome, sem reflexo e, para os atributos
+ * 	primitivos, sem a criao de {@link String}.
+ * </p>
+ * <p>
+ * 	Nas classes, cada atributo no esttico, no final e no transiente  associado ao campo de mesmo nome, ou ao indicado por {@link ColunaDbf}, e 
+ * 	preenchido pelo setter pblico <code>setNome</code>, quando existe, ou diretamente. Os setters pblicos so chamados por classes geradas com
+ * 	{@link LambdaMetafactory} e os demais por {@link MethodHandle}. A classe precisa de um construtor sem parmetros.
+ * </p>
+ * <p>
+ * 	Nos records (Java 16 ou superior), cada componente  associado a um campo da mesma forma e o objeto  criado pelo construtor cannico. Os componentes
+ * 	sem campo recebem <b>null</b>, 0 ou <b>false</b>.
+ * </p>
+ * <p>
+ * 	Os atributos podem ser dos tipos primitivos, das classes correspondentes, {@link String}, {@link BigDecimal}, {@link LocalDate}, {@link LocalDateTime},
+ * 	{@link Date} ou {@link Object}, que recebe o valor no tipo natural do campo. Os primitivos recebem 0 ou <b>false</b> quando o campo est vazio e os
+ * 	demais recebem <b>null</b>. O mapeador no guarda estado e pode ser utilizado por vrias threads.
+ * </p>
+ * <pre>
+ * MapeadorDbf&lt;Cliente&gt; mapeador = new MapeadorDbf&lt;&gt;(Cliente.class, leitor.getCabecalho(), leitor.getCharSet());
+ * mapeador.percorrer(leitor, cliente -&gt; ...);
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ * @param <T> O tipo dos objetos criados.
+ */
+public final class MapeadorDbf<T> {
+
+	private static final int REGISTROS_POR_LEITURA = 1024;
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	// Mtodos de Class e RecordComponent disponveis a partir do Java 16
+	private static final Method IS_RECORD = getMetodo(Class.class, "isRecord");
+	private static final Method GET_RECORD_COMPONENTS = getMetodo(Class.class, "getRecordComponents");
+
+	private final Class<T> classe;
+	private final int tamanhoDoRegistro;
+	private final int[] indices;
+	private final int[] deslocamentos;
+	private final String[] campos;
+
+	// Classes: o construtor sem parmetros e um setter por atributo associado
+	private final Supplier<Object> construtor;
+	private final Atribuicao[] atribuicoes;
+
+	// Records: o construtor cannico, recebendo um Object[ ], e a leitura de cada componente associado
+	private final MethodHandle construtorCanonico;
+	private final Leitura[] leituras;
+	private final int[] componentes;
+	private final Object[] padroes;
+
+	/**
+	 * Associa a classe ao cabealho.
+	 * @param classe A classe ou record dos objetos criados.
+	 * @param cabecalho O {@link CabecalhoDbf} do arquivo cujos registros sero convertidos.
+	 * @param charset O {@link Charset} dos campos de texto.
+	 * @throws CampoDbfIlegalException Caso o campo de algum {@link ColunaDbf} no exista no arquivo ou algum atributo associado seja final ou de um tipo no suportado.
+	 * @throws IllegalArgumentException Caso a classe no possa ser instanciada.
+	 */
+	public MapeadorDbf(Class<T> classe, CabecalhoDbf cabecalho, Charset charset) throws CampoDbfIlegalException {
+		this.classe = classe;
+		this.tamanhoDoRegistro = cabecalho.getTamanhoDoRegistro() & 0xFFFF;
+		List<Integer> indicesAssociados = new ArrayList<>();
+
+		if(isRecord(classe)) {
+			Object[] componentesDoRecord = invocar(GET_RECORD_COMPONENTS, classe);
+			Class<?>[] tipos = new Class<?>[componentesDoRecord.length];
+			List<Leitura> leiturasAssociadas = new ArrayList<>();
+			List<Integer> posicoes = new ArrayList<>();
+			padroes = new Object[componentesDoRecord.length];
+			for(int c = 0; c < componentesDoRecord.length; c++) {
+				String nome = invocar(getMetodo(componentesDoRecord[c].getClass(), "getName"), componentesDoRecord[c]);
+				tipos[c] = invocar(getMetodo(componentesDoRecord[c].getClass(), "getType"), componentesDoRecord[c]);
+				// O valor padro de um primitivo  o elemento de um array novo
+				padroes[c] = tipos[c].isPrimitive() ? Array.get(Array.newInstance(tipos[c], 1), 0) : null;
+
+				ColunaDbf coluna = getAnotacao(classe, nome);
+				int indice = getIndiceDoCampo(cabecalho, coluna == null ? nome : coluna.value(), coluna != null);
+				if(indice < 0) continue;
+				Leitura leitura = criarLeitura(tipos[c], new ConversorDeColuna(cabecalho.getCampos()[indice], charset));
+				if(leitura == null) throw tipoNaoSuportado(nome, tipos[c]);
+				leiturasAssociadas.add(leitura);
+				posicoes.add(c);
+				indicesAssociados.add(indice);
+			}
+			try {
+				Constructor<T> canonico = classe.getDeclaredConstructor(tipos);
+				canonico.setAccessible(true);
+				construtorCanonico = LOOKUP.unreflectConstructor(canonico).asSpreader(Object[].class, tipos.length)
+						.asType(MethodType.methodType(Object.class, Object[].class));
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				throw new IllegalArgumentException("No foi possvel acessar o construtor do record " + classe.getName() + ".", e);
+			}
+			leituras = leiturasAssociadas.toArray(new Leitura[leiturasAssociadas.size()]);
+			componentes = paraArray(posicoes);
+			construtor = null;
+			atribuicoes = null;
+		}
+		else {
+			List<Atribuicao> atribuicoesAssociadas = new ArrayList<>();
+			for(Class<?> c = classe; c != null && c != Object.class; c = c.getSuperclass()) {
+				for(Field atributo : c.getDeclaredFields()) {
+					int modificadores = atributo.getModifiers();
+					if(Modifier.isStatic(modificadores) || Modifier.isTransient(modificadores) || atributo.isSynthetic()) continue;
+					ColunaDbf coluna = atributo.getAnnotation(ColunaDbf.class);
+					if(Modifier.isFinal(modificadores)) {
+						if(coluna != null) throw new CampoDbfIlegalException("O atributo " + atributo.getName() + "  final e no pode ser associado ao campo " + coluna.value() + ".");
+						continue;
+					}
+					int indice = getIndiceDoCampo(cabecalho, coluna == null ? atributo.getName() : coluna.value(), coluna != null);
+					if(indice < 0) continue;
+					atribuicoesAssociadas.add(criarAtribuicao(atributo, new ConversorDeColuna(cabecalho.getCampos()[indice], charset)));
+					indicesAssociados.add(indice);
+				}
+			}
+			atribuicoes = atribuicoesAssociadas.toArray(new Atribuicao[atribuicoesAssociadas.size()]);
+			construtor = criarConstrutor(classe);
+			construtorCanonico = null;
+			leituras = null;
+			componentes = null;
+			padroes = null;
+		}
+
+		indices = paraArray(indicesAssociados);
+		deslocamentos = new int[indices.length];
+		campos = new String[indices.length];
+		for(int i = 0; i < indices.length; i++) {
+			deslocamentos[i] = cabecalho.getCampos()[indices[i]].getDeslocamento();
+			campos[i] = cabecalho.getCampos()[indices[i]].getNome().trim();
+		}
+	}
+
+	/**
+	 * Converte um registro no formato bruto.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio da flag de deleo do registro no array.
+	 * @return O objeto criado. Registros deletados tambm so convertidos.
+	 * @throws NumberFormatException Caso um campo associado a um atributo numrico no seja um nmero vlido.
+	 */
+	public T mapear(byte[] registro, int offset) {
+		if(atribuicoes != null) {
+			Object alvo = construtor.get();
+			for(int c = 0; c < atribuicoes.length; c++) {
+				atribuicoes[c].atribuir(alvo, registro, offset + deslocamentos[c]);
+			}
+			return classe.cast(alvo);
+		}
+		Object[] argumentos = padroes.clone();
+		for(int c = 0; c < leituras.length; c++) {
+			argumentos[componentes[c]] = leituras[c].ler(registro, offset + deslocamentos[c]);
+		}
+		return criarRecord(argumentos);
+	}
+
+	/**
+	 * Converte uma {@link Linha} lida com todos os campos do cabealho.
+	 * @param linha A {@link Linha}.
+	 * @return O objeto criado.
+	 * @throws NumberFormatException Caso um campo associado a um atributo numrico no seja um nmero vlido.
+	 */
+	public T mapear(Linha linha) {
+		// As linhas lidas pelo leitor mantm o registro, que  convertido sem a cpia de cada campo
+		if(linha.getRegistro() != null) return mapear(linha.getRegistro(), 0);
+		if(atribuicoes != null) {
+			Object alvo = construtor.get();
+			for(int c = 0; c < atribuicoes.length; c++) {
+				atribuicoes[c].atribuir(alvo, linha.getValue(indices[c]), 0);
+			}
+			return classe.cast(alvo);
+		}
+		Object[] argumentos = padroes.clone();
+		for(int c = 0; c < leituras.length; c++) {
+			argumentos[componentes[c]] = leituras[c].ler(linha.getValue(indices[c]), 0);
+		}
+		return criarRecord(argumentos);
+	}
+
+	/**
+	 * Converte os registros restantes do leitor, ignorando os deletados.
+	 * @param leitor O {@link LeitorDbf} do arquivo, com o mesmo cabealho informado na criao do mapeador.
+	 * @param destino Recebe os objetos na ordem do arquivo.
+	 * @return A quantidade de objetos criados.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws IllegalArgumentException Caso o tamanho do registro do leitor seja diferente do cabealho do mapeador.
+	 */
+	public long percorrer(LeitorDbf leitor, Consumer<? super T> destino) throws IOException, LeituraIncorretaDeCampoException {
+		if((leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF) != tamanhoDoRegistro) throw new IllegalArgumentException("O leitor no tem o mesmo cabealho do mapeador.");
+		byte[] bloco = new byte[REGISTROS_POR_LEITURA * tamanhoDoRegistro];
+		long criados = 0;
+		int quantidade;
+		while((quantidade = leitor.lerRegistros(bloco, 0, REGISTROS_POR_LEITURA)) > 0) {
+			for(int r = 0, offset = 0; r < quantidade; r++, offset += tamanhoDoRegistro) {
+				if(LeitorDbf.isDeletado(bloco, offset)) continue;
+				destino.accept(mapear(bloco, offset));
+				criados++;
+			}
+		}
+		return criados;
+	}
+
+	/**
+	 * Converte os registros restantes do leitor em uma lista.
+	 * @param leitor O {@link LeitorDbf} do arquivo, com o mesmo cabealho informado na criao do mapeador.
+	 * @return Uma {@link List} com os objetos na ordem do arquivo.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @see #percorrer(LeitorDbf, Consumer)
+	 */
+	public List<T> lerTodos(LeitorDbf leitor) throws IOException, LeituraIncorretaDeCampoException {
+		List<T> objetos = new ArrayList<>();
+		percorrer(leitor, objetos::add);
+		return objetos;
+	}
+
+	public Class<T> getClasse() {
+		return classe;
+	}
+
+	/**
+	 * Os campos associados a algum atributo.
+	 * @return Um {@link String}[ ] com os nomes dos campos, na ordem dos atributos.
+	 */
+	public String[] getCampos() {
+		return campos.clone();
+	}
+
+	@FunctionalInterface
+	private interface Atribuicao {
+		void atribuir(Object alvo, byte[] dados, int inicio);
+	}
+
+	@FunctionalInterface
+	private interface Leitura {
+		Object ler(byte[] dados, int inicio);
+	}
+
+	private T criarRecord(Object[] argumentos) {
+		try {
+			return classe.cast((Object) construtorCanonico.invokeExact(argumentos));
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Falha na criao do record " + classe.getName() + ".", e);
+		}
+	}
+
+	/**
+	 * Os atributos int, long e double so atribudos sem boxing. Os demais recebem o valor da {@link Leitura} do seu tipo.
+	 */
+	private static Atribuicao criarAtribuicao(Field atributo, ConversorDeColuna conversor) throws CampoDbfIlegalException {
+		Class<?> tipo = atributo.getType();
+		if(tipo == int.class) {
+			ObjIntConsumer<Object> setter = gerarSetter(atributo, ObjIntConsumer.class, int.class);
+			return (alvo, dados, inicio) -> setter.accept(alvo, (int) conversor.lerLong(dados, inicio));
+		}
+		if(tipo == long.class) {
+			ObjLongConsumer<Object> setter = gerarSetter(atributo, ObjLongConsumer.class, long.class);
+			return (alvo, dados, inicio) -> setter.accept(alvo, conversor.lerLong(dados, inicio));
+		}
+		if(tipo == double.class) {
+			ObjDoubleConsumer<Object> setter = gerarSetter(atributo, ObjDoubleConsumer.class, double.class);
+			return (alvo, dados, inicio) -> setter.accept(alvo, conversor.lerDouble(dados, inicio));
+		}
+		Leitura leitura = criarLeitura(tipo, conversor);
+		if(leitura == null) throw tipoNaoSuportado(atributo.getName(), tipo);
+		BiConsumer<Object, Object> setter = gerarSetter(atributo, BiConsumer.class, Object.class);
+		return (alvo, dados, inicio) -> setter.accept(alvo, leitura.ler(dados, inicio));
+	}
+
+	private static Leitura criarLeitura(Class<?> tipo, ConversorDeColuna c) {
+		if(tipo == String.class) return c::lerString;
+		if(tipo == int.class) return (d, i) -> (int) c.lerLong(d, i);
+		if(tipo == long.class) return c::lerLong;
+		if(tipo == double.class) return c::lerDouble;
+		if(tipo == float.class) return (d, i) -> (float) c.lerDouble(d, i);
+		if(tipo == short.class) return (d, i) -> (short) c.lerLong(d, i);
+		if(tipo == byte.class) return (d, i) -> (byte) c.lerLong(d, i);
+		if(tipo == boolean.class) return c::lerBoolean;
+		if(tipo == char.class) return (d, i) -> primeiroCaracter(c.lerString(d, i), '\0');
+		if(tipo == Integer.class) return (d, i) -> c.isVazio(d, i) ? null : (Integer) (int) c.lerLong(d, i);
+		if(tipo == Long.class) return (d, i) -> c.isVazio(d, i) ? null : (Long) c.lerLong(d, i);
+		if(tipo == Double.class) return (d, i) -> c.isVazio(d, i) ? null : (Double) c.lerDouble(d, i);
+		if(tipo == Float.class) return (d, i) -> c.isVazio(d, i) ? null : (Float) (float) c.lerDouble(d, i);
+		if(tipo == Short.class) return (d, i) -> c.isVazio(d, i) ? null : (Short) (short) c.lerLong(d, i);
+		if(tipo == Byte.class) return (d, i) -> c.isVazio(d, i) ? null : (Byte) (byte) c.lerLong(d, i);
+		if(tipo == Boolean.class) return (d, i) -> c.isVazio(d, i) ? null : (Boolean) c.lerBoolean(d, i);
+		if(tipo == Character.class) return (d, i) -> c.isVazio(d, i) ? null : (Character) primeiroCaracter(c.lerString(d, i), '\0');
+		if(tipo == BigDecimal.class) return c::lerBigDecimal;
+		if(tipo == LocalDate.class) return c::lerData;
+		if(tipo == LocalDateTime.class) return c::lerDataHora;
+		if(tipo == Date.class) return c::lerDate;
+		if(tipo == Object.class) return c::lerObjeto;
+		return null;
+	}
+
+	private static char primeiroCaracter(String texto, char padrao) {
+		return texto == null || texto.isEmpty() ? padrao : texto.charAt(0);
+	}
+
+	/**
+	 * <p>
+	 * 	Gera a implementao da interface funcional que atribui o valor ao atributo. O setter pblico  chamado por uma classe gerada com
+	 * 	{@link LambdaMetafactory}, que a JVM otimiza como uma chamada direta.
+	 * </p>
+	 * <p>
+	 * 	Quando o atributo no tem setter pblico ou a classe no  visvel para o class loader do mapeador, o valor  atribudo por um {@link MethodHandle}.
+	 * </p>
+	 */
+	@SuppressWarnings("unchecked")
+	private static <I> I gerarSetter(Field atributo, Class<?> interfaceFuncional, Class<?> tipoDoValor) throws CampoDbfIlegalException {
+		Class<?> classe = atributo.getDeclaringClass();
+		Method setter = getSetter(atributo);
+		if(setter != null && isVisivel(classe)) {
+			try {
+				Class<?> tipoDoAtributo = tipoDoValor == Object.class ? paraClasse(atributo.getType()) : tipoDoValor;
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(interfaceFuncional),
+						MethodType.methodType(void.class, Object.class, tipoDoValor), LOOKUP.unreflect(setter),
+						MethodType.methodType(void.class, classe, tipoDoAtributo));
+				return (I) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// Utiliza o MethodHandle abaixo
+			}
+		}
+
+		MethodHandle atribuicao;
+		try {
+			if(setter != null) {
+				atribuicao = LOOKUP.unreflect(setter);
+			}
+			else {
+				atributo.setAccessible(true);
+				atribuicao = LOOKUP.unreflectSetter(atributo);
+			}
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new CampoDbfIlegalException("O atributo " + atributo.getName() + " da classe " + classe.getName() + " no pode ser acessado.", e);
+		}
+		MethodHandle mh = atribuicao.asType(MethodType.methodType(void.class, Object.class, tipoDoValor));
+		if(interfaceFuncional == ObjIntConsumer.class) {
+			return (I) (ObjIntConsumer<Object>) (alvo, valor) -> {
+				try {
+					mh.invokeExact(alvo, valor);
+				} catch (Throwable e) {
+					throw falhaNaAtribuicao(atributo, e);
+				}
+			};
+		}
+		if(interfaceFuncional == ObjLongConsumer.class) {
+			return (I) (ObjLongConsumer<Object>) (alvo, valor) -> {
+				try {
+					mh.invokeExact(alvo, valor);
+				} catch (Throwable e) {
+					throw falhaNaAtribuicao(atributo, e);
+				}
+			};
+		}
+		if(interfaceFuncional == ObjDoubleConsumer.class) {
+			return (I) (ObjDoubleConsumer<Object>) (alvo, valor) -> {
+				try {
+					mh.invokeExact(alvo, valor);
+				} catch (Throwable e) {
+					throw falhaNaAtribuicao(atributo, e);
+				}
+			};
+		}
+		return (I) (BiConsumer<Object, Object>) (alvo, valor) -> {
+			try {
+				mh.invokeExact(alvo, valor);
+			} catch (Throwable e) {
+				throw falhaNaAtribuicao(atributo, e);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Supplier<Object> criarConstrutor(Class<?> classe) {
+		Constructor<?> construtor;
+		try {
+			construtor = classe.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("A classe " + classe.getName() + " no possui um construtor sem parmetros.", e);
+		}
+		if(Modifier.isAbstract(classe.getModifiers())) throw new IllegalArgumentException("A classe " + classe.getName() + "  abstrata.");
+		if(Modifier.isPublic(construtor.getModifiers()) && isVisivel(classe)) {
+			try {
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+						LOOKUP.unreflectConstructor(construtor), MethodType.methodType(classe));
+				return (Supplier<Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// Utiliza o MethodHandle abaixo
+			}
+		}
+		MethodHandle mh;
+		try {
+			construtor.setAccessible(true);
+			mh = LOOKUP.unreflectConstructor(construtor).asType(MethodType.methodType(Object.class));
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new IllegalArgumentException("O construtor da classe " + classe.getName() + " no pode ser acessado.", e);
+		}
+		return () -> {
+			try {
+				return (Object) mh.invokeExact();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Falha na criao de " + classe.getName() + ".", e);
+			}
+		};
+	}
+
+	/**
+	 * O setter pblico do atributo: <code>setNome</code>, com um nico parmetro do mesmo tipo do atributo.
+	 */
+	private static Method getSetter(Field atributo) {
+		String nome = atributo.getName();
+		String nomeDoSetter = "set" + Character.toUpperCase(nome.charAt(0)) + nome.substring(1);
+		try {
+			Method setter = atributo.getDeclaringClass().getMethod(nomeDoSetter, atributo.getType());
+			return Modifier.isStatic(setter.getModifiers()) ? null : setter;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Indica se a classe  pblica, assim como as classes que a contm, e se  a mesma vista pelo class loader do mapeador. As classes geradas pelo
+	 * {@link LambdaMetafactory} so definidas nesse class loader e s podem chamar classes visveis para ele.
+	 */
+	private static boolean isVisivel(Class<?> classe) {
+		for(Class<?> c = classe; c != null; c = c.getEnclosingClass()) {
+			if(!Modifier.isPublic(c.getModifiers())) return false;
+		}
+		try {
+			return Class.forName(classe.getName(), false, MapeadorDbf.class.getClassLoader()) == classe;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	private static Class<?> paraClasse(Class<?> tipo) {
+		if(!tipo.isPrimitive()) return tipo;
+		if(tipo == boolean.class) return Boolean.class;
+		if(tipo == char.class) return Character.class;
+		if(tipo == byte.class) return Byte.class;
+		if(tipo == short.class) return Short.class;
+		if(tipo == int.class) return Integer.class;
+		if(tipo == long.class) return Long.class;
+		if(tipo == float.class) return Float.class;
+		return Double.class;
+	}
+
+	/**
+	 * O ndice do campo, sem diferenciar maisculas de minsculas.
+	 * @param obrigatorio Indica se a ausncia do campo  um erro, como nos campos de {@link ColunaDbf}.
+	 */
+	private static int getIndiceDoCampo(CabecalhoDbf cabecalho, String nome, boolean obrigatorio) throws CampoDbfIlegalException {
+		CampoDbf[] campos = cabecalho.getCampos();
+		for(int i = 0; i < campos.length; i++) {
+			if(campos[i].getNome().trim().equalsIgnoreCase(nome)) return i;
+		}
+		if(obrigatorio) throw new CampoDbfIlegalException("O campo " + nome + " no existe no arquivo.");
+		return -1;
+	}
+
+	/**
+	 * A anotao de um componente de record, que  copiada para o atributo privado de mesmo nome.
+	 */
+	private static ColunaDbf getAnotacao(Class<?> record, String componente) {
+		try {
+			return record.getDeclaredField(componente).getAnnotation(ColunaDbf.class);
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	private static boolean isRecord(Class<?> classe) {
+		if(IS_RECORD == null) return false;
+		Boolean record = invocar(IS_RECORD, classe);
+		return record;
+	}
+
+	private static Method getMetodo(Class<?> classe, String nome) {
+		try {
+			return classe.getMethod(nome);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <R> R invocar(Method metodo, Object alvo) {
+		try {
+			metodo.setAccessible(true);
+			return (R) metodo.invoke(alvo);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			throw new IllegalArgumentException("No foi possvel ler a estrutura de " + alvo + ".", e);
+		}
+	}
+
+	private static int[] paraArray(List<Integer> lista) {
+		int[] array = new int[lista.size()];
+		for(int i = 0; i < array.length; i++) {
+			array[i] = lista.get(i);
+		}
+		return array;
+	}
+
+	private static CampoDbfIlegalException tipoNaoSuportado(String atributo, Class<?> tipo) {
+		return new CampoDbfIlegalException("O tipo " + tipo.getName() + " do atributo " + atributo + " no  suportado.");
+	}
+
+	private static RuntimeException falhaNaAtribuicao(Field atributo, Throwable causa) {
+		if(causa instanceof RuntimeException) return (RuntimeException) causa;
+		if(causa instanceof Error) throw (Error) causa;
+		return new IllegalStateException("Falha na atribuio do atributo " + atributo.getName() + ".", causa);
+	}
+}
@@ -1,11 +1,23 @@
 package io.github.deynne.dbf.model;
 
 import java.util.List;
+import java.util.Set;
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+
+import io.github.deynne.dbf.exceptions.ErroDeLeitura;
+import io.github.deynne.dbf.exceptions.TratadorDeErros;
+import io.github.deynne.dbf.util.HashDeBytes;
 /**
  * O cabecalho do arquivo dbf sendo lido
  * @author Deynne Silva
@@ -40,8 +52,11 @@ public class CabecalhoDbf {
 	
 	
 	private String [] nome_campos;
+	// Os nomes sem os espaos, calculados uma nica vez para as buscas por nome
+	private String [] nomesSemEspacos;
 	private static final byte tamanhoCampo = 32;
 	public static final byte caracterDeTermino = 0x0D; // caracter de termino do array de campo
+	public static final byte caracterDeFimDeArquivo = 0x1A; // caracter que segue o ltimo registro
 	
 	/**
 	 * Contrutor basico do cabecalho.
@@ -54,72 +69,164 @@ public class CabecalhoDbf {
 	 * O padro de montagem do cabealho  feito seguindo o formato definido para os arquivos dbf.
 	 * @param dbfStream O Stream do arquivo dbf sendo lido.
 	 * @param charset O charset utilizado para criar a string do nome dos campos
+	 * @see #buildCabecalho(DataInputStream, Charset, TratadorDeErros)
 	 */
 	public void buildCabecalho(DataInputStream dbfStream, Charset charset) {
+		buildCabecalho(dbfStream, charset, TratadorDeErros.IMPRIMIR);
+	}
+	
+	/**
+	 * Monta o cabealho a partir do stream, informando as falhas de leitura a um {@link TratadorDeErros} como {@link ErroDeLeitura#CABECALHO_INVALIDO}.
+	 * @param dbfStream O Stream do arquivo dbf sendo lido.
+	 * @param charset O charset utilizado para criar a string do nome dos campos
+	 * @param tratador O {@link TratadorDeErros} que receber as falhas de leitura.
+	 */
+	public void buildCabecalho(DataInputStream dbfStream, Charset charset, TratadorDeErros tratador) {
 		if(dbfStream == null) return;
 		
+		byte[] bytes = new byte[CabecalhoDbf.tamanhoCampo];
+		int lidos = 0;
 		try {
-			tipoDeDbf = dbfStream.readByte();
-			ano = dbfStream.readByte();
-			mes = dbfStream.readByte();
-			dia = dbfStream.readByte();
-			
-			// reverte por que precisa converter de little endian pra big endian
-			numeroDeRegistros = Integer.reverseBytes(dbfStream.readInt()); 
-			tamanhoHeader = Short.reverseBytes(dbfStream.readShort());
-			tamanhoDoRegistro = Short.reverseBytes(dbfStream.readShort());
-			
-			this.nome_campos = new String[(tamanhoHeader-CabecalhoDbf.tamanhoCampo)/CabecalhoDbf.tamanhoCampo]; // Cada campo tem 32 bytes
-			int i = 0;
-			
-			for(i = 0; i < reservado1.length;i++) {
-				reservado1[i] = dbfStream.readByte();
-			}
-			
-			flagDeTransacao = dbfStream.readByte();
-			flagEncriptacao = dbfStream.readByte();
-			
-			for(i = 0; i < reservadoDOS.length;i++) {
-				reservadoDOS[i] = dbfStream.readByte();
-			}
-			
-			flagMdx = dbfStream.readByte();
-			idDriverDeLinguagem = dbfStream.readByte();
-			
-			for(i = 0; i < reservado2.length;i++) {
-				reservado2[i] = dbfStream.readByte();
+			dbfStream.readFully(bytes);
+			// O tamanho do cabealho (bytes 8-9) indica quantos bytes ainda pertencem a ele. Nenhum byte alm dele  consumido do stream
+			int tamanho = Math.max((bytes[8] & 0xFF) | (bytes[9] & 0xFF) << 8, CabecalhoDbf.tamanhoCampo);
+			bytes = Arrays.copyOf(bytes, tamanho);
+			lidos = CabecalhoDbf.tamanhoCampo;
+			while(lidos < tamanho) {
+				int n = dbfStream.read(bytes, lidos, tamanho - lidos);
+				if(n < 0) break;
+				lidos += n;
 			}
-			// Cada campo tem 32 bytes e o tamanho do header  em bytes
-			instanciaCampos(dbfStream, charset);
-			dbfStream.readByte(); // caracter de termino
-//			dbfStream.readShort()
 		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			tratador.tratar(ErroDeLeitura.CABECALHO_INVALIDO, -1, -1, null, e);
+			return;
 		}
+		buildCabecalho(ByteBuffer.wrap(bytes, 0, lidos), charset, tratador);
+	}
+	
+	/**
+	 * <p>
+	 * 	Monta o cabealho a partir dos bytes j lidos do arquivo, decodificando os 32 bytes iniciais e os descritores dos campos diretamente do buffer.
+	 * </p>
+	 * <p>
+	 * 	O buffer deve conter o cabealho a partir da sua posio atual, que no  alterada. Caso ele termine antes do caracter de trmino ou do tamanho
+	 * 	indicado no cabealho, os campos lidos at ento so mantidos e a falha  informada ao {@link TratadorDeErros} como
+	 * 	{@link ErroDeLeitura#CABECALHO_INVALIDO}.
+	 * </p>
+	 * @param bytes O {@link ByteBuffer} com os bytes do cabealho.
+	 * @param charset O charset utilizado para criar a string do nome dos campos
+	 * @param tratador O {@link TratadorDeErros} que receber as falhas de leitura.
+	 */
+	public void buildCabecalho(ByteBuffer bytes, Charset charset, TratadorDeErros tratador) {
+		if(bytes == null) return;
 		
+		// dbf usa little endian, a ordem  definida no buffer para no precisar reverter os bytes
+		ByteBuffer buffer = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			tipoDeDbf = buffer.get();
+			ano = buffer.get();
+			mes = buffer.get();
+			dia = buffer.get();
+			numeroDeRegistros = buffer.getInt();
+			tamanhoHeader = buffer.getShort();
+			tamanhoDoRegistro = buffer.getShort();
+			buffer.get(reservado1);
+			flagDeTransacao = buffer.get();
+			flagEncriptacao = buffer.get();
+			buffer.get(reservadoDOS);
+			flagMdx = buffer.get();
+			idDriverDeLinguagem = buffer.get();
+			buffer.get(reservado2);
+			instanciaCampos(buffer, charset);
+		} catch (BufferUnderflowException e) {
+			tratador.tratar(ErroDeLeitura.CABECALHO_INVALIDO, -1, -1, null, new EOFException("O cabealho terminou aps " + buffer.position() + " bytes."));
+		}
 	}
 	
 	
 	/**
-	 * Realiza a instncia dos campos presentes dentro do dbf.
-	 * @param dbfStream A stream do dbf sendo lido.
+	 * Realiza a instncia dos campos presentes dentro do dbf. Os campos terminam no caracter de trmino, que nos arquivos do Visual FoxPro vem antes do fim
+	 * do espao do cabealho, ou quando o espao do cabealho acaba.
+	 * @param buffer O buffer do cabealho, posicionado no primeiro descritor.
+	 * @throws BufferUnderflowException Caso o buffer termine no meio de um descritor. Os campos lidos at ento so mantidos.
 	 */
-	private void instanciaCampos(DataInputStream dbfStream,Charset charset) {
+	private void instanciaCampos(ByteBuffer buffer, Charset charset) {
 		List<CampoDbf> listaDeCampos = new ArrayList<CampoDbf>();
+		// Cada campo tem 32 bytes e o tamanho do header  em bytes
+		int maximo = ((tamanhoHeader & 0xFFFF) - CabecalhoDbf.tamanhoCampo) / CabecalhoDbf.tamanhoCampo;
+		// O primeiro byte do registro  a flag de deleo
+		int deslocamento = 1;
+		try {
+			while(listaDeCampos.size() < maximo) {
+				CampoDbf campo = CampoDbf.buildCampo(buffer, charset);
+				if(campo == null) break;
+				campo.setDeslocamento(deslocamento);
+				deslocamento += campo.getTamanhoDoCampo() & 0xFF;
+				listaDeCampos.add(campo);
+			}
+		} finally {
+			this.campos = listaDeCampos.toArray(new CampoDbf[listaDeCampos.size()]);
+			this.nome_campos = new String[campos.length];
+			this.nomesSemEspacos = new String[campos.length];
+			for(int i = 0; i < campos.length; i++) {
+				this.nome_campos[i] = campos[i].getNome();
+				this.nomesSemEspacos[i] = nome_campos[i].trim();
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * 	Monta o cabealho no formato em que ele  gravado no arquivo dbf, incluindo os descritores dos campos e o caracter de trmino.
+	 * </p>
+	 * <p>
+	 * 	Bytes que existam entre o caracter de trmino e o fim do cabealho (como o backlink do Visual FoxPro) no so mantidos na leitura e so preenchidos com 0.
+	 * </p>
+	 * @return Um <b>byte</b>[ ] com {@link #getTamanhoHeader()} bytes.
+	 */
+	public byte[] getBytes() {
+		return montarBytes(campos, numeroDeRegistros, tamanhoHeader, tamanhoDoRegistro);
+	}
+	
+	/**
+	 * <p>
+	 * 	Cria o cabealho de um novo arquivo com a mesma verso e flags deste, contendo apenas os campos informados, na ordem informada. Os campos podem vir
+	 * 	de outros cabealhos, e seus deslocamentos so recalculados para o novo registro.
+	 * </p>
+	 * <p>
+	 * 	O novo cabealho no tem registros.  utilizado com o {@link io.github.deynne.dbf.EscritorDbf} para gravar projees dos registros.
+	 * </p>
+	 * @param camposDaProjecao Os campos do novo cabealho.
+	 * @return Um novo {@link CabecalhoDbf}.
+	 * @throws IllegalArgumentException Caso nenhum campo seja informado, algum nome se repita ou o registro ultrapasse o tamanho mximo.
+	 */
+	public CabecalhoDbf projetar(CampoDbf... camposDaProjecao) {
+		if(camposDaProjecao == null || camposDaProjecao.length == 0) throw new IllegalArgumentException(" necessrio informar ao menos um campo para a projeo.");
+		Set<String> nomes = new HashSet<>();
+		int tamanho = 1;
+		for(CampoDbf campo : camposDaProjecao) {
+			if(!nomes.add(campo.getNome().trim())) throw new IllegalArgumentException("O campo " + campo.getNome().trim() + " aparece mais de uma vez na projeo.");
+			tamanho += campo.getTamanhoDoCampo() & 0xFF;
+		}
+		if(tamanho > 0xFFFF) throw new IllegalArgumentException("O registro da projeo teria " + tamanho + " bytes, mas o dbf suporta no mximo " + 0xFFFF + ".");
 		
-		final int tamanhoDoCampo = CabecalhoDbf.tamanhoCampo;
-		int lendo = tamanhoDoCampo; 
-		int i = 0;
-		while(lendo <= this.tamanhoHeader - tamanhoDoCampo) {
-			CampoDbf campo = CampoDbf.buildCampo(dbfStream, charset);
-			
-			listaDeCampos.add(campo);
-			this.nome_campos[i++] = campo.getNome();
-			
-			lendo += tamanhoDoCampo;
+		byte[] bytes = montarBytes(camposDaProjecao, 0, (short) (CabecalhoDbf.tamanhoCampo * (camposDaProjecao.length + 1) + 1), (short) tamanho);
+		CabecalhoDbf projecao = new CabecalhoDbf();
+		projecao.buildCabecalho(new DataInputStream(new ByteArrayInputStream(bytes)), camposDaProjecao[0].getCharSet());
+		return projecao;
+	}
+	
+	private byte[] montarBytes(CampoDbf[] descritores, int registros, short tamanhoDoCabecalho, short tamanhoDosRegistros) {
+		ByteBuffer buffer = ByteBuffer.allocate(tamanhoDoCabecalho & 0xFFFF).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(tipoDeDbf).put(ano).put(mes).put(dia);
+		buffer.putInt(registros).putShort(tamanhoDoCabecalho).putShort(tamanhoDosRegistros);
+		buffer.put(reservado1).put(flagDeTransacao).put(flagEncriptacao).put(reservadoDOS);
+		buffer.put(flagMdx).put(idDriverDeLinguagem).put(reservado2);
+		for(CampoDbf campo : descritores) {
+			buffer.put(campo.getBytes());
 		}
-		this.campos = listaDeCampos.toArray(new CampoDbf[listaDeCampos.size()]);
+		buffer.put(caracterDeTermino);
+		return buffer.array();
 	}
 
 	/**
@@ -221,6 +328,61 @@ public class CabecalhoDbf {
 		return this.campos.length;
 	}
 	
+	/**
+	 * Verifica se dois cabealhos possuem a mesma estrutura de registro, ou seja, os mesmos campos na mesma ordem segundo {@link CampoDbf#isCompativel(CampoDbf)}.
+	 * @param outro O {@link CabecalhoDbf} a ser comparado.
+	 * @return <b>true</b> caso os registros dos dois arquivos tenham o mesmo layout.
+	 */
+	public boolean isMesmoLayout(CabecalhoDbf outro) {
+		if(outro == null || outro.campos.length != campos.length || outro.tamanhoDoRegistro != tamanhoDoRegistro) return false;
+		for(int i = 0; i < campos.length; i++) {
+			if(!campos[i].isCompativel(outro.campos[i])) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * <p>
+	 * 	Uma impresso digital do cabealho, calculada sobre os bytes de {@link #getBytes()}. Alm da estrutura dos campos, inclui a quantidade de registros
+	 * 	e a data da ltima atualizao, ento muda quando o arquivo  alterado por um programa que atualiza o cabealho.
+	 * </p>
+	 * <p>
+	 * 	 utilizada para verificar se os arquivos auxiliares gerados a partir do dbf, como as estatsticas, ainda correspondem a ele.
+	 * </p>
+	 * @return Um <b>long</b> com o hash do cabealho.
+	 */
+	public long getImpressaoDigital() {
+		byte[] bytes = getBytes();
+		return HashDeBytes.hash(bytes, 0, bytes.length);
+	}
+	
+	/**
+	 * <p>
+	 * 	Uma impresso digital apenas da estrutura dos registros: o nome, o tipo, o tamanho e as casas decimais de cada campo, na ordem do arquivo.
+	 * </p>
+	 * <p>
+	 * 	Ao contrrio de {@link #getImpressaoDigital()}, no muda com a quantidade de registros ou a data da ltima atualizao. Cabealhos com o mesmo
+	 * 	layout segundo {@link #isMesmoLayout(CabecalhoDbf)} tm a mesma impresso digital, e  utilizada para agrupar arquivos com o mesmo layout sem
+	 * 	compar-los dois a dois.
+	 * </p>
+	 * @return Um <b>long</b> com o hash do layout.
+	 */
+	public long getImpressaoDigitalDoLayout() {
+		long hash = HashDeBytes.INICIO;
+		byte[] descritor = new byte[4];
+		for(CampoDbf campo : campos) {
+			byte[] nome = campo.getNome().trim().getBytes(StandardCharsets.UTF_8);
+			hash = HashDeBytes.adicionar(hash, nome, 0, nome.length);
+			// Um separador antes do tipo, para que os nomes no se confundam com os descritores
+			byte[] bytes = campo.getBytes();
+			descritor[1] = bytes[11];
+			descritor[2] = bytes[16];
+			descritor[3] = bytes[17];
+			hash = HashDeBytes.adicionar(hash, descritor, 0, descritor.length);
+		}
+		return HashDeBytes.finalizar(hash);
+	}
+	
 	/**
 	 * <p>
 	 *   Retorna o indice de um campo de acordo com parte do nome dele.
@@ -232,17 +394,24 @@ public class CabecalhoDbf {
 	 * @return O indice do campo buscado ou -1 se nenhum campo for encontrado
 	 */
 	public int getIdByNome(String nomeCampo) {
-		for(int i = 0, j = this.nome_campos.length - 1; i <= this.nome_campos.length/2;i++,j--) {
-			if(this.nome_campos[i].trim().equals(nomeCampo)) {
+		for(int i = 0, j = this.nomesSemEspacos.length - 1; i <= this.nomesSemEspacos.length/2;i++,j--) {
+			if(this.nomesSemEspacos[i].equals(nomeCampo)) {
 				return i;
 			}
-			else if(this.nome_campos[j].trim().equals(nomeCampo)) {
+			else if(this.nomesSemEspacos[j].equals(nomeCampo)) {
 				return j;
 			}
 		}
 		return -1;
 	}
 	
+	/**
+	 * Os nomes dos campos sem os espaos, na ordem dos campos. O array  compartilhado e no deve ser alterado.
+	 */
+	String[] getNomesSemEspacos() {
+		return nomesSemEspacos;
+	}
+	
 	/**
 	 * O nome do campo de acordo com o indice
 	 * @param indice o indice do campo.
@@ -1,11 +1,14 @@
 package io.github.deynne.dbf.model;
 
+import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 
+import io.github.deynne.dbf.util.DecodificadorDbf;
 import io.github.deynne.dbf.util.TiposDbf;
 
 /**
@@ -108,6 +111,18 @@ public class Campo {
 	 * 	{@link Integer} caso seja do tipo {@link TiposDbf#NUMERICO}
 	 * </p>
 	 * <p>
+	 * 	{@link Integer} caso seja do tipo {@link TiposDbf#INTEIRO} ou {@link TiposDbf#AUTOINCREMENTO}
+	 * </p>
+	 * <p>
+	 * 	{@link Double} caso seja do tipo {@link TiposDbf#DUPLO} ou {@link TiposDbf#DUPLO_DBASE}
+	 * </p>
+	 * <p>
+	 * 	{@link BigDecimal} com 4 casas decimais caso seja do tipo {@link TiposDbf#MOEDA}
+	 * </p>
+	 * <p>
+	 * 	{@link Date} caso seja do tipo {@link TiposDbf#DATA_HORA} ou {@link TiposDbf#DATA_HORA_DBASE}, ou <b>null</b> caso o campo esteja vazio
+	 * </p>
+	 * <p>
 	 * 	<b>null</b> caso no seja de nenhum tipo definido.
 	 * </p>
 	 */
@@ -139,6 +154,26 @@ public class Campo {
 			return new String(valor,charset).trim();
 		case NUMERICO:
 			return new Integer(Integer.parseInt(new String(valor,charset).trim()));
+		case INTEIRO:
+			return Integer.valueOf(DecodificadorDbf.lerInteiroBinario(valor, 0));
+		case AUTOINCREMENTO:
+			return Integer.valueOf(DecodificadorDbf.lerInteiroDBase(valor, 0));
+		case DUPLO:
+			return Double.valueOf(DecodificadorDbf.lerDoubleBinario(valor, 0));
+		case DUPLO_DBASE:
+			return Double.valueOf(DecodificadorDbf.lerDoubleDBase(valor, 0));
+		case MOEDA:
+			return BigDecimal.valueOf(DecodificadorDbf.lerLongBinario(valor, 0), 4);
+		case DATA_HORA:
+		case DATA_HORA_DBASE:
+			long dataHora = DecodificadorDbf.lerDataHora(valor, 0, tipo == TiposDbf.DATA_HORA_DBASE);
+			if(dataHora == DecodificadorDbf.DATA_HORA_VAZIA) return null;
+			int data = DecodificadorDbf.getData(dataHora);
+			
+			// A data e a hora no tm fuso horrio e so interpretadas no fuso local, como as datas do tipo D
+			Calendar calendario = new GregorianCalendar(data / 10000, data / 100 % 100 - 1, data % 100);
+			calendario.add(Calendar.MILLISECOND, DecodificadorDbf.getMilissegundosDoDia(dataHora));
+			return calendario.getTime();
 			
 		default:
 			return null;
@@ -170,6 +205,18 @@ public class Campo {
 	 * 	{@link Integer} caso seja do tipo {@link TiposDbf#NUMERICO}
 	 * </p>
 	 * <p>
+	 * 	{@link Integer} caso seja do tipo {@link TiposDbf#INTEIRO} ou {@link TiposDbf#AUTOINCREMENTO}
+	 * </p>
+	 * <p>
+	 * 	{@link Double} caso seja do tipo {@link TiposDbf#DUPLO} ou {@link TiposDbf#DUPLO_DBASE}
+	 * </p>
+	 * <p>
+	 * 	{@link BigDecimal} com 4 casas decimais caso seja do tipo {@link TiposDbf#MOEDA}
+	 * </p>
+	 * <p>
+	 * 	{@link Date} caso seja do tipo {@link TiposDbf#DATA_HORA} ou {@link TiposDbf#DATA_HORA_DBASE}, ou <b>null</b> caso o campo esteja vazio
+	 * </p>
+	 * <p>
 	 * 	<b>null</b> caso no seja de nenhum tipo definido.
 	 * </p>
 	 */
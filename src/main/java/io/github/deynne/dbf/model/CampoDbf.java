@@ -2,9 +2,13 @@ package io.github.deynne.dbf.model;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
+import io.github.deynne.dbf.exceptions.ErroDeLeitura;
+import io.github.deynne.dbf.exceptions.TratadorDeErros;
 import io.github.deynne.dbf.util.TiposDbf;
 
 /**
@@ -29,6 +33,11 @@ public class CampoDbf {
 	private byte reservado2[] = new byte[10]; // byte 21-30
 	private byte flagMdx; // byte 31
 	
+	// Tipo resolvido a partir da letra e do tamanho, calculado uma nica vez
+	private TiposDbf tipoResolvido;
+	
+	// Posio do campo dentro do registro. No faz parte do descritor,  calculada a partir dos campos anteriores.
+	private int deslocamento;
 
 	/**
 	 * Construtor basico do campo.
@@ -54,52 +63,82 @@ public class CampoDbf {
 	 * @param dbfStream Stream do arquivo dbf sendo processado
 	 * @param charset o {@link Charset} utilizado para ler os dados como String.
 	 * @return uma instncia de {@link CampoDbf} preenchida com os dados do campo lido
+	 * @see #buildCampo(DataInputStream, Charset, TratadorDeErros)
 	 */
 	public static CampoDbf buildCampo(DataInputStream dbfStream, Charset charset) {
+		return buildCampo(dbfStream, charset, TratadorDeErros.IMPRIMIR);
+	}
+	
+	/**
+	 * Monta o campo a partir do stream, informando as falhas de leitura a um {@link TratadorDeErros} como {@link ErroDeLeitura#CABECALHO_INVALIDO}.
+	 * @param dbfStream Stream do arquivo dbf sendo processado
+	 * @param charset o {@link Charset} utilizado para ler os dados como String.
+	 * @param tratador O {@link TratadorDeErros} que receber as falhas de leitura.
+	 * @return uma instncia de {@link CampoDbf} preenchida com os dados do campo lido ou <b>null</b> caso ocorra uma falha ou o caracter de trmino seja encontrado.
+	 */
+	public static CampoDbf buildCampo(DataInputStream dbfStream, Charset charset, TratadorDeErros tratador) {
 		try {
-			
-			byte byteTemporario = dbfStream.readByte();
+			byte[] descritor = new byte[32];
+			descritor[0] = dbfStream.readByte();
 			// Se o caracter sendo lido  o caracter de termino, chegamos ao fim do arquivo.
-			if(byteTemporario == (byte) CabecalhoDbf.caracterDeTermino) return null;
-			CampoDbf campo = new CampoDbf();
-			campo.setCharSet(charset);
-			
-			// Ja lemos o primeiro caracter do nome para verificar se no era fim do arquivo.
-			// Tendo verificado que no era readicionamos este caracter ao campo de nome
-			// O get retorna o array que conter o nome (j instanciado)
-			byte[] tempByteArray = campo.getNomeAsByte();
-
-			dbfStream.readFully(tempByteArray, 1, 10);
-			tempByteArray[0] = byteTemporario;
-
-			campo.setTipo(dbfStream.readByte());
-			
-			tempByteArray = campo.getReservado1();
-			dbfStream.readFully(tempByteArray, 0, 4);
-			
-			campo.setTamanhoDoCampo(dbfStream.readByte());
-			
-			campo.setContagemDecimal(dbfStream.readByte());
-			
-			tempByteArray = campo.getIdAreaDeTrabalho();
-			dbfStream.readFully(tempByteArray,0,2);
-			
-			campo.setExemplo(dbfStream.readByte());
-			
-			tempByteArray = campo.getReservado2();
-			dbfStream.readFully(tempByteArray,0,10);
-			
-			campo.setFlagMdx(dbfStream.readByte());
-			
-			return campo;
+			if(descritor[0] == CabecalhoDbf.caracterDeTermino) return null;
+			dbfStream.readFully(descritor, 1, 31);
+			return buildCampo(ByteBuffer.wrap(descritor), charset);
 		} catch (IOException e) {
-			e.printStackTrace();
+			tratador.tratar(ErroDeLeitura.CABECALHO_INVALIDO, -1, -1, null, e);
 		}
 		
 		return null;
 		
 	}
 	
+	/**
+	 * Monta o campo a partir dos 32 bytes do descritor, a partir da posio atual do buffer, que  avanada.
+	 * @param descritor O {@link ByteBuffer} contendo o descritor do campo.
+	 * @param charset o {@link Charset} utilizado para ler os dados como String.
+	 * @return uma instncia de {@link CampoDbf} preenchida com os dados do campo lido ou <b>null</b> caso o caracter de trmino seja encontrado, que tambm
+	 *  consumido.
+	 * @throws BufferUnderflowException Caso o buffer termine antes do fim do descritor.
+	 */
+	public static CampoDbf buildCampo(ByteBuffer descritor, Charset charset) {
+		if(!descritor.hasRemaining()) throw new BufferUnderflowException();
+		if(descritor.get(descritor.position()) == CabecalhoDbf.caracterDeTermino) {
+			descritor.get();
+			return null;
+		}
+		if(descritor.remaining() < 32) throw new BufferUnderflowException();
+		CampoDbf campo = new CampoDbf();
+		campo.setCharSet(charset);
+		descritor.get(campo.nome);
+		campo.setTipo(descritor.get());
+		descritor.get(campo.reservado1);
+		campo.setTamanhoDoCampo(descritor.get());
+		campo.setContagemDecimal(descritor.get());
+		descritor.get(campo.idAreaDeTrabalho);
+		campo.setExemplo(descritor.get());
+		descritor.get(campo.reservado2);
+		campo.setFlagMdx(descritor.get());
+		return campo;
+	}
+	
+	/**
+	 * O descritor do campo no formato em que ele  gravado no cabealho do arquivo dbf.
+	 * @return Um <b>byte</b>[ ] com os 32 bytes do descritor.
+	 */
+	public byte[] getBytes() {
+		byte[] bytes = new byte[32];
+		System.arraycopy(nome, 0, bytes, 0, 11);
+		bytes[11] = tipo;
+		System.arraycopy(reservado1, 0, bytes, 12, 4);
+		bytes[16] = tamanhoDoCampo;
+		bytes[17] = contagemDecimal;
+		System.arraycopy(idAreaDeTrabalho, 0, bytes, 18, 2);
+		bytes[20] = exemplo;
+		System.arraycopy(reservado2, 0, bytes, 21, 10);
+		bytes[31] = flagMdx;
+		return bytes;
+	}
+	
 	/**
 	 * Para quem deseja trabalhar com o nome no formato original
 	 * @return um <b>byte[ ]</b> representando o nome do campo.
@@ -113,11 +152,20 @@ public class CampoDbf {
 	 * @return Um {@link TiposDbf} representando o tipo presente no campo.
 	 */
 	public TiposDbf getTipo() {
-		return TiposDbf.encontrarPorValor(tipo);
+		return tipoResolvido;
 	}
 
 	private void setTipo(byte tipo) {
 		this.tipo = tipo;
+		resolverTipo();
+	}
+	
+	/**
+	 * Resolve o tipo pela letra. O 'B' do dBase 5  uma referncia a memo de 10 bytes, enquanto o do Visual FoxPro  um double de 8 bytes.
+	 */
+	private void resolverTipo() {
+		tipoResolvido = TiposDbf.encontrarPorValor(tipo);
+		if(tipoResolvido == TiposDbf.DUPLO && (tamanhoDoCampo & 0xFF) != 8) tipoResolvido = TiposDbf.MEMO;
 	}
 
 	public byte[] getReservado1() {
@@ -135,6 +183,7 @@ public class CampoDbf {
 	
 	private void setTamanhoDoCampo(byte tamanhoDoCampo) {
 		this.tamanhoDoCampo = tamanhoDoCampo;
+		resolverTipo();
 	}
 
 	public byte getContagemDecimal() {
@@ -169,6 +218,28 @@ public class CampoDbf {
 		this.flagMdx = flagMdx;
 	}
 	
+	/**
+	 * A posio do primeiro byte do campo dentro do registro. O byte 0 do registro  a flag de deleo, ento o primeiro campo comea no byte 1.
+	 * @return Um <b>int</b> com o deslocamento do campo em relao ao incio do registro.
+	 */
+	public int getDeslocamento() {
+		return deslocamento;
+	}
+
+	void setDeslocamento(int deslocamento) {
+		this.deslocamento = deslocamento;
+	}
+	
+	/**
+	 * Verifica se dois campos descrevem a mesma coluna, comparando nome, tipo, tamanho e quantidade de casas decimais.
+	 * @param outro O {@link CampoDbf} a ser comparado.
+	 * @return <b>true</b> caso os campos sejam compatveis.
+	 */
+	public boolean isCompativel(CampoDbf outro) {
+		return outro != null && tipo == outro.tipo && tamanhoDoCampo == outro.tamanhoDoCampo && contagemDecimal == outro.contagemDecimal
+				&& getNome().trim().equals(outro.getNome().trim());
+	}
+	
 	/**
 	 * O charset sendo utilizado para gerar o nome.
 	 * @return O {@link Charset} que esta est sendo utilizado para criar a string do nome.
@@ -3,12 +3,24 @@ package io.github.deynne.dbf.model;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * <p>
+ * 	Uma linha de dados do arquivo dbf.
+ * </p>
+ * <p>
+ * 	As linhas lidas pelo {@link io.github.deynne.dbf.LeitorDbf} mantm apenas o registro e os campos do cabealho, e cada campo  decodificado quando
+ * 	acessado. Os {@link Campo} so criados apenas por {@link #getColunas()}, e a partir da a linha passa a utilizar a lista de campos.
+ * </p>
+ */
 public class Linha {
 	private List<Campo> colunas;
 	private Charset charset;
+	private byte[] registro;
+	private CampoDbf[] campos;
+	private String[] nomes;
 	
 	public Linha() {
 		this(StandardCharsets.UTF_8);
@@ -23,6 +35,20 @@ public class Linha {
 		this.charset = charset;
 	}
 	
+	/**
+	 * Construtor de uma linha a partir de um registro. Os campos so decodificados apenas quando acessados.
+	 * @param registro Um <b>byte</b>[ ] com o registro completo, com a flag de deleo na posio 0. O array no  copiado.
+	 * @param cabecalho O cabealho do arquivo, cujos campos localizam os valores no registro. Os nomes dos campos so compartilhados com o cabealho, sem
+	 * cpias por linha.
+	 * @param charset O {@link Charset} a ser utilizado para criao das strings dos dados.
+	 */
+	public Linha(byte[] registro, CabecalhoDbf cabecalho, Charset charset) {
+		this.registro = registro;
+		this.campos = cabecalho.getCampos();
+		this.nomes = cabecalho.getNomesSemEspacos();
+		this.charset = charset;
+	}
+	
 	/**
 	 * Retorna os dados de uma linha de dados como strings.
 	 * @return Um {@link String}[] contendo os dados da linha.
@@ -39,6 +65,13 @@ public class Linha {
 	 * @see #getValuesAsString()
 	 */
 	public String[] getValuesAsString(boolean trim) {
+		if(colunas == null) {
+			String[] valores = new String[campos.length];
+			for(int i = 0; i < campos.length; i++) {
+				valores[i] = getValueAsString(i, trim);
+			}
+			return valores;
+		}
 		List<String> l = new ArrayList<>();
 		colunas.forEach(e -> l.add(trim?e.getValorAsString(charset).trim():e.getValorAsString(charset)));
 		
@@ -66,6 +99,11 @@ public class Linha {
 	 * @see #getValueAsString(String)
 	 */
 	public String getValueAsString(int indice, boolean trim) {
+		if(colunas == null) {
+			if(indice < 0 || indice >= campos.length) return null;
+			String valor = new String(registro, campos[indice].getDeslocamento(), campos[indice].getTamanhoDoCampo() & 0xFF, charset);
+			return trim?valor.trim():valor;
+		}
 		Campo c = this.getCampo(indice);
 		
 		if(c == null) return null;
@@ -80,6 +118,11 @@ public class Linha {
 	 * @see #getValue(String)
 	 */
 	public byte[] getValue(int indice) {
+		if(colunas == null) {
+			if(indice < 0 || indice >= campos.length) return null;
+			int inicio = campos[indice].getDeslocamento();
+			return Arrays.copyOfRange(registro, inicio, inicio + (campos[indice].getTamanhoDoCampo() & 0xFF));
+		}
 		Campo c = this.getCampo(indice);
 		
 		if(c == null) return null;
@@ -118,6 +161,10 @@ public class Linha {
 	 * @see #getValueAsString(int)
 	 */
 	public String getValueAsString(String nome, boolean trim) {
+		if(colunas == null) {
+			int indice = getIndice(nome);
+			return indice < 0 ? null : getValueAsString(indice, trim);
+		}
 		Campo c = this.getCampo(nome);
 		
 		if(c == null) return null;
@@ -132,6 +179,10 @@ public class Linha {
 	 * @see #getValue(int)
 	 */
 	public byte[] getValue(String nome) {
+		if(colunas == null) {
+			int indice = getIndice(nome);
+			return indice < 0 ? null : getValue(indice);
+		}
 		Campo c = this.getCampo(nome);
 		
 		if(c == null) return null;
@@ -160,6 +211,10 @@ public class Linha {
 	 * @see #getCampo(String)
 	 */
 	public Campo getCampo(int indice) {
+		if(colunas == null) {
+			if(indice < 0 || indice >= campos.length) return null;
+			return new Campo(campos[indice].getNome(), getValue(indice), campos[indice].getTipo(), charset);
+		}
 		if(indice < 0 || indice > colunas.size()-1) return null;
 		return colunas.get(indice);
 	}
@@ -171,6 +226,7 @@ public class Linha {
 	 * @see Linha#getCampo(int)
 	 */
 	public Campo getCampo(String nome) {
+		if(colunas == null) return getCampo(getIndice(nome));
 		for(int i = 0, j = this.colunas.size()- 1; i <= this.colunas.size()/2;i++,j--) {
 			if(this.colunas.get(i).getNome().trim().equals(nome)) {
 				return this.colunas.get(i);
@@ -188,8 +244,32 @@ public class Linha {
 	 * @return Uma {@link List}&lt;{@link Campo}&gt; com os campos presentes na linha.
 	 */
 	public List<Campo> getColunas() {
+		if(colunas == null) {
+			List<Campo> lista = new ArrayList<>(campos.length);
+			for(int i = 0; i < campos.length; i++) {
+				lista.add(getCampo(i));
+			}
+			colunas = lista;
+		}
 		return colunas;
 	}
+	
+	/**
+	 * A quantidade de campos da linha, sem a criao dos {@link Campo}.
+	 * @return Um <b>int</b> com a quantidade de campos.
+	 */
+	public int getQuantidadeDeColunas() {
+		return colunas == null ? campos.length : colunas.size();
+	}
+	
+	/**
+	 * O registro de origem da linha, com a flag de deleo na posio 0. Alteraes no array no so refletidas em linhas cujos {@link Campo} j foram
+	 * criados.
+	 * @return O <b>byte</b>[ ] do registro ou <b>null</b> caso a linha tenha sido montada a partir de uma lista de campos.
+	 */
+	public byte[] getRegistro() {
+		return registro;
+	}
 
 	/**
 	 * O {@link Charset} utilizado para criao das {@link String}
@@ -205,6 +285,9 @@ public class Linha {
 	 */
 	public void setColunas(List<Campo> colunas) {
 		this.colunas = colunas;
+		this.registro = null;
+		this.campos = null;
+		this.nomes = null;
 	}
 
 	/**
@@ -214,4 +297,14 @@ public class Linha {
 	public void setCharset(Charset charset) {
 		this.charset = charset;
 	}
+
+	/**
+	 * O ndice de um campo do registro, com a mesma comparao de {@link #getCampo(String)}.
+	 */
+	private int getIndice(String nome) {
+		for(int i = 0; i < nomes.length; i++) {
+			if(nomes[i].equals(nome)) return i;
+		}
+		return -1;
+	}
 }
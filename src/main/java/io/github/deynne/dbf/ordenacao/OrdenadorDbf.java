@@ -0,0 +1,453 @@
+package io.github.deynne.dbf.ordenacao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.github.deynne.dbf.ConsumidorDeRegistro;
+import io.github.deynne.dbf.EscritorDbf;
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.exceptions.LeituraIncorretaDeCampoException;
+import io.github.deynne.dbf.util.ChaveDeRegistro;
+
+/**
+ * <p>
+ * 	Ordenao externa dos registros de um dbf por um ou mais campos, para arquivos maiores que a memria disponvel.
+ * </p>
+ * <p>
+ * 	Os registros so lidos em blocos no formato bruto atravs do {@link LeitorDbf}. Cada bloco  ordenado pelos bytes da chave utilizando um array de
+ * 	ndices, sem a criao de {@link io.github.deynne.dbf.model.Linha Linha}, e gravado em um arquivo temporrio (uma <i>run</i>). As runs so ento
+ * 	intercaladas, no mximo {@link #getFanIn()} de cada vez, at restar uma nica sequncia ordenada. Quando todos os registros cabem em um nico bloco,
+ * 	nenhum arquivo temporrio  criado.
+ * </p>
+ * <p>
+ * 	A ordenao  estvel e segue a comparao de {@link ChaveDeRegistro}. A memria utilizada  de aproximadamente
+ * 	({@link #getThreads()} + 1) * {@link #getRegistrosPorRun()} registros. As runs so excludas ao final da ordenao, inclusive quando ela falha.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class OrdenadorDbf {
+
+	public static final int REGISTROS_POR_RUN_PADRAO = 100000;
+	public static final int FAN_IN_PADRAO = 64;
+
+	private static final int TAMANHO_DO_BUFFER_DAS_RUNS = 256 * 1024;
+	// Maior array que a JVM costuma conseguir alocar
+	private static final int TAMANHO_MAXIMO_DO_BLOCO = Integer.MAX_VALUE - 8;
+
+	private String[] camposChave;
+	private int registrosPorRun = REGISTROS_POR_RUN_PADRAO;
+	private int fanIn = FAN_IN_PADRAO;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private File diretorioTemporario;
+	private boolean ignorarDeletados;
+
+	/**
+	 * Cria o ordenador.
+	 * @param camposChave Os nomes dos campos utilizados na ordenao, em ordem de prioridade.
+	 */
+	public OrdenadorDbf(String... camposChave) {
+		this.camposChave = camposChave;
+	}
+
+	/**
+	 * Ordena os registros do leitor e grava o resultado em um novo arquivo dbf com o mesmo cabealho.
+	 * @param leitor O {@link LeitorDbf} posicionado antes do primeiro registro a ser ordenado.
+	 * @param destino O arquivo dbf a ser criado.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita dos arquivos.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave no exista no arquivo.
+	 */
+	public void ordenar(LeitorDbf leitor, File destino) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		try(EscritorDbf escritor = new EscritorDbf(destino, leitor.getCabecalho())) {
+			ordenar(leitor, escritor::escreverRegistro);
+		}
+	}
+
+	/**
+	 * Ordena os registros do leitor e os entrega, em ordem, ao consumidor.
+	 * @param leitor O {@link LeitorDbf} posicionado antes do primeiro registro a ser ordenado.
+	 * @param consumidor O {@link ConsumidorDeRegistro} que receber os registros ordenados.
+	 * @throws IOException Se ocorrer problemas na leitura ou na escrita dos arquivos.
+	 * @throws LeituraIncorretaDeCampoException Caso algum registro esteja incompleto.
+	 * @throws CampoDbfIlegalException Caso algum campo da chave no exista no arquivo.
+	 * @throws IllegalArgumentException Caso {@link #getRegistrosPorRun()} registros do arquivo no caibam em um nico array.
+	 */
+	public void ordenar(LeitorDbf leitor, ConsumidorDeRegistro consumidor) throws IOException, LeituraIncorretaDeCampoException, CampoDbfIlegalException {
+		ChaveDeRegistro chave = new ChaveDeRegistro(leitor.getCabecalho(), camposChave);
+		int tamanhoDoRegistro = leitor.getCabecalho().getTamanhoDoRegistro() & 0xFFFF;
+		long tamanhoDoBloco = (long) registrosPorRun * tamanhoDoRegistro;
+		if(tamanhoDoBloco > TAMANHO_MAXIMO_DO_BLOCO) throw new IllegalArgumentException("Uma run de " + registrosPorRun + " registros de " + tamanhoDoRegistro
+				+ " bytes ocupa " + tamanhoDoBloco + " bytes, mais do que um array suporta. Reduza a quantidade de registros por run.");
+
+		List<Run> runs = new ArrayList<>();
+		// Todas as runs criadas, incluindo as de tarefas que falharam ou que ainda no foram obtidas
+		Set<File> arquivosDasRuns = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			// Blocos livres para leitura. Enquanto um bloco  lido, at "threads" blocos esto sendo ordenados.
+			BlockingQueue<byte[]> blocosLivres = new ArrayBlockingQueue<>(threads + 1);
+			int blocosCriados = 0;
+			List<Future<Run>> pendentes = new ArrayList<>();
+
+			while(true) {
+				byte[] bloco = blocosLivres.poll();
+				if(bloco == null) {
+					if(blocosCriados <= threads) {
+						bloco = new byte[(int) tamanhoDoBloco];
+						blocosCriados++;
+					}
+					else {
+						bloco = aguardar(blocosLivres);
+					}
+				}
+
+				int quantidade = preencher(leitor, bloco, tamanhoDoRegistro);
+				if(quantidade == 0) break;
+
+				if(quantidade < registrosPorRun && pendentes.isEmpty()) {
+					// Todos os registros cabem em memria, ento no h necessidade de arquivos temporrios
+					int[] ordem = ordenarBloco(chave, bloco, quantidade, tamanhoDoRegistro);
+					for(int indice : ordem) {
+						consumidor.consumir(bloco, indice * tamanhoDoRegistro);
+					}
+					return;
+				}
+
+				final byte[] blocoLido = bloco;
+				final int ordemDaRun = pendentes.size();
+				pendentes.add(executor.submit(() -> {
+					try {
+						return gravarRun(chave, blocoLido, quantidade, tamanhoDoRegistro, ordemDaRun, arquivosDasRuns);
+					} finally {
+						blocosLivres.offer(blocoLido);
+					}
+				}));
+
+				if(quantidade < registrosPorRun) break;
+			}
+
+			for(Future<Run> f : pendentes) {
+				runs.add(obter(f));
+			}
+
+			// Reduz a quantidade de runs at que todas possam ser intercaladas de uma vez
+			while(runs.size() > fanIn) {
+				List<Run> proximas = new ArrayList<>();
+				List<Future<Run>> intercalacoes = new ArrayList<>();
+				for(int i = 0; i < runs.size(); i += fanIn) {
+					List<Run> grupo = new ArrayList<>(runs.subList(i, Math.min(i + fanIn, runs.size())));
+					final int ordemDaRun = i / fanIn;
+					intercalacoes.add(executor.submit(() -> intercalarEmRun(chave, grupo, tamanhoDoRegistro, ordemDaRun, arquivosDasRuns)));
+				}
+				for(Future<Run> f : intercalacoes) {
+					proximas.add(obter(f));
+				}
+				runs = proximas;
+			}
+
+			intercalar(chave, runs, tamanhoDoRegistro, consumidor);
+		} finally {
+			// As tarefas em andamento precisam terminar antes da excluso, ou as runs que elas gravam ficariam no disco
+			encerrar(executor);
+			for(File arquivo : arquivosDasRuns) {
+				arquivo.delete();
+			}
+		}
+	}
+
+	private static void encerrar(ExecutorService executor) {
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Preenche o bloco com registros do leitor, descartando os deletados caso necessrio.
+	 */
+	private int preencher(LeitorDbf leitor, byte[] bloco, int tamanhoDoRegistro) throws IOException, LeituraIncorretaDeCampoException {
+		int quantidade = 0;
+		while(quantidade < registrosPorRun) {
+			int lidos = leitor.lerRegistros(bloco, quantidade * tamanhoDoRegistro, registrosPorRun - quantidade);
+			if(lidos == 0) break;
+			if(ignorarDeletados) {
+				int fim = quantidade + lidos;
+				for(int i = quantidade; i < fim; i++) {
+					if(LeitorDbf.isDeletado(bloco, i * tamanhoDoRegistro)) continue;
+					if(i != quantidade) System.arraycopy(bloco, i * tamanhoDoRegistro, bloco, quantidade * tamanhoDoRegistro, tamanhoDoRegistro);
+					quantidade++;
+				}
+			}
+			else {
+				quantidade += lidos;
+			}
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Ordena os ndices dos registros do bloco pela chave. O prefixo de 8 bytes de cada chave  calculado uma nica vez, e a chave completa s  comparada
+	 * quando os prefixos empatam.
+	 */
+	static int[] ordenarBloco(ChaveDeRegistro chave, byte[] bloco, int quantidade, int tamanhoDoRegistro) {
+		long[] prefixos = new long[quantidade];
+		int[] indices = new int[quantidade];
+		for(int i = 0; i < quantidade; i++) {
+			prefixos[i] = chave.prefixo(bloco, i * tamanhoDoRegistro);
+			indices[i] = i;
+		}
+		int[] auxiliar = new int[quantidade];
+		mergeSort(indices, auxiliar, 0, quantidade, chave, prefixos, bloco, tamanhoDoRegistro);
+		return indices;
+	}
+
+	private static void mergeSort(int[] indices, int[] auxiliar, int inicio, int fim, ChaveDeRegistro chave, long[] prefixos, byte[] bloco, int tamanhoDoRegistro) {
+		if(fim - inicio <= 16) {
+			// Insertion sort para trechos pequenos
+			for(int i = inicio + 1; i < fim; i++) {
+				int atual = indices[i];
+				int j = i - 1;
+				while(j >= inicio && comparar(indices[j], atual, chave, prefixos, bloco, tamanhoDoRegistro) > 0) {
+					indices[j + 1] = indices[j];
+					j--;
+				}
+				indices[j + 1] = atual;
+			}
+			return;
+		}
+		int meio = (inicio + fim) >>> 1;
+		mergeSort(indices, auxiliar, inicio, meio, chave, prefixos, bloco, tamanhoDoRegistro);
+		mergeSort(indices, auxiliar, meio, fim, chave, prefixos, bloco, tamanhoDoRegistro);
+		if(comparar(indices[meio - 1], indices[meio], chave, prefixos, bloco, tamanhoDoRegistro) <= 0) return;
+
+		System.arraycopy(indices, inicio, auxiliar, inicio, fim - inicio);
+		int i = inicio, j = meio, k = inicio;
+		while(i < meio && j < fim) {
+			indices[k++] = comparar(auxiliar[i], auxiliar[j], chave, prefixos, bloco, tamanhoDoRegistro) <= 0 ? auxiliar[i++] : auxiliar[j++];
+		}
+		while(i < meio) indices[k++] = auxiliar[i++];
+		while(j < fim) indices[k++] = auxiliar[j++];
+	}
+
+	private static int comparar(int a, int b, ChaveDeRegistro chave, long[] prefixos, byte[] bloco, int tamanhoDoRegistro) {
+		int resultado = Long.compareUnsigned(prefixos[a], prefixos[b]);
+		if(resultado != 0 || chave.isPrefixoCompleto()) return resultado;
+		return chave.comparar(bloco, a * tamanhoDoRegistro, bloco, b * tamanhoDoRegistro);
+	}
+
+	private Run gravarRun(ChaveDeRegistro chave, byte[] bloco, int quantidade, int tamanhoDoRegistro, int ordem, Set<File> arquivosDasRuns) throws IOException {
+		int[] indices = ordenarBloco(chave, bloco, quantidade, tamanhoDoRegistro);
+		Run run = new Run(criarArquivoTemporario(arquivosDasRuns), quantidade, ordem);
+		try(OutputStream saida = new BufferedOutputStream(new FileOutputStream(run.arquivo), TAMANHO_DO_BUFFER_DAS_RUNS)) {
+			for(int indice : indices) {
+				saida.write(bloco, indice * tamanhoDoRegistro, tamanhoDoRegistro);
+			}
+		} catch (IOException e) {
+			run.arquivo.delete();
+			throw e;
+		}
+		return run;
+	}
+
+	private Run intercalarEmRun(ChaveDeRegistro chave, List<Run> grupo, int tamanhoDoRegistro, int ordem, Set<File> arquivosDasRuns) throws IOException {
+		long total = 0;
+		for(Run r : grupo) total += r.quantidade;
+		Run run = new Run(criarArquivoTemporario(arquivosDasRuns), total, ordem);
+		try(OutputStream saida = new BufferedOutputStream(new FileOutputStream(run.arquivo), TAMANHO_DO_BUFFER_DAS_RUNS)) {
+			intercalar(chave, grupo, tamanhoDoRegistro, (registro, offset) -> saida.write(registro, offset, tamanhoDoRegistro));
+		} catch (IOException e) {
+			run.arquivo.delete();
+			throw e;
+		}
+		for(Run r : grupo) {
+			r.arquivo.delete();
+			arquivosDasRuns.remove(r.arquivo);
+		}
+		return run;
+	}
+
+	/**
+	 * Intercalao de k vias das runs. Em caso de empate, a run de menor ordem vem primeiro, o que mantm a ordenao estvel.
+	 */
+	private static void intercalar(ChaveDeRegistro chave, List<Run> runs, int tamanhoDoRegistro, ConsumidorDeRegistro consumidor) throws IOException {
+		PriorityQueue<CursorDeRun> fila = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+			int resultado = chave.comparar(a.registro, 0, b.registro, 0);
+			return resultado != 0 ? resultado : Integer.compare(a.run.ordem, b.run.ordem);
+		});
+		List<CursorDeRun> cursores = new ArrayList<>();
+		try {
+			for(Run run : runs) {
+				CursorDeRun cursor = new CursorDeRun(run, tamanhoDoRegistro);
+				cursores.add(cursor);
+				if(cursor.avancar()) fila.add(cursor);
+			}
+			while(!fila.isEmpty()) {
+				CursorDeRun cursor = fila.poll();
+				consumidor.consumir(cursor.registro, 0);
+				if(cursor.avancar()) fila.add(cursor);
+			}
+		} finally {
+			for(CursorDeRun cursor : cursores) cursor.fechar();
+		}
+	}
+
+	/**
+	 * Cria o arquivo de uma run e o registra para a excluso ao final da ordenao.
+	 */
+	private File criarArquivoTemporario(Set<File> arquivosDasRuns) throws IOException {
+		File arquivo = File.createTempFile("dbf-run-", ".tmp", diretorioTemporario);
+		arquivosDasRuns.add(arquivo);
+		return arquivo;
+	}
+
+	private static byte[] aguardar(BlockingQueue<byte[]> fila) throws IOException {
+		try {
+			return fila.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("A ordenao foi interrompida.", e);
+		}
+	}
+
+	private static Run obter(Future<Run> futuro) throws IOException {
+		try {
+			return futuro.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("A ordenao foi interrompida.", e);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException("Erro durante a ordenao dos registros.", e.getCause());
+		}
+	}
+
+	private static class Run {
+		private final File arquivo;
+		private final long quantidade;
+		private final int ordem;
+
+		Run(File arquivo, long quantidade, int ordem) {
+			this.arquivo = arquivo;
+			this.quantidade = quantidade;
+			this.ordem = ordem;
+		}
+	}
+
+	private static class CursorDeRun {
+		private final Run run;
+		private final byte[] registro;
+		private DataInputStream entrada;
+		private long restantes;
+
+		CursorDeRun(Run run, int tamanhoDoRegistro) throws IOException {
+			this.run = run;
+			this.registro = new byte[tamanhoDoRegistro];
+			this.restantes = run.quantidade;
+			this.entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(run.arquivo), TAMANHO_DO_BUFFER_DAS_RUNS));
+		}
+
+		boolean avancar() throws IOException {
+			if(restantes == 0) return false;
+			entrada.readFully(registro);
+			restantes--;
+			return true;
+		}
+
+		void fechar() throws IOException {
+			entrada.close();
+		}
+	}
+
+	/**
+	 * Os nomes dos campos utilizados na ordenao.
+	 * @return Um {@link String}[ ] com os campos em ordem de prioridade.
+	 */
+	public String[] getCamposChave() {
+		return camposChave;
+	}
+
+	public int getRegistrosPorRun() {
+		return registrosPorRun;
+	}
+
+	/**
+	 * Define a quantidade de registros ordenados em memria de cada vez.
+	 * @param registrosPorRun A quantidade de registros de cada run. Padro {@value #REGISTROS_POR_RUN_PADRAO}.
+	 */
+	public void setRegistrosPorRun(int registrosPorRun) {
+		if(registrosPorRun <= 0) throw new IllegalArgumentException("A quantidade de registros por run deve ser positiva.");
+		this.registrosPorRun = registrosPorRun;
+	}
+
+	public int getFanIn() {
+		return fanIn;
+	}
+
+	/**
+	 * Define a quantidade mxima de runs intercaladas de uma s vez.
+	 * @param fanIn A quantidade de runs por intercalao. Padro {@value #FAN_IN_PADRAO}.
+	 */
+	public void setFanIn(int fanIn) {
+		if(fanIn < 2) throw new IllegalArgumentException("O fan-in deve ser de pelo menos 2.");
+		this.fanIn = fanIn;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Define a quantidade de threads utilizadas para ordenar os blocos e intercalar as runs intermedirias.
+	 * @param threads A quantidade de threads. Padro  a quantidade de processadores disponveis.
+	 */
+	public void setThreads(int threads) {
+		if(threads <= 0) throw new IllegalArgumentException("A quantidade de threads deve ser positiva.");
+		this.threads = threads;
+	}
+
+	public File getDiretorioTemporario() {
+		return diretorioTemporario;
+	}
+
+	/**
+	 * Define o diretrio onde as runs so gravadas.
+	 * @param diretorioTemporario O diretrio das runs. <b>null</b> utiliza o diretrio temporrio do sistema.
+	 */
+	public void setDiretorioTemporario(File diretorioTemporario) {
+		this.diretorioTemporario = diretorioTemporario;
+	}
+
+	public boolean isIgnorarDeletados() {
+		return ignorarDeletados;
+	}
+
+	/**
+	 * Define se os registros marcados como deletados devem ser descartados na ordenao.
+	 * @param ignorarDeletados <b>true</b> para descartar os registros deletados.
+	 */
+	public void setIgnorarDeletados(boolean ignorarDeletados) {
+		this.ignorarDeletados = ignorarDeletados;
+	}
+}
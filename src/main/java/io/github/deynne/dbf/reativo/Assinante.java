@@ -0,0 +1,38 @@
+package io.github.deynne.dbf.reativo;
+
+/**
+ * <p>
+ * 	O receptor dos itens de um {@link Publicador}. Equivale ao <code>java.util.concurrent.Flow.Subscriber</code> do Java 9.
+ * </p>
+ * <p>
+ * 	Os mtodos so chamados em sequncia, nunca ao mesmo tempo, e aps {@link #aoFalhar(Throwable)} ou {@link #aoConcluir()} nenhum outro mtodo  chamado.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ * @param <T> O tipo dos itens recebidos.
+ */
+public interface Assinante<T> {
+
+	/**
+	 * Chamado uma vez, antes de qualquer outro mtodo.
+	 * @param assinatura A {@link Assinatura} utilizada para solicitar itens ou cancelar o recebimento.
+	 */
+	void aoAssinar(Assinatura assinatura);
+
+	/**
+	 * Recebe um item. Nunca  chamado mais vezes do que a quantidade solicitada.
+	 * @param item O item publicado.
+	 */
+	void aoReceber(T item);
+
+	/**
+	 * Indica que a publicao terminou com erro.
+	 * @param erro O erro ocorrido.
+	 */
+	void aoFalhar(Throwable erro);
+
+	/**
+	 * Indica que todos os itens foram publicados.
+	 */
+	void aoConcluir();
+}
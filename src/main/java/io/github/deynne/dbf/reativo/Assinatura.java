@@ -0,0 +1,20 @@
+package io.github.deynne.dbf.reativo;
+
+/**
+ * O vnculo entre um {@link Publicador} e um {@link Assinante}. Equivale ao <code>java.util.concurrent.Flow.Subscription</code> do Java 9.
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public interface Assinatura {
+
+	/**
+	 * Solicita mais itens. As solicitaes so acumuladas at o limite de {@link Long#MAX_VALUE}, que representa uma demanda ilimitada.
+	 * @param quantidade A quantidade de itens. Valores no positivos encerram a assinatura com {@link IllegalArgumentException}.
+	 */
+	void solicitar(long quantidade);
+
+	/**
+	 * Cancela a assinatura. Itens j em processamento ainda podem ser entregues.
+	 */
+	void cancelar();
+}
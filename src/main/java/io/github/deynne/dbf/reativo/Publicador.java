@@ -0,0 +1,21 @@
+package io.github.deynne.dbf.reativo;
+
+/**
+ * <p>
+ * 	Um produtor de itens que respeita a demanda de seus assinantes. Equivale ao <code>java.util.concurrent.Flow.Publisher</code> do Java 9 e ao
+ * 	<code>org.reactivestreams.Publisher</code>, com as mesmas regras, e pode ser adaptado para eles repassando cada chamada.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ * @param <T> O tipo dos itens publicados.
+ */
+@FunctionalInterface
+public interface Publicador<T> {
+
+	/**
+	 * Adiciona um assinante. O assinante recebe a {@link Assinatura} em {@link Assinante#aoAssinar(Assinatura)} e s recebe itens aps solicit-los.
+	 * @param assinante O {@link Assinante}.
+	 * @throws NullPointerException Caso o assinante seja nulo.
+	 */
+	void assinar(Assinante<? super T> assinante);
+}
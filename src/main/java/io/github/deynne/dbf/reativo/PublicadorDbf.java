@@ -0,0 +1,246 @@
+package io.github.deynne.dbf.reativo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.deynne.dbf.LeitorDbf;
+import io.github.deynne.dbf.model.Linha;
+
+/**
+ * <p>
+ * 	Um {@link Publicador} das linhas de um {@link LeitorDbf}, individualmente ou em lotes.
+ * </p>
+ * <p>
+ * 	A leitura s acontece quando h demanda: cada item solicitado corresponde a uma leitura de {@link LeitorDbf#proximosRegistros()} (ou a um lote delas),
+ * 	ento o arquivo nunca  lido alm do que o assinante pediu. A leitura e a entrega dos itens so feitas em um executor, nunca na thread que chama
+ * 	{@link Assinatura#solicitar(long)}, o que evita bloquear threads de eventos. Sem um executor informado, cada assinatura utiliza uma thread prpria,
+ * 	encerrada junto com ela.
+ * </p>
+ * <p>
+ * 	O leitor  fechado quando a publicao termina, falha ou  cancelada. Como o leitor  percorrido uma nica vez, o publicador aceita apenas um assinante.
+ * 	Em fluxos grandes, os lotes reduzem o custo de sinalizao por item.
+ * </p>
+ * <pre>
+ * leitor.publicar(1000).assinar(new Assinante&lt;List&lt;Linha&gt;&gt;() { ... });
+ * </pre>
+ * @author Deynne Silva
+ * @version 1.0
+ * @param <T> {@link Linha} ou {@link List}&lt;{@link Linha}&gt;.
+ */
+public class PublicadorDbf<T> implements Publicador<T> {
+
+	private final LeitorDbf leitor;
+	private final Fonte<T> fonte;
+	private final Executor executor;
+	private final AtomicBoolean assinado = new AtomicBoolean();
+
+	@FunctionalInterface
+	private interface Fonte<T> {
+		/**
+		 * @return O prximo item ou <b>null</b> no fim do arquivo.
+		 */
+		T proximo() throws Exception;
+	}
+
+	private PublicadorDbf(LeitorDbf leitor, Fonte<T> fonte, Executor executor) {
+		if(leitor == null) throw new IllegalArgumentException("O leitor no pode ser nulo.");
+		this.leitor = leitor;
+		this.fonte = fonte;
+		this.executor = executor;
+	}
+
+	/**
+	 * Cria um publicador de linhas individuais.
+	 * @param leitor O {@link LeitorDbf} posicionado antes da primeira linha a ser publicada.
+	 * @param executor O {@link Executor} onde a leitura e a entrega so feitas ou <b>null</b> para uma thread prpria por assinatura.
+	 * @return O {@link PublicadorDbf}.
+	 */
+	public static PublicadorDbf<Linha> deLinhas(LeitorDbf leitor, Executor executor) {
+		return new PublicadorDbf<>(leitor, leitor::proximosRegistros, executor);
+	}
+
+	/**
+	 * Cria um publicador de lotes de linhas. Cada item  uma lista com at <b>tamanhoDoLote</b> linhas e apenas o ltimo pode ser menor.
+	 * @param leitor O {@link LeitorDbf} posicionado antes da primeira linha a ser publicada.
+	 * @param tamanhoDoLote A quantidade de linhas por item.
+	 * @param executor O {@link Executor} onde a leitura e a entrega so feitas ou <b>null</b> para uma thread prpria por assinatura.
+	 * @return O {@link PublicadorDbf}.
+	 */
+	public static PublicadorDbf<List<Linha>> deLotes(LeitorDbf leitor, int tamanhoDoLote, Executor executor) {
+		if(tamanhoDoLote <= 0) throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+		return new PublicadorDbf<>(leitor, () -> {
+			List<Linha> lote = new ArrayList<>(tamanhoDoLote);
+			Linha linha;
+			while(lote.size() < tamanhoDoLote && (linha = leitor.proximosRegistros()) != null) {
+				lote.add(linha);
+			}
+			return lote.isEmpty() ? null : lote;
+		}, executor);
+	}
+
+	@Override
+	public void assinar(Assinante<? super T> assinante) {
+		if(assinante == null) throw new NullPointerException("O assinante no pode ser nulo.");
+		if(!assinado.compareAndSet(false, true)) {
+			assinante.aoAssinar(new Assinatura() {
+				@Override
+				public void solicitar(long quantidade) { }
+
+				@Override
+				public void cancelar() { }
+			});
+			assinante.aoFalhar(new IllegalStateException("O publicador aceita apenas um assinante."));
+			return;
+		}
+		new AssinaturaDbf(assinante).iniciar();
+	}
+
+	/**
+	 * <p>
+	 * 	Os sinais so entregues por uma nica tarefa de cada vez: quem encontra o contador de pendncias zerado agenda a tarefa, e a tarefa s termina
+	 * 	quando todas as pendncias registradas enquanto executava foram tratadas.
+	 * </p>
+	 */
+	private final class AssinaturaDbf implements Assinatura, Runnable {
+
+		private final Assinante<? super T> assinante;
+		private final AtomicLong demanda = new AtomicLong();
+		private final AtomicInteger pendencias = new AtomicInteger();
+		private volatile boolean cancelada;
+		private volatile Throwable erroDeSolicitacao;
+		private ExecutorService executorProprio;
+		private Executor executorDaAssinatura;
+		private volatile boolean encerrada;
+
+		AssinaturaDbf(Assinante<? super T> assinante) {
+			this.assinante = assinante;
+		}
+
+		void iniciar() {
+			if(executor != null) {
+				executorDaAssinatura = executor;
+			}
+			else {
+				executorProprio = Executors.newSingleThreadExecutor(r -> {
+					Thread t = new Thread(r, "dbf-publicador");
+					t.setDaemon(true);
+					return t;
+				});
+				executorDaAssinatura = executorProprio;
+			}
+			// A pendncia mantida durante aoAssinar impede que a entrega comece antes do seu trmino, mesmo que o assinante solicite itens nele
+			pendencias.set(1);
+			try {
+				assinante.aoAssinar(this);
+			} catch (RuntimeException e) {
+				// Agenda o fechamento do leitor
+				cancelada = true;
+				pendencias.incrementAndGet();
+				throw e;
+			} finally {
+				if(pendencias.decrementAndGet() != 0) executar();
+			}
+		}
+
+		@Override
+		public void solicitar(long quantidade) {
+			if(quantidade <= 0) {
+				erroDeSolicitacao = new IllegalArgumentException("A quantidade solicitada deve ser positiva, mas foi " + quantidade + ".");
+			}
+			else {
+				demanda.getAndUpdate(atual -> atual + quantidade < 0 ? Long.MAX_VALUE : atual + quantidade);
+			}
+			agendar();
+		}
+
+		@Override
+		public void cancelar() {
+			cancelada = true;
+			agendar();
+		}
+
+		private void agendar() {
+			if(pendencias.getAndIncrement() == 0) executar();
+		}
+
+		private void executar() {
+			try {
+				executorDaAssinatura.execute(this);
+			} catch (RejectedExecutionException e) {
+				// Sem executor disponvel a assinatura  encerrada na thread atual
+				pendencias.set(0);
+				if(!encerrada) encerrar(e, true);
+			}
+		}
+
+		@Override
+		public void run() {
+			int tratadas = 0;
+			do {
+				tratadas = pendencias.get();
+				entregar();
+			} while(pendencias.addAndGet(-tratadas) != 0);
+		}
+
+		private void entregar() {
+			if(encerrada) return;
+			while(true) {
+				if(cancelada) {
+					encerrar(null, false);
+					return;
+				}
+				if(erroDeSolicitacao != null) {
+					encerrar(erroDeSolicitacao, true);
+					return;
+				}
+				if(demanda.get() == 0) return;
+
+				T item;
+				try {
+					item = fonte.proximo();
+				} catch (Exception e) {
+					encerrar(e, true);
+					return;
+				}
+				if(item == null) {
+					encerrar(null, true);
+					return;
+				}
+				if(demanda.get() != Long.MAX_VALUE) demanda.decrementAndGet();
+				try {
+					assinante.aoReceber(item);
+				} catch (RuntimeException e) {
+					// Um assinante que lana excees  tratado como cancelado
+					encerrar(null, false);
+					return;
+				}
+			}
+		}
+
+		private void encerrar(Throwable erro, boolean sinalizar) {
+			encerrada = true;
+			cancelada = true;
+			try {
+				leitor.close();
+			} catch (IOException e) {
+				if(erro == null) erro = e;
+			}
+			if(executorProprio != null) executorProprio.shutdown();
+			if(!sinalizar) return;
+			try {
+				if(erro == null) assinante.aoConcluir();
+				else assinante.aoFalhar(erro);
+			} catch (RuntimeException e) {
+				// O assinante no deve lanar excees, e no h a quem repass-las
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package io.github.deynne.dbf.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import io.github.deynne.dbf.model.CabecalhoDbf;
+
+/**
+ * <p>
+ * 	Leitura e escrita dos arquivos auxiliares gravados ao lado de um dbf, como estatsticas e ndices.
+ * </p>
+ * <p>
+ * 	Todo arquivo auxiliar comea com um identificador do seu tipo, uma verso e a {@link CabecalhoDbf#getImpressaoDigital() impresso digital} do
+ * 	cabealho do dbf de origem. Um arquivo auxiliar cujo dbf foi alterado depois da sua criao  considerado desatualizado e ignorado na leitura.
+ * 	Alteraes que no mudam o cabealho, como as feitas no prprio arquivo no mesmo dia, devem excluir os arquivos auxiliares com
+ * 	{@link #excluir(File, long, String...)}.
+ * 	A escrita  feita em um arquivo temporrio que substitui o anterior apenas ao final, ento um leitor nunca encontra um arquivo incompleto.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class ArquivoAuxiliar {
+
+	/**
+	 * Escrita do contedo de um arquivo auxiliar, aps o cabealho.
+	 */
+	@FunctionalInterface
+	public interface Escrita {
+		void escrever(DataOutputStream saida) throws IOException;
+	}
+
+	/**
+	 * Leitura do contedo de um arquivo auxiliar, aps o cabealho.
+	 * @param <T> O tipo do contedo lido.
+	 */
+	@FunctionalInterface
+	public interface Leitura<T> {
+		T ler(DataInputStream entrada) throws IOException;
+	}
+
+	private ArquivoAuxiliar() { }
+
+	/**
+	 * O arquivo auxiliar de um dbf: o mesmo nome, com a extenso substituda.
+	 * @param dbf O arquivo dbf.
+	 * @param extensao A extenso do arquivo auxiliar, sem o ponto.
+	 * @return O {@link File} do arquivo auxiliar, no mesmo diretrio do dbf.
+	 */
+	public static File getArquivo(File dbf, String extensao) {
+		String nome = dbf.getName();
+		int ponto = nome.lastIndexOf('.');
+		if(ponto > 0) nome = nome.substring(0, ponto);
+		return new File(dbf.getAbsoluteFile().getParentFile(), nome + "." + extensao);
+	}
+
+	/**
+	 * Grava um arquivo auxiliar.
+	 * @param destino O arquivo a ser criado ou substitudo.
+	 * @param tipo O identificador do tipo do arquivo.
+	 * @param versao A verso do formato do contedo.
+	 * @param impressaoDigital A {@link CabecalhoDbf#getImpressaoDigital() impresso digital} do cabealho do dbf de origem.
+	 * @param escrita A escrita do contedo.
+	 * @throws IOException Se ocorrer problemas na escrita.
+	 */
+	public static void salvar(File destino, int tipo, int versao, long impressaoDigital, Escrita escrita) throws IOException {
+		File temporario = new File(destino.getAbsoluteFile().getParentFile(), destino.getName() + ".tmp");
+		try(DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporario), 64 * 1024))) {
+			saida.writeInt(tipo);
+			saida.writeShort(versao);
+			saida.writeLong(impressaoDigital);
+			escrita.escrever(saida);
+		} catch (IOException | RuntimeException e) {
+			temporario.delete();
+			throw e;
+		}
+		Files.move(temporario.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * L um arquivo auxiliar, caso ele exista e corresponda ao cabealho informado.
+	 * @param <T> O tipo do contedo.
+	 * @param origem O arquivo auxiliar.
+	 * @param tipo O identificador esperado do tipo do arquivo.
+	 * @param versao A verso esperada do formato do contedo.
+	 * @param impressaoDigital A {@link CabecalhoDbf#getImpressaoDigital() impresso digital} atual do cabealho do dbf.
+	 * @param leitura A leitura do contedo.
+	 * @return O contedo lido ou <b>null</b> caso o arquivo no exista, seja de outro tipo ou verso ou esteja desatualizado.
+	 * @throws IOException Se ocorrer problemas na leitura.
+	 */
+	public static <T> T carregar(File origem, int tipo, int versao, long impressaoDigital, Leitura<T> leitura) throws IOException {
+		if(!origem.isFile()) return null;
+		try(DataInputStream entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(origem), 64 * 1024))) {
+			if(entrada.readInt() != tipo || entrada.readShort() != versao || entrada.readLong() != impressaoDigital) return null;
+			return leitura.ler(entrada);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 	Exclui os arquivos auxiliares de um dbf gravados com a impresso digital informada. Usado quando os registros so alterados sem que o cabealho
+	 * 	mude, como nas edies do {@link io.github.deynne.dbf.EditorDbf} feitas no mesmo dia da criao dos arquivos auxiliares, que de outra forma
+	 * 	continuariam sendo considerados atualizados.
+	 * </p>
+	 * <p>
+	 * 	So considerados os arquivos do diretrio do dbf com o mesmo nome e uma das extenses informadas, incluindo os que tm um qualificador antes da
+	 * 	extenso, como os filtros de Bloom de cada coluna. Arquivos gravados com outra impresso digital j so ignorados na leitura e no so excludos.
+	 * </p>
+	 * @param dbf O arquivo dbf.
+	 * @param impressaoDigital A {@link CabecalhoDbf#getImpressaoDigital() impresso digital} do cabealho do dbf antes da alterao.
+	 * @param extensoes As extenses dos arquivos auxiliares, sem o ponto.
+	 * @return A quantidade de arquivos excludos.
+	 * @throws IOException Se ocorrer problemas na leitura ou na excluso dos arquivos.
+	 */
+	public static int excluir(File dbf, long impressaoDigital, String... extensoes) throws IOException {
+		String prefixo = getArquivo(dbf, "").getName();
+		File[] arquivos = dbf.getAbsoluteFile().getParentFile().listFiles(arquivo -> {
+			String nome = arquivo.getName();
+			if(!nome.startsWith(prefixo) || !arquivo.isFile()) return false;
+			for(String extensao : extensoes) {
+				// O ponto final do prefixo pode ser o mesmo que precede a extenso
+				if(nome.length() >= prefixo.length() + extensao.length() && nome.endsWith("." + extensao)) return true;
+			}
+			return false;
+		});
+		if(arquivos == null) throw new IOException("O diretrio de " + dbf + " no pde ser listado.");
+		int excluidos = 0;
+		for(File arquivo : arquivos) {
+			if(getImpressaoDigital(arquivo) == impressaoDigital && Files.deleteIfExists(arquivo.toPath())) excluidos++;
+		}
+		return excluidos;
+	}
+
+	/**
+	 * A impresso digital gravada em um arquivo auxiliar ou 0 caso o arquivo seja menor que o cabealho.
+	 */
+	private static long getImpressaoDigital(File arquivo) throws IOException {
+		try(DataInputStream entrada = new DataInputStream(new FileInputStream(arquivo))) {
+			entrada.readInt();
+			entrada.readShort();
+			return entrada.readLong();
+		} catch (EOFException e) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package io.github.deynne.dbf.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * 	Cache LRU de pginas de um arquivo. Cada pgina corresponde a um bloco de tamanho fixo do arquivo e  lida com uma leitura posicional,
+ * 	que no altera a posio do canal.
+ * </p>
+ * <p>
+ * 	Quando a quantidade mxima de pginas  atingida, a pgina acessada h mais tempo  descartada.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class CacheDePaginas {
+
+	/**
+	 * Tamanho padro da pgina em bytes (64 KB).
+	 */
+	public static final int TAMANHO_PADRAO_DA_PAGINA = 64 * 1024;
+	/**
+	 * Quantidade padro de pginas mantidas em memria.
+	 */
+	public static final int MAXIMO_PADRAO_DE_PAGINAS = 16;
+
+	private final FileChannel canal;
+	private final int tamanhoDaPagina;
+	private final int maximoDePaginas;
+	private final LinkedHashMap<Long, Pagina> paginas;
+
+	private long acertos;
+	private long falhas;
+
+	private static class Pagina {
+		private final byte[] dados;
+		private final int tamanho;
+
+		Pagina(byte[] dados, int tamanho) {
+			this.dados = dados;
+			this.tamanho = tamanho;
+		}
+	}
+
+	/**
+	 * Cria o cache com o tamanho de pgina e a quantidade de pginas padro.
+	 * @param canal O {@link FileChannel} do arquivo.
+	 * @see #CacheDePaginas(FileChannel, int, int)
+	 */
+	public CacheDePaginas(FileChannel canal) {
+		this(canal, TAMANHO_PADRAO_DA_PAGINA, MAXIMO_PADRAO_DE_PAGINAS);
+	}
+
+	/**
+	 * Cria o cache de pginas.
+	 * @param canal O {@link FileChannel} do arquivo.
+	 * @param tamanhoDaPagina A quantidade de bytes de cada pgina.
+	 * @param maximoDePaginas A quantidade mxima de pginas mantidas em memria.
+	 */
+	public CacheDePaginas(FileChannel canal, int tamanhoDaPagina, int maximoDePaginas) {
+		if(tamanhoDaPagina <= 0) throw new IllegalArgumentException("O tamanho da pgina deve ser positivo.");
+		if(maximoDePaginas <= 0) throw new IllegalArgumentException("A quantidade mxima de pginas deve ser positiva.");
+		this.canal = canal;
+		this.tamanhoDaPagina = tamanhoDaPagina;
+		this.maximoDePaginas = maximoDePaginas;
+		this.paginas = new LinkedHashMap<Long, Pagina>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Pagina> eldest) {
+				return size() > CacheDePaginas.this.maximoDePaginas;
+			}
+		};
+	}
+
+	/**
+	 * L bytes do arquivo a partir de uma posio, utilizando as pginas em cache sempre que possvel.
+	 * @param posicao A posio no arquivo do primeiro byte a ser lido.
+	 * @param destino O array que receber os dados.
+	 * @param offset A posio em <b>destino</b> onde os dados sero escritos.
+	 * @param tamanho A quantidade de bytes a ser lida.
+	 * @return A quantidade de bytes lidos, que s  menor que <b>tamanho</b> quando o fim do arquivo  atingido.
+	 * @throws IOException Se ocorrer problemas na leitura do arquivo.
+	 */
+	public synchronized int ler(long posicao, byte[] destino, int offset, int tamanho) throws IOException {
+		int lidos = 0;
+		while(lidos < tamanho) {
+			long numeroDaPagina = (posicao + lidos) / tamanhoDaPagina;
+			int inicioNaPagina = (int) ((posicao + lidos) % tamanhoDaPagina);
+			Pagina pagina = getPagina(numeroDaPagina);
+			int disponivel = pagina.tamanho - inicioNaPagina;
+			if(disponivel <= 0) break;
+			int copiar = Math.min(disponivel, tamanho - lidos);
+			System.arraycopy(pagina.dados, inicioNaPagina, destino, offset + lidos, copiar);
+			lidos += copiar;
+		}
+		return lidos;
+	}
+
+	/**
+	 * Descarta todas as pginas em cache.
+	 */
+	public synchronized void limpar() {
+		paginas.clear();
+	}
+
+	/**
+	 * A quantidade de leituras de pgina atendidas pelo cache.
+	 * @return Um <b>long</b> com a quantidade de acertos.
+	 */
+	public synchronized long getAcertos() {
+		return acertos;
+	}
+
+	/**
+	 * A quantidade de pginas que precisaram ser lidas do arquivo.
+	 * @return Um <b>long</b> com a quantidade de falhas.
+	 */
+	public synchronized long getFalhas() {
+		return falhas;
+	}
+
+	public int getTamanhoDaPagina() {
+		return tamanhoDaPagina;
+	}
+
+	public int getMaximoDePaginas() {
+		return maximoDePaginas;
+	}
+
+	private Pagina getPagina(long numeroDaPagina) throws IOException {
+		Pagina pagina = paginas.get(numeroDaPagina);
+		if(pagina != null) {
+			acertos++;
+			return pagina;
+		}
+		falhas++;
+		byte[] dados = new byte[tamanhoDaPagina];
+		ByteBuffer buffer = ByteBuffer.wrap(dados);
+		long inicio = numeroDaPagina * tamanhoDaPagina;
+		while(buffer.hasRemaining()) {
+			if(canal.read(buffer, inicio + buffer.position()) < 0) break;
+		}
+		pagina = new Pagina(dados, buffer.position());
+		paginas.put(numeroDaPagina, pagina);
+		return pagina;
+	}
+}
@@ -0,0 +1,163 @@
+package io.github.deynne.dbf.util;
+
+import io.github.deynne.dbf.exceptions.CampoDbfIlegalException;
+import io.github.deynne.dbf.model.CabecalhoDbf;
+import io.github.deynne.dbf.model.CampoDbf;
+
+/**
+ * <p>
+ * 	Uma chave formada por um ou mais campos de um registro no formato bruto. A chave  a concatenao dos bytes dos campos, na ordem em que foram
+ * 	informados, e  comparada byte a byte sem sinal, sem a criao de {@link String}.
+ * </p>
+ * <p>
+ * 	Como os campos numricos do dbf so alinhados  direita e preenchidos com espaos, a comparao bruta de nmeros no negativos com o mesmo tamanho
+ * 	de campo segue a ordem numrica. Datas (AAAAMMDD) tambm seguem a ordem cronolgica.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class ChaveDeRegistro {
+
+	private final CampoDbf[] campos;
+	private final int[] deslocamentos;
+	private final int[] tamanhos;
+	private final int tamanhoDaChave;
+
+	/**
+	 * Cria a chave a partir do nome dos campos.
+	 * @param cabecalho O {@link CabecalhoDbf} do arquivo cujos registros sero comparados.
+	 * @param nomesDosCampos Os nomes dos campos que formam a chave, em ordem de prioridade.
+	 * @throws CampoDbfIlegalException Caso algum campo no exista no cabealho ou nenhum campo seja informado.
+	 */
+	public ChaveDeRegistro(CabecalhoDbf cabecalho, String... nomesDosCampos) throws CampoDbfIlegalException {
+		if(nomesDosCampos == null || nomesDosCampos.length == 0) throw new CampoDbfIlegalException(" necessrio informar ao menos um campo para a chave.");
+		campos = new CampoDbf[nomesDosCampos.length];
+		deslocamentos = new int[nomesDosCampos.length];
+		tamanhos = new int[nomesDosCampos.length];
+		int total = 0;
+		for(int i = 0; i < nomesDosCampos.length; i++) {
+			int indice = cabecalho.getIdByNome(nomesDosCampos[i]);
+			if(indice < 0) throw new CampoDbfIlegalException("O campo " + nomesDosCampos[i] + " no existe no arquivo.");
+			campos[i] = cabecalho.getCampos()[indice];
+			deslocamentos[i] = campos[i].getDeslocamento();
+			tamanhos[i] = campos[i].getTamanhoDoCampo() & 0xFF;
+			total += tamanhos[i];
+		}
+		tamanhoDaChave = total;
+	}
+
+	/**
+	 * Compara as chaves de dois registros.
+	 * @param a O array contendo o primeiro registro.
+	 * @param offsetA A posio do primeiro registro em <b>a</b>.
+	 * @param b O array contendo o segundo registro.
+	 * @param offsetB A posio do segundo registro em <b>b</b>.
+	 * @return Um valor negativo, zero ou positivo caso a chave do primeiro registro seja menor, igual ou maior que a do segundo.
+	 */
+	public int comparar(byte[] a, int offsetA, byte[] b, int offsetB) {
+		for(int c = 0; c < deslocamentos.length; c++) {
+			int posA = offsetA + deslocamentos[c];
+			int posB = offsetB + deslocamentos[c];
+			for(int i = 0; i < tamanhos[c]; i++) {
+				int x = a[posA + i] & 0xFF;
+				int y = b[posB + i] & 0xFF;
+				if(x != y) return x - y;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * <p>
+	 * 	Os primeiros 8 bytes da chave agrupados em um <b>long</b>, do mais para o menos significativo. Chaves menores so completadas com 0.
+	 * </p>
+	 * <p>
+	 * 	A comparao de prefixos com {@link Long#compareUnsigned(long, long)} segue a mesma ordem de {@link #comparar(byte[], int, byte[], int)}. Quando os
+	 * 	prefixos so iguais,  necessrio comparar a chave completa, a menos que {@link #isPrefixoCompleto()}.
+	 * </p>
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio do registro no array.
+	 * @return Um <b>long</b> com o prefixo da chave.
+	 */
+	public long prefixo(byte[] registro, int offset) {
+		long prefixo = 0;
+		int bytes = 0;
+		for(int c = 0; c < deslocamentos.length && bytes < 8; c++) {
+			int pos = offset + deslocamentos[c];
+			for(int i = 0; i < tamanhos[c] && bytes < 8; i++, bytes++) {
+				prefixo = (prefixo << 8) | (registro[pos + i] & 0xFF);
+			}
+		}
+		return prefixo << (8 * (8 - bytes));
+	}
+
+	/**
+	 * O hash da chave de um registro.  igual ao {@link HashDeBytes#hash(byte[], int, int) hash} da chave copiada com {@link #copiar(byte[], int, byte[], int)}.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio do registro no array.
+	 * @return Um <b>long</b> com o hash da chave.
+	 */
+	public long hash(byte[] registro, int offset) {
+		long hash = HashDeBytes.INICIO;
+		for(int c = 0; c < deslocamentos.length; c++) {
+			hash = HashDeBytes.adicionar(hash, registro, offset + deslocamentos[c], tamanhos[c]);
+		}
+		return HashDeBytes.finalizar(hash);
+	}
+
+	/**
+	 * Copia a chave de um registro para um array, com os campos em sequncia.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio do registro no array.
+	 * @param destino O array que receber a chave.
+	 * @param offsetDestino A posio em <b>destino</b> onde a chave ser escrita.
+	 */
+	public void copiar(byte[] registro, int offset, byte[] destino, int offsetDestino) {
+		for(int c = 0; c < deslocamentos.length; c++) {
+			System.arraycopy(registro, offset + deslocamentos[c], destino, offsetDestino, tamanhos[c]);
+			offsetDestino += tamanhos[c];
+		}
+	}
+
+	/**
+	 * Verifica se a chave de um registro  igual a uma chave copiada com {@link #copiar(byte[], int, byte[], int)}.
+	 * @param registro O array contendo o registro.
+	 * @param offset A posio do registro no array.
+	 * @param chave O array contendo a chave.
+	 * @param offsetChave A posio da chave no array.
+	 * @return <b>true</b> caso as chaves sejam iguais.
+	 */
+	public boolean iguais(byte[] registro, int offset, byte[] chave, int offsetChave) {
+		for(int c = 0; c < deslocamentos.length; c++) {
+			int pos = offset + deslocamentos[c];
+			for(int i = 0; i < tamanhos[c]; i++) {
+				if(registro[pos + i] != chave[offsetChave++]) return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indica se o prefixo contm a chave inteira, ou seja, se a chave tem no mximo 8 bytes.
+	 * @return <b>true</b> caso prefixos iguais impliquem chaves iguais.
+	 */
+	public boolean isPrefixoCompleto() {
+		return tamanhoDaChave <= 8;
+	}
+
+	/**
+	 * A quantidade de bytes da chave.
+	 * @return Um <b>int</b> com a soma dos tamanhos dos campos da chave.
+	 */
+	public int getTamanhoDaChave() {
+		return tamanhoDaChave;
+	}
+
+	/**
+	 * Os campos que formam a chave.
+	 * @return Um {@link CampoDbf}[ ] com os campos na ordem de prioridade.
+	 */
+	public CampoDbf[] getCampos() {
+		return campos;
+	}
+}
@@ -0,0 +1,452 @@
+package io.github.deynne.dbf.util;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * 	Converses dos campos do dbf diretamente a partir dos bytes do registro para tipos primitivos, sem a criao de {@link String} ou de objetos
+ * 	intermedirios.
+ * </p>
+ * <p>
+ * 	Os campos numricos so texto ASCII alinhado  direita e os campos vazios so preenchidos com espaos (ou, em alguns arquivos, com 0).
+ * 	Os tipos binrios do Visual FoxPro e do dBase 7 ({@link TiposDbf#isBinario()}) so lidos diretamente dos bytes, sem a interpretao de texto.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class DecodificadorDbf {
+
+	// Potncias de 10 representadas exatamente em double
+	private static final double[] POTENCIAS_DE_DEZ = new double[23];
+	static {
+		POTENCIAS_DE_DEZ[0] = 1;
+		for(int i = 1; i < POTENCIAS_DE_DEZ.length; i++) POTENCIAS_DE_DEZ[i] = POTENCIAS_DE_DEZ[i - 1] * 10;
+	}
+	private static final long MAXIMO_EXATO = 1L << 53;
+	
+	/**
+	 * Valor retornado por {@link #lerDataHora(byte[], int, boolean)} para um campo vazio.
+	 */
+	public static final long DATA_HORA_VAZIA = Long.MIN_VALUE;
+	private static final int DIA_JULIANO_1970 = 2440588;
+	private static final long MILISSEGUNDOS_POR_DIA = 86400000L;
+
+	private DecodificadorDbf() { }
+
+	/**
+	 * Indica se o campo est vazio, ou seja, contm apenas espaos ou bytes 0.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @return <b>true</b> caso o campo esteja vazio.
+	 */
+	public static boolean isVazio(byte[] registro, int offset, int tamanho) {
+		for(int i = offset, fim = offset + tamanho; i < fim; i++) {
+			if(!isEspaco(registro[i])) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * A posio do primeiro byte do campo que no  espao.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @return A posio do primeiro byte no vazio ou <b>offset + tamanho</b> caso o campo esteja vazio.
+	 */
+	public static int inicioSemEspacos(byte[] registro, int offset, int tamanho) {
+		int i = offset, fim = offset + tamanho;
+		while(i < fim && isEspaco(registro[i])) i++;
+		return i;
+	}
+
+	/**
+	 * A posio seguinte ao ltimo byte do campo que no  espao.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @return A posio seguinte ao ltimo byte no vazio ou <b>offset</b> caso o campo esteja vazio.
+	 */
+	public static int fimSemEspacos(byte[] registro, int offset, int tamanho) {
+		int fim = offset + tamanho;
+		while(fim > offset && isEspaco(registro[fim - 1])) fim--;
+		return fim;
+	}
+
+	/**
+	 * Converte o campo para {@link String}.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @param charset O {@link Charset} do arquivo.
+	 * @param trim Indica se os espaos do incio e do fim devem ser eliminados.
+	 * @return Uma {@link String} com o valor do campo.
+	 */
+	public static String lerString(byte[] registro, int offset, int tamanho, Charset charset, boolean trim) {
+		if(!trim) return new String(registro, offset, tamanho, charset);
+		int inicio = inicioSemEspacos(registro, offset, tamanho);
+		int fim = fimSemEspacos(registro, inicio, offset + tamanho - inicio);
+		return new String(registro, inicio, fim - inicio, charset);
+	}
+
+	/**
+	 * <p>
+	 * 	Converte um campo numrico (N ou F) para <b>double</b>.
+	 * </p>
+	 * <p>
+	 * 	Valores com at 15 dgitos significativos so convertidos sem perda de preciso e sem a criao de objetos.
+	 * </p>
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @return O valor do campo ou {@link Double#NaN} caso o campo esteja vazio ou no seja um nmero vlido (como os campos preenchidos com '*' em caso de estouro).
+	 */
+	public static double lerDouble(byte[] registro, int offset, int tamanho) {
+		int i = inicioSemEspacos(registro, offset, tamanho);
+		int fim = fimSemEspacos(registro, i, offset + tamanho - i);
+		if(i == fim) return Double.NaN;
+		int inicio = i;
+
+		boolean negativo = false;
+		if(registro[i] == '-') {
+			negativo = true;
+			i++;
+		}
+		else if(registro[i] == '+') {
+			i++;
+		}
+
+		long mantissa = 0;
+		int digitos = 0;
+		int escala = 0;
+		boolean ponto = false;
+		boolean possuiDigito = false;
+		for(; i < fim; i++) {
+			byte c = registro[i];
+			if(c >= '0' && c <= '9') {
+				possuiDigito = true;
+				if(digitos < 18) {
+					mantissa = mantissa * 10 + (c - '0');
+					if(mantissa != 0) digitos++;
+					if(ponto) escala++;
+				}
+				else if(!ponto) {
+					// Dgitos alm da preciso da mantissa antes do ponto apenas aumentam a magnitude
+					escala--;
+				}
+			}
+			else if(c == '.' && !ponto) {
+				ponto = true;
+			}
+			else if(c == 'e' || c == 'E') {
+				return lerDoubleLento(registro, inicio, fim - inicio);
+			}
+			else {
+				return Double.NaN;
+			}
+		}
+		if(!possuiDigito) return Double.NaN;
+
+		double valor;
+		if(escala == 0) {
+			valor = mantissa;
+		}
+		else if(escala > 0 && escala < POTENCIAS_DE_DEZ.length && mantissa < MAXIMO_EXATO) {
+			// Diviso de dois valores exatos, o resultado  arredondado corretamente
+			valor = mantissa / POTENCIAS_DE_DEZ[escala];
+		}
+		else if(escala < 0 && -escala < POTENCIAS_DE_DEZ.length) {
+			valor = mantissa * POTENCIAS_DE_DEZ[-escala];
+		}
+		else {
+			return lerDoubleLento(registro, inicio, fim - inicio);
+		}
+		return negativo ? -valor : valor;
+	}
+
+	/**
+	 * <p>
+	 * 	Converte a parte inteira de um campo numrico para <b>long</b>. Os dgitos aps o ponto decimal so descartados.
+	 * </p>
+	 * <p>
+	 * 	Campos com at 18 bytes sempre cabem em um <b>long</b>. Nos maiores, uma parte inteira com 19 ou mais dgitos pode exceder o intervalo, o que 
+	 * 	informado com uma exceo em vez de um valor truncado. Esses campos podem ser lidos sem perda com {@link java.math.BigDecimal}.
+	 * </p>
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @return O valor do campo ou 0 caso o campo esteja vazio.
+	 * @throws NumberFormatException Caso o campo no seja um nmero vlido ou a parte inteira no caiba em um <b>long</b>.
+	 */
+	public static long lerLong(byte[] registro, int offset, int tamanho) {
+		int i = inicioSemEspacos(registro, offset, tamanho);
+		int fim = fimSemEspacos(registro, i, offset + tamanho - i);
+		if(i == fim) return 0;
+		int inicio = i;
+
+		boolean negativo = false;
+		if(registro[i] == '-') {
+			negativo = true;
+			i++;
+		}
+		else if(registro[i] == '+') {
+			i++;
+		}
+		// Acumulado como negativo, como em Long.parseLong, para que Long.MIN_VALUE tambm seja representvel
+		long limite = negativo ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long valor = 0;
+		boolean possuiDigito = false;
+		for(; i < fim; i++) {
+			byte c = registro[i];
+			if(c >= '0' && c <= '9') {
+				possuiDigito = true;
+				int digito = c - '0';
+				if(valor < limite / 10 || valor * 10 < limite + digito) throw foraDoIntervalo(registro, inicio, fim);
+				valor = valor * 10 - digito;
+			}
+			else if(c == '.') {
+				for(i++; i < fim; i++) {
+					if(registro[i] < '0' || registro[i] > '9') throw numeroInvalido(registro, inicio, fim);
+				}
+				break;
+			}
+			else {
+				throw numeroInvalido(registro, inicio, fim);
+			}
+		}
+		if(!possuiDigito) throw numeroInvalido(registro, inicio, fim);
+		return negativo ? valor : -valor;
+	}
+
+	/**
+	 * <p>
+	 * 	Converte um campo numrico (N) para um <b>long</b> sem o ponto decimal, com exatamente <b>escala</b> casas decimais: "12.5" com escala 2  1250.
+	 * 	Casas decimais alm da escala so descartadas.
+	 * </p>
+	 * <p>
+	 * 	Permite guardar valores monetrios sem a perda de preciso do <b>double</b> e sem a criao de {@link java.math.BigDecimal}.
+	 * </p>
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @param escala A quantidade de casas decimais do resultado, normalmente {@link io.github.deynne.dbf.model.CampoDbf#getContagemDecimal()}.
+	 * @return O valor do campo ou {@link Long#MIN_VALUE} caso o campo esteja vazio, no seja um nmero vlido ou no caiba em um <b>long</b>.
+	 */
+	public static long lerLongEscalado(byte[] registro, int offset, int tamanho, int escala) {
+		int i = inicioSemEspacos(registro, offset, tamanho);
+		int fim = fimSemEspacos(registro, i, offset + tamanho - i);
+		if(i == fim) return Long.MIN_VALUE;
+
+		boolean negativo = false;
+		if(registro[i] == '-') {
+			negativo = true;
+			i++;
+		}
+		else if(registro[i] == '+') {
+			i++;
+		}
+		long valor = 0;
+		int casas = -1;
+		boolean possuiDigito = false;
+		for(; i < fim; i++) {
+			byte c = registro[i];
+			if(c >= '0' && c <= '9') {
+				possuiDigito = true;
+				if(casas >= escala) continue;
+				if(valor > (Long.MAX_VALUE - 9) / 10) return Long.MIN_VALUE;
+				valor = valor * 10 + (c - '0');
+				if(casas >= 0) casas++;
+			}
+			else if(c == '.' && casas < 0) {
+				casas = 0;
+			}
+			else {
+				return Long.MIN_VALUE;
+			}
+		}
+		if(!possuiDigito) return Long.MIN_VALUE;
+		for(casas = Math.max(casas, 0); casas < escala; casas++) {
+			if(valor > Long.MAX_VALUE / 10) return Long.MIN_VALUE;
+			valor *= 10;
+		}
+		return negativo ? -valor : valor;
+	}
+
+	/**
+	 * Converte um campo lgico (L). Os valores yYtT1 so verdadeiros e os demais, inclusive o indefinido '?', so falsos.
+	 * @param valor O byte do campo.
+	 * @return <b>true</b> caso o valor seja verdadeiro.
+	 */
+	public static boolean lerLogico(byte valor) {
+		return valor == 1 || valor == '1' || valor == 'y' || valor == 'Y' || valor == 't' || valor == 'T';
+	}
+
+	/**
+	 * Converte um campo de data (D), no formato AAAAMMDD, para um <b>int</b> com o mesmo formato, o que permite comparar datas diretamente.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @return O valor da data como AAAAMMDD ou 0 caso o campo esteja vazio ou invlido.
+	 */
+	public static int lerData(byte[] registro, int offset) {
+		int valor = 0;
+		for(int i = offset; i < offset + 8; i++) {
+			int digito = registro[i] - '0';
+			if(digito < 0 || digito > 9) return 0;
+			valor = valor * 10 + digito;
+		}
+		return valor;
+	}
+
+	/**
+	 * <p>
+	 * 	Converte um campo numrico de qualquer tipo para <b>double</b>: os campos de texto (N e F) com {@link #lerDouble(byte[], int, int)} e os
+	 * 	binrios diretamente a partir dos bytes. Os campos de data e hora binrios so convertidos para os milissegundos desde 1970-01-01T00:00.
+	 * </p>
+	 * @param tipo O {@link TiposDbf} do campo.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param tamanho A quantidade de bytes do campo.
+	 * @return O valor do campo ou {@link Double#NaN} caso o campo esteja vazio ou no seja um nmero vlido.
+	 */
+	public static double lerNumero(TiposDbf tipo, byte[] registro, int offset, int tamanho) {
+		if(tipo == null || !tipo.isBinario()) return lerDouble(registro, offset, tamanho);
+		switch(tipo) {
+		case INTEIRO:
+			return tamanho < 4 ? Double.NaN : lerInteiroBinario(registro, offset);
+		case AUTOINCREMENTO:
+			return tamanho < 4 ? Double.NaN : lerInteiroDBase(registro, offset);
+		case DUPLO:
+			return tamanho < 8 ? Double.NaN : lerDoubleBinario(registro, offset);
+		case DUPLO_DBASE:
+			return tamanho < 8 ? Double.NaN : lerDoubleDBase(registro, offset);
+		case MOEDA:
+			return tamanho < 8 ? Double.NaN : lerLongBinario(registro, offset) / 10000.0;
+		default:
+			long dataHora = tamanho < 8 ? DATA_HORA_VAZIA : lerDataHora(registro, offset, tipo == TiposDbf.DATA_HORA_DBASE);
+			return dataHora == DATA_HORA_VAZIA ? Double.NaN : dataHora;
+		}
+	}
+	
+	/**
+	 * L um inteiro de 32 bits em binrio little-endian, como os campos I do Visual FoxPro.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @return O valor do campo.
+	 */
+	public static int lerInteiroBinario(byte[] registro, int offset) {
+		return (registro[offset] & 0xFF) | (registro[offset + 1] & 0xFF) << 8 | (registro[offset + 2] & 0xFF) << 16 | registro[offset + 3] << 24;
+	}
+	
+	/**
+	 * L um inteiro de 64 bits em binrio little-endian, como os campos Y (moeda) do Visual FoxPro, que tm 4 casas decimais implcitas.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @return O valor do campo.
+	 */
+	public static long lerLongBinario(byte[] registro, int offset) {
+		return (lerInteiroBinario(registro, offset) & 0xFFFFFFFFL) | (long) lerInteiroBinario(registro, offset + 4) << 32;
+	}
+	
+	/**
+	 * L um double de 64 bits em binrio little-endian, como os campos B do Visual FoxPro.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @return O valor do campo.
+	 */
+	public static double lerDoubleBinario(byte[] registro, int offset) {
+		return Double.longBitsToDouble(lerLongBinario(registro, offset));
+	}
+	
+	/**
+	 * L um inteiro de 32 bits do dBase 7 (campos +), em binrio big-endian com o bit de sinal invertido. Os campos I do dBase 7 usam a mesma codificao,
+	 * mas no so suportados: o tipo I  sempre lido como o inteiro little-endian do Visual FoxPro, por {@link #lerInteiroBinario(byte[], int)}.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @return O valor do campo.
+	 */
+	public static int lerInteiroDBase(byte[] registro, int offset) {
+		return lerInteiroBigEndian(registro, offset) ^ Integer.MIN_VALUE;
+	}
+	
+	/**
+	 * L um double de 64 bits do dBase 7 (campos O), em binrio big-endian. Os valores positivos tm o bit de sinal invertido e os negativos todos os bits
+	 * invertidos, o que faz a ordem dos bytes seguir a ordem numrica.
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @return O valor do campo.
+	 */
+	public static double lerDoubleDBase(byte[] registro, int offset) {
+		long bits = (long) lerInteiroBigEndian(registro, offset) << 32 | (lerInteiroBigEndian(registro, offset + 4) & 0xFFFFFFFFL);
+		return Double.longBitsToDouble(bits < 0 ? bits ^ Long.MIN_VALUE : ~bits);
+	}
+	
+	/**
+	 * L um campo de data e hora binrio, formado pelo dia juliano e pelos milissegundos desde a meia-noite, como os campos T do Visual FoxPro
+	 * (little-endian) e @ do dBase 7 (big-endian).
+	 * @param registro O array contendo o campo.
+	 * @param offset A posio do primeiro byte do campo.
+	 * @param bigEndian Indica se os inteiros esto em big-endian.
+	 * @return Os milissegundos desde 1970-01-01T00:00, sem fuso horrio, ou {@link #DATA_HORA_VAZIA} caso o campo esteja vazio.
+	 */
+	public static long lerDataHora(byte[] registro, int offset, boolean bigEndian) {
+		if(isVazio(registro, offset, 8)) return DATA_HORA_VAZIA;
+		int dia = bigEndian ? lerInteiroBigEndian(registro, offset) : lerInteiroBinario(registro, offset);
+		int milissegundos = bigEndian ? lerInteiroBigEndian(registro, offset + 4) : lerInteiroBinario(registro, offset + 4);
+		if(dia == 0) return DATA_HORA_VAZIA;
+		return (dia - DIA_JULIANO_1970) * MILISSEGUNDOS_POR_DIA + milissegundos;
+	}
+	
+	/**
+	 * Converte os milissegundos retornados por {@link #lerDataHora(byte[], int, boolean)} para a data no formato AAAAMMDD.
+	 * @param dataHora Os milissegundos desde 1970-01-01T00:00.
+	 * @return Um <b>int</b> com a data como AAAAMMDD.
+	 */
+	public static int getData(long dataHora) {
+		// Converso do dia juliano para a data do calendrio gregoriano (Fliegel e Van Flandern)
+		long l = Math.floorDiv(dataHora, MILISSEGUNDOS_POR_DIA) + DIA_JULIANO_1970 + 68569;
+		long n = 4 * l / 146097;
+		l = l - (146097 * n + 3) / 4;
+		long i = 4000 * (l + 1) / 1461001;
+		l = l - 1461 * i / 4 + 31;
+		long j = 80 * l / 2447;
+		long dia = l - 2447 * j / 80;
+		l = j / 11;
+		long mes = j + 2 - 12 * l;
+		long ano = 100 * (n - 49) + i + l;
+		return (int) (ano * 10000 + mes * 100 + dia);
+	}
+	
+	/**
+	 * Os milissegundos desde a meia-noite de um valor retornado por {@link #lerDataHora(byte[], int, boolean)}.
+	 * @param dataHora Os milissegundos desde 1970-01-01T00:00.
+	 * @return Um <b>int</b> entre 0 e 86399999.
+	 */
+	public static int getMilissegundosDoDia(long dataHora) {
+		return (int) Math.floorMod(dataHora, MILISSEGUNDOS_POR_DIA);
+	}
+	
+	private static int lerInteiroBigEndian(byte[] registro, int offset) {
+		return registro[offset] << 24 | (registro[offset + 1] & 0xFF) << 16 | (registro[offset + 2] & 0xFF) << 8 | (registro[offset + 3] & 0xFF);
+	}
+
+	private static boolean isEspaco(byte b) {
+		return b == ' ' || b == 0;
+	}
+
+	private static double lerDoubleLento(byte[] registro, int offset, int tamanho) {
+		try {
+			return Double.parseDouble(new String(registro, offset, tamanho, StandardCharsets.ISO_8859_1));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	private static NumberFormatException foraDoIntervalo(byte[] registro, int inicio, int fim) {
+		return new NumberFormatException("O valor \"" + new String(registro, inicio, fim - inicio, StandardCharsets.ISO_8859_1) + "\" excede o intervalo de um long.");
+	}
+
+	private static NumberFormatException numeroInvalido(byte[] registro, int inicio, int fim) {
+		return new NumberFormatException("O valor \"" + new String(registro, inicio, fim - inicio, StandardCharsets.ISO_8859_1) + "\" no  um nmero vlido.");
+	}
+}
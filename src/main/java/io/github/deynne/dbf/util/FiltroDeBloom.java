@@ -0,0 +1,128 @@
+package io.github.deynne.dbf.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * <p>
+ * 	Um filtro de Bloom: um conjunto aproximado que responde se um valor certamente no foi adicionado ou se talvez tenha sido.
+ * </p>
+ * <p>
+ * 	Os valores so informados pelo seu hash de 64 bits, como o de {@link HashDeBytes}, e as posies dos bits so derivadas dele por hash duplo, sem o
+ * 	clculo de novos hashes. O tamanho e a quantidade de funes so calculados a partir da quantidade esperada de elementos e da taxa de falsos positivos.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class FiltroDeBloom {
+
+	private final long[] bits;
+	private final long numeroDeBits;
+	private final int funcoes;
+	private long elementos;
+
+	/**
+	 * Cria o filtro dimensionado para a quantidade esperada de elementos.
+	 * @param elementosEsperados A quantidade de elementos que sero adicionados.
+	 * @param taxaDeFalsosPositivos A probabilidade desejada de {@link #podeConter(long)} retornar <b>true</b> para um valor no adicionado, entre 0 e 1.
+	 */
+	public FiltroDeBloom(long elementosEsperados, double taxaDeFalsosPositivos) {
+		if(!(taxaDeFalsosPositivos > 0 && taxaDeFalsosPositivos < 1)) throw new IllegalArgumentException("A taxa de falsos positivos deve estar entre 0 e 1.");
+		long n = Math.max(1, elementosEsperados);
+		double ln2 = Math.log(2);
+		long m = (long) Math.ceil(-n * Math.log(taxaDeFalsosPositivos) / (ln2 * ln2));
+		// Mltiplo de 64 para ocupar palavras inteiras
+		long palavras = Math.max(1, (m + 63) / 64);
+		if(palavras > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("O filtro para " + elementosEsperados + " elementos excede o tamanho mximo.");
+		this.bits = new long[(int) palavras];
+		this.numeroDeBits = palavras * 64;
+		this.funcoes = (int) Math.max(1, Math.min(30, Math.round((double) numeroDeBits / n * ln2)));
+	}
+
+	private FiltroDeBloom(long[] bits, int funcoes, long elementos) {
+		this.bits = bits;
+		this.numeroDeBits = (long) bits.length * 64;
+		this.funcoes = funcoes;
+		this.elementos = elementos;
+	}
+
+	/**
+	 * Adiciona um valor.
+	 * @param hash O hash de 64 bits do valor.
+	 */
+	public void adicionar(long hash) {
+		long h1 = hash;
+		long h2 = Long.rotateLeft(hash, 32) | 1;
+		for(int i = 0; i < funcoes; i++, h1 += h2) {
+			long posicao = Long.remainderUnsigned(h1, numeroDeBits);
+			bits[(int) (posicao >>> 6)] |= 1L << posicao;
+		}
+		elementos++;
+	}
+
+	/**
+	 * Verifica se um valor pode ter sido adicionado.
+	 * @param hash O hash de 64 bits do valor.
+	 * @return <b>false</b> caso o valor certamente no tenha sido adicionado e <b>true</b> caso ele talvez tenha sido.
+	 */
+	public boolean podeConter(long hash) {
+		long h1 = hash;
+		long h2 = Long.rotateLeft(hash, 32) | 1;
+		for(int i = 0; i < funcoes; i++, h1 += h2) {
+			long posicao = Long.remainderUnsigned(h1, numeroDeBits);
+			if((bits[(int) (posicao >>> 6)] & (1L << posicao)) == 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * A taxa de falsos positivos esperada para a quantidade de valores adicionados at o momento.
+	 * @return Um <b>double</b> entre 0 e 1.
+	 */
+	public double getTaxaEstimada() {
+		return Math.pow(1 - Math.exp(-(double) funcoes * elementos / numeroDeBits), funcoes);
+	}
+
+	/**
+	 * Grava o filtro em um stream.
+	 * @param saida O {@link DataOutputStream} de destino.
+	 * @throws IOException Se ocorrer problemas na escrita.
+	 */
+	public void escrever(DataOutputStream saida) throws IOException {
+		saida.writeInt(funcoes);
+		saida.writeLong(elementos);
+		saida.writeInt(bits.length);
+		for(long palavra : bits) saida.writeLong(palavra);
+	}
+
+	/**
+	 * L um filtro gravado com {@link #escrever(DataOutputStream)}.
+	 * @param entrada O {@link DataInputStream} de origem.
+	 * @return O {@link FiltroDeBloom} lido.
+	 * @throws IOException Se ocorrer problemas na leitura.
+	 */
+	public static FiltroDeBloom ler(DataInputStream entrada) throws IOException {
+		int funcoes = entrada.readInt();
+		long elementos = entrada.readLong();
+		long[] bits = new long[entrada.readInt()];
+		for(int i = 0; i < bits.length; i++) bits[i] = entrada.readLong();
+		return new FiltroDeBloom(bits, funcoes, elementos);
+	}
+
+	public long getNumeroDeBits() {
+		return numeroDeBits;
+	}
+
+	public int getFuncoes() {
+		return funcoes;
+	}
+
+	/**
+	 * A quantidade de valores adicionados, contando as repeties.
+	 * @return Um <b>long</b> com a quantidade de chamadas a {@link #adicionar(long)}.
+	 */
+	public long getElementos() {
+		return elementos;
+	}
+}
@@ -0,0 +1,63 @@
+package io.github.deynne.dbf.util;
+
+/**
+ * <p>
+ * 	Hash de 64 bits para sequncias de bytes, utilizado nas tabelas hash e filtros que trabalham com os registros no formato bruto.
+ * </p>
+ * <p>
+ * 	Os bytes so combinados com FNV-1a e o resultado passa pela finalizao do MurmurHash3, o que distribui bem os bits mesmo para chaves
+ * 	que diferem apenas nos ltimos bytes. O hash pode ser calculado de forma incremental, para chaves formadas por mais de um campo.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public final class HashDeBytes {
+
+	/**
+	 * Valor inicial do hash incremental.
+	 */
+	public static final long INICIO = 0xcbf29ce484222325L;
+	private static final long PRIMO = 0x100000001b3L;
+
+	private HashDeBytes() { }
+
+	/**
+	 * Calcula o hash de um trecho de um array.
+	 * @param bytes O array.
+	 * @param offset A posio do primeiro byte.
+	 * @param tamanho A quantidade de bytes.
+	 * @return Um <b>long</b> com o hash dos bytes.
+	 */
+	public static long hash(byte[] bytes, int offset, int tamanho) {
+		return finalizar(adicionar(INICIO, bytes, offset, tamanho));
+	}
+
+	/**
+	 * Combina um trecho de um array ao hash incremental.
+	 * @param hash O hash parcial, iniciado com {@link #INICIO}.
+	 * @param bytes O array.
+	 * @param offset A posio do primeiro byte.
+	 * @param tamanho A quantidade de bytes.
+	 * @return O hash parcial atualizado.
+	 */
+	public static long adicionar(long hash, byte[] bytes, int offset, int tamanho) {
+		for(int i = offset, fim = offset + tamanho; i < fim; i++) {
+			hash = (hash ^ (bytes[i] & 0xFF)) * PRIMO;
+		}
+		return hash;
+	}
+
+	/**
+	 * Finaliza o hash incremental.
+	 * @param hash O hash parcial.
+	 * @return O hash final.
+	 */
+	public static long finalizar(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
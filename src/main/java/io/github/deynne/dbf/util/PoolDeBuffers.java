@@ -0,0 +1,173 @@
+package io.github.deynne.dbf.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * 	Um pool limitado de {@link ByteBuffer} diretos (fora da heap) utilizado para a leitura dos registros do dbf.
+ * </p>
+ * <p>
+ * 	Os buffers so agrupados por capacidade (potncias de dois) e reaproveitados entre as instncias de leitores. A soma das capacidades de todos os
+ * 	buffers criados pelo pool nunca ultrapassa a capacidade mxima definida. Quando no h espao disponvel, {@link #obter(int)} aguarda at que algum
+ * 	buffer seja devolvido, por no mximo {@link #getTempoMaximoDeEspera()} milissegundos. Esgotado o tempo,  entregue um buffer na heap, fora do pool,
+ * 	para que leitores que nunca foram fechados e no devolveram seus buffers no bloqueiem os demais indefinidamente.
+ * </p>
+ * @author Deynne Silva
+ * @version 1.0
+ */
+public class PoolDeBuffers {
+
+	/**
+	 * Capacidade mxima, em bytes, do pool padro (64 MB).
+	 */
+	public static final long CAPACIDADE_PADRAO = 64L * 1024 * 1024;
+
+	/**
+	 * Tempo mximo padro, em milissegundos, que {@link #obter(int)} aguarda a devoluo de um buffer (1 segundo).
+	 */
+	public static final long TEMPO_MAXIMO_DE_ESPERA_PADRAO = 1000;
+
+	private static final int CAPACIDADE_MINIMA_DO_BUFFER = 512;
+
+	private static final PoolDeBuffers padrao = new PoolDeBuffers(CAPACIDADE_PADRAO);
+
+	private final long capacidadeMaxima;
+	private long bytesAlocados;
+	private long tempoMaximoDeEspera = TEMPO_MAXIMO_DE_ESPERA_PADRAO;
+	private long buffersForaDoPool;
+	// Buffers livres agrupados pela capacidade
+	private final TreeMap<Integer, ArrayDeque<ByteBuffer>> livres = new TreeMap<>();
+
+	/**
+	 * Cria um pool com a capacidade informada.
+	 * @param capacidadeMaxima A quantidade mxima de bytes fora da heap que o pool pode manter alocada.
+	 */
+	public PoolDeBuffers(long capacidadeMaxima) {
+		if(capacidadeMaxima < CAPACIDADE_MINIMA_DO_BUFFER) throw new IllegalArgumentException("A capacidade mxima do pool deve ser de pelo menos " + CAPACIDADE_MINIMA_DO_BUFFER + " bytes.");
+		this.capacidadeMaxima = capacidadeMaxima;
+	}
+
+	/**
+	 * O pool compartilhado por todas as instncias de leitores que no informam um pool prprio.
+	 * @return O {@link PoolDeBuffers} padro, com capacidade de {@link #CAPACIDADE_PADRAO} bytes.
+	 */
+	public static PoolDeBuffers getPadrao() {
+		return padrao;
+	}
+
+	/**
+	 * <p>
+	 * 	Obtm um buffer direto com pelo menos <b>tamanho</b> bytes. O buffer  entregue com posio 0, limite igual ao tamanho solicitado e
+	 * 	ordem de bytes {@link ByteOrder#LITTLE_ENDIAN}, que  a utilizada pelo dbf.
+	 * </p>
+	 * <p>
+	 * 	Caso o pool tenha atingido sua capacidade mxima, aguarda a devoluo de algum buffer por at {@link #getTempoMaximoDeEspera()} milissegundos.
+	 * 	Esgotado o tempo, entrega um buffer na heap que no pertence ao pool e  contado em {@link #getBuffersForaDoPool()}.
+	 * </p>
+	 * @param tamanho A quantidade de bytes necessria.
+	 * @return Um {@link ByteBuffer} que deve ser devolvido com {@link #devolver(ByteBuffer)} aps o uso.
+	 * @throws InterruptedException Caso a thread seja interrompida enquanto aguarda espao no pool.
+	 */
+	public synchronized ByteBuffer obter(int tamanho) throws InterruptedException {
+		int capacidade = arredondar(tamanho);
+		if(capacidade > capacidadeMaxima) throw new IllegalArgumentException("Foi solicitado um buffer de " + tamanho + " bytes, mas o pool suporta no mximo " + capacidadeMaxima + " bytes.");
+
+		long limite = System.nanoTime() + tempoMaximoDeEspera * 1_000_000L;
+		while(true) {
+			ArrayDeque<ByteBuffer> fila = livres.get(capacidade);
+			if(fila != null && !fila.isEmpty()) {
+				return preparar(fila.pop(), tamanho);
+			}
+			if(bytesAlocados + capacidade <= capacidadeMaxima) {
+				bytesAlocados += capacidade;
+				return preparar(ByteBuffer.allocateDirect(capacidade), tamanho);
+			}
+			// Sem espao: descarta um buffer livre de outra capacidade para abrir espao. A memria dele  liberada pelo coletor de lixo.
+			if(!descartarLivre()) {
+				long restante = (limite - System.nanoTime()) / 1_000_000L;
+				if(restante <= 0) {
+					// Os buffers do pool esto presos em leitores que no foram fechados
+					buffersForaDoPool++;
+					return preparar(ByteBuffer.allocate(capacidade), tamanho);
+				}
+				wait(restante);
+			}
+		}
+	}
+
+	/**
+	 * Devolve ao pool um buffer obtido com {@link #obter(int)}. O buffer no deve ser utilizado aps a devoluo.
+	 * @param buffer O {@link ByteBuffer} a ser devolvido. Buffers nulos ou no diretos so ignorados.
+	 */
+	public synchronized void devolver(ByteBuffer buffer) {
+		if(buffer == null || !buffer.isDirect()) return;
+		livres.computeIfAbsent(buffer.capacity(), c -> new ArrayDeque<>()).push(buffer);
+		notifyAll();
+	}
+
+	/**
+	 * A capacidade mxima do pool.
+	 * @return Um <b>long</b> com a quantidade mxima de bytes que o pool pode manter alocada.
+	 */
+	public long getCapacidadeMaxima() {
+		return capacidadeMaxima;
+	}
+
+	/**
+	 * A quantidade de bytes atualmente alocada pelo pool, incluindo os buffers livres.
+	 * @return Um <b>long</b> com a quantidade de bytes alocada.
+	 */
+	public synchronized long getBytesAlocados() {
+		return bytesAlocados;
+	}
+
+	public synchronized long getTempoMaximoDeEspera() {
+		return tempoMaximoDeEspera;
+	}
+
+	/**
+	 * Define o tempo mximo que {@link #obter(int)} aguarda a devoluo de um buffer antes de entregar um buffer na heap.
+	 * @param tempoMaximoDeEspera O tempo em milissegundos. 0 entrega o buffer na heap sem aguardar. Padro  {@link #TEMPO_MAXIMO_DE_ESPERA_PADRAO}.
+	 */
+	public synchronized void setTempoMaximoDeEspera(long tempoMaximoDeEspera) {
+		if(tempoMaximoDeEspera < 0) throw new IllegalArgumentException("O tempo mximo de espera no pode ser negativo.");
+		this.tempoMaximoDeEspera = tempoMaximoDeEspera;
+	}
+
+	/**
+	 * A quantidade de buffers entregues na heap, fora do pool, porque o tempo mximo de espera se esgotou. Um valor crescente indica leitores que no
+	 * esto sendo fechados.
+	 * @return Um <b>long</b> com a quantidade de buffers.
+	 */
+	public synchronized long getBuffersForaDoPool() {
+		return buffersForaDoPool;
+	}
+
+	private boolean descartarLivre() {
+		for(Map.Entry<Integer, ArrayDeque<ByteBuffer>> e : livres.entrySet()) {
+			if(!e.getValue().isEmpty()) {
+				e.getValue().pop();
+				bytesAlocados -= e.getKey();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ByteBuffer preparar(ByteBuffer buffer, int tamanho) {
+		buffer.clear();
+		buffer.limit(tamanho);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+
+	private static int arredondar(int tamanho) {
+		if(tamanho <= CAPACIDADE_MINIMA_DO_BUFFER) return CAPACIDADE_MINIMA_DO_BUFFER;
+		int capacidade = Integer.highestOneBit(tamanho);
+		return capacidade == tamanho ? capacidade : capacidade << 1;
+	}
+}
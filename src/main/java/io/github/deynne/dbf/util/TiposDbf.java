@@ -30,12 +30,54 @@ public enum TiposDbf {
 	/**
 	 * 
 	 */
-	NUMERICO('N');
+	NUMERICO('N'),
+	/**
+	 * Inteiro de 32 bits em binrio little-endian (Visual FoxPro). Os campos I do dBase 7, em big-endian com o bit de sinal invertido, no so suportados
+	 * e so lidos nesse mesmo formato.
+	 */
+	INTEIRO('I', true),
+	/**
+	 * Double de 64 bits em binrio little-endian (Visual FoxPro). Campos 'B' com tamanho diferente de 8 so referncias a memo do dBase 5 e so
+	 * tratados como {@link #MEMO}.
+	 */
+	DUPLO('B', true),
+	/**
+	 * Double de 64 bits do dBase 7, em binrio big-endian com o bit de sinal invertido para que a ordem dos bytes siga a ordem numrica.
+	 */
+	DUPLO_DBASE('O', true),
+	/**
+	 * Moeda (Visual FoxPro): inteiro de 64 bits em binrio little-endian com 4 casas decimais implcitas.
+	 */
+	MOEDA('Y', true),
+	/**
+	 * Data e hora (Visual FoxPro): dia juliano e milissegundos desde a meia-noite, inteiros de 32 bits em binrio little-endian.
+	 */
+	DATA_HORA('T', true),
+	/**
+	 * Data e hora do dBase 7: dia juliano e milissegundos desde a meia-noite, inteiros de 32 bits em binrio big-endian.
+	 */
+	DATA_HORA_DBASE('@', true),
+	/**
+	 * Autoincremento do dBase 7: inteiro de 32 bits em binrio big-endian com o bit de sinal invertido.
+	 */
+	AUTOINCREMENTO('+', true);
+	
+	// Tabela indexada pela letra, para a busca em tempo constante
+	private static final TiposDbf[] POR_LETRA = new TiposDbf[256];
+	static {
+		for(TiposDbf t : values()) POR_LETRA[t.letra & 0xFF] = t;
+	}
 	
 	private byte letra;
+	private boolean binario;
 	
 	private TiposDbf(char letra) {
+		this(letra, false);
+	}
+	
+	private TiposDbf(char letra, boolean binario) {
 		this.letra = (byte)letra;
+		this.binario = binario;
 	}
 	
 	/**
@@ -44,12 +86,7 @@ public enum TiposDbf {
 	 * @return o {@link TiposDbf} associado a letra informada
 	 */
 	public static TiposDbf encontrarPorValor(byte letra) {
-		for(TiposDbf t : TiposDbf.values()) {
-			if(t.letra == letra) {
-				return t;
-			}
-		}
-		return null;
+		return POR_LETRA[letra & 0xFF];
 	}
 	/**
 	 * 
@@ -59,5 +96,13 @@ public enum TiposDbf {
 		return (char)letra;
 	}
 	
+	/**
+	 * Indica se o valor  gravado em binrio em vez de texto. Campos binrios no so preenchidos com espaos: todos os bytes fazem parte do valor.
+	 * @return <b>true</b> para os tipos binrios do Visual FoxPro e do dBase 7.
+	 */
+	public boolean isBinario() {
+		return binario;
+	}
+	
 	
 }